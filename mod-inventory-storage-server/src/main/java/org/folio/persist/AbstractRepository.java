@@ -110,6 +110,10 @@ public abstract class AbstractRepository<T> {
     return postgresClient.delete(tableName, id);
   }
 
+  public String getTableName() {
+    return tableName;
+  }
+
   public String getFullTableName(String tableName) {
     return convertToPsqlStandard(postgresClient.getTenantId()) + "." + tableName;
   }
@@ -1,14 +1,70 @@
 package org.folio.persist;
 
+import static org.folio.dbschema.ObjectMapperTool.readValue;
 import static org.folio.rest.impl.BoundWithPartApi.BOUND_WITH_TABLE;
 import static org.folio.rest.persist.PgUtil.postgresClient;
 
 import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Tuple;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import org.apache.commons.lang3.tuple.Pair;
 import org.folio.rest.jaxrs.model.BoundWithPart;
+import org.folio.rest.persist.PostgresClient;
 
 public class BoundWithRepository extends AbstractRepository<BoundWithPart> {
+  private static final String RECONCILE_SQL = """
+    WITH desired AS (
+      SELECT d.holdings_id::uuid AS holdings_id, d.data::jsonb AS data
+      FROM unnest($2::text[], $3::text[]) AS d(holdings_id, data)
+    ), removed AS (
+      DELETE FROM %1$s
+      WHERE itemid = $1::uuid AND holdingsrecordid NOT IN (SELECT holdings_id FROM desired)
+      RETURNING jsonb
+    ), created AS (
+      INSERT INTO %1$s (id, jsonb)
+      SELECT (data->>'id')::uuid, data FROM desired
+      WHERE NOT EXISTS (SELECT 1 FROM %1$s part
+        WHERE part.itemid = $1::uuid AND part.holdingsrecordid = desired.holdings_id)
+      ON CONFLICT DO NOTHING
+      RETURNING jsonb
+    )
+    SELECT true AS created, jsonb::text FROM created
+    UNION ALL
+    SELECT false AS created, jsonb::text FROM removed
+    """;
+
   public BoundWithRepository(Context context, Map<String, String> okapiHeaders) {
     super(postgresClient(context, okapiHeaders), BOUND_WITH_TABLE, BoundWithPart.class);
   }
+
+  /**
+   * Makes the parts of the item equal to {@code parts} in one statement: the parts of other holdings records are
+   * deleted, the missing ones are inserted and the parts already linked are kept as they are.
+   *
+   * @return pair of the created and the removed parts
+   */
+  public Future<Pair<List<BoundWithPart>, List<BoundWithPart>>> reconcile(String itemId, List<BoundWithPart> parts) {
+    var holdingsIds = new String[parts.size()];
+    var data = new String[parts.size()];
+    try {
+      for (int i = 0; i < parts.size(); i++) {
+        holdingsIds[i] = parts.get(i).getHoldingsRecordId();
+        data[i] = PostgresClient.pojo2JsonObject(parts.get(i)).encode();
+      }
+    } catch (Exception e) {
+      return Future.failedFuture(e);
+    }
+
+    return postgresClient.execute(RECONCILE_SQL.formatted(getFullTableName()), Tuple.of(itemId, holdingsIds, data))
+      .map(rows -> {
+        List<BoundWithPart> created = new ArrayList<>();
+        List<BoundWithPart> removed = new ArrayList<>();
+        rows.forEach(row -> (row.getBoolean(0) ? created : removed)
+          .add(readValue(row.getString(1), BoundWithPart.class)));
+        return Pair.of(created, removed);
+      });
+  }
 }
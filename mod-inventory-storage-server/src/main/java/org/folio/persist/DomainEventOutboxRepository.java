@@ -0,0 +1,89 @@
+package org.folio.persist;
+
+import static org.folio.rest.persist.PostgresClient.convertToPsqlStandard;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.folio.rest.persist.Conn;
+import org.folio.rest.persist.PostgresClient;
+
+/**
+ * Stores domain events in the {@code domain_event_outbox} table within the transaction that changes the records,
+ * so that they can be relayed to Kafka after the transaction is committed.
+ */
+public class DomainEventOutboxRepository {
+  public static final String OUTBOX_TABLE = "domain_event_outbox";
+
+  private static final String SAVE_EVENTS_SQL = """
+    INSERT INTO %1$s (topic, event_key, payload, okapi_headers)
+    SELECT $1, t.id::text,
+      jsonb_build_object(
+        'eventId', gen_random_uuid(),
+        'eventTs', floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint,
+        'type', CASE WHEN o.old IS NULL THEN 'CREATE' ELSE 'UPDATE' END,
+        'tenant', $2::text,
+        'new', t.jsonb)
+      || CASE WHEN o.old IS NULL THEN '{}'::jsonb ELSE jsonb_build_object('old', o.old::jsonb) END,
+      $3::jsonb
+    FROM unnest($4::text[], $5::text[]) WITH ORDINALITY AS o(id, old, ord)
+    JOIN %2$s t ON t.id = o.id::uuid
+    ORDER BY o.ord
+    """;
+  private static final String FETCH_EVENTS_SQL = """
+    SELECT id, topic, event_key, payload::text AS payload, okapi_headers
+    FROM %s
+    ORDER BY id
+    LIMIT $1
+    FOR UPDATE SKIP LOCKED
+    """;
+  private static final String DELETE_EVENTS_SQL = "DELETE FROM %s WHERE id = ANY($1)";
+
+  private final PostgresClient postgresClient;
+
+  public DomainEventOutboxRepository(PostgresClient postgresClient) {
+    this.postgresClient = postgresClient;
+  }
+
+  /**
+   * Saves create or update events of the records of {@code sourceTable}. The new state of a record is read from
+   * the table in the same statement, so it includes the changes made by triggers, for example, the new version.
+   *
+   * @param oldRecords ids of the records mapped to their state before the change, {@code null} for created records
+   */
+  public Future<RowSet<Row>> saveCreatedOrUpdated(Conn conn, String sourceTable, String topic,
+                                                  Map<String, String> okapiHeaders,
+                                                  Map<String, JsonObject> oldRecords) {
+    var ids = new ArrayList<String>(oldRecords.size());
+    var olds = new ArrayList<String>(oldRecords.size());
+    oldRecords.forEach((id, old) -> {
+      ids.add(id);
+      olds.add(old == null ? null : old.encode());
+    });
+
+    var sql = SAVE_EVENTS_SQL.formatted(getFullTableName(OUTBOX_TABLE), getFullTableName(sourceTable));
+    return conn.execute(sql, Tuple.of(topic, postgresClient.getTenantId(), JsonObject.mapFrom(okapiHeaders),
+      ids.toArray(String[]::new), olds.toArray(String[]::new)));
+  }
+
+  /**
+   * Fetches and locks the oldest events, events locked by another transaction are skipped.
+   */
+  public Future<RowSet<Row>> fetchForUpdate(Conn conn, int limit) {
+    return conn.execute(FETCH_EVENTS_SQL.formatted(getFullTableName(OUTBOX_TABLE)), Tuple.of(limit));
+  }
+
+  public Future<RowSet<Row>> delete(Conn conn, List<Long> ids) {
+    return conn.execute(DELETE_EVENTS_SQL.formatted(getFullTableName(OUTBOX_TABLE)),
+      Tuple.of(ids.toArray(Long[]::new)));
+  }
+
+  private String getFullTableName(String tableName) {
+    return convertToPsqlStandard(postgresClient.getTenantId()) + "." + tableName;
+  }
+}
@@ -0,0 +1,45 @@
+package org.folio.persist;
+
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Tuple;
+import org.folio.rest.persist.PostgresClient;
+
+/**
+ * Maintains the {@code instance_change_log} table written by the instance triggers, the updated instance ids
+ * functions read the log for the periods it covers and scan the instances for older ones.
+ */
+public class InstanceChangeLogRepository {
+  public static final String CHANGE_LOG_TABLE = "instance_change_log";
+  public static final String CHANGE_LOG_STATE_TABLE = "instance_change_log_state";
+
+  private static final String PURGE_SQL = """
+    WITH cutoff AS (
+      SELECT now() - make_interval(days => $1::int) AS ts
+    ), state AS (
+      UPDATE %2$s SET covered_since = greatest(covered_since, (SELECT ts FROM cutoff))
+    ), purged AS (
+      DELETE FROM %1$s WHERE changed_at < (SELECT ts FROM cutoff)
+      RETURNING 1
+    )
+    SELECT count(*) FROM purged
+    """;
+
+  private final PostgresClient postgresClient;
+
+  public InstanceChangeLogRepository(PostgresClient postgresClient) {
+    this.postgresClient = postgresClient;
+  }
+
+  /**
+   * Deletes the entries older than {@code retentionDays} and moves the start of the covered period
+   * to the same point in one statement, so that a reader never sees a period with missing entries as covered.
+   *
+   * @return number of deleted entries
+   */
+  public Future<Long> purgeOlderThan(int retentionDays) {
+    var schema = postgresClient.getSchemaName();
+    var sql = PURGE_SQL.formatted(schema + "." + CHANGE_LOG_TABLE, schema + "." + CHANGE_LOG_STATE_TABLE);
+    return postgresClient.execute(sql, Tuple.of(retentionDays))
+      .map(rows -> rows.iterator().next().getLong(0));
+  }
+}
@@ -7,142 +7,160 @@ import static org.folio.rest.jaxrs.resource.InstanceStorage.PostInstanceStorageI
 import static org.folio.rest.jaxrs.resource.InstanceStorage.PostInstanceStorageInstancesResponse.respond201WithApplicationJson;
 import static org.folio.rest.persist.PgUtil.postgresClient;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
-import io.vertx.core.json.JsonArray;
-import io.vertx.core.json.JsonObject;
-import io.vertx.pgclient.PgException;
 import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowSet;
 import io.vertx.sqlclient.RowStream;
+import io.vertx.sqlclient.Tuple;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.stream.Collectors;
+import java.util.UUID;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
-import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.StringUtils;
 import org.folio.cql2pgjson.CQL2PgJSON;
 import org.folio.cql2pgjson.exception.FieldException;
-import org.folio.dbschema.ObjectMapperTool;
+import org.folio.cql2pgjson.exception.QueryValidationException;
 import org.folio.rest.exceptions.BadRequestException;
 import org.folio.rest.jaxrs.model.Instance;
-import org.folio.rest.jaxrs.model.ResultInfo;
 import org.folio.rest.persist.Conn;
 import org.folio.rest.persist.cql.CQLQueryValidationException;
 import org.folio.rest.persist.cql.CQLWrapper;
+import org.folio.services.caches.InstanceTreeCache.InstanceTree;
 import org.folio.utils.DatabaseUtils;
 
 public class InstanceRepository extends AbstractRepository<Instance> {
   public static final String INSTANCE_TABLE = "instance";
+  private static final String CURSOR_PAGE_SQL = "SELECT id, jsonb::text FROM %s WHERE (%s)%s ORDER BY id LIMIT $1";
   private static final String INSTANCE_SET_VIEW = "instance_set";
+  private static final String INSTANCE_TREES_SQL = """
+    SELECT id, instance.jsonb::text, instance_set.holdings_records::text, instance_set.items::text,
+      ARRAY(SELECT jsonb_array_elements(instance_set.holdings_records)->>'id')
+    FROM %s AS instance_set JOIN %s AS instance USING (id)
+    WHERE id = ANY($1)
+    """;
   private static final String INSTANCE_HOLDINGS_ITEM_VIEW = "instance_holdings_item_view";
   private static final String INVENTORY_VIEW_JSONB_FIELD = "inventory_view.jsonb";
   private static final String INSTANCE_SUBJECT_SOURCE_TABLE = "instance_subject_source";
   private static final String INSTANCE_SUBJECT_TYPE_TABLE = "instance_subject_type";
+  private static final String SYNC_SUBJECT_LINKS_SQL = """
+    WITH instances AS (
+      SELECT instance_id::uuid AS instance_id FROM unnest($1::text[]) AS i(instance_id)
+    ), sources AS (
+      SELECT DISTINCT s.instance_id::uuid AS instance_id, s.source_id::uuid AS source_id
+      FROM unnest($2::text[], $3::text[]) AS s(instance_id, source_id)
+    ), types AS (
+      SELECT DISTINCT t.instance_id::uuid AS instance_id, t.type_id::uuid AS type_id
+      FROM unnest($4::text[], $5::text[]) AS t(instance_id, type_id)
+    ), removed_sources AS (
+      DELETE FROM %1$s link USING instances
+      WHERE link.instance_id = instances.instance_id
+        AND NOT EXISTS (SELECT 1 FROM sources
+          WHERE sources.instance_id = link.instance_id AND sources.source_id = link.source_id)
+    ), removed_types AS (
+      DELETE FROM %2$s link USING instances
+      WHERE link.instance_id = instances.instance_id
+        AND NOT EXISTS (SELECT 1 FROM types
+          WHERE types.instance_id = link.instance_id AND types.type_id = link.type_id)
+    ), added_sources AS (
+      INSERT INTO %1$s (instance_id, source_id)
+      SELECT instance_id, source_id FROM sources
+      WHERE NOT EXISTS (SELECT 1 FROM %1$s link
+        WHERE link.instance_id = sources.instance_id AND link.source_id = sources.source_id)
+      ON CONFLICT DO NOTHING
+    )
+    INSERT INTO %2$s (instance_id, type_id)
+    SELECT instance_id, type_id FROM types
+    WHERE NOT EXISTS (SELECT 1 FROM %2$s link
+      WHERE link.instance_id = types.instance_id AND link.type_id = types.type_id)
+    ON CONFLICT DO NOTHING
+    """;
 
   public InstanceRepository(Context context, Map<String, String> okapiHeaders) {
     super(postgresClient(context, okapiHeaders), INSTANCE_TABLE, Instance.class);
   }
 
-  public Future<RowSet<Row>> unlinkInstanceFromSubjectSource(Conn conn, String instanceId) {
-    try {
-      String sql = unlinkInstanceFromSubjectSql(INSTANCE_SUBJECT_SOURCE_TABLE, instanceId);
-      return conn.execute(sql);
-    } catch (PgException e) {
-      return Future.failedFuture(new BadRequestException(e.getMessage()));
-    }
-  }
-
-  public Future<RowSet<Row>> unlinkInstanceFromSubjectType(Conn conn, String instanceId) {
-    try {
-      String sql = unlinkInstanceFromSubjectSql(INSTANCE_SUBJECT_TYPE_TABLE, instanceId);
-      return conn.execute(sql);
-    } catch (PgException e) {
-      return Future.failedFuture(new BadRequestException(e.getMessage()));
-    }
-  }
-
-  public Future<RowSet<Row>> batchLinkSubjectSource(Conn conn, List<Pair<String, String>> sourcePairs) {
-    try {
-      String sql = """
-        INSERT INTO %s (instance_id, source_id)
-        VALUES %s
-        ON CONFLICT DO NOTHING;
-        """
-        .formatted(
-          getFullTableName(INSTANCE_SUBJECT_SOURCE_TABLE),
-          sourcePairs.stream()
-            .map(pair -> String.format("('%s', '%s')", pair.getKey(), pair.getValue()))
-            .collect(Collectors.joining(", "))
-        );
-      return conn.execute(sql);
-    } catch (PgException e) {
-      return Future.failedFuture(new BadRequestException(e.getMessage()));
-    }
-  }
-
   public Future<Response> createInstance(Conn conn, Instance instance) {
     return conn.save(INSTANCE_TABLE, instance.getId(), instance)
       .map(id -> respond201WithApplicationJson(instance.withId(id), headersFor201()));
   }
 
-  public Future<RowSet<Row>> batchLinkSubjectType(Conn conn, List<Pair<String, String>> typePairs) {
-    try {
-      String sql = """
-        INSERT INTO %s (instance_id, type_id)
-        VALUES %s
-        ON CONFLICT DO NOTHING;
-        """
-        .formatted(
-          getFullTableName(INSTANCE_SUBJECT_TYPE_TABLE),
-          typePairs.stream()
-            .map(pair -> String.format("('%s', '%s')", pair.getKey(), pair.getValue()))
-            .collect(Collectors.joining(", "))
-        );
-      return conn.execute(sql);
-    } catch (PgException e) {
-      return Future.failedFuture(new BadRequestException(e.getMessage()));
+  /**
+   * Makes the subject source and subject type links of the instances match their subjects. Both link tables of
+   * all instances are updated with one statement that only deletes the links that are gone and only inserts the
+   * links that are missing.
+   */
+  public Future<Void> syncSubjectLinks(Conn conn, Collection<Instance> instances) {
+    if (instances.isEmpty()) {
+      return Future.succeededFuture();
     }
-  }
 
-  public Future<RowSet<Row>> batchUnlinkSubjectSource(Conn conn, String instanceId, List<String> sourceIds) {
-    try {
-      String sql = """
-        DELETE FROM %s WHERE instance_id = '%s' AND source_id IN ( %s );
-        """.formatted(
-        getFullTableName(INSTANCE_SUBJECT_SOURCE_TABLE),
-        instanceId,
-        sourceIds.stream().map(id -> "'" + id + "'").collect(Collectors.joining(", "))
-      );
-      return conn.execute(sql);
-    } catch (PgException e) {
-      return Future.failedFuture(new BadRequestException(e.getMessage()));
+    var instanceIds = new ArrayList<String>(instances.size());
+    var sourceInstanceIds = new ArrayList<String>();
+    var sourceIds = new ArrayList<String>();
+    var typeInstanceIds = new ArrayList<String>();
+    var typeIds = new ArrayList<String>();
+    for (var instance : instances) {
+      instanceIds.add(instance.getId());
+      if (instance.getSubjects() == null) {
+        continue;
+      }
+      for (var subject : instance.getSubjects()) {
+        if (subject.getSourceId() != null) {
+          sourceInstanceIds.add(instance.getId());
+          sourceIds.add(subject.getSourceId());
+        }
+        if (subject.getTypeId() != null) {
+          typeInstanceIds.add(instance.getId());
+          typeIds.add(subject.getTypeId());
+        }
+      }
     }
-  }
 
-  public Future<RowSet<Row>> batchUnlinkSubjectType(Conn conn, String instanceId, List<String> typeIds) {
-    try {
-      String sql = """
-        DELETE FROM %s WHERE instance_id = '%s' AND type_id IN ( %s );
-        """
-        .formatted(
-          getFullTableName(INSTANCE_SUBJECT_TYPE_TABLE),
-          instanceId,
-          typeIds.stream().map(id -> "'" + id + "'")
-            .collect(Collectors.joining(", "))
-        );
-      return conn.execute(sql);
-    } catch (PgException e) {
-      return Future.failedFuture(new BadRequestException(e.getMessage()));
-    }
+    var sql = SYNC_SUBJECT_LINKS_SQL.formatted(getFullTableName(INSTANCE_SUBJECT_SOURCE_TABLE),
+      getFullTableName(INSTANCE_SUBJECT_TYPE_TABLE));
+    var params = Tuple.of(instanceIds.toArray(String[]::new), sourceInstanceIds.toArray(String[]::new),
+      sourceIds.toArray(String[]::new), typeInstanceIds.toArray(String[]::new), typeIds.toArray(String[]::new));
+    return conn.execute(sql, params).mapEmpty();
   }
 
-  public Future<RowStream<Row>> getAllIds(Conn connection) {
+  /**
+   * Returns up to {@code limit} instance ids greater than {@code lastId} in ascending order,
+   * or the first ids if {@code lastId} is null.
+   */
+  public Future<List<String>> getIdsAfter(String lastId, int limit) {
     var query = "SELECT id FROM " + getFullTableName(INSTANCE_TABLE);
-    return DatabaseUtils.selectStream(connection, query);
+    var result = lastId == null
+                 ? postgresClient.execute(query + " ORDER BY id LIMIT $1", Tuple.of(limit))
+                 : postgresClient.execute(query + " WHERE id > $1 ORDER BY id LIMIT $2",
+                   Tuple.of(UUID.fromString(lastId), limit));
+
+    return result.map(rows -> {
+      var ids = new ArrayList<String>(rows.size());
+      rows.forEach(row -> ids.add(row.getUUID("id").toString()));
+      return ids;
+    });
+  }
+
+  /**
+   * Builds SQL selecting a keyset page of the instances that match the CQL query, in id order.
+   * {@code $1} is the page size, {@code $2} is the id of the last instance of the previous page,
+   * it is not used for the first page. The order is fixed, so a query with sortBy is rejected.
+   */
+  public String getCursorPageSql(String cql, boolean firstPage) throws FieldException, QueryValidationException {
+    var where = "true";
+    if (StringUtils.isNotBlank(cql)) {
+      var sqlSelect = new CQL2PgJSON(INSTANCE_TABLE + ".jsonb").toSql(cql);
+      if (StringUtils.isNotBlank(sqlSelect.getOrderBy())) {
+        throw new BadRequestException("sortBy is not supported for cursor paging, instances are sorted by id");
+      }
+      where = sqlSelect.getWhere();
+    }
+    return CURSOR_PAGE_SQL.formatted(getFullTableName(INSTANCE_TABLE), where, firstPage ? "" : " AND id > $2");
   }
 
   /**
@@ -183,6 +201,41 @@ public class InstanceRepository extends AbstractRepository<Instance> {
     }
   }
 
+  /**
+   * Returns the ids of the instances of an instance set page, in the order of the CQL query.
+   */
+  public Future<List<String>> getInstanceSetIds(int offset, int limit, String query) {
+    try {
+      var cqlWrapper = new CQLWrapper(new CQL2PgJSON(INSTANCE_TABLE + ".jsonb"), query, limit, offset, "none");
+      var sql = "SELECT " + INSTANCE_TABLE + ".id FROM " + getFullTableName(INSTANCE_TABLE) + " " + cqlWrapper;
+      return postgresClient.select(sql)
+        .map(rows -> {
+          var ids = new ArrayList<String>(rows.size());
+          rows.forEach(row -> ids.add(row.getUUID(0).toString()));
+          return ids;
+        });
+    } catch (CQLQueryValidationException e) {
+      return Future.failedFuture(new BadRequestException(e.getMessage()));
+    } catch (Exception e) {
+      return Future.failedFuture(e);
+    }
+  }
+
+  /**
+   * Returns the instances with their holdings records and items, as assembled by the instance set view.
+   */
+  public Future<List<InstanceTree>> getInstanceTrees(Collection<String> instanceIds) {
+    var sql = INSTANCE_TREES_SQL.formatted(getFullTableName(INSTANCE_SET_VIEW), getFullTableName(INSTANCE_TABLE));
+    var ids = instanceIds.stream().map(UUID::fromString).toArray(UUID[]::new);
+    return postgresClient.execute(sql, Tuple.of(ids))
+      .map(rows -> {
+        var trees = new ArrayList<InstanceTree>(rows.size());
+        rows.forEach(row -> trees.add(new InstanceTree(row.getUUID(0).toString(), row.getString(1),
+          row.getString(2), row.getString(3), List.of(row.getArrayOfStrings(4)))));
+        return trees;
+      });
+  }
+
   private String buildInstanceSetQuery(boolean instance, boolean holdingsRecords, boolean items,
                                         boolean precedingTitles, boolean succeedingTitles,
                                         boolean superInstanceRelationships, boolean subInstanceRelationships,
@@ -285,30 +338,24 @@ public class InstanceRepository extends AbstractRepository<Instance> {
     return sql.toString();
   }
 
-  public Future<Response> getInventoryViewInstancesWithBoundedItems(int offset, int limit, String query) {
-    try {
-      var sql = buildInventoryViewQueryWithBoundedItems(query, limit, offset);
-      return postgresClient.select(sql.toString())
-        .map(this::buildInventoryViewResponse);
-    } catch (CQLQueryValidationException e) {
-      return Future.failedFuture(new BadRequestException(e.getMessage()));
-    } catch (Exception e) {
-      return Future.failedFuture(e);
-    }
-  }
-
-  private String unlinkInstanceFromSubjectSql(String table, String id) {
-    return String.format("DELETE FROM %s WHERE instance_id = '%s'; ",
-      getFullTableName(table), id);
+  /**
+   * Returns the query of inventory view instances with their bounded items, each row is the text
+   * of an instance view JSON without its null top-level fields.
+   */
+  public String getInventoryViewWithBoundedItemsSql(String query, int limit, int offset) {
+    return buildInventoryViewQueryWithBoundedItems(query, limit, offset).toString();
   }
 
   private StringBuilder buildInventoryViewQueryWithBoundedItems(String query, int limit, int offset) {
-    var sql = new StringBuilder("SELECT JSONB_BUILD_OBJECT(");
-    sql.append("'instanceId', inventory_view.jsonb->>'instanceId', ");
-    sql.append("'isBoundWith', inventory_view.jsonb->'isBoundWith', ");
-    sql.append("'instance', inventory_view.jsonb->'instance', ");
-    sql.append("'holdingsRecords', inventory_view.jsonb->'holdingsRecords', ");
-    sql.append("'items', ").append(selectItemsWithBoundedRecords()).append(") AS jsonb ");
+    // only the null fields of the view are left out, the nulls inside the records are kept
+    var sql = new StringBuilder("SELECT (SELECT jsonb_object_agg(field.key, field.value) FROM (VALUES ");
+    sql.append("('instanceId', inventory_view.jsonb->'instanceId'), ");
+    sql.append("('isBoundWith', inventory_view.jsonb->'isBoundWith'), ");
+    sql.append("('instance', inventory_view.jsonb->'instance'), ");
+    sql.append("('holdingsRecords', inventory_view.jsonb->'holdingsRecords'), ");
+    sql.append("('items', ").append(selectItemsWithBoundedRecords()).append(")");
+    sql.append(") AS field(key, value) WHERE field.value IS NOT NULL AND field.value <> 'null'::jsonb)");
+    sql.append("::text AS jsonb ");
     sql.append("FROM ");
     sql.append(getFullTableName(INSTANCE_HOLDINGS_ITEM_VIEW));
     sql.append(" AS inventory_view ");
@@ -316,30 +363,6 @@ public class InstanceRepository extends AbstractRepository<Instance> {
     return sql;
   }
 
-  private Response buildInventoryViewResponse(RowSet<Row> rowSet) {
-    try {
-      var jsonResponse = createInventoryViewJsonResponse(rowSet);
-      return Response.ok(jsonResponse.encode(), MediaType.APPLICATION_JSON_TYPE).build();
-    } catch (JsonProcessingException e) {
-      throw new IllegalArgumentException(e);
-    }
-  }
-
-  private JsonObject createInventoryViewJsonResponse(RowSet<Row> rowSet) throws JsonProcessingException {
-    var instances = new JsonArray();
-    rowSet.forEach(row -> {
-      var rowJsonValue = row.getJsonObject(0);
-      instances.add(filterNullFields(rowJsonValue));
-    });
-    var totalRecords = rowSet.size();
-    var resultInfoString = ObjectMapperTool.getMapper().writeValueAsString(
-      new ResultInfo().withTotalRecords(totalRecords));
-    return new JsonObject()
-      .put("instances", instances)
-      .put("totalRecords", totalRecords)
-      .put("resultInfo", new JsonObject(resultInfoString));
-  }
-
   private StringBuilder selectItemsWithBoundedRecords() {
     var sql = new StringBuilder("(SELECT jsonb_agg(combined_items.jsonb) FROM (");
     sql.append(selectItemsByInstance());
@@ -379,16 +402,4 @@ public class InstanceRepository extends AbstractRepository<Instance> {
     sql.append(" AS hr ON hr.id = bwp.holdingsrecordid AND hr.instanceId = inventory_view.id");
     return sql;
   }
-
-  private JsonObject filterNullFields(JsonObject rowJsonValue) {
-    return rowJsonValue
-      .stream()
-      .filter(field -> field.getValue() != null)
-      .collect(
-        Collectors.collectingAndThen(
-          Collectors.toMap(Entry::getKey, Entry::getValue),
-          JsonObject::new
-        )
-      );
-  }
 }
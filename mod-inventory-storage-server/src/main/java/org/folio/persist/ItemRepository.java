@@ -14,9 +14,12 @@ import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowSet;
 import io.vertx.sqlclient.RowStream;
 import io.vertx.sqlclient.Tuple;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.folio.cql2pgjson.CQL2PgJSON;
@@ -38,6 +41,20 @@ public class ItemRepository extends AbstractRepository<Item> {
   private static final String EXPECTED_A_MAXIMUM_RECORDS_TO_PREVENT_OUT_OF_MEMORY =
     "Expected a maximum of %s records to prevent out of memory but got %s";
 
+  private static final String ITEM_ORDER_TRACKER_TABLE = "item_order_tracker";
+  private static final String ALLOCATE_ORDERS_SQL = """
+    INSERT INTO %1$s (holdings_id, max_order)
+    SELECT requested.holdings_id::uuid, requested.count
+    FROM unnest($1::text[], $2::int[]) AS requested(holdings_id, count)
+    JOIN %2$s holdings_record ON holdings_record.id = requested.holdings_id::uuid
+    ORDER BY 1
+    ON CONFLICT (holdings_id) DO UPDATE
+      SET max_order = CASE WHEN %1$s.restart_order THEN EXCLUDED.max_order
+                           ELSE %1$s.max_order + EXCLUDED.max_order END,
+          restart_order = false
+    RETURNING holdings_id::text, max_order
+    """;
+
   public ItemRepository(Context context, Map<String, String> okapiHeaders) {
     super(postgresClient(context, okapiHeaders), ITEM_TABLE, Item.class);
   }
@@ -49,6 +66,45 @@ public class ItemRepository extends AbstractRepository<Item> {
     return get(connection, criterion);
   }
 
+  /**
+   * Sets the order of the items that have none. A range of order values is allocated per holdings record with one
+   * statement that commits on its own, so concurrent writes into the same holdings record only wait for the
+   * allocation, not for each other's transactions, and the item trigger finds the orders already tracked.
+   * The range starts at 1 again if the restart has been flagged because the last item of the holdings record is
+   * gone, same as for the items the trigger allocates the order for. The values of a failed write are not reused,
+   * a range is only allocated for the holdings records that exist, so no tracker is left for a missing one.
+   */
+  public Future<List<Item>> allocateOrders(List<Item> items) {
+    var counts = new TreeMap<String, Integer>();
+    for (var item : items) {
+      if (item.getOrder() == null && item.getHoldingsRecordId() != null) {
+        counts.merge(item.getHoldingsRecordId().toLowerCase(Locale.ROOT), 1, Integer::sum);
+      }
+    }
+    if (counts.isEmpty()) {
+      return Future.succeededFuture(items);
+    }
+
+    var sql = ALLOCATE_ORDERS_SQL.formatted(getFullTableName(ITEM_ORDER_TRACKER_TABLE),
+      getFullTableName(HOLDINGS_RECORD_TABLE));
+    var params = Tuple.of(counts.keySet().toArray(String[]::new), counts.values().toArray(Integer[]::new));
+    return postgresClient.execute(sql, params)
+      .map(rows -> {
+        var nextOrders = new HashMap<String, Integer>();
+        rows.forEach(row -> nextOrders.put(row.getString(0),
+          row.getInteger(1) - counts.get(row.getString(0)) + 1));
+        for (var item : items) {
+          var holdingsId = item.getHoldingsRecordId() == null
+            ? null : item.getHoldingsRecordId().toLowerCase(Locale.ROOT);
+          // no range is allocated for a holdings record that doesn't exist, the write of its items fails
+          if (item.getOrder() == null && nextOrders.containsKey(holdingsId)) {
+            item.setOrder(nextOrders.merge(holdingsId, 1, Integer::sum) - 1);
+          }
+        }
+        return items;
+      });
+  }
+
   /**
    * Delete by CQL. For each deleted record return a {@link Row} with the instance id String
    * and with the item's jsonb String.
@@ -1,10 +1,15 @@
 package org.folio.persist;
 
+import static org.folio.dbschema.ObjectMapperTool.readValue;
 import static org.folio.rest.jaxrs.model.IterationJob.JobStatus.COMPLETED;
+import static org.folio.rest.jaxrs.model.IterationJob.JobStatus.IN_PROGRESS;
 import static org.folio.rest.persist.PgUtil.postgresClient;
 
 import io.vertx.core.Context;
 import io.vertx.core.Future;
+import io.vertx.sqlclient.Tuple;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.function.UnaryOperator;
 import org.folio.rest.jaxrs.model.IterationJob;
@@ -12,6 +17,18 @@ import org.folio.rest.jaxrs.model.IterationJob;
 public class IterationJobRepository extends AbstractRepository<IterationJob> {
 
   private static final String TABLE_NAME = "iteration_job";
+  private static final String CLAIM_INTERRUPTED_JOBS_SQL = """
+    UPDATE %1$s
+    SET jsonb = jsonb_set(jsonb, '{checkpointDate}',
+      to_jsonb(to_char(now() AT TIME ZONE 'UTC', 'YYYY-MM-DD"T"HH24:MI:SS.MS"+00:00"')))
+    WHERE id IN (
+      SELECT id FROM %1$s
+      WHERE jsonb->>'jobStatus' = $1
+        AND coalesce(jsonb->>'checkpointDate', jsonb->>'submittedDate')::timestamptz
+          < now() - make_interval(secs => $2::int)
+      FOR UPDATE SKIP LOCKED)
+    RETURNING jsonb::text
+    """;
 
   public IterationJobRepository(Context context, Map<String, String> okapiHeaders) {
     super(postgresClient(context, okapiHeaders), TABLE_NAME, IterationJob.class);
@@ -27,4 +44,19 @@ public class IterationJobRepository extends AbstractRepository<IterationJob> {
           .map(builder.apply(response));
       }));
   }
+
+  /**
+   * Finds the jobs in progress that have not saved a checkpoint for {@code staleSeconds}, their runner is
+   * considered to be gone. The checkpoint date of the found jobs is refreshed in the same statement,
+   * so that a job is claimed by one module instance only.
+   */
+  public Future<List<IterationJob>> claimInterruptedJobs(int staleSeconds) {
+    var sql = CLAIM_INTERRUPTED_JOBS_SQL.formatted(postgresClient.getSchemaName() + "." + TABLE_NAME);
+    return postgresClient.execute(sql, Tuple.of(IN_PROGRESS.value(), staleSeconds))
+      .map(rows -> {
+        var jobs = new ArrayList<IterationJob>(rows.size());
+        rows.forEach(row -> jobs.add(readValue(row.getString(0), IterationJob.class)));
+        return jobs;
+      });
+  }
 }
@@ -16,15 +16,22 @@ import io.vertx.sqlclient.RowStream;
 import io.vertx.sqlclient.Tuple;
 import io.vertx.sqlclient.internal.ArrayTuple;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.function.Supplier;
 import javax.ws.rs.core.Response;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.folio.rest.persist.PostgresClient;
 import org.folio.rest.support.PostgresClientFactory;
 
 public abstract class AbstractInstanceRecordsApi {
@@ -50,6 +57,32 @@ public abstract class AbstractInstanceRecordsApi {
     }
   }
 
+  /**
+   * Streams the records of several queries, typically of instance id ranges, as if they were one query.
+   * Each query runs on its own connection, up to {@code parallelism} queries at a time, and the records
+   * are written in the order of the queries: a query that is ready before its turn is paused and keeps
+   * its records in the database cursor. {@code queryCompletedRecord} is written after each query but
+   * the last one.
+   */
+  protected void fetchRecordsByQueries(String sql, Supplier<List<Tuple>> paramsSupplier, int parallelism,
+                                       IntFunction<String> queryCompletedRecord, RoutingContext routingContext,
+                                       Map<String, String> okapiHeaders,
+                                       Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    final HttpServerResponse response = getResponse(routingContext);
+    try {
+      List<Tuple> params = paramsSupplier.get();
+      log.debug("fetchRecordsByQueries::queries: {}, parallelism: {}", params.size(), parallelism);
+      new OrderedRowStreams(sql, params, queryCompletedRecord, response, asyncResultHandler,
+        PostgresClientFactory.getInstance(vertxContext, okapiHeaders))
+        .start(parallelism);
+    } catch (IllegalArgumentException e) {
+      log.error(e);
+      asyncResultHandler.handle(succeededFuture(respond400WithTextPlain(e.getMessage())));
+    } catch (Exception e) {
+      respondWithError(response, e, asyncResultHandler);
+    }
+  }
+
   protected Tuple createPostgresParams(String startDate, String endDate, boolean deletedRecordSupport,
                                        boolean skipSuppressedFromDiscoveryRecords) {
 
@@ -113,20 +146,54 @@ public abstract class AbstractInstanceRecordsApi {
   }
 
   /**
-   * Return a 500 response about Throwable t via the handler,
-   * but if dataResponse's head has already been written
-   * close the dataResponse TCP connection to signal the error and return null via the handler.
+   * Streams the rows to the response as the {@code arrayName} array of a JSON object, the row stream is paused
+   * while the write queue of the response is full. The head is written with the first row, so that a failed
+   * query still gets an error status. The fields that are only known at the end, like the totals, are returned
+   * by {@code trailer} for the number of written rows and are written after the array.
    */
-  private static void respondWithError(HttpServerResponse dataResponse, Throwable t,
-                                       Handler<AsyncResult<Response>> asyncResultHandler) {
-    log.error(t);
-    if (dataResponse.headWritten()) {
+  static void writeJsonArray(RowStream<Row> rowStream, String arrayName, Function<Row, String> rowJson,
+                             IntFunction<String> trailer, HttpServerResponse response,
+                             Handler<AsyncResult<Response>> asyncResultHandler,
+                             Function<String, Response> errorResponse) {
+    var page = new JsonArrayPage(arrayName);
+    rowStream
+      .exceptionHandler(e -> respondWithError(response, e, asyncResultHandler, errorResponse))
+      .endHandler(end -> {
+        page.start(response);
+        response.end("]" + trailer.apply(page.count) + "}");
+      })
+      .handler(row -> {
+        page.start(response);
+        var json = rowJson.apply(row);
+        response.write(page.count++ == 0 ? json : "," + json);
+        if (response.writeQueueFull()) {
+          rowStream.pause();
+        }
+      });
+    response.drainHandler(drain -> rowStream.resume());
+  }
+
+  /**
+   * Return the {@code errorResponse} about Throwable t via the handler,
+   * but if the response head has already been written
+   * close the TCP connection to signal the error and return null via the handler.
+   */
+  static void respondWithError(HttpServerResponse response, Throwable t,
+                               Handler<AsyncResult<Response>> asyncResultHandler,
+                               Function<String, Response> errorResponse) {
+    log.error(t.getMessage(), t);
+    if (response.headWritten()) {
       log.error("HTTP head has already been written, closing TCP connection to signal error");
-      dataResponse.reset();
+      response.reset();
       asyncResultHandler.handle(succeededFuture());
       return;
     }
-    asyncResultHandler.handle(succeededFuture(respond500WithTextPlain(t.getMessage())));
+    asyncResultHandler.handle(succeededFuture(errorResponse.apply(t.getMessage())));
+  }
+
+  private static void respondWithError(HttpServerResponse dataResponse, Throwable t,
+                                       Handler<AsyncResult<Response>> asyncResultHandler) {
+    respondWithError(dataResponse, t, asyncResultHandler, message -> respond500WithTextPlain(message));
   }
 
   private static String createJsonFromRow(Row row) {
@@ -154,4 +221,142 @@ public abstract class AbstractInstanceRecordsApi {
     response.putHeader("Content-Type", "application/json");
     return response;
   }
+
+  private static final class JsonArrayPage {
+    private final String arrayName;
+    private boolean started;
+    private int count;
+
+    private JsonArrayPage(String arrayName) {
+      this.arrayName = arrayName;
+    }
+
+    private void start(HttpServerResponse response) {
+      if (started) {
+        return;
+      }
+      started = true;
+      response.setChunked(true);
+      response.putHeader("Content-Type", "application/json");
+      response.write("{\"" + arrayName + "\":[");
+    }
+  }
+
+  private static final class OrderedRowStreams {
+    private final String sql;
+    private final List<Tuple> params;
+    private final IntFunction<String> queryCompletedRecord;
+    private final HttpServerResponse response;
+    private final Handler<AsyncResult<Response>> asyncResultHandler;
+    private final PostgresClient postgresClient;
+    private final List<RowStream<Row>> rowStreams;
+    private final boolean[] ended;
+    private int current;
+    private int started;
+    private boolean failed;
+
+    private OrderedRowStreams(String sql, List<Tuple> params, IntFunction<String> queryCompletedRecord,
+                              HttpServerResponse response, Handler<AsyncResult<Response>> asyncResultHandler,
+                              PostgresClient postgresClient) {
+      this.sql = sql;
+      this.params = params;
+      this.queryCompletedRecord = queryCompletedRecord;
+      this.response = response;
+      this.asyncResultHandler = asyncResultHandler;
+      this.postgresClient = postgresClient;
+      this.rowStreams = new ArrayList<>(Collections.nCopies(params.size(), null));
+      this.ended = new boolean[params.size()];
+    }
+
+    private void start(int parallelism) {
+      if (params.isEmpty()) {
+        response.end();
+        return;
+      }
+      response.drainHandler(drain -> resumeCurrent());
+      response.closeHandler(close -> {
+        if (current < params.size() && !failed) {
+          log.warn("OrderedRowStreams:: Connection closed by the client, closing {} queries",
+            params.size() - current);
+          failed = true;
+          closeRowStreams();
+        }
+      });
+      for (int i = 0; i < Math.min(parallelism, params.size()); i++) {
+        startNext();
+      }
+    }
+
+    private void startNext() {
+      if (started == params.size() || failed) {
+        return;
+      }
+      var index = started++;
+      postgresClient.withReadTrans(conn -> conn.selectStream(sql, params.get(index),
+          rowStream -> configureRowStream(index, rowStream)))
+        .onFailure(this::fail);
+    }
+
+    private void configureRowStream(int index, RowStream<Row> rowStream) {
+      if (failed) {
+        rowStream.close();
+        return;
+      }
+      rowStreams.set(index, rowStream);
+      if (index != current) {
+        rowStream.pause();
+      }
+      rowStream
+        .exceptionHandler(this::fail)
+        .endHandler(end -> complete(index))
+        .handler(row -> {
+          response.write(createJsonFromRow(row));
+          if (response.writeQueueFull()) {
+            rowStream.pause();
+          }
+        });
+    }
+
+    /**
+     * A paused stream may end before its turn when it has no records, so the queries are
+     * completed in order once all the preceding ones have ended.
+     */
+    private void complete(int index) {
+      ended[index] = true;
+      rowStreams.set(index, null);
+      while (current < params.size() && ended[current]) {
+        if (current < params.size() - 1) {
+          response.write(queryCompletedRecord.apply(current));
+        }
+        current++;
+        startNext();
+      }
+      if (current == params.size()) {
+        response.end();
+        return;
+      }
+      resumeCurrent();
+    }
+
+    private void resumeCurrent() {
+      if (current < params.size() && rowStreams.get(current) != null && !response.writeQueueFull()) {
+        rowStreams.get(current).resume();
+      }
+    }
+
+    private void fail(Throwable t) {
+      if (failed) {
+        return;
+      }
+      failed = true;
+      closeRowStreams();
+      respondWithError(response, t, asyncResultHandler);
+    }
+
+    private void closeRowStreams() {
+      rowStreams.stream()
+        .filter(Objects::nonNull)
+        .forEach(RowStream::close);
+    }
+  }
 }
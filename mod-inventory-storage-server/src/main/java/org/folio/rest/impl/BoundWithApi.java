@@ -5,120 +5,45 @@ import static org.folio.rest.jaxrs.resource.InventoryStorageBoundWiths.PutInvent
 import static org.folio.rest.support.EndpointFailureHandler.handleFailure;
 
 import io.vertx.core.AsyncResult;
-import io.vertx.core.CompositeFuture;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
-import io.vertx.core.Promise;
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashSet;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Set;
 import javax.ws.rs.core.Response;
-import org.folio.persist.BoundWithRepository;
 import org.folio.persist.HoldingsRepository;
 import org.folio.persist.ItemRepository;
 import org.folio.rest.annotations.Validate;
 import org.folio.rest.exceptions.ValidationException;
 import org.folio.rest.jaxrs.model.BoundWith;
 import org.folio.rest.jaxrs.model.BoundWithContent;
-import org.folio.rest.jaxrs.model.BoundWithPart;
 import org.folio.rest.jaxrs.model.Error;
 import org.folio.rest.jaxrs.model.Errors;
 import org.folio.rest.jaxrs.model.HoldingsRecord;
 import org.folio.rest.jaxrs.model.Item;
-import org.folio.rest.jaxrs.model.Metadata;
 import org.folio.rest.jaxrs.model.Parameter;
-import org.folio.rest.persist.Criteria.Criteria;
-import org.folio.rest.persist.Criteria.Criterion;
 import org.folio.services.instance.BoundWithPartService;
 
 public class BoundWithApi implements org.folio.rest.jaxrs.resource.InventoryStorageBoundWiths {
 
   /**
-   * Bound-with parts not in incoming: Future deletes.
+   * Holdings records the item should be bound with after the request.
+   *
+   * <p>The main holdings record, the one directly linked to by the item, is added to the incoming ones,
+   * unless they are empty or the main holdings record only, which both unbind the item.
    */
-  private static List<Future<Response>> getDeleteBoundWithPartFutures(
-    String mainHoldingsRecordId,
-    Map<String, BoundWithPart> existingParts,
-    Map<String, BoundWithContent> incomingParts,
-    Context vertxContext,
-    Map<String, String> okapiHeaders) {
-
-    List<Future<Response>> deleteFutures = new ArrayList<>();
-    BoundWithPartService service = new BoundWithPartService(vertxContext, okapiHeaders);
-    for (var part : existingParts.entrySet()) {
-      if (!incomingParts.containsKey(part.getKey())
-        && !part.getKey().equals(mainHoldingsRecordId)) {
-        deleteFutures.add(service.delete(part.getValue().getId()));
-      }
-    }
-    if (existingParts.containsKey(mainHoldingsRecordId)
-      && (incomingParts.size() == 1 && incomingParts.containsKey(mainHoldingsRecordId)
-      || incomingParts.isEmpty())) {
-      deleteFutures.add(service.delete(existingParts.get(mainHoldingsRecordId).getId()));
-    }
-    return deleteFutures;
-  }
-
-  /**
-   * Bound-with parts not existing: future creates.
-   */
-  private static List<Future<Response>> getCreateBoundWithPartFutures(
-    String itemId,
-    String mainHoldingsId,
-    Map<String, BoundWithContent> incomingParts,
-    Map<String, BoundWithPart> existingParts,
-    Map<String, String> okapiHeaders,
-    Context vertxContext) {
-
-    List<Future<Response>> createFutures = new ArrayList<>();
-    BoundWithPartService service = new BoundWithPartService(vertxContext, okapiHeaders);
-
-    createIncomingParts(itemId, mainHoldingsId, incomingParts, existingParts, service, createFutures);
-    createMainHoldingsPart(itemId, mainHoldingsId, incomingParts, existingParts, service, createFutures);
-
-    return createFutures;
-  }
-
-  private static void createIncomingParts(String itemId, String mainHoldingsId,
-                                          Map<String, BoundWithContent> incomingParts,
-                                          Map<String, BoundWithPart> existingParts,
-                                          BoundWithPartService service,
-                                          List<Future<Response>> createFutures) {
-    if (!incomingParts.containsKey(mainHoldingsId) || incomingParts.size() > 1) {
-      for (String holdingsId : incomingParts.keySet()) {
-        if (!existingParts.containsKey(holdingsId)) {
-          BoundWithPart part = new BoundWithPart()
-            .withItemId(itemId)
-            .withHoldingsRecordId(holdingsId)
-            .withMetadata(new Metadata().withCreatedDate(new Date()).withUpdatedDate(new Date()));
-          createFutures.add(service.create(part));
-        }
-      }
+  static Set<String> getDesiredHoldingsIds(String mainHoldingsId, BoundWith entity) {
+    Set<String> holdingsIds = new LinkedHashSet<>();
+    for (BoundWithContent content : entity.getBoundWithContents()) {
+      holdingsIds.add(content.getHoldingsRecordId());
     }
-  }
-
-  private static void createMainHoldingsPart(String itemId, String mainHoldingsId,
-                                              Map<String, BoundWithContent> incomingParts,
-                                              Map<String, BoundWithPart> existingParts,
-                                              BoundWithPartService service,
-                                              List<Future<Response>> createFutures) {
-    // Add main holdings ID, but only if it doesn't exist already,
-    // wasn't provided in the request (and thus added above),
-    // and would not become the only part.
-    if (!existingParts.containsKey(mainHoldingsId)
-      && !incomingParts.containsKey(mainHoldingsId)
-      && !incomingParts.isEmpty()) {
-      BoundWithPart part = new BoundWithPart()
-        .withItemId(itemId)
-        .withHoldingsRecordId(mainHoldingsId)
-        .withMetadata(new Metadata().withCreatedDate(new Date()).withUpdatedDate(new Date()));
-      createFutures.add(service.create(part));
+    if (holdingsIds.isEmpty() || holdingsIds.equals(Set.of(mainHoldingsId))) {
+      return Set.of();
     }
+    holdingsIds.add(mainHoldingsId);
+    return holdingsIds;
   }
 
   @Validate
@@ -128,68 +53,43 @@ public class BoundWithApi implements org.folio.rest.jaxrs.resource.InventoryStor
                                             Handler<AsyncResult<Response>> asyncResultHandler,
                                             Context vertxContext) {
 
-    Map<String, BoundWithContent> incomingParts = getIncomingParts(entity);
-    AtomicReference<Map<String, BoundWithPart>> existingParts = new AtomicReference<>();
-    AtomicReference<Item> boundWithItem = new AtomicReference<>();
-
     validate(entity, vertxContext, okapiHeaders)
-      .compose(x -> getExistingParts(entity, vertxContext, okapiHeaders))
-      .onSuccess(existingParts::set)
-      .compose(x -> getMainPart(entity, vertxContext, okapiHeaders))
-      .onSuccess(boundWithItem::set)
-      .compose(x -> {
-        var futures = getCreateBoundWithPartFutures(
-          entity.getItemId(), boundWithItem.get().getHoldingsRecordId(),
-          incomingParts, existingParts.get(), okapiHeaders, vertxContext);
-        return Future.all(futures);
-      })
-      .compose(x -> {
-        var futures = getDeleteBoundWithPartFutures(
-          boundWithItem.get().getHoldingsRecordId(),
-          existingParts.get(), incomingParts, vertxContext, okapiHeaders);
-        return Future.all(futures);
-      })
+      .compose(item -> new BoundWithPartService(vertxContext, okapiHeaders)
+        .reconcile(entity.getItemId(), getDesiredHoldingsIds(item.getHoldingsRecordId(), entity)))
       .onSuccess(x -> asyncResultHandler.handle(succeededFuture(respond204())))
       .onFailure(handleFailure(asyncResultHandler));
   }
 
   /**
    * Checks referential integrity for all involved records.
+   *
+   * @return the bound-with item
    */
-  Future<Void> validate(BoundWith requestEntity, Context vertxContext, Map<String, String> okapiHeaders) {
-    Errors errors = new Errors();
-    ItemRepository items = new ItemRepository(vertxContext, okapiHeaders);
-    return items.getById(requestEntity.getItemId())
-      .compose(item -> {
-        if (item == null) {
-          addError(errors,
-            "item.not-found", "Item not found.", "itemId", requestEntity.getItemId());
-        }
-        return validateHoldings(requestEntity, vertxContext, okapiHeaders);
-      })
-      .compose(holdingsFound -> validateHoldingsResults(holdingsFound, requestEntity, errors));
+  Future<Item> validate(BoundWith requestEntity, Context vertxContext, Map<String, String> okapiHeaders) {
+    var itemFuture = new ItemRepository(vertxContext, okapiHeaders).getById(requestEntity.getItemId());
+    var holdingsFuture = requestEntity.getBoundWithContents().isEmpty()
+      ? Future.<Map<String, HoldingsRecord>>succeededFuture(Map.of())
+      : new HoldingsRepository(vertxContext, okapiHeaders)
+        .getByIds(requestEntity.getBoundWithContents(), BoundWithContent::getHoldingsRecordId);
+
+    return Future.all(itemFuture, holdingsFuture)
+      .compose(x -> validateResults(requestEntity, itemFuture.result(), holdingsFuture.result()));
   }
 
-  private Future<CompositeFuture> validateHoldings(BoundWith requestEntity, Context vertxContext,
-                                                    Map<String, String> okapiHeaders) {
-    HoldingsRepository holdings = new HoldingsRepository(vertxContext, okapiHeaders);
-    List<Future<HoldingsRecord>> holdingsFutures = new ArrayList<>();
-    for (BoundWithContent entry : requestEntity.getBoundWithContents()) {
-      holdingsFutures.add(holdings.getById(entry.getHoldingsRecordId()));
+  private Future<Item> validateResults(BoundWith requestEntity, Item item, Map<String, HoldingsRecord> holdings) {
+    Errors errors = new Errors();
+    if (item == null) {
+      addError(errors,
+        "item.not-found", "Item not found.", "itemId", requestEntity.getItemId());
     }
-    return Future.all(holdingsFutures);
-  }
-
-  private Future<Void> validateHoldingsResults(CompositeFuture holdingsFound, BoundWith requestEntity, Errors errors) {
-    for (int i = 0; i < holdingsFound.size(); i++) {
-      if (holdingsFound.resultAt(i) == null) {
-        var id = requestEntity.getBoundWithContents().get(i).getHoldingsRecordId();
+    for (BoundWithContent content : requestEntity.getBoundWithContents()) {
+      if (!holdings.containsKey(content.getHoldingsRecordId())) {
         addError(errors,
-          "holding.not-found", "Holdings record not found.", "holdingsRecordId", id);
+          "holding.not-found", "Holdings record not found.", "holdingsRecordId", content.getHoldingsRecordId());
       }
     }
     if (errors.getErrors().isEmpty()) {
-      return Future.succeededFuture();
+      return Future.succeededFuture(item);
     } else {
       return Future.failedFuture(new ValidationException(errors));
     }
@@ -203,49 +103,4 @@ public class BoundWithApi implements org.folio.rest.jaxrs.resource.InventoryStor
         .withKey(key)
         .withValue(value))));
   }
-
-  /**
-   * Incoming BoundWithContent objects mapped by holdings record ID.
-   */
-  private Map<String, BoundWithContent> getIncomingParts(BoundWith entity) {
-    Map<String, BoundWithContent> incomingParts = new HashMap<>();
-    for (BoundWithContent content : entity.getBoundWithContents()) {
-      incomingParts.put(content.getHoldingsRecordId(), content);
-    }
-    return incomingParts;
-  }
-
-  /**
-   * Get mandatory, main holdings record; the one directly linked to by the item.
-   */
-  private Future<Item> getMainPart(
-    BoundWith entity, Context vertxContext, Map<String, String> okapiHeaders) {
-    Promise<Item> promise = Promise.promise();
-    return new ItemRepository(vertxContext, okapiHeaders)
-      .getById(entity.getItemId())
-      .onComplete(item -> promise.complete(item.result()));
-  }
-
-  /**
-   * Existing BoundWithPart entities mapped by holdings record ID.
-   */
-  private Future<Map<String, BoundWithPart>> getExistingParts(
-    BoundWith entity, Context vertxContext, Map<String, String> okapiHeaders) {
-
-    Promise<Map<String, BoundWithPart>> promise = Promise.promise();
-    Map<String, BoundWithPart> existingParts = new HashMap<>();
-    Criterion criterion = new Criterion(new Criteria()
-      .setJSONB(false).addField("itemId").setOperation("=")
-      .setVal(entity.getItemId()));
-
-    new BoundWithRepository(vertxContext, okapiHeaders)
-      .get(criterion).onComplete(boundWithParts -> {
-        for (BoundWithPart boundWith : boundWithParts.result()) {
-          existingParts.put(boundWith.getHoldingsRecordId(), boundWith);
-        }
-        promise.complete(existingParts);
-      });
-    return promise.future();
-  }
 }
-
@@ -11,12 +11,20 @@ import io.vertx.core.http.HttpClient;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.folio.rest.resource.interfaces.InitAPI;
+import org.folio.rest.support.HridBlockCache;
 import org.folio.services.caches.ConsortiumDataCache;
+import org.folio.services.caches.InstanceTreeCache;
+import org.folio.services.caches.ReferenceDataCache;
 import org.folio.services.caches.SettingCache;
 import org.folio.services.consortium.ServicePointSynchronizationVerticle;
 import org.folio.services.consortium.ShadowInstanceSynchronizationVerticle;
 import org.folio.services.consortium.SynchronizationVerticle;
+import org.folio.services.domainevent.DomainEventOutbox;
+import org.folio.services.domainevent.DomainEventOutboxRelayVerticle;
+import org.folio.services.instance.InstanceChangeLogRetentionVerticle;
+import org.folio.services.iteration.IterationJobResumeVerticle;
 import org.folio.services.migration.async.AsyncMigrationConsumerVerticle;
+import org.folio.services.referencedata.ReferenceDataUpdateConsumerVerticle;
 import org.folio.services.s3storage.FolioS3ClientFactory;
 import org.folio.services.s3storage.FolioS3ClientFactory.S3ConfigType;
 import org.folio.services.setting.SettingUpdateConsumerVerticle;
@@ -32,12 +40,20 @@ public class InitApiImpl implements InitAPI {
   public void init(Vertx vertx, Context context, Handler<AsyncResult<Boolean>> handler) {
     initConsortiumDataCache(vertx, context);
     initSettingCache(vertx, context);
+    initReferenceDataCache(vertx, context);
+    initInstanceTreeCache(vertx, context);
+    HridBlockCache.getInstance().logStatsPeriodically(vertx);
     validateS3Configurations()
-      .compose(v -> initAsyncMigrationVerticle(vertx))
-      .compose(v -> initShadowInstanceSynchronizationVerticle(vertx, getConsortiumDataCache(context)))
+      .compose(v -> initAsyncMigrationVerticle(vertx, getInstanceTreeCache(context)))
+      .compose(v -> initShadowInstanceSynchronizationVerticle(vertx, getConsortiumDataCache(context),
+        getInstanceTreeCache(context)))
       .compose(v -> initSynchronizationVerticle(vertx, getConsortiumDataCache(context)))
       .compose(v -> initServicePointSynchronizationVerticle(vertx, getConsortiumDataCache(context)))
       .compose(v -> initSettingUpdateConsumerVerticle(vertx, getSettingCache(context)))
+      .compose(v -> initReferenceDataUpdateConsumerVerticle(vertx, getReferenceDataCache(context)))
+      .compose(v -> initDomainEventOutboxRelayVerticle(vertx))
+      .compose(v -> initIterationJobResumeVerticle(vertx))
+      .compose(v -> initInstanceChangeLogRetentionVerticle(vertx))
       .map(true)
       .onComplete(handler);
   }
@@ -60,13 +76,13 @@ public class InitApiImpl implements InitAPI {
     }
   }
 
-  private Future<Void> initAsyncMigrationVerticle(Vertx vertx) {
+  private Future<Void> initAsyncMigrationVerticle(Vertx vertx, InstanceTreeCache instanceTreeCache) {
     long startTime = System.currentTimeMillis();
     DeploymentOptions options = new DeploymentOptions();
     options.setThreadingModel(ThreadingModel.WORKER);
     options.setInstances(1);
 
-    return vertx.deployVerticle(AsyncMigrationConsumerVerticle.class, options)
+    return vertx.deployVerticle(() -> new AsyncMigrationConsumerVerticle(instanceTreeCache), options)
       .onSuccess(result -> {
         long elapsedTime = System.currentTimeMillis() - startTime;
         log.info("initAsyncMigrationVerticle:: AsyncMigrationConsumerVerticle was deployed in {} milliseconds",
@@ -77,12 +93,14 @@ public class InitApiImpl implements InitAPI {
       .mapEmpty();
   }
 
-  private Future<Void> initShadowInstanceSynchronizationVerticle(Vertx vertx, ConsortiumDataCache consortiumDataCache) {
+  private Future<Void> initShadowInstanceSynchronizationVerticle(Vertx vertx, ConsortiumDataCache consortiumDataCache,
+                                                                 InstanceTreeCache instanceTreeCache) {
     DeploymentOptions options = new DeploymentOptions()
       .setThreadingModel(ThreadingModel.WORKER)
       .setInstances(1);
 
-    return vertx.deployVerticle(() -> new ShadowInstanceSynchronizationVerticle(consortiumDataCache), options)
+    return vertx.deployVerticle(() -> new ShadowInstanceSynchronizationVerticle(consortiumDataCache, instanceTreeCache),
+        options)
       .onSuccess(v -> log.info("initShadowInstanceSynchronizationVerticle:: "
                                + "ShadowInstanceSynchronizationVerticle verticle was successfully started"))
       .onFailure(e -> log.error("initShadowInstanceSynchronizationVerticle:: "
@@ -128,6 +146,50 @@ public class InitApiImpl implements InitAPI {
       .mapEmpty();
   }
 
+  private Future<Void> initReferenceDataUpdateConsumerVerticle(Vertx vertx, ReferenceDataCache referenceDataCache) {
+    return vertx.deployVerticle(new ReferenceDataUpdateConsumerVerticle(referenceDataCache),
+        ReferenceDataUpdateConsumerVerticle.getDeploymentOptions())
+      .onSuccess(v -> log.info("initReferenceDataUpdateConsumerVerticle:: ReferenceDataUpdateConsumerVerticle "
+        + "verticle was successfully started"))
+      .onFailure(e -> log.error("initReferenceDataUpdateConsumerVerticle:: ReferenceDataUpdateConsumerVerticle "
+        + "verticle was not successfully started", e))
+      .mapEmpty();
+  }
+
+  private Future<Void> initDomainEventOutboxRelayVerticle(Vertx vertx) {
+    if (!DomainEventOutbox.isEnabled()) {
+      return Future.succeededFuture();
+    }
+
+    return vertx.deployVerticle(
+        new DomainEventOutboxRelayVerticle(), DomainEventOutboxRelayVerticle.getDeploymentOptions())
+      .onSuccess(v -> log.info("initDomainEventOutboxRelayVerticle:: DomainEventOutboxRelayVerticle verticle "
+        + "was successfully started"))
+      .onFailure(e -> log.error("initDomainEventOutboxRelayVerticle:: DomainEventOutboxRelayVerticle verticle "
+        + "was not successfully started", e))
+      .mapEmpty();
+  }
+
+  private Future<Void> initIterationJobResumeVerticle(Vertx vertx) {
+    return vertx.deployVerticle(
+        new IterationJobResumeVerticle(), IterationJobResumeVerticle.getDeploymentOptions())
+      .onSuccess(v -> log.info("initIterationJobResumeVerticle:: IterationJobResumeVerticle verticle "
+        + "was successfully started"))
+      .onFailure(e -> log.error("initIterationJobResumeVerticle:: IterationJobResumeVerticle verticle "
+        + "was not successfully started", e))
+      .mapEmpty();
+  }
+
+  private Future<Void> initInstanceChangeLogRetentionVerticle(Vertx vertx) {
+    return vertx.deployVerticle(
+        new InstanceChangeLogRetentionVerticle(), InstanceChangeLogRetentionVerticle.getDeploymentOptions())
+      .onSuccess(v -> log.info("initInstanceChangeLogRetentionVerticle:: InstanceChangeLogRetentionVerticle verticle "
+        + "was successfully started"))
+      .onFailure(e -> log.error("initInstanceChangeLogRetentionVerticle:: InstanceChangeLogRetentionVerticle "
+        + "verticle was not successfully started", e))
+      .mapEmpty();
+  }
+
   private void initConsortiumDataCache(Vertx vertx, Context context) {
     HttpClient httpClient = vertx.createHttpClient();
     context.put(HttpClient.class.getName(), httpClient);
@@ -140,6 +202,20 @@ public class InitApiImpl implements InitAPI {
     context.put(SettingCache.class.getName(), settingCache);
   }
 
+  private void initReferenceDataCache(Vertx vertx, Context context) {
+    ReferenceDataCache referenceDataCache = new ReferenceDataCache(vertx);
+    context.put(ReferenceDataCache.class.getName(), referenceDataCache);
+  }
+
+  private void initInstanceTreeCache(Vertx vertx, Context context) {
+    InstanceTreeCache instanceTreeCache = new InstanceTreeCache(vertx);
+    context.put(InstanceTreeCache.class.getName(), instanceTreeCache);
+  }
+
+  private ReferenceDataCache getReferenceDataCache(Context context) {
+    return context.get(ReferenceDataCache.class.getName());
+  }
+
   private SettingCache getSettingCache(Context context) {
     return context.get(SettingCache.class.getName());
   }
@@ -147,4 +223,8 @@ public class InitApiImpl implements InitAPI {
   private ConsortiumDataCache getConsortiumDataCache(Context context) {
     return context.get(ConsortiumDataCache.class.getName());
   }
+
+  private InstanceTreeCache getInstanceTreeCache(Context context) {
+    return context.get(InstanceTreeCache.class.getName());
+  }
 }
@@ -10,15 +10,21 @@ import static org.folio.rest.tools.messages.Messages.DEFAULT_LANGUAGE;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Context;
 import io.vertx.core.Handler;
+import io.vertx.core.http.HttpServerResponse;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.RowStream;
+import io.vertx.sqlclient.Tuple;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.ws.rs.core.Response;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.folio.cql2pgjson.exception.FieldException;
+import org.folio.persist.InstanceRepository;
 import org.folio.rest.annotations.Validate;
 import org.folio.rest.jaxrs.model.Instance;
 import org.folio.rest.jaxrs.model.InstancePatchRequest;
@@ -32,6 +38,7 @@ import org.folio.rest.persist.PgUtil;
 import org.folio.rest.persist.cql.CQLWrapper;
 import org.folio.rest.persist.interfaces.Results;
 import org.folio.rest.support.EndpointFailureHandler;
+import org.folio.rest.support.KeysetCursor;
 import org.folio.rest.support.PostgresClientFactory;
 import org.folio.rest.tools.messages.MessageConsts;
 import org.folio.rest.tools.messages.Messages;
@@ -207,10 +214,14 @@ public class InstanceStorageApi implements InstanceStorage {
 
   @Validate
   @Override
-  public void getInstanceStorageInstances(String totalRecords, int offset, int limit, String query,
+  public void getInstanceStorageInstances(String cursor, String totalRecords, int offset, int limit, String query,
                                           RoutingContext routingContext, Map<String, String> okapiHeaders,
                                           Handler<AsyncResult<Response>> asyncResultHandler,
                                           Context vertxContext) {
+    if (cursor != null) {
+      fetchInstancesByCursor(cursor, query, limit, routingContext, okapiHeaders, asyncResultHandler, vertxContext);
+      return;
+    }
     fetchInstances(query, limit, offset, routingContext, okapiHeaders, vertxContext);
   }
 
@@ -420,6 +431,50 @@ public class InstanceStorageApi implements InstanceStorage {
       routingContext, okapiHeaders, vertxContext);
   }
 
+  /**
+   * Streams a keyset page of instances in id order straight from the database rows to the response,
+   * the total number of records is not counted.
+   */
+  private void fetchInstancesByCursor(String cursor, String query, int limit, RoutingContext routingContext,
+                                      Map<String, String> okapiHeaders,
+                                      Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    KeysetCursor keysetCursor;
+    String sql;
+    try {
+      keysetCursor = KeysetCursor.parse(cursor);
+      sql = new InstanceRepository(vertxContext, okapiHeaders).getCursorPageSql(query, keysetCursor.isFirstPage());
+    } catch (Exception e) {
+      log.warn("fetchInstancesByCursor:: invalid request, cursor: {}, query: {}", cursor, query, e);
+      asyncResultHandler.handle(succeededFuture(
+        GetInstanceStorageInstancesResponse.respond400WithTextPlain(e.getMessage())));
+      return;
+    }
+
+    var params = keysetCursor.isFirstPage()
+                 ? Tuple.of(limit)
+                 : Tuple.of(limit, UUID.fromString(keysetCursor.lastId()));
+    var response = routingContext.response();
+    PostgresClientFactory.getInstance(vertxContext, okapiHeaders)
+      .withReadTrans(conn -> conn.selectStream(sql, params,
+        rowStream -> writeCursorPage(rowStream, limit, response, asyncResultHandler)))
+      .onFailure(e -> AbstractInstanceRecordsApi.respondWithError(response, e, asyncResultHandler,
+        GetInstanceStorageInstancesResponse::respond500WithTextPlain));
+  }
+
+  private void writeCursorPage(RowStream<Row> rowStream, int limit, HttpServerResponse response,
+                               Handler<AsyncResult<Response>> asyncResultHandler) {
+    var lastId = new AtomicReference<String>();
+    AbstractInstanceRecordsApi.writeJsonArray(rowStream, "instances",
+      row -> {
+        lastId.set(row.getUUID(0).toString());
+        return row.getString(1);
+      },
+      count -> count == limit && lastId.get() != null
+               ? ",\"nextCursor\":\"" + new KeysetCursor(lastId.get()).encode() + "\""
+               : "",
+      response, asyncResultHandler, GetInstanceStorageInstancesResponse::respond500WithTextPlain);
+  }
+
   private void fetchInstances(String query, int limit, int offset,
                               RoutingContext routingContext,
                               Map<String, String> okapiHeaders,
@@ -18,7 +18,7 @@ import org.folio.rest.jaxrs.resource.InventoryHierarchy;
 public class InventoryHierarchyApi extends AbstractInstanceRecordsApi implements InventoryHierarchy {
 
   private static final String SQL_UPDATED_INSTANCES_IDS =
-    "select * from get_updated_instance_ids_view($1,$2,$3,$4,$5,$6);";
+    "select * from get_updated_instance_ids_from_change_log($1,$2,$3,$4,$5,$6);";
   private static final String SQL_INSTANCES = "select * from get_items_and_holdings_view($1,$2);";
   private static final String SUPPRESSED_TRUE_FILTER = "(instance.jsonb ->> 'discoverySuppress')::bool = false";
   private static final String SQL_INITIAL_LOAD =
@@ -1,20 +1,31 @@
 package org.folio.rest.impl;
 
+import static io.vertx.core.Future.succeededFuture;
 import static org.folio.rest.persist.PgUtil.streamGet;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Context;
 import io.vertx.core.Handler;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.Json;
 import io.vertx.ext.web.RoutingContext;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowStream;
 import java.util.Map;
 import javax.ws.rs.core.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.persist.InstanceRepository;
 import org.folio.rest.annotations.Validate;
 import org.folio.rest.jaxrs.model.InstanceView;
+import org.folio.rest.jaxrs.model.ResultInfo;
 import org.folio.rest.jaxrs.resource.InventoryViewInstances;
-import org.folio.rest.support.EndpointHandler;
-import org.folio.services.instance.InstanceService;
+import org.folio.rest.persist.cql.CQLQueryValidationException;
+import org.folio.rest.support.PostgresClientFactory;
 
 public class InventoryViewApi implements InventoryViewInstances {
+  private static final Logger log = LogManager.getLogger(InventoryViewApi.class);
+
   @Validate
   @Override
   public void getInventoryViewInstances(boolean withBoundedItems,
@@ -22,14 +33,47 @@ public class InventoryViewApi implements InventoryViewInstances {
     String query, RoutingContext routingContext,
     Map<String, String> okapiHeaders,
     Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
-    var instanceService = new InstanceService(vertxContext, okapiHeaders);
     if (withBoundedItems) {
-      instanceService
-        .getInventoryViewInstancesWithBoundedItems(offset, limit, query)
-        .onComplete(EndpointHandler.handle(asyncResultHandler));
+      fetchInstancesWithBoundedItems(offset, limit, query, routingContext,
+        okapiHeaders, asyncResultHandler, vertxContext);
     } else {
       streamGet("instance_holdings_item_view", InstanceView.class, query,
         offset, limit, null, "instances", routingContext, okapiHeaders, vertxContext);
     }
   }
+
+  private void fetchInstancesWithBoundedItems(int offset, int limit, String query, RoutingContext routingContext,
+                                              Map<String, String> okapiHeaders,
+                                              Handler<AsyncResult<Response>> asyncResultHandler,
+                                              Context vertxContext) {
+    String sql;
+    try {
+      sql = new InstanceRepository(vertxContext, okapiHeaders)
+        .getInventoryViewWithBoundedItemsSql(query, limit, offset);
+    } catch (CQLQueryValidationException e) {
+      log.warn("fetchInstancesWithBoundedItems:: invalid query: {}", query, e);
+      asyncResultHandler.handle(succeededFuture(
+        GetInventoryViewInstancesResponse.respond400WithTextPlain(e.getMessage())));
+      return;
+    }
+
+    var response = routingContext.response();
+    PostgresClientFactory.getInstance(vertxContext, okapiHeaders)
+      .withReadTrans(conn -> conn.selectStream(sql,
+        rowStream -> writeInstances(rowStream, response, asyncResultHandler)))
+      .onFailure(e -> AbstractInstanceRecordsApi.respondWithError(response, e, asyncResultHandler,
+        GetInventoryViewInstancesResponse::respond500WithTextPlain));
+  }
+
+  /**
+   * Writes the rows to the response as soon as they arrive, the totals are only known at the end
+   * and are therefore written after the instances array.
+   */
+  private void writeInstances(RowStream<Row> rowStream, HttpServerResponse response,
+                              Handler<AsyncResult<Response>> asyncResultHandler) {
+    AbstractInstanceRecordsApi.writeJsonArray(rowStream, "instances", row -> row.getString(0),
+      count -> ",\"totalRecords\":" + count
+               + ",\"resultInfo\":" + Json.encode(new ResultInfo().withTotalRecords(count)),
+      response, asyncResultHandler, GetInventoryViewInstancesResponse::respond500WithTextPlain);
+  }
 }
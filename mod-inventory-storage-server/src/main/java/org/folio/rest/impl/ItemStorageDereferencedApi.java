@@ -9,18 +9,27 @@ import io.vertx.core.Handler;
 import io.vertx.core.json.JsonObject;
 import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import javax.ws.rs.core.Response;
+import org.apache.commons.lang3.tuple.Pair;
 import org.folio.cql2pgjson.CQL2PgJSON;
 import org.folio.rest.annotations.Validate;
 import org.folio.rest.jaxrs.model.DereferencedItem;
 import org.folio.rest.jaxrs.model.DereferencedItems;
 import org.folio.rest.jaxrs.resource.ItemStorageDereferenced;
+import org.folio.rest.persist.PostgresClient;
 import org.folio.rest.persist.cql.CQLWrapper;
 import org.folio.rest.support.PostgresClientFactory;
+import org.folio.rest.tools.utils.TenantTool;
+import org.folio.services.caches.ReferenceDataCache;
+import org.folio.services.caches.ReferenceDataCache.ReferenceTable;
 import org.folio.util.UuidUtil;
 
 /**
@@ -29,48 +38,34 @@ import org.folio.util.UuidUtil;
  * Aim is to determine if dereferencing item records
  * results in performance improvement when performing
  * checkout/checkin operations.
+ * Only the item, holdings and instance are joined, the referenced
+ * material types, loan types and locations are taken from the
+ * {@link ReferenceDataCache}.
  */
 public class ItemStorageDereferencedApi implements ItemStorageDereferenced {
   public static final String ITEM_TABLE = "item";
   private static final String JSON_COLUMN = "jsonb";
-  private static final Map<String, String> FIELDS = new HashMap<>();
-  private static final List<String> ID_FIELDS = new ArrayList<>();
-
-  static {
-    FIELDS.put("instance", "instanceRecord");
-    FIELDS.put("holdings", "holdingsRecord");
-    FIELDS.put("materialtype", "materialType");
-    FIELDS.put("permloan", "permanentLoanType");
-    FIELDS.put("temploan", "temporaryLoanType");
-    FIELDS.put("permloc", "permanentLocation");
-    FIELDS.put("temploc", "temporaryLocation");
-    FIELDS.put("effloc", "effectiveLocation");
-    ID_FIELDS.add("holdingsRecordId");
-    ID_FIELDS.add("instanceId");
-    ID_FIELDS.add("materialTypeId");
-    ID_FIELDS.add("permanentLocationId");
-    ID_FIELDS.add("temporaryLocationId");
-    ID_FIELDS.add("effectiveLocationId");
-    ID_FIELDS.add("permanentLoanTypeId");
-    ID_FIELDS.add("temporaryLoanTypeId");
-  }
-
-  private final String sqlQuery = "SELECT item.jsonb as item, holdingstable.jsonb as " + FIELDS.get("holdings") + ",\n"
-    + "instancetable.jsonb as " + FIELDS.get("instance") + ", materialtypetable.jsonb as " + FIELDS.get("materialtype")
-    + ",\n"
-    + "locationtable.jsonb as " + FIELDS.get("permloc") + ", locationtabletemp.jsonb as " + FIELDS.get("temploc")
-    + ",\n"
-    + "locationtableeffective.jsonb as " + FIELDS.get("effloc") + ",\n"
-    + "loantable.jsonb as " + FIELDS.get("permloan") + ", loantabletemp.jsonb as " + FIELDS.get("temploan") + "\n"
-    + "FROM " + ITEM_TABLE + "\n"
-    + "INNER JOIN holdings_record as holdingstable on item.holdingsrecordid=holdingstable.id\n"
-    + "INNER JOIN instance as instancetable on holdingstable.instanceid=instancetable.id\n"
-    + "INNER JOIN material_type as materialtypetable on item.materialtypeid=materialtypetable.id\n"
-    + "LEFT JOIN location as locationtable on item.permanentlocationid = locationtable.id\n"
-    + "LEFT JOIN location as locationtabletemp on item.temporarylocationid = locationtabletemp.id\n"
-    + "LEFT JOIN location as locationtableeffective on item.effectivelocationid = locationtableeffective.id\n"
-    + "INNER JOIN loan_type as loantable on item.permanentloantypeid=loantable.id\n"
-    + "LEFT JOIN loan_type as loantabletemp on item.temporaryloantypeid=loantabletemp.id\n";
+  private static final String HOLDINGS_RECORD_FIELD = "holdingsRecord";
+  private static final String INSTANCE_RECORD_FIELD = "instanceRecord";
+  private static final List<String> ID_FIELDS = List.of("holdingsRecordId", "instanceId", "materialTypeId",
+    "permanentLocationId", "temporaryLocationId", "effectiveLocationId", "permanentLoanTypeId", "temporaryLoanTypeId");
+  // dereferenced field -> id field of the item and the table the id refers to
+  private static final Map<String, Pair<String, ReferenceTable>> REFERENCE_FIELDS = Map.of(
+    "materialType", Pair.of("materialTypeId", ReferenceTable.MATERIAL_TYPE),
+    "permanentLoanType", Pair.of("permanentLoanTypeId", ReferenceTable.LOAN_TYPE),
+    "temporaryLoanType", Pair.of("temporaryLoanTypeId", ReferenceTable.LOAN_TYPE),
+    "permanentLocation", Pair.of("permanentLocationId", ReferenceTable.LOCATION),
+    "temporaryLocation", Pair.of("temporaryLocationId", ReferenceTable.LOCATION),
+    "effectiveLocation", Pair.of("effectiveLocationId", ReferenceTable.LOCATION));
+  private static final List<String> REQUIRED_REFERENCE_FIELDS = List.of("materialType", "permanentLoanType");
+
+  private static final String SQL_QUERY = """
+    SELECT item.jsonb AS item, holdingstable.jsonb AS holdingsrecord, instancetable.jsonb AS instancerecord
+    FROM %1$s.item AS item
+    INNER JOIN %1$s.holdings_record AS holdingstable ON item.holdingsrecordid = holdingstable.id
+    INNER JOIN %1$s.instance AS instancetable ON holdingstable.instanceid = instancetable.id
+    """;
+  private static final String BY_ID_WHERE_CLAUSE = "WHERE item.id = $1";
 
   @Validate
   @Override
@@ -84,22 +79,18 @@ public class ItemStorageDereferencedApi implements ItemStorageDereferenced {
       return;
     }
 
-    List<DereferencedItem> mappedResults = new ArrayList<>();
-    PostgresClientFactory.getInstance(vertxContext, okapiHeaders)
-      .select(sqlQuery + whereClause, asyncResult -> {
-        if (Boolean.TRUE.equals(handleSelectFailure(asyncResult, asyncResultHandler))) {
-          return;
-        }
-        if (asyncResult.result().size() != 0) {
-          asyncResult.result().forEach(row -> mappedResults.add(mapToDereferencedItem(row)));
-        }
+    var postgresClient = PostgresClientFactory.getInstance(vertxContext, okapiHeaders);
+    postgresClient.execute(SQL_QUERY.formatted(postgresClient.getSchemaName()) + whereClause)
+      .compose(rows -> dereference(rows, postgresClient, okapiHeaders, vertxContext))
+      .onSuccess(mappedResults -> {
         DereferencedItems itemCollection = new DereferencedItems();
         itemCollection.setDereferencedItems(mappedResults);
         itemCollection.setTotalRecords(mappedResults.size());
 
         asyncResultHandler.handle(Future.succeededFuture(
           GetItemStorageDereferencedItemsResponse.respond200WithApplicationJson(itemCollection)));
-      });
+      })
+      .onFailure(e -> handleSelectFailure(e, asyncResultHandler));
   }
 
   private String buildWhereClause(String query, int limit, int offset,
@@ -129,33 +120,65 @@ public class ItemStorageDereferencedApi implements ItemStorageDereferenced {
       respondWith400Error("Invalid UUID", asyncResultHandler);
       return;
     }
-    String whereClause = "WHERE item.id='" + itemId + "'";
-    PostgresClientFactory.getInstance(vertxContext, okapiHeaders)
-      .select(sqlQuery + whereClause, asyncResult -> {
-        if (Boolean.TRUE.equals(handleSelectFailure(asyncResult, asyncResultHandler))) {
-          return;
-        }
-        if (asyncResult.result().size() == 0) {
+    var postgresClient = PostgresClientFactory.getInstance(vertxContext, okapiHeaders);
+    postgresClient.execute(SQL_QUERY.formatted(postgresClient.getSchemaName()) + BY_ID_WHERE_CLAUSE,
+        Tuple.of(UUID.fromString(itemId)))
+      .compose(rows -> dereference(rows, postgresClient, okapiHeaders, vertxContext))
+      .onSuccess(items -> {
+        if (items.isEmpty()) {
           respondWith404Error("No item records found matching provided UUID.", asyncResultHandler);
           return;
         }
-        Row row = asyncResult.result().iterator().next();
-
-        DereferencedItem item = mapToDereferencedItem(row);
         asyncResultHandler.handle(Future.succeededFuture(
-          GetItemStorageDereferencedItemsByItemIdResponse.respond200WithApplicationJson(item)));
-      });
+          GetItemStorageDereferencedItemsByItemIdResponse.respond200WithApplicationJson(items.getFirst())));
+      })
+      .onFailure(e -> handleSelectFailure(e, asyncResultHandler));
   }
 
-  private Boolean handleSelectFailure(AsyncResult<RowSet<Row>> asyncResult,
-                                      Handler<AsyncResult<Response>> asyncResultHandler) {
-
-    if (asyncResult.failed()) {
-      String errorMessage = asyncResult.cause().getMessage();
-      respondWith500Error("Can't retrive item records: " + errorMessage, asyncResultHandler);
-      return true;
+  /**
+   * Fills in the reference data from the tenant's {@link ReferenceDataCache}. The items whose material type or
+   * permanent loan type can't be resolved are skipped, as they have been by the former inner joins.
+   */
+  private Future<List<DereferencedItem>> dereference(RowSet<Row> rows, PostgresClient postgresClient,
+                                                     Map<String, String> okapiHeaders, Context vertxContext) {
+    if (rows.size() == 0) {
+      return Future.succeededFuture(List.of());
+    }
+    var referencedIds = new EnumMap<ReferenceTable, Set<String>>(ReferenceTable.class);
+    for (var table : ReferenceTable.values()) {
+      referencedIds.put(table, new HashSet<>());
     }
-    return false;
+    rows.forEach(row -> {
+      var item = row.getJsonObject("item");
+      REFERENCE_FIELDS.values().forEach(reference -> {
+        var id = item.getString(reference.getLeft());
+        if (id != null) {
+          referencedIds.get(reference.getRight()).add(id);
+        }
+      });
+    });
+
+    ReferenceDataCache cache = vertxContext.get(ReferenceDataCache.class.getName());
+    var tenantId = TenantTool.tenantId(okapiHeaders);
+    var referenceData = new EnumMap<ReferenceTable, Map<String, JsonObject>>(ReferenceTable.class);
+    return Future.all(referencedIds.entrySet().stream()
+        .map(entry -> cache.get(tenantId, entry.getKey(), entry.getValue(), postgresClient)
+          .onSuccess(records -> referenceData.put(entry.getKey(), records)))
+        .toList())
+      .map(v -> {
+        List<DereferencedItem> mappedResults = new ArrayList<>();
+        rows.forEach(row -> {
+          var item = mapToDereferencedItem(row, referenceData);
+          if (item != null) {
+            mappedResults.add(item);
+          }
+        });
+        return mappedResults;
+      });
+  }
+
+  private void handleSelectFailure(Throwable cause, Handler<AsyncResult<Response>> asyncResultHandler) {
+    respondWith500Error("Can't retrive item records: " + cause.getMessage(), asyncResultHandler);
   }
 
   private void respondWith500Error(String message, Handler<AsyncResult<Response>> asyncResultHandler) {
@@ -177,21 +200,29 @@ public class ItemStorageDereferencedApi implements ItemStorageDereferenced {
         GetItemStorageDereferencedItemsResponse.respond400WithTextPlain(message)));
   }
 
-  private DereferencedItem mapToDereferencedItem(Row row) {
-    JsonObject itemJson = (JsonObject) row.getJson("item");
-    ID_FIELDS.forEach(fieldName -> {
-      if (itemJson.containsKey(fieldName)) {
-        itemJson.remove(fieldName);
+  private DereferencedItem mapToDereferencedItem(Row row, Map<ReferenceTable, Map<String, JsonObject>> referenceData) {
+    JsonObject itemJson = row.getJsonObject("item");
+    for (var field : REQUIRED_REFERENCE_FIELDS) {
+      if (getReferenced(itemJson, REFERENCE_FIELDS.get(field), referenceData) == null) {
+        return null;
       }
-    });
-    List<String> fieldList = new ArrayList<>(FIELDS.values());
-    fieldList.forEach(fieldName -> {
-      int pos = row.getColumnIndex(fieldName.toLowerCase());
-      if (row.getJson(pos) != null) {
-        itemJson.put(fieldName, row.getJson(pos));
+    }
+    REFERENCE_FIELDS.forEach((field, reference) -> {
+      var referenced = getReferenced(itemJson, reference, referenceData);
+      if (referenced != null) {
+        itemJson.put(field, referenced.copy());
       }
     });
+    ID_FIELDS.forEach(itemJson::remove);
+    itemJson.put(HOLDINGS_RECORD_FIELD, row.getJsonObject(HOLDINGS_RECORD_FIELD.toLowerCase()));
+    itemJson.put(INSTANCE_RECORD_FIELD, row.getJsonObject(INSTANCE_RECORD_FIELD.toLowerCase()));
 
     return readValue(itemJson.toString(), DereferencedItem.class);
   }
+
+  private static JsonObject getReferenced(JsonObject itemJson, Pair<String, ReferenceTable> reference,
+                                          Map<ReferenceTable, Map<String, JsonObject>> referenceData) {
+    var id = itemJson.getString(reference.getLeft());
+    return id == null ? null : referenceData.get(reference.getRight()).get(id);
+  }
 }
@@ -1,31 +1,77 @@
 package org.folio.rest.impl;
 
+import static io.vertx.core.Future.succeededFuture;
+
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Context;
 import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RoutingContext;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import javax.ws.rs.core.Response;
 import org.folio.rest.annotations.Validate;
 import org.folio.rest.jaxrs.model.OaiPmhInstanceIds;
 import org.folio.rest.jaxrs.resource.OaiPmhView;
+import org.folio.rest.support.HarvestResumptionToken;
+import org.folio.utils.Environment;
+import org.folio.utils.UuidRange;
 
 public class OaiPmhViewInstancesApi extends AbstractInstanceRecordsApi implements OaiPmhView {
 
   private static final String SQL = "select * from pmh_view_function($1,$2,$3,$4);";
-  private static final String SQL_UPDATED_INSTANCES_IDS = "select * from pmh_get_updated_instances_ids($1,$2,$3,$4);";
+  private static final String SQL_RANGE =
+    "select * from pmh_view_range_function($1,$2,$3,$4,$5,$6) order by instanceid;";
+  private static final String HARVEST_PARALLELISM_PARAM = "oai-pmh.harvest.parallelism";
+  private static final int DEFAULT_HARVEST_PARALLELISM = 4;
+  private static final String SQL_UPDATED_INSTANCES_IDS =
+    "select * from pmh_get_updated_instances_ids_from_change_log($1,$2,$3,$4);";
   private static final String SQL_INSTANCES = "select * from pmh_instance_view_function($1,$2);";
 
   @Validate
   @Override
   public void getOaiPmhViewInstances(String startDate, String endDate, boolean deletedRecordSupport,
-                                     boolean skipSuppressedFromDiscoveryRecords,
+                                     boolean skipSuppressedFromDiscoveryRecords, int partitions,
+                                     Integer partition, String resumptionToken,
                                      RoutingContext routingContext, Map<String, String> okapiHeaders,
                                      Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
 
-    fetchRecordsByQuery(SQL,
-      () -> createPostgresParams(startDate, endDate, deletedRecordSupport, skipSuppressedFromDiscoveryRecords),
+    if (partitions == 1 && partition == null && resumptionToken == null) {
+      fetchRecordsByQuery(SQL,
+        () -> createPostgresParams(startDate, endDate, deletedRecordSupport, skipSuppressedFromDiscoveryRecords),
+        routingContext, okapiHeaders, asyncResultHandler, vertxContext
+      );
+      return;
+    }
+
+    HarvestResumptionToken token;
+    List<UuidRange> ranges;
+    try {
+      token = resumptionToken != null
+              ? HarvestResumptionToken.parse(resumptionToken)
+              : new HarvestResumptionToken(partitions, 0);
+      ranges = selectRanges(token, partition);
+    } catch (IllegalArgumentException e) {
+      log.warn("getOaiPmhViewInstances:: invalid partitioned harvest, partitions: {}, partition: {}",
+        partitions, partition, e);
+      asyncResultHandler.handle(succeededFuture(GetOaiPmhViewInstancesResponse.respond400WithTextPlain(
+        e.getMessage())));
+      return;
+    }
+
+    log.info("getOaiPmhViewInstances:: partitioned harvest, partitions: {}, ranges to stream: {}",
+      token.partitions(), ranges.size());
+    fetchRecordsByQueries(SQL_RANGE,
+      () -> ranges.stream()
+        .map(range -> createPostgresParams(startDate, endDate, deletedRecordSupport,
+          skipSuppressedFromDiscoveryRecords, tuple -> tuple.addUUID(range.from()).addValue(range.to())))
+        .toList(),
+      Math.max(1, Environment.getIntValue(HARVEST_PARALLELISM_PARAM, DEFAULT_HARVEST_PARALLELISM)),
+      index -> new JsonObject()
+        .put("resumptionToken",
+          new HarvestResumptionToken(token.partitions(), token.completedRanges() + index + 1).encode())
+        .encode(),
       routingContext, okapiHeaders, asyncResultHandler, vertxContext
     );
   }
@@ -57,4 +103,19 @@ public class OaiPmhViewInstancesApi extends AbstractInstanceRecordsApi implement
       routingContext, okapiHeaders, asyncResultHandler, vertxContext
     );
   }
+
+  /**
+   * Returns the instance id ranges still to be streamed: the requested range only, or the ranges
+   * the resumption token does not mark as completed.
+   */
+  private static List<UuidRange> selectRanges(HarvestResumptionToken token, Integer partition) {
+    var ranges = UuidRange.split(token.partitions());
+    if (partition == null) {
+      return ranges.subList(token.completedRanges(), ranges.size());
+    }
+    if (partition >= token.partitions()) {
+      throw new IllegalArgumentException("partition must be less than partitions: " + partition);
+    }
+    return List.of(ranges.get(partition));
+  }
 }
@@ -13,6 +13,8 @@ import java.util.Objects;
 import javax.ws.rs.core.Response;
 import org.folio.persist.ReindexJobRepository;
 import org.folio.rest.annotations.Validate;
+import org.folio.rest.exceptions.BadRequestException;
+import org.folio.rest.exceptions.NotFoundException;
 import org.folio.rest.jaxrs.model.ReindexJob;
 import org.folio.rest.jaxrs.model.ReindexJobs;
 import org.folio.rest.jaxrs.resource.InstanceStorageReindex;
@@ -69,4 +71,26 @@ public class ReindexInstanceApi implements InstanceStorageReindex {
       .onFailure(error -> asyncResultHandler.handle(Future.succeededFuture(
         DeleteInstanceStorageReindexByIdResponse.respond500WithTextPlain(error.getMessage()))));
   }
+
+  @Validate
+  @Override
+  public void postInstanceStorageReindexResumeById(String id, Map<String, String> okapiHeaders,
+                                                   Handler<AsyncResult<Response>> asyncResultHandler,
+                                                   Context vertxContext) {
+
+    new ReindexService(vertxContext, okapiHeaders).resumeReindex(id)
+      .onSuccess(response -> asyncResultHandler.handle(Future.succeededFuture(
+        PostInstanceStorageReindexResumeByIdResponse.respond200WithApplicationJson(response))))
+      .onFailure(error -> asyncResultHandler.handle(Future.succeededFuture(resumeErrorResponse(error))));
+  }
+
+  private static Response resumeErrorResponse(Throwable error) {
+    if (error instanceof BadRequestException) {
+      return PostInstanceStorageReindexResumeByIdResponse.respond400WithTextPlain(error.getMessage());
+    }
+    if (error instanceof NotFoundException) {
+      return PostInstanceStorageReindexResumeByIdResponse.respond404WithTextPlain(error.getMessage());
+    }
+    return PostInstanceStorageReindexResumeByIdResponse.respond500WithTextPlain(error.getMessage());
+  }
 }
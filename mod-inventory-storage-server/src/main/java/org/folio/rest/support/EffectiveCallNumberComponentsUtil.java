@@ -2,13 +2,12 @@ package org.folio.rest.support;
 
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.apache.commons.lang3.StringUtils;
 import org.folio.rest.jaxrs.model.EffectiveCallNumberComponents;
 import org.folio.rest.jaxrs.model.HoldingsRecord;
@@ -30,13 +29,7 @@ public final class EffectiveCallNumberComponentsUtil {
 
   public static Item calculateAndSetEffectiveShelvingOrder(Item item) {
     if (isNotBlank(item.getEffectiveCallNumberComponents().getCallNumber())) {
-      var shelfKey = calculateShelfKey(item);
-      var suffixValue = extractSuffixValue(item);
-      var nonNullableSuffixValue = suffixValue.isEmpty() ? "" : " " + suffixValue;
-
-      item.setEffectiveShelvingOrder(
-        shelfKey.map(shelfKeyValue -> shelfKeyValue + nonNullableSuffixValue)
-          .orElse(nonNullableSuffixValue));
+      setEffectiveShelvingOrder(item, calculateShelfKey(item));
     } else {
       item.setEffectiveShelvingOrder(null);
     }
@@ -44,19 +37,49 @@ public final class EffectiveCallNumberComponentsUtil {
     return item;
   }
 
+  /**
+   * Calculates and sets the effective shelving order of the items in one pass, once their effective call number
+   * components are set.
+   */
+  public static List<Item> calculateAndSetEffectiveShelvingOrder(List<Item> items) {
+    for (var item : items) {
+      calculateAndSetEffectiveShelvingOrder(item);
+    }
+    return items;
+  }
+
+  private static void setEffectiveShelvingOrder(Item item, Optional<String> shelfKey) {
+    var suffixValue = extractSuffixValue(item);
+    var nonNullableSuffixValue = suffixValue.isEmpty() ? "" : " " + suffixValue;
+
+    item.setEffectiveShelvingOrder(
+      shelfKey.map(shelfKeyValue -> shelfKeyValue + nonNullableSuffixValue)
+        .orElse(nonNullableSuffixValue));
+  }
+
   private static Optional<String> calculateShelfKey(Item item) {
     return CallNumberUtils.getShelfKeyFromCallNumber(
-      item.getEffectiveCallNumberComponents().getTypeId(),
-      Stream.of(
-          item.getEffectiveCallNumberComponents().getCallNumber(),
-          item.getVolume(),
-          item.getEnumeration(),
-          item.getChronology(),
-          item.getCopyNumber()
-        ).filter(StringUtils::isNotBlank)
-        .map(StringUtils::trim)
-        .collect(Collectors.joining(" "))
-    );
+      item.getEffectiveCallNumberComponents().getTypeId(), buildFullCallNumber(item));
+  }
+
+  private static String buildFullCallNumber(Item item) {
+    var fullCallNumber = new StringBuilder();
+    appendTrimmed(fullCallNumber, item.getEffectiveCallNumberComponents().getCallNumber());
+    appendTrimmed(fullCallNumber, item.getVolume());
+    appendTrimmed(fullCallNumber, item.getEnumeration());
+    appendTrimmed(fullCallNumber, item.getChronology());
+    appendTrimmed(fullCallNumber, item.getCopyNumber());
+    return fullCallNumber.toString();
+  }
+
+  private static void appendTrimmed(StringBuilder builder, String value) {
+    if (StringUtils.isBlank(value)) {
+      return;
+    }
+    if (!builder.isEmpty()) {
+      builder.append(' ');
+    }
+    builder.append(value.trim());
   }
 
   private static String extractSuffixValue(Item item) {
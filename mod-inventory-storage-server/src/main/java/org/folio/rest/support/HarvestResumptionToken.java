@@ -0,0 +1,45 @@
+package org.folio.rest.support;
+
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque token of a partitioned OAI-PMH harvest. The ranges are streamed in instance id order,
+ * so the completed ranges are always the first ones and the token only holds their number.
+ *
+ * @param partitions number of instance id ranges the harvest is split into
+ * @param completedRanges number of the ranges that have been streamed completely
+ */
+public record HarvestResumptionToken(int partitions, int completedRanges) {
+
+  /**
+   * Maximum number of partitions, as limited by the partitions parameter of the harvest endpoint.
+   */
+  public static final int MAX_PARTITIONS = 256;
+  private static final String PARTITIONS_KEY = "partitions";
+  private static final String COMPLETED_RANGES_KEY = "completedRanges";
+
+  public static HarvestResumptionToken parse(String token) {
+    try {
+      var json = new JsonObject(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+      var partitions = json.getInteger(PARTITIONS_KEY);
+      var completedRanges = json.getInteger(COMPLETED_RANGES_KEY);
+      if (partitions < 1 || partitions > MAX_PARTITIONS || completedRanges < 0 || completedRanges > partitions) {
+        throw new IllegalArgumentException();
+      }
+      return new HarvestResumptionToken(partitions, completedRanges);
+    } catch (IllegalArgumentException | NullPointerException | DecodeException | ClassCastException e) {
+      throw new IllegalArgumentException("Invalid resumption token: " + token);
+    }
+  }
+
+  public String encode() {
+    var json = new JsonObject()
+      .put(PARTITIONS_KEY, partitions)
+      .put(COMPLETED_RANGES_KEY, completedRanges)
+      .encode();
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+  }
+}
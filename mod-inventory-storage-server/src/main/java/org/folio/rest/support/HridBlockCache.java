@@ -0,0 +1,182 @@
+package org.folio.rest.support;
+
+import io.vertx.core.Vertx;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.utils.Environment;
+
+/**
+ * Per-tenant, per-sequence cache of HRID sequence values reserved in blocks, together with the HRID prefix
+ * and number format of the block. Values not handed out before the block is invalidated or expires are dropped,
+ * so gaps in HRIDs are possible when the block size is greater than one.
+ */
+public final class HridBlockCache {
+
+  private static final Logger log = LogManager.getLogger(HridBlockCache.class);
+  private static final String BLOCK_SIZE_PARAM = "hrid.block.size";
+  private static final int DEFAULT_BLOCK_SIZE = 1;
+  private static final String BLOCK_TTL_PARAM = "hrid.block.ttl.seconds";
+  private static final int DEFAULT_BLOCK_TTL_SECONDS = 300;
+  private static final String STATS_INTERVAL_PARAM = "hrid.block.stats.interval.seconds";
+  private static final int DEFAULT_STATS_INTERVAL_SECONDS = 300;
+  private static final HridBlockCache INSTANCE = new HridBlockCache(
+    Environment.getIntValue(BLOCK_SIZE_PARAM, DEFAULT_BLOCK_SIZE),
+    TimeUnit.SECONDS.toMillis(Environment.getIntValue(BLOCK_TTL_PARAM, DEFAULT_BLOCK_TTL_SECONDS)));
+
+  private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+  private final AtomicLong refills = new AtomicLong();
+  private final AtomicLong reservedValues = new AtomicLong();
+  private final AtomicLong cacheHits = new AtomicLong();
+  private final AtomicLong cacheMisses = new AtomicLong();
+  private final AtomicBoolean statsLogged = new AtomicBoolean();
+  private final int blockSize;
+  private final long ttlMillis;
+
+  HridBlockCache(int blockSize, long ttlMillis) {
+    this.blockSize = Math.max(1, blockSize);
+    this.ttlMillis = ttlMillis;
+  }
+
+  public static HridBlockCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns the number of sequence values to reserve with one database call when {@code n} HRIDs are required
+   * and the cached block does not have enough of them.
+   */
+  int getReservationSize(int n) {
+    return Math.max(n, blockSize);
+  }
+
+  /**
+   * Takes {@code n} HRIDs from the cached block of the given tenant and sequence.
+   *
+   * @return formatted HRIDs or empty list if the block is missing, expired or has less than {@code n} values
+   */
+  List<String> take(String tenantId, String sequenceName, int n) {
+    var block = blocks.get(key(tenantId, sequenceName));
+    if (block != null) {
+      synchronized (block) {
+        if (!block.isExpired(ttlMillis) && block.values.size() >= n) {
+          cacheHits.incrementAndGet();
+          return block.format(n);
+        }
+      }
+    }
+    cacheMisses.incrementAndGet();
+    return Collections.emptyList();
+  }
+
+  /**
+   * Stores the newly reserved sequence {@code values} as the block of the given tenant and sequence,
+   * and returns the first {@code n} of them formatted as HRIDs. Values left from the previous block
+   * are handed out before the new ones.
+   */
+  List<String> refill(String tenantId, String sequenceName, String prefix, String formatter,
+                      List<Long> values, int n) {
+    refills.incrementAndGet();
+    reservedValues.addAndGet(values.size());
+    var newBlock = new Block(prefix, formatter, System.currentTimeMillis());
+    var previousBlock = blocks.put(key(tenantId, sequenceName), newBlock);
+    synchronized (newBlock) {
+      if (previousBlock != null) {
+        synchronized (previousBlock) {
+          if (!previousBlock.isExpired(ttlMillis) && previousBlock.hasSameFormat(prefix, formatter)) {
+            newBlock.values.addAll(previousBlock.values);
+          }
+          previousBlock.values.clear();
+        }
+      }
+      newBlock.values.addAll(values);
+      log.debug("refill:: HRID block refilled, tenantId: '{}', sequence: '{}', reserved: {}, available: {}",
+        tenantId, sequenceName, values.size(), newBlock.values.size() - n);
+      return newBlock.format(n);
+    }
+  }
+
+  /**
+   * Drops all cached blocks of the given tenant, for example, after HRID settings have been changed.
+   */
+  public void invalidate(String tenantId) {
+    var prefix = tenantId + ":";
+    blocks.keySet().removeIf(key -> key.startsWith(prefix));
+  }
+
+  /**
+   * Starts logging the refills, reserved values, hits and misses of the cache every
+   * {@code hrid.block.stats.interval.seconds}. The cache is shared by the verticles of the module instance, so
+   * only the first call starts the timer, and nothing is logged if blocks are not used.
+   */
+  public void logStatsPeriodically(Vertx vertx) {
+    if (blockSize > 1 && statsLogged.compareAndSet(false, true)) {
+      long statsInterval = Environment.getIntValue(STATS_INTERVAL_PARAM, DEFAULT_STATS_INTERVAL_SECONDS) * 1000L;
+      vertx.setPeriodic(statsInterval, id -> logStats());
+    }
+  }
+
+  void logStats() {
+    log.info("logStats:: HRID block cache, blockSize: {}, refills: {}, reservedValues: {}, hits: {}, misses: {}",
+      blockSize, getRefillsCount(), getReservedValuesCount(), getCacheHitsCount(), getCacheMissesCount());
+  }
+
+  public long getRefillsCount() {
+    return refills.get();
+  }
+
+  public long getReservedValuesCount() {
+    return reservedValues.get();
+  }
+
+  public long getCacheHitsCount() {
+    return cacheHits.get();
+  }
+
+  public long getCacheMissesCount() {
+    return cacheMisses.get();
+  }
+
+  private static String key(String tenantId, String sequenceName) {
+    return tenantId + ":" + sequenceName;
+  }
+
+  private static final class Block {
+    private final Deque<Long> values = new ArrayDeque<>();
+    private final String prefix;
+    private final String formatter;
+    private final long createdAt;
+
+    private Block(String prefix, String formatter, long createdAt) {
+      this.prefix = prefix;
+      this.formatter = formatter;
+      this.createdAt = createdAt;
+    }
+
+    private boolean isExpired(long ttlMillis) {
+      return System.currentTimeMillis() - createdAt > ttlMillis;
+    }
+
+    private boolean hasSameFormat(String otherPrefix, String otherFormatter) {
+      return Objects.equals(prefix, otherPrefix) && Objects.equals(formatter, otherFormatter);
+    }
+
+    private List<String> format(int n) {
+      List<String> hrids = new ArrayList<>(n);
+      for (int i = 0; i < n; i++) {
+        hrids.add(String.format(formatter, Objects.toString(prefix, ""), values.poll()));
+      }
+      return hrids;
+    }
+  }
+}
@@ -7,7 +7,7 @@ import io.vertx.core.json.Json;
 import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowSet;
 import io.vertx.sqlclient.Tuple;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -33,9 +33,15 @@ public class HridManager {
   private static final String HRID_HOLDINGS_SEQUENCE_NAME = "hrid_holdings_seq";
 
   private final PostgresClient postgresClient;
+  private final HridBlockCache hridBlockCache;
 
   public HridManager(PostgresClient postgresClient) {
+    this(postgresClient, HridBlockCache.getInstance());
+  }
+
+  HridManager(PostgresClient postgresClient, HridBlockCache hridBlockCache) {
     this.postgresClient = Objects.requireNonNull(postgresClient, "PostgresClient cannot be null");
+    this.hridBlockCache = Objects.requireNonNull(hridBlockCache, "HridBlockCache cannot be null");
   }
 
   public Future<Item> populateHrid(Item item) {
@@ -77,7 +83,9 @@ public class HridManager {
         .compose(x -> updateSequence(conn, HRID_INSTANCES_SEQUENCE_NAME, hridSettings.getInstances()))
         .compose(x -> updateSequence(conn, HRID_HOLDINGS_SEQUENCE_NAME, hridSettings.getHoldings()))
         .compose(x -> updateSequence(conn, HRID_ITEMS_SEQUENCE_NAME, hridSettings.getItems()))
-        .mapEmpty());
+        .mapEmpty())
+      .onComplete(ar -> hridBlockCache.invalidate(postgresClient.getTenantId()))
+      .mapEmpty();
   }
 
   private <T> Future<List<T>> populateHrids(InventoryType inventoryType, List<T> list,
@@ -113,26 +121,27 @@ public class HridManager {
 
   /**
    * Return the next n HRIDs for the given type.
+   * The HRIDs are taken from the block of sequence values cached for the tenant, if the block has enough of them,
+   * otherwise a new block is reserved with a single database call.
    */
   private Future<List<String>> getNextHrids(InventoryType type, int n) {
     if (n == 0) {
       return Future.succeededFuture(Collections.emptyList());
     }
-    String sql = "SELECT jsonb::text%s FROM hrid_settings".formatted(", nextval($1)".repeat(Math.max(0, n)));
-    return postgresClient.selectSingle(sql, Tuple.of(type.getSequenceName()))
+    String tenantId = postgresClient.getTenantId();
+    List<String> cachedHrids = hridBlockCache.take(tenantId, type.getSequenceName(), n);
+    if (!cachedHrids.isEmpty()) {
+      return Future.succeededFuture(cachedHrids);
+    }
+
+    String sql = "SELECT jsonb::text, array(SELECT nextval($1) FROM generate_series(1, $2)) FROM hrid_settings";
+    int reservationSize = hridBlockCache.getReservationSize(n);
+    return postgresClient.selectSingle(sql, Tuple.of(type.getSequenceName(), reservationSize))
       .map(row -> {
         HridSettings hridSettings = Json.decodeValue(row.getString(0), HridSettings.class);
-        final String hridPrefix = type.getPrefix(hridSettings);
-        final String formatter = getHridFormatter(hridSettings);
-        List<String> list = new ArrayList<>(n);
-        for (int i = 1; i <= n; i++) {
-          String hrid = String.format(
-            formatter,
-            Objects.toString(hridPrefix, ""),
-            row.getLong(i));
-          list.add(hrid);
-        }
-        return list;
+        List<Long> values = Arrays.asList(row.getArrayOfLongs(1));
+        return hridBlockCache.refill(tenantId, type.getSequenceName(), type.getPrefix(hridSettings),
+          getHridFormatter(hridSettings), values, n);
       });
   }
 
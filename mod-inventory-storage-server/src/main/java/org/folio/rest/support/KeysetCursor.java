@@ -0,0 +1,41 @@
+package org.folio.rest.support;
+
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque token of keyset (cursor) paging. The token holds the sort key of the last record of the page,
+ * records are sorted by id, so the sort key is the id itself.
+ *
+ * @param lastId id of the last record of the previous page, {@code null} for the first page
+ */
+public record KeysetCursor(String lastId) {
+
+  public static final String FIRST_PAGE = "*";
+  private static final String ID_KEY = "id";
+
+  public static KeysetCursor parse(String token) {
+    if (FIRST_PAGE.equals(token)) {
+      return new KeysetCursor(null);
+    }
+
+    try {
+      var json = new JsonObject(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+      return new KeysetCursor(UUID.fromString(json.getString(ID_KEY)).toString());
+    } catch (IllegalArgumentException | NullPointerException | DecodeException | ClassCastException e) {
+      throw new IllegalArgumentException("Invalid cursor: " + token);
+    }
+  }
+
+  public boolean isFirstPage() {
+    return lastId == null;
+  }
+
+  public String encode() {
+    var json = new JsonObject().put(ID_KEY, lastId).encode();
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+  }
+}
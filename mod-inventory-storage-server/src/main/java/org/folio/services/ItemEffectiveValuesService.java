@@ -15,6 +15,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.folio.persist.HoldingsRepository;
 import org.folio.rest.exceptions.ValidationException;
@@ -26,14 +27,23 @@ public class ItemEffectiveValuesService {
   private final HoldingsRepository holdingsRepository;
 
   public ItemEffectiveValuesService(Context context, Map<String, String> okapiHeaders) {
-    this.holdingsRepository = new HoldingsRepository(context, okapiHeaders);
+    this.holdingsRepository = TenantComponents.get(context, okapiHeaders, HoldingsRepository.class,
+      HoldingsRepository::new);
   }
 
   public Future<List<Item>> populateEffectiveValues(List<Item> items) {
     return getHoldingsRecordsForItems(items)
-      .map(holdingsRecordMap -> items.stream()
-        .map(item -> populateEffectiveValues(item, holdingsRecordMap.get(item.getHoldingsRecordId())))
-        .toList());
+      .map(holdingsRecordMap -> populateEffectiveValues(items,
+        item -> holdingsRecordMap.get(item.getHoldingsRecordId())));
+  }
+
+  public List<Item> populateEffectiveValues(List<Item> items, Function<Item, HoldingsRecord> holdingsRecords) {
+    for (var item : items) {
+      var holdingsRecord = holdingsRecords.apply(item);
+      updateItemEffectiveLocation(item, holdingsRecord);
+      setCallNumberComponents(item, holdingsRecord);
+    }
+    return calculateAndSetEffectiveShelvingOrder(items);
   }
 
   public Future<Item> populateEffectiveValues(Item item) {
@@ -13,6 +13,7 @@ public class SuDocCallNumber extends AbstractCallNumber {
   private static final String GROUP5 = "(.*)";
   public static final String SU_DOC_PATTERN = "^(?:" + GROUP1 + GROUP2 + GROUP3 + GROUP4 + ")?:?" + GROUP5;
   protected static Pattern stemPattern = Pattern.compile(SU_DOC_PATTERN);
+  private static final Pattern PART_SEPARATOR = Pattern.compile("[./ -]");
   protected String authorSymbol;
   protected String subordinateOffice;
   protected String series;
@@ -101,7 +102,7 @@ public class SuDocCallNumber extends AbstractCallNumber {
     if (cnPart.startsWith(".") || cnPart.startsWith("/") || cnPart.startsWith("-") || cnPart.startsWith(":")) {
       cnPart = cnPart.substring(1);
     }
-    var parts = cnPart.split("[./ -]");
+    var parts = PART_SEPARATOR.split(cnPart);
     for (String part : parts) {
       if (!key.isEmpty()) {
         key.append(' ');
@@ -0,0 +1,85 @@
+package org.folio.services;
+
+import static org.folio.rest.persist.PgUtil.postgresClient;
+import static org.folio.rest.tools.utils.TenantTool.tenantId;
+
+import io.vertx.core.Context;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import org.folio.rest.persist.PostgresClient;
+
+/**
+ * Context-scoped registry of the long-lived components that don't depend on the request: repositories,
+ * request independent services, Kafka producer managers and failure handlers. The request-scoped services and
+ * event publishers take them from here instead of building them for every request, and pass the okapi headers
+ * to them separately where needed.
+ *
+ * <p>The components of a tenant are bound to the tenant's {@link PostgresClient}, they are created again if the
+ * client of the tenant has been replaced, e.g. after the tenant has been disabled and enabled again.
+ */
+public final class TenantComponents {
+
+  private static final String CONTEXT_KEY = TenantComponents.class.getName();
+
+  private final Map<String, TenantEntry> tenants = new ConcurrentHashMap<>();
+  private final Map<String, Object> shared = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the registry of the context, it is created on first use.
+   */
+  public static TenantComponents from(Context context) {
+    TenantComponents components = context.get(CONTEXT_KEY);
+    if (components == null) {
+      components = new TenantComponents();
+      context.put(CONTEXT_KEY, components);
+    }
+    return components;
+  }
+
+  /**
+   * Returns the component of the type for the tenant of the headers, it is created by {@code factory} if there is
+   * none yet. The component is shared by all requests of the tenant, so it must not keep the headers.
+   */
+  public static <T> T get(Context context, Map<String, String> okapiHeaders, Class<T> type,
+                          BiFunction<Context, Map<String, String>, T> factory) {
+
+    return from(context).get(tenantId(okapiHeaders), postgresClient(context, okapiHeaders), type,
+      () -> factory.apply(context, okapiHeaders));
+  }
+
+  /**
+   * Returns the component of the type for the tenant, it is created by {@code factory} if there is none yet
+   * for the given client of the tenant.
+   */
+  public <T> T get(String tenantId, PostgresClient postgresClient, Class<T> type, Supplier<T> factory) {
+    var entry = tenants.get(tenantId);
+    if (entry == null || entry.postgresClient() != postgresClient) {
+      entry = new TenantEntry(postgresClient, new ConcurrentHashMap<>());
+      tenants.put(tenantId, entry);
+    }
+    return type.cast(getOrCreate(entry.components(), type.getName(), factory));
+  }
+
+  /**
+   * Returns the named component that is shared by all tenants, it is created by {@code factory} if there is
+   * none yet.
+   */
+  public <T> T getShared(String name, Class<T> type, Supplier<T> factory) {
+    return type.cast(getOrCreate(shared, name, factory));
+  }
+
+  // factories may look up other components, so computeIfAbsent that forbids recursive updates is not used
+  private static Object getOrCreate(Map<String, Object> components, String key, Supplier<?> factory) {
+    var component = components.get(key);
+    if (component != null) {
+      return component;
+    }
+    var created = factory.get();
+    var existing = components.putIfAbsent(key, created);
+    return existing != null ? existing : created;
+  }
+
+  private record TenantEntry(PostgresClient postgresClient, Map<String, Object> components) { }
+}
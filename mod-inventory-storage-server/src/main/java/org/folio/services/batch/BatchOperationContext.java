@@ -1,19 +1,45 @@
 package org.folio.services.batch;
 
+import static java.util.Collections.emptyList;
 import static java.util.Collections.unmodifiableCollection;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
 
 /**
  * Context for batch operation.
  *
  * @param existingRecords Existing records from database, without update.
+ * @param unchangedRecords Records of the batch that are equal to the existing ones, they are neither saved nor
+ *                         published.
  */
 public record BatchOperationContext<T>(Collection<T> recordsToBeCreated, Collection<T> existingRecords,
-                                       boolean publishEvents) {
-  public BatchOperationContext(Collection<T> recordsToBeCreated, Collection<T> existingRecords, boolean publishEvents) {
+                                       boolean publishEvents, Collection<T> unchangedRecords) {
+  public BatchOperationContext(Collection<T> recordsToBeCreated, Collection<T> existingRecords, boolean publishEvents,
+                               Collection<T> unchangedRecords) {
     this.recordsToBeCreated = unmodifiableCollection(recordsToBeCreated);
     this.existingRecords = unmodifiableCollection(existingRecords);
     this.publishEvents = publishEvents;
+    this.unchangedRecords = unmodifiableCollection(unchangedRecords);
+  }
+
+  public BatchOperationContext(Collection<T> recordsToBeCreated, Collection<T> existingRecords, boolean publishEvents) {
+    this(recordsToBeCreated, existingRecords, publishEvents, emptyList());
+  }
+
+  /**
+   * Returns the records to be saved, these are the given batch records without the unchanged ones.
+   */
+  public List<T> recordsToBeSaved(List<T> records) {
+    if (unchangedRecords.isEmpty()) {
+      return records;
+    }
+    var unchanged = Collections.newSetFromMap(new IdentityHashMap<T, Boolean>());
+    unchanged.addAll(unchangedRecords);
+    return records.stream()
+      .filter(rec -> !unchanged.contains(rec))
+      .toList();
   }
 }
@@ -2,8 +2,11 @@ package org.folio.services.batch;
 
 import static io.vertx.core.Future.succeededFuture;
 import static java.util.Collections.emptyList;
+import static org.folio.utils.ComparisonUtils.isUnchanged;
 
 import io.vertx.core.Future;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.function.Function;
 import org.folio.persist.AbstractRepository;
@@ -16,16 +19,47 @@ public final class BatchOperationContextFactory {
                                                                                 Function<T, String> idGetter,
                                                                                 boolean publishEvents) {
 
+    return buildBatchOperationContext(upsert, all, repository, idGetter, publishEvents, false);
+  }
+
+  /**
+   * Builds the context of a batch operation, if {@code skipUnchanged} is set the upserted records that are equal
+   * to the existing ones are put to the unchanged records instead of the records to be updated.
+   */
+  public static <T> Future<BatchOperationContext<T>> buildBatchOperationContext(boolean upsert, List<T> all,
+                                                                                AbstractRepository<T> repository,
+                                                                                Function<T, String> idGetter,
+                                                                                boolean publishEvents,
+                                                                                boolean skipUnchanged) {
+
     if (!upsert) {
       return succeededFuture(new BatchOperationContext<>(all, emptyList(), publishEvents));
     }
 
     return repository.getByIds(all, idGetter).map(found -> {
-      final var toBeCreated = all.stream()
-        .filter(entity -> !found.containsKey(idGetter.apply(entity)))
-        .toList();
+      if (!skipUnchanged) {
+        final var toBeCreated = all.stream()
+          .filter(entity -> !found.containsKey(idGetter.apply(entity)))
+          .toList();
+
+        return new BatchOperationContext<>(toBeCreated, found.values(), publishEvents);
+      }
 
-      return new BatchOperationContext<>(toBeCreated, found.values(), publishEvents);
+      var toBeCreated = new ArrayList<T>();
+      var existing = new LinkedHashMap<String, T>();
+      var unchanged = new ArrayList<T>();
+      for (var entity : all) {
+        var id = idGetter.apply(entity);
+        var existingEntity = found.get(id);
+        if (existingEntity == null) {
+          toBeCreated.add(entity);
+        } else if (isUnchanged(existingEntity, entity)) {
+          unchanged.add(entity);
+        } else {
+          existing.put(id, existingEntity);
+        }
+      }
+      return new BatchOperationContext<>(toBeCreated, existing.values(), publishEvents, unchanged);
     });
   }
 }
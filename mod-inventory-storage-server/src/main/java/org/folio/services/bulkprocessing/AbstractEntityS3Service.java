@@ -1,10 +1,12 @@
 package org.folio.services.bulkprocessing;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import java.io.BufferedReader;
-import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
@@ -27,6 +29,8 @@ import org.jspecify.annotations.NonNull;
 /**
  * The service that interacts with S3-compatible storage to perform upsert operations on entities retrieved
  * from external file. The file to be processed is specified through {@link BulkUpsertRequest}.
+ * The file is read incrementally and processed in chunks of a configurable size, so only one chunk of entities
+ * is held in memory at a time, and the next chunk is read only after the previous one has been upserted.
  * If an errors occurs during the processing, then uploads two files containing the failed entities
  * and their associated errors to S3-compatible storage.
  *
@@ -39,33 +43,42 @@ public abstract class AbstractEntityS3Service<T, R> {
   private static final Logger log = LogManager.getLogger(AbstractEntityS3Service.class);
   private static final String ENTITIES_PARALLEL_UPSERT_COUNT_PARAM = "bulk-processing.parallel.processBulkUpsert.count";
   private static final int DEFAULT_ENTITIES_PARALLEL_UPSERT_COUNT = 10;
+  private static final String ENTITIES_CHUNK_SIZE_PARAM = "bulk-processing.chunk.size";
+  private static final int DEFAULT_ENTITIES_CHUNK_SIZE = 1000;
 
   protected final Vertx vertx;
   protected final FolioS3Client s3Client;
   protected final int entitiesParallelUpsertLimit;
+  protected final int entitiesChunkSize;
 
   protected AbstractEntityS3Service(Vertx vertx) {
     this.entitiesParallelUpsertLimit = Environment.getIntValue(ENTITIES_PARALLEL_UPSERT_COUNT_PARAM,
       DEFAULT_ENTITIES_PARALLEL_UPSERT_COUNT);
+    this.entitiesChunkSize = Environment.getIntValue(ENTITIES_CHUNK_SIZE_PARAM, DEFAULT_ENTITIES_CHUNK_SIZE);
     this.vertx = vertx;
     this.s3Client = getFolioS3Client();
   }
 
   /**
-   * Processes a bulk request for entities by loading entities from the specified file in {@link BulkUpsertRequest}
-   * located on S3-compatible storage, and upserts them into the database.
+   * Processes a bulk request for entities by reading entities from the specified file in {@link BulkUpsertRequest}
+   * located on S3-compatible storage chunk by chunk, and upserts each chunk into the database.
+   * If upsert of a chunk fails, only the entities of that chunk are retried one by one.
    * If an errors occurs during the processing, the method uploads two files containing the failed entities
    * and their associated errors to S3-compatible storage.
    *
    * @param bulkRequest - bulk entities request containing external file to be processed
-   * @return {@link Future} of {@link BulkUpsertResponse} containing errors count, and files with failed entities
-   *   and errors encountered during processing
+   * @return {@link Future} of {@link BulkUpsertResponse} containing errors count, processed records and chunks count,
+   *   and files with failed entities and errors encountered during processing
    */
   public Future<BulkUpsertResponse> processBulkUpsert(BulkUpsertRequest bulkRequest) {
     log.debug("processBulkUpsert:: Processing bulk entities request, filename: '{}'", bulkRequest.getRecordsFileName());
-    return loadEntities(bulkRequest)
-      .compose(entities -> ensureEntitiesWithNonMarcControlledFieldsData(entities).map(entities))
-      .compose(entities -> upsertEntities(entities, bulkRequest))
+    var chunksContext = new ChunksProcessingContext(new BulkProcessingContext(bulkRequest));
+
+    return openReader(bulkRequest)
+      .compose(reader -> processChunks(reader, chunksContext)
+        .eventually(() -> closeReader(reader)))
+      .compose(v -> completeErrorsProcessing(chunksContext))
+      .map(v -> buildResponse(chunksContext))
       .onFailure(e -> log.warn("processBulkUpsert:: Failed to process bulk entities request, filename: '{}'",
         bulkRequest.getRecordsFileName(), e));
   }
@@ -125,37 +138,103 @@ public abstract class AbstractEntityS3Service<T, R> {
     }
   }
 
-  private Future<List<T>> loadEntities(BulkUpsertRequest bulkRequest) {
+  private Future<BufferedReader> openReader(BulkUpsertRequest bulkRequest) {
+    return vertx.executeBlocking(() ->
+      new BufferedReader(new InputStreamReader(s3Client.read(bulkRequest.getRecordsFileName()), UTF_8)));
+  }
+
+  private Future<Void> closeReader(BufferedReader reader) {
     return vertx.executeBlocking(() -> {
-      InputStream inputStream = s3Client.read(bulkRequest.getRecordsFileName());
-      try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
-        return mapToEntities(reader.lines());
+      reader.close();
+      return null;
+    });
+  }
+
+  private Future<Void> processChunks(BufferedReader reader, ChunksProcessingContext chunksContext) {
+    Promise<Void> promise = Promise.promise();
+    processNextChunk(reader, chunksContext, promise);
+    return promise.future();
+  }
+
+  private void processNextChunk(BufferedReader reader, ChunksProcessingContext chunksContext, Promise<Void> promise) {
+    readChunk(reader)
+      .compose(entities -> entities.isEmpty()
+        ? Future.succeededFuture(false)
+        : processChunk(entities, chunksContext).map(true))
+      .onFailure(promise::fail)
+      .onSuccess(hasMore -> {
+        if (Boolean.TRUE.equals(hasMore)) {
+          processNextChunk(reader, chunksContext, promise);
+        } else {
+          promise.complete();
+        }
+      });
+  }
+
+  private Future<List<T>> readChunk(BufferedReader reader) {
+    return vertx.executeBlocking(() -> {
+      List<String> lines = new ArrayList<>(entitiesChunkSize);
+      String line;
+      while (lines.size() < entitiesChunkSize && (line = reader.readLine()) != null) {
+        if (!line.isBlank()) {
+          lines.add(line);
+        }
       }
+      return lines.isEmpty() ? List.of() : mapToEntities(lines.stream());
     });
   }
 
-  private Future<BulkUpsertResponse> upsertEntities(List<T> entities, BulkUpsertRequest bulkRequest) {
-    BulkProcessingContext bulkProcessingContext = new BulkProcessingContext(bulkRequest);
+  private Future<Void> processChunk(List<T> entities, ChunksProcessingContext chunksContext) {
+    int chunkNumber = chunksContext.chunksCounter.incrementAndGet();
+    int errorsBefore = chunksContext.errorsCounter.get();
 
-    return upsert(entities, bulkProcessingContext.isPublishEvents())
-      .map(v -> new BulkUpsertResponse().withErrorsNumber(0))
-      .recover(e -> processSequentially(entities, bulkProcessingContext));
+    // a failed merge of non-MARC controlled fields fails the request, upserting without the merged data would
+    // overwrite those fields
+    return ensureEntitiesWithNonMarcControlledFieldsData(entities)
+      .compose(v -> upsert(entities, chunksContext.bulkContext.isPublishEvents())
+        .recover(e -> {
+          log.warn("processChunk:: Failed to upsert chunk #{} of {} entities, processing entities one by one",
+            chunkNumber, entities.size(), e);
+          return processSequentially(entities, chunksContext);
+        }))
+      .onSuccess(v -> {
+        chunksContext.recordsCounter.addAndGet(entities.size());
+        log.info("processChunk:: Processed chunk #{}, entities: {}, errors: {}, total processed entities: {}",
+          chunkNumber, entities.size(), chunksContext.errorsCounter.get() - errorsBefore,
+          chunksContext.recordsCounter.get());
+      });
   }
 
-  private Future<BulkUpsertResponse> processSequentially(List<T> entities, BulkProcessingContext bulkContext) {
-    AtomicInteger errorsCounter = new AtomicInteger();
-    BulkProcessingErrorFileWriter errorsWriter = new BulkProcessingErrorFileWriter(vertx, bulkContext);
+  private Future<Void> processSequentially(List<T> entities, ChunksProcessingContext chunksContext) {
+    return chunksContext.getErrorsWriter(vertx)
+      .compose(errorsWriter -> processInBatches(entities,
+        entity -> upsert(List.of(entity), chunksContext.bulkContext.isPublishEvents())
+          .recover(e -> handleUpsertFailure(chunksContext.errorsCounter, errorsWriter, entity, e))));
+  }
+
+  private Future<Void> completeErrorsProcessing(ChunksProcessingContext chunksContext) {
+    if (chunksContext.errorsWriterFuture == null) {
+      return Future.succeededFuture();
+    }
 
-    return errorsWriter.initialize()
-      .compose(v -> processInBatches(entities, entity -> upsert(List.of(entity), bulkContext.isPublishEvents())
-        .recover(e -> handleUpsertFailure(errorsCounter, errorsWriter, entity, e))))
-      .eventually(errorsWriter::close)
-      .eventually(() -> uploadErrorsFiles(bulkContext))
-      .transform(ar -> Future.succeededFuture(new BulkUpsertResponse()
-        .withErrorsNumber(errorsCounter.get())
-        .withErrorRecordsFileName(bulkContext.getErrorEntitiesFilePath())
-        .withErrorsFileName(bulkContext.getErrorsFilePath())
-      ));
+    return chunksContext.errorsWriterFuture
+      .compose(BulkProcessingErrorFileWriter::close)
+      .eventually(() -> uploadErrorsFiles(chunksContext.bulkContext))
+      .otherwiseEmpty();
+  }
+
+  private BulkUpsertResponse buildResponse(ChunksProcessingContext chunksContext) {
+    var response = new BulkUpsertResponse()
+      .withErrorsNumber(chunksContext.errorsCounter.get())
+      .withRecordsNumber(chunksContext.recordsCounter.get())
+      .withChunksNumber(chunksContext.chunksCounter.get());
+
+    if (chunksContext.errorsWriterFuture != null) {
+      response
+        .withErrorRecordsFileName(chunksContext.bulkContext.getErrorEntitiesFilePath())
+        .withErrorsFileName(chunksContext.bulkContext.getErrorsFilePath());
+    }
+    return response;
   }
 
   private Future<Void> processInBatches(List<T> entities, Function<T, Future<Void>> task) {
@@ -201,4 +280,30 @@ public abstract class AbstractEntityS3Service<T, R> {
         e -> log.warn("uploadErrorsFiles:: Failed to upload bulk processing errors files to S3-like storage", e))
       .mapEmpty();
   }
+
+  /**
+   * Holds the state of the chunked bulk processing: counters reported in {@link BulkUpsertResponse}
+   * and the errors writer, which is initialized lazily on the first chunk that falls back
+   * to processing of entities one by one.
+   */
+  private static final class ChunksProcessingContext {
+
+    private final BulkProcessingContext bulkContext;
+    private final AtomicInteger errorsCounter = new AtomicInteger();
+    private final AtomicInteger recordsCounter = new AtomicInteger();
+    private final AtomicInteger chunksCounter = new AtomicInteger();
+    private Future<BulkProcessingErrorFileWriter> errorsWriterFuture;
+
+    private ChunksProcessingContext(BulkProcessingContext bulkContext) {
+      this.bulkContext = bulkContext;
+    }
+
+    private Future<BulkProcessingErrorFileWriter> getErrorsWriter(Vertx vertx) {
+      if (errorsWriterFuture == null) {
+        var errorsWriter = new BulkProcessingErrorFileWriter(vertx, bulkContext);
+        errorsWriterFuture = errorsWriter.initialize().map(errorsWriter);
+      }
+      return errorsWriterFuture;
+    }
+  }
 }
@@ -0,0 +1,222 @@
+package org.folio.services.caches;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.utils.Environment;
+
+/**
+ * Opt-in per-tenant cache of assembled instance trees: the instance with its holdings records and items, as
+ * returned by the instance set view. The parts of a tree are kept as UTF-8 JSON bytes, so that a response can be
+ * written without parsing them, and each tenant is bounded by {@code cache.instance-tree.max.size.mb}.
+ *
+ * <p>The write paths of instances, holdings records and items invalidate the trees they affect, items by their
+ * holdings record id which is mapped to the instance by the cached trees. This includes the shadow instance
+ * synchronization and the async migrations, they get the cache from the module's context when their verticles are
+ * deployed. The invalidation only reaches the cache of the module instance that handled the write, other module
+ * instances serve a tree until it expires after {@code cache.instance-tree.expiration.time.seconds}.
+ */
+public class InstanceTreeCache {
+
+  private static final Logger log = LogManager.getLogger(InstanceTreeCache.class);
+  private static final String ENABLED_PARAM = "cache.instance-tree.enabled";
+  private static final String MAX_SIZE_PARAM = "cache.instance-tree.max.size.mb";
+  private static final String EXPIRATION_TIME_PARAM = "cache.instance-tree.expiration.time.seconds";
+  private static final String STATS_INTERVAL_PARAM = "cache.instance-tree.stats.interval.seconds";
+  private static final int DEFAULT_MAX_SIZE_MB = 64;
+  private static final int DEFAULT_EXPIRATION_TIME_SECONDS = 60;
+  private static final int DEFAULT_STATS_INTERVAL_SECONDS = 300;
+  private static final InstanceTreeCache DISABLED = new InstanceTreeCache();
+
+  private final boolean enabled;
+  private final long maxWeight;
+  private final int expirationTime;
+  private final Map<String, TenantTrees> tenants = new ConcurrentHashMap<>();
+
+  private InstanceTreeCache() {
+    this.enabled = false;
+    this.maxWeight = 0;
+    this.expirationTime = 0;
+  }
+
+  public InstanceTreeCache(Vertx vertx) {
+    this.enabled = Environment.getBoolValue(ENABLED_PARAM, false);
+    this.maxWeight = Environment.getIntValue(MAX_SIZE_PARAM, DEFAULT_MAX_SIZE_MB) * 1024L * 1024L;
+    this.expirationTime = Environment.getIntValue(EXPIRATION_TIME_PARAM, DEFAULT_EXPIRATION_TIME_SECONDS);
+    if (enabled) {
+      long statsInterval = Environment.getIntValue(STATS_INTERVAL_PARAM, DEFAULT_STATS_INTERVAL_SECONDS) * 1000L;
+      vertx.setPeriodic(statsInterval, id -> logStats());
+    }
+  }
+
+  /**
+   * Returns the cache of the context, a disabled cache if there is none.
+   */
+  public static InstanceTreeCache from(Context context) {
+    return Objects.requireNonNullElse(context.get(InstanceTreeCache.class.getName()), DISABLED);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the generation of the tenant's trees, it is passed to {@link #putAll} to detect the trees
+   * invalidated while they have been loaded.
+   */
+  public long getGeneration(String tenantId) {
+    if (!enabled) {
+      return 0;
+    }
+    var trees = tenants.computeIfAbsent(tenantId, this::newTenantTrees);
+    synchronized (trees) {
+      return trees.generation;
+    }
+  }
+
+  public Map<String, InstanceTree> getAll(String tenantId, Collection<String> instanceIds) {
+    var trees = tenants.get(tenantId);
+    if (!enabled || trees == null) {
+      return Map.of();
+    }
+    return trees.cache.getAllPresent(instanceIds);
+  }
+
+  /**
+   * Caches the trees unless the tenant's trees have been invalidated since {@code generation} was taken.
+   */
+  public void putAll(String tenantId, long generation, Collection<InstanceTree> instanceTrees) {
+    if (!enabled || instanceTrees.isEmpty()) {
+      return;
+    }
+    var trees = tenants.computeIfAbsent(tenantId, this::newTenantTrees);
+    synchronized (trees) {
+      if (trees.generation != generation) {
+        log.debug("putAll:: Trees invalidated while loaded, skipping cache, tenantId: {}", tenantId);
+        return;
+      }
+      for (var tree : instanceTrees) {
+        tree.holdingsIds().forEach(holdingsId -> trees.instanceIdByHoldingsId.put(holdingsId, tree.id()));
+        trees.cache.put(tree.id(), tree);
+      }
+    }
+  }
+
+  public void invalidateInstances(String tenantId, Collection<String> instanceIds) {
+    invalidate(tenantId, instanceIds, List.of());
+  }
+
+  public void invalidateHoldings(String tenantId, Collection<String> holdingsIds) {
+    invalidate(tenantId, List.of(), holdingsIds);
+  }
+
+  /**
+   * Invalidates the trees of the instances and of the instances the holdings records belong to.
+   */
+  public void invalidate(String tenantId, Collection<String> instanceIds, Collection<String> holdingsIds) {
+    var trees = tenants.get(tenantId);
+    if (trees == null) {
+      return;
+    }
+    synchronized (trees) {
+      trees.generation++;
+      instanceIds.forEach(trees::invalidate);
+      holdingsIds.stream()
+        .filter(Objects::nonNull)
+        .map(trees.instanceIdByHoldingsId::get)
+        .filter(Objects::nonNull)
+        .toList()
+        .forEach(trees::invalidate);
+    }
+  }
+
+  public void invalidateAll(String tenantId) {
+    var trees = tenants.get(tenantId);
+    if (trees == null) {
+      return;
+    }
+    synchronized (trees) {
+      trees.generation++;
+      trees.cache.invalidateAll();
+      trees.instanceIdByHoldingsId.clear();
+    }
+  }
+
+  public Map<String, CacheStats> getStats() {
+    var stats = new HashMap<String, CacheStats>();
+    tenants.forEach((tenantId, trees) -> stats.put(tenantId, trees.cache.stats()));
+    return stats;
+  }
+
+  private void logStats() {
+    tenants.forEach((tenantId, trees) -> {
+      var stats = trees.cache.stats();
+      log.info("logStats:: Instance tree cache, tenantId: {}, size: {}, hits: {}, misses: {}, hitRate: {}, "
+          + "evictions: {}", tenantId, trees.cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+        String.format("%.2f", stats.hitRate()), stats.evictionCount());
+    });
+  }
+
+  private TenantTrees newTenantTrees(String tenantId) {
+    return new TenantTrees(maxWeight, expirationTime);
+  }
+
+  /**
+   * Instance tree, the parts are the UTF-8 bytes of the JSON of the instance, the holdings records array
+   * and the items array.
+   */
+  public record InstanceTree(String id, byte[] instance, byte[] holdingsRecords, byte[] items,
+                             List<String> holdingsIds) {
+
+    public InstanceTree(String id, String instance, String holdingsRecords, String items, List<String> holdingsIds) {
+      this(id, instance.getBytes(StandardCharsets.UTF_8), holdingsRecords.getBytes(StandardCharsets.UTF_8),
+        items.getBytes(StandardCharsets.UTF_8), holdingsIds);
+    }
+
+    int weight() {
+      return instance.length + holdingsRecords.length + items.length + 40 * (holdingsIds.size() + 1);
+    }
+  }
+
+  private static final class TenantTrees {
+    private final Map<String, String> instanceIdByHoldingsId = new ConcurrentHashMap<>();
+    private final Cache<String, InstanceTree> cache;
+    private long generation;
+
+    private TenantTrees(long maxWeight, int expirationTime) {
+      this.cache = Caffeine.newBuilder()
+        .maximumWeight(maxWeight)
+        .weigher((String id, InstanceTree tree) -> tree.weight())
+        .expireAfterWrite(expirationTime, TimeUnit.SECONDS)
+        .evictionListener((String id, InstanceTree tree, RemovalCause cause) -> removeHoldings(tree))
+        .recordStats()
+        .build();
+    }
+
+    private void invalidate(String instanceId) {
+      var tree = cache.asMap().remove(instanceId);
+      if (tree != null) {
+        removeHoldings(tree);
+      }
+    }
+
+    private void removeHoldings(InstanceTree tree) {
+      if (tree != null) {
+        tree.holdingsIds().forEach(holdingsId -> instanceIdByHoldingsId.remove(holdingsId, tree.id()));
+      }
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package org.folio.services.caches;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.folio.InventoryKafkaTopic;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.utils.Environment;
+
+/**
+ * Per-tenant cache of the small reference data tables the dereferenced items are built from. An entry holds
+ * all records of a table by id, it is invalidated by the domain events of the table.
+ */
+public class ReferenceDataCache {
+
+  private static final String EXPIRATION_TIME_PARAM = "cache.reference-data.expiration.time.seconds";
+  private static final int DEFAULT_EXPIRATION_TIME_SECONDS = 300;
+
+  private final AsyncCache<String, Map<String, JsonObject>> cache;
+
+  public ReferenceDataCache(Vertx vertx) {
+    int expirationTime = Environment.getIntValue(EXPIRATION_TIME_PARAM, DEFAULT_EXPIRATION_TIME_SECONDS);
+    this.cache = Caffeine.newBuilder()
+      .expireAfterWrite(expirationTime, TimeUnit.SECONDS)
+      .executor(task -> vertx.runOnContext(v -> task.run()))
+      .buildAsync();
+  }
+
+  /**
+   * Returns the records of the table by id. The table is reloaded once if one of {@code requiredIds} is missing,
+   * in case it has been created after the table was cached and the event hasn't been received yet.
+   */
+  public Future<Map<String, JsonObject>> get(String tenantId, ReferenceTable table, Collection<String> requiredIds,
+                                             PostgresClient postgresClient) {
+    return get(tenantId, table, postgresClient)
+      .compose(records -> {
+        if (records.keySet().containsAll(requiredIds)) {
+          return Future.succeededFuture(records);
+        }
+        invalidate(tenantId, table);
+        return get(tenantId, table, postgresClient);
+      });
+  }
+
+  public void invalidate(String tenantId, ReferenceTable table) {
+    cache.synchronous().invalidate(key(tenantId, table));
+  }
+
+  private Future<Map<String, JsonObject>> get(String tenantId, ReferenceTable table, PostgresClient postgresClient) {
+    return Future.fromCompletionStage(cache.get(key(tenantId, table), (key, executor) ->
+      load(table, postgresClient).toCompletionStage().toCompletableFuture()));
+  }
+
+  private static Future<Map<String, JsonObject>> load(ReferenceTable table, PostgresClient postgresClient) {
+    var sql = "SELECT id, jsonb FROM " + postgresClient.getSchemaName() + "." + table.getTableName();
+    return postgresClient.execute(sql)
+      .map(rows -> {
+        var records = new HashMap<String, JsonObject>(rows.size());
+        rows.forEach(row -> records.put(row.getUUID(0).toString(), row.getJsonObject(1)));
+        return Map.copyOf(records);
+      });
+  }
+
+  private static String key(String tenantId, ReferenceTable table) {
+    return tenantId + ":" + table.getTableName();
+  }
+
+  public enum ReferenceTable {
+    LOAN_TYPE("loan_type", InventoryKafkaTopic.LOAN_TYPE),
+    LOCATION("location", InventoryKafkaTopic.LOCATION),
+    MATERIAL_TYPE("material_type", InventoryKafkaTopic.MATERIAL_TYPE);
+
+    private final String tableName;
+    private final InventoryKafkaTopic topic;
+
+    ReferenceTable(String tableName, InventoryKafkaTopic topic) {
+      this.tableName = tableName;
+      this.topic = topic;
+    }
+
+    public String getTableName() {
+      return tableName;
+    }
+
+    public InventoryKafkaTopic getTopic() {
+      return topic;
+    }
+  }
+}
@@ -7,9 +7,10 @@ import static org.folio.okapi.common.XOkapiHeaders.TENANT;
 import static org.folio.okapi.common.XOkapiHeaders.URL;
 import static org.folio.services.domainevent.DomainEventType.UPDATE;
 
-import com.google.common.collect.Lists;
-import io.vertx.core.CompositeFuture;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.vertx.core.Future;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClient;
@@ -23,6 +24,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 import org.apache.commons.collections4.map.CaseInsensitiveMap;
 import org.apache.logging.log4j.LogManager;
@@ -34,6 +36,7 @@ import org.folio.rest.jaxrs.model.Instance;
 import org.folio.rest.persist.PostgresClient;
 import org.folio.services.caches.ConsortiumData;
 import org.folio.services.caches.ConsortiumDataCache;
+import org.folio.services.caches.InstanceTreeCache;
 import org.folio.services.domainevent.DomainEvent;
 import org.folio.utils.Environment;
 
@@ -47,6 +50,17 @@ public class ShadowInstanceSynchronizationHandler implements AsyncRecordHandler<
   private static final String INSTANCES_PARALLEL_UPDATES_COUNT_PARAM =
     "instance-synchronization.parallel.updates.count";
   private static final int DEFAULT_INSTANCES_PARALLEL_UPDATES_COUNT = 10;
+  private static final String TENANT_PARALLEL_UPDATES_COUNT_PARAM =
+    "instance-synchronization.tenant.parallel.updates.count";
+  private static final int DEFAULT_TENANT_PARALLEL_UPDATES_COUNT = 2;
+  private static final String RETRY_ATTEMPTS_PARAM = "instance-synchronization.retry.attempts";
+  private static final int DEFAULT_RETRY_ATTEMPTS = 3;
+  private static final String RETRY_DELAY_PARAM = "instance-synchronization.retry.delay.ms";
+  private static final int DEFAULT_RETRY_DELAY_MS = 1000;
+  private static final String COALESCING_WINDOW_PARAM = "instance-synchronization.coalescing.window.ms";
+  private static final int DEFAULT_COALESCING_WINDOW_MS = 500;
+  private static final String SHARING_CACHE_EXPIRATION_PARAM = "cache.sharing-instances.expiration.time.seconds";
+  private static final int DEFAULT_SHARING_CACHE_EXPIRATION_SECONDS = 300;
   private static final String LIMIT_QUERY_PARAM = "limit";
   private static final String TENANT_IDS_LIMIT = "1000";
   private static final String CONSORTIUM_SOURCE_TEMPLATE = "CONSORTIUM-%s";
@@ -55,17 +69,33 @@ public class ShadowInstanceSynchronizationHandler implements AsyncRecordHandler<
   private static final String SOURCE_TENANT_ID_FIELD = "sourceTenantId";
 
   private final ConsortiumDataCache consortiaDataCache;
+  private final InstanceTreeCache instanceTreeCache;
   private final Vertx vertx;
   private final HttpClient httpClient;
-  private final int instancesParallelUpdatesLimit;
+  private final TenantWorkQueues tenantQueues;
+  private final int coalescingWindowMs;
+  private final AsyncCache<String, List<String>> sharingTenantsCache;
+  private final Map<String, PendingSynchronization> pendingSynchronizations = new HashMap<>();
 
   public ShadowInstanceSynchronizationHandler(ConsortiumDataCache consortiaDataCache,
+                                              InstanceTreeCache instanceTreeCache,
                                               HttpClient httpClient, Vertx vertx) {
-    this.instancesParallelUpdatesLimit = Environment.getIntValue(INSTANCES_PARALLEL_UPDATES_COUNT_PARAM,
-      DEFAULT_INSTANCES_PARALLEL_UPDATES_COUNT);
     this.consortiaDataCache = consortiaDataCache;
+    this.instanceTreeCache = instanceTreeCache;
     this.vertx = vertx;
     this.httpClient = httpClient;
+    this.tenantQueues = new TenantWorkQueues(vertx,
+      Environment.getIntValue(INSTANCES_PARALLEL_UPDATES_COUNT_PARAM, DEFAULT_INSTANCES_PARALLEL_UPDATES_COUNT),
+      Environment.getIntValue(TENANT_PARALLEL_UPDATES_COUNT_PARAM, DEFAULT_TENANT_PARALLEL_UPDATES_COUNT),
+      Environment.getIntValue(RETRY_ATTEMPTS_PARAM, DEFAULT_RETRY_ATTEMPTS),
+      Environment.getIntValue(RETRY_DELAY_PARAM, DEFAULT_RETRY_DELAY_MS));
+    this.coalescingWindowMs = Math.max(0, Environment.getIntValue(COALESCING_WINDOW_PARAM,
+      DEFAULT_COALESCING_WINDOW_MS));
+    this.sharingTenantsCache = Caffeine.newBuilder()
+      .expireAfterWrite(Environment.getIntValue(SHARING_CACHE_EXPIRATION_PARAM,
+        DEFAULT_SHARING_CACHE_EXPIRATION_SECONDS), TimeUnit.SECONDS)
+      .executor(task -> vertx.runOnContext(v -> task.run()))
+      .buildAsync();
   }
 
   @Override
@@ -78,6 +108,8 @@ public class ShadowInstanceSynchronizationHandler implements AsyncRecordHandler<
       String tenantId = headers.get(TENANT.toLowerCase());
 
       if (event.getType() != UPDATE) {
+        // an instance is shared by creating its shadow copy in the member tenant
+        sharingTenantsCache.synchronous().invalidate(instanceId);
         return Future.succeededFuture(kafkaRecord.key());
       }
 
@@ -101,15 +133,60 @@ public class ShadowInstanceSynchronizationHandler implements AsyncRecordHandler<
     return tenantId.equals(consortiumData.centralTenantId());
   }
 
-  private Future<Void> synchronizeShadowInstances(DomainEvent<Instance> event, String instanceId,
-                                                  ConsortiumData consortiumData, Map<String, String> headers) {
-    return getShadowInstancesTenantIds(consortiumData.consortiumId(), consortiumData.centralTenantId(),
-      instanceId, headers)
-      .compose(tenantIds -> updateShadowInstances(event, tenantIds, headers));
+  /**
+   * Updates of the same instance received within the coalescing window are synchronized once, with the latest state.
+   * The returned future is completed once the update of each member tenant has finished its first attempt or waits
+   * in the queue of the tenant or for a retry. The retries are kept in memory only, the event is not consumed again.
+   */
+  private synchronized Future<Void> synchronizeShadowInstances(DomainEvent<Instance> event, String instanceId,
+                                                               ConsortiumData consortiumData,
+                                                               Map<String, String> headers) {
+    var pending = pendingSynchronizations.get(instanceId);
+    if (pending != null) {
+      LOG.debug("synchronizeShadowInstances:: Coalescing update, instanceId: '{}'", instanceId);
+      pending.event = event;
+      pending.headers = headers;
+      return pending.promise.future();
+    }
+
+    pending = new PendingSynchronization(event, headers);
+    pendingSynchronizations.put(instanceId, pending);
+    if (coalescingWindowMs == 0) {
+      runSynchronization(instanceId, consortiumData);
+    } else {
+      vertx.setTimer(coalescingWindowMs, id -> runSynchronization(instanceId, consortiumData));
+    }
+    return pending.promise.future();
+  }
+
+  private void runSynchronization(String instanceId, ConsortiumData consortiumData) {
+    PendingSynchronization pending;
+    synchronized (this) {
+      pending = pendingSynchronizations.remove(instanceId);
+    }
+    getShadowInstancesTenantIds(consortiumData.consortiumId(), consortiumData.centralTenantId(),
+      instanceId, pending.headers)
+      .compose(tenantIds -> updateShadowInstances(pending.event, tenantIds, pending.headers))
+      .onComplete(pending.promise);
   }
 
   private Future<List<String>> getShadowInstancesTenantIds(String consortiumId, String centralTenantId,
                                                            String instanceId, Map<String, String> headers) {
+    var tenantIds = sharingTenantsCache.get(instanceId, (id, executor) ->
+      fetchShadowInstancesTenantIds(consortiumId, centralTenantId, id, headers)
+        .toCompletionStage()
+        .toCompletableFuture());
+    return Future.fromCompletionStage(tenantIds)
+      .onSuccess(ids -> {
+        if (ids.isEmpty()) {
+          // the sharing may not be complete yet, it's looked up again with the next update
+          sharingTenantsCache.asMap().remove(instanceId, tenantIds);
+        }
+      });
+  }
+
+  private Future<List<String>> fetchShadowInstancesTenantIds(String consortiumId, String centralTenantId,
+                                                             String instanceId, Map<String, String> headers) {
     String okapiUrl = headers.get(URL);
     String preparedPath = format(SHARING_INSTANCES_PATH, consortiumId, instanceId);
     WebClient client = WebClient.wrap(httpClient);
@@ -142,27 +219,18 @@ public class ShadowInstanceSynchronizationHandler implements AsyncRecordHandler<
       LOG.info("updateShadowInstances:: Trying to update shadow instances in the following tenants: {} ", tenantIds);
       Instance instance = PostgresClient.pojo2JsonObject(event.getNewEntity()).mapTo(Instance.class);
       prepareInstanceForUpdate(instance);
-      List<List<String>> tenantsChunks = Lists.partition(tenantIds, instancesParallelUpdatesLimit);
 
-      Future<CompositeFuture> future = Future.succeededFuture();
-      for (List<String> tenantsChunk : tenantsChunks) {
-        future = future.eventually(() -> updateShadowInstances(tenantsChunk, instance, headers));
+      List<Future<Void>> updateFutures = new ArrayList<>();
+      for (String tenantId : tenantIds) {
+        updateFutures.add(tenantQueues.submit(tenantId, instance.getId(), "update shadow instance " + instance.getId(),
+          () -> updateShadowInstance(instance, tenantId, headers)).accepted());
       }
-      return future.mapEmpty();
+      return Future.all(updateFutures).mapEmpty();
     } catch (Exception e) {
       return Future.failedFuture(e);
     }
   }
 
-  private CompositeFuture updateShadowInstances(List<String> tenantIds, Instance instance,
-                                                Map<String, String> headers) {
-    ArrayList<Future<Void>> updateFutures = new ArrayList<>();
-    for (String tenantId : tenantIds) {
-      updateFutures.add(updateShadowInstance(instance, tenantId, headers));
-    }
-    return Future.join(updateFutures);
-  }
-
   private void prepareInstanceForUpdate(Instance instance) {
     instance.setSource(format(CONSORTIUM_SOURCE_TEMPLATE, instance.getSource()));
   }
@@ -183,9 +251,22 @@ public class ShadowInstanceSynchronizationHandler implements AsyncRecordHandler<
       .onFailure(e -> LOG.warn(
         "updateShadowInstance:: Error during shadow instance update, tenantId: '{}', instanceId: '{}'",
         tenantId, instance.getId(), e))
-      .onSuccess(v -> LOG.info(
-        "updateShadowInstance:: Shadow instance has been updated, tenantId: '{}', instanceId: '{}'",
-        tenantId, instance.getId()))
+      .onSuccess(v -> {
+        instanceTreeCache.invalidateInstances(tenantId, List.of(instance.getId()));
+        LOG.info("updateShadowInstance:: Shadow instance has been updated, tenantId: '{}', instanceId: '{}'",
+          tenantId, instance.getId());
+      })
       .mapEmpty();
   }
+
+  private static final class PendingSynchronization {
+    private final Promise<Void> promise = Promise.promise();
+    private DomainEvent<Instance> event;
+    private Map<String, String> headers;
+
+    private PendingSynchronization(DomainEvent<Instance> event, Map<String, String> headers) {
+      this.event = event;
+      this.headers = headers;
+    }
+  }
 }
@@ -15,6 +15,7 @@ import org.folio.kafka.KafkaConsumerWrapper;
 import org.folio.kafka.SubscriptionDefinition;
 import org.folio.kafka.services.KafkaEnvironmentProperties;
 import org.folio.services.caches.ConsortiumDataCache;
+import org.folio.services.caches.InstanceTreeCache;
 import org.folio.utils.Environment;
 
 public class ShadowInstanceSynchronizationVerticle extends AbstractVerticle {
@@ -26,9 +27,12 @@ public class ShadowInstanceSynchronizationVerticle extends AbstractVerticle {
   private static final String TENANT_PATTERN = "\\w{1,}";
 
   private final ConsortiumDataCache consortiumDataCache;
+  private final InstanceTreeCache instanceTreeCache;
 
-  public ShadowInstanceSynchronizationVerticle(ConsortiumDataCache consortiumDataCache) {
+  public ShadowInstanceSynchronizationVerticle(ConsortiumDataCache consortiumDataCache,
+                                               InstanceTreeCache instanceTreeCache) {
     this.consortiumDataCache = consortiumDataCache;
+    this.instanceTreeCache = instanceTreeCache;
   }
 
   @Override
@@ -36,7 +40,7 @@ public class ShadowInstanceSynchronizationVerticle extends AbstractVerticle {
     log.info("start:: Starting ShadowInstanceSynchronizationVerticle");
     HttpClient httpClient = vertx.createHttpClient();
     ShadowInstanceSynchronizationHandler handler =
-      new ShadowInstanceSynchronizationHandler(consortiumDataCache, httpClient, vertx);
+      new ShadowInstanceSynchronizationHandler(consortiumDataCache, instanceTreeCache, httpClient, vertx);
 
     createKafkaConsumerWrapper(handler).onComplete(startPromise);
   }
@@ -0,0 +1,211 @@
+package org.folio.services.consortium;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Runs tasks in per-tenant queues, so that a slow or failing tenant doesn't hold back the others.
+ * Up to {@code concurrency} tasks run at a time in total and up to {@code tenantConcurrency} in each tenant,
+ * the queues are served in turn. Tasks with the same key run one after another within a tenant, and a task that
+ * hasn't completed yet is dropped once a newer task with the same key is submitted. A failed task is retried up to
+ * {@code maxAttempts} times with a linearly growing delay, it doesn't hold a slot while it waits for the retry.
+ */
+final class TenantWorkQueues {
+
+  private static final Logger LOG = LogManager.getLogger(TenantWorkQueues.class);
+
+  private final Vertx vertx;
+  private final int concurrency;
+  private final int tenantConcurrency;
+  private final int maxAttempts;
+  private final long retryDelayMs;
+  private final Map<String, TenantQueue> queues = new LinkedHashMap<>();
+  private int running;
+
+  TenantWorkQueues(Vertx vertx, int concurrency, int tenantConcurrency, int maxAttempts, long retryDelayMs) {
+    this.vertx = vertx;
+    this.concurrency = Math.max(1, concurrency);
+    this.tenantConcurrency = Math.max(1, tenantConcurrency);
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.retryDelayMs = Math.max(0, retryDelayMs);
+  }
+
+  /**
+   * Adds the task to the queue of the tenant, a pending task of the tenant with the same key is superseded by it.
+   *
+   * @return the submission, see {@link Submission}
+   */
+  synchronized Submission submit(String tenantId, String key, String description, Supplier<Future<Void>> action) {
+    var queue = queues.computeIfAbsent(tenantId, TenantQueue::new);
+    supersede(queue, key);
+    var task = new Task(key, description, action);
+    queue.tasks.add(task);
+    drain();
+    if (!task.started) {
+      // the task waits for a slot or for the task with the same key
+      task.accepted.tryComplete();
+    }
+    return new Submission(task.accepted.future(), task.completed.future());
+  }
+
+  synchronized int size(String tenantId) {
+    var queue = queues.get(tenantId);
+    return queue == null ? 0 : queue.running + queue.retrying + queue.tasks.size();
+  }
+
+  private void supersede(TenantQueue queue, String key) {
+    var iterator = queue.tasks.iterator();
+    while (iterator.hasNext()) {
+      var task = iterator.next();
+      if (task.key.equals(key)) {
+        iterator.remove();
+        LOG.debug("supersede:: Task dropped for a newer one, tenantId: '{}', task: '{}'",
+          queue.tenantId, task.description);
+        task.accepted.tryComplete();
+        task.completed.tryComplete();
+      }
+    }
+    var active = queue.activeTasks.get(key);
+    if (active != null) {
+      // a running task completes its attempt, it isn't retried anymore
+      active.superseded = true;
+    }
+  }
+
+  private void drain() {
+    var started = true;
+    while (started && running < concurrency) {
+      started = false;
+      for (var queue : new ArrayList<>(queues.values())) {
+        if (running < concurrency && startNext(queue)) {
+          started = true;
+        }
+      }
+    }
+    queues.values().removeIf(TenantQueue::isIdle);
+  }
+
+  private boolean startNext(TenantQueue queue) {
+    if (queue.running >= tenantConcurrency) {
+      return false;
+    }
+    var iterator = queue.tasks.iterator();
+    while (iterator.hasNext()) {
+      var task = iterator.next();
+      var active = queue.activeTasks.get(task.key);
+      if (active == null || active == task) {
+        iterator.remove();
+        queue.activeTasks.put(task.key, task);
+        queue.running++;
+        running++;
+        task.started = true;
+        run(queue, task);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void run(TenantQueue queue, Task task) {
+    task.attempt++;
+    Future<Void> result;
+    try {
+      result = task.action.get();
+    } catch (Exception e) {
+      result = Future.failedFuture(e);
+    }
+    result.onComplete(ar -> complete(queue, task, ar));
+  }
+
+  private synchronized void complete(TenantQueue queue, Task task, AsyncResult<Void> ar) {
+    queue.running--;
+    running--;
+    if (ar.failed() && task.attempt < maxAttempts && !task.superseded) {
+      LOG.info("complete:: Retrying task, tenantId: '{}', task: '{}', attempt: {}",
+        queue.tenantId, task.description, task.attempt + 1);
+      queue.retrying++;
+      task.accepted.tryComplete();
+      vertx.setTimer(Math.max(1, retryDelayMs * task.attempt), id -> retry(queue, task));
+      drain();
+      return;
+    }
+    if (ar.failed()) {
+      LOG.warn("complete:: Task failed after {} attempts, tenantId: '{}', task: '{}'",
+        task.attempt, queue.tenantId, task.description, ar.cause());
+    }
+    queue.activeTasks.remove(task.key, task);
+    drain();
+    if (ar.failed()) {
+      task.accepted.tryFail(ar.cause());
+    } else {
+      task.accepted.tryComplete();
+    }
+    task.completed.handle(ar.failed() && task.superseded ? Future.<Void>succeededFuture() : ar);
+  }
+
+  private synchronized void retry(TenantQueue queue, Task task) {
+    queue.retrying--;
+    if (task.superseded) {
+      LOG.debug("retry:: Task dropped for a newer one, tenantId: '{}', task: '{}'",
+        queue.tenantId, task.description);
+      queue.activeTasks.remove(task.key, task);
+      task.completed.tryComplete();
+    } else {
+      queue.tasks.addFirst(task);
+    }
+    drain();
+  }
+
+  /**
+   * Futures of a submitted task.
+   *
+   * @param accepted  completed once the task has finished its first attempt, waits in the queue or for a retry, it
+   *                  fails if the first attempt failed and is not retried
+   * @param completed completed with the outcome of the task, it fails if the last attempt of the task failed
+   */
+  record Submission(Future<Void> accepted, Future<Void> completed) { }
+
+  private static final class Task {
+    private final String key;
+    private final String description;
+    private final Supplier<Future<Void>> action;
+    private final Promise<Void> accepted = Promise.promise();
+    private final Promise<Void> completed = Promise.promise();
+    private int attempt;
+    private boolean started;
+    private boolean superseded;
+
+    private Task(String key, String description, Supplier<Future<Void>> action) {
+      this.key = key;
+      this.description = description;
+      this.action = action;
+    }
+  }
+
+  private static final class TenantQueue {
+    private final String tenantId;
+    private final Deque<Task> tasks = new ArrayDeque<>();
+    private final Map<String, Task> activeTasks = new HashMap<>();
+    private int running;
+    private int retrying;
+
+    private TenantQueue(String tenantId) {
+      this.tenantId = tenantId;
+    }
+
+    private boolean isIdle() {
+      return running == 0 && retrying == 0 && tasks.isEmpty();
+    }
+  }
+}
@@ -10,7 +10,9 @@ import static org.folio.rest.support.ResponseUtil.isUpdateSuccessResponse;
 
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import javax.ws.rs.core.Response;
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -19,6 +21,7 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
 import org.apache.logging.log4j.Logger;
 import org.folio.persist.AbstractRepository;
+import org.folio.rest.persist.Conn;
 import org.folio.rest.support.CollectionUtil;
 import org.folio.services.batch.BatchOperationContext;
 
@@ -27,12 +30,25 @@ abstract class AbstractDomainEventPublisher<D, E> {
 
   protected final AbstractRepository<D> repository;
   protected final CommonDomainEventPublisher<E> domainEventService;
+  private final DomainEventOutbox outbox;
 
   protected AbstractDomainEventPublisher(AbstractRepository<D> repository,
                                          CommonDomainEventPublisher<E> domainEventService) {
 
+    this(repository, domainEventService, null);
+  }
+
+  /**
+   * Constructor for publishers whose event payload is the domain record itself, so the events
+   * can be built from the record table when they are saved to the outbox.
+   */
+  protected AbstractDomainEventPublisher(AbstractRepository<D> repository,
+                                         CommonDomainEventPublisher<E> domainEventService,
+                                         DomainEventOutbox outbox) {
+
     this.repository = repository;
     this.domainEventService = domainEventService;
+    this.outbox = outbox;
   }
 
   static <L, R> Pair<L, R> pair(L left, R right) {
@@ -63,16 +79,42 @@ abstract class AbstractDomainEventPublisher<D, E> {
         return;
       }
 
-      log.info("Records created {}, records updated {}", batchOperation.recordsToBeCreated().size(),
-        batchOperation.existingRecords().size());
+      log.info("Records created {}, records updated {}, unchanged records skipped {}",
+        batchOperation.recordsToBeCreated().size(), batchOperation.existingRecords().size(),
+        batchOperation.unchangedRecords().size());
 
-      if (batchOperation.publishEvents()) {
+      if (batchOperation.publishEvents() && isOutboxEnabled()) {
+        outbox.notifyRelay();
+      } else if (batchOperation.publishEvents()) {
         publishRecordsCreated(batchOperation.recordsToBeCreated()).compose(
           notUsed -> publishUpdated(batchOperation.existingRecords()));
       }
     };
   }
 
+  /**
+   * Saves create and update events of the batch operation to the outbox within the given transaction,
+   * does nothing if the outbox is not enabled. The events are relayed to Kafka after the transaction is committed
+   * and {@link #publishCreatedOrUpdated(BatchOperationContext)} is called, so there is no need to re-read
+   * the updated records to build the events.
+   */
+  public Future<Void> saveCreatedOrUpdated(Conn conn, BatchOperationContext<D> batchOperation) {
+    if (!batchOperation.publishEvents() || !isOutboxEnabled()) {
+      return succeededFuture();
+    }
+
+    var oldRecords = new LinkedHashMap<String, JsonObject>();
+    batchOperation.recordsToBeCreated().forEach(rec -> oldRecords.put(getId(rec), null));
+    batchOperation.existingRecords().forEach(rec -> oldRecords.put(getId(rec), JsonObject.mapFrom(rec)));
+
+    return outbox.saveCreatedOrUpdated(conn, repository.getTableName(), domainEventService.getKafkaTopic(),
+      oldRecords);
+  }
+
+  protected boolean isOutboxEnabled() {
+    return outbox != null && DomainEventOutbox.isEnabled();
+  }
+
   public Handler<Response> publishRemoved(D removedRecord) {
     return response -> {
       if (!isDeleteSuccessResponse(response)) {
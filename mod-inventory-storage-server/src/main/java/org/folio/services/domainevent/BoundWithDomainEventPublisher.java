@@ -5,6 +5,7 @@ import static org.folio.rest.tools.utils.TenantTool.tenantId;
 
 import io.vertx.core.Context;
 import io.vertx.core.Future;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +26,24 @@ public class BoundWithDomainEventPublisher extends AbstractDomainEventPublisher<
     holdingsRepository = new HoldingsRepository(context, okapiHeaders);
   }
 
+  /**
+   * Publishes the events of the parts created and removed by a bound-with reconciliation, the instance ids of all
+   * parts are looked up at once.
+   */
+  public Future<Void> publishReconciled(List<BoundWithPart> createdParts, List<BoundWithPart> removedParts) {
+    if (createdParts.isEmpty() && removedParts.isEmpty()) {
+      return Future.succeededFuture();
+    }
+
+    var parts = new ArrayList<BoundWithPart>(createdParts.size() + removedParts.size());
+    parts.addAll(createdParts);
+    parts.addAll(removedParts);
+    return convertDomainsToEvents(parts)
+      .compose(events -> domainEventService.publishRecordsCreated(events.subList(0, createdParts.size()))
+        .compose(notUsed -> domainEventService.publishRecordsRemoved(
+          events.subList(createdParts.size(), events.size()))));
+  }
+
   @Override
   protected Future<List<Pair<String, BoundWithPart>>> getRecordIds(Collection<BoundWithPart> boundWithParts) {
     return holdingsRepository.getByIds(boundWithParts, BoundWithPart::getHoldingsRecordId)
@@ -1,6 +1,6 @@
 package org.folio.services.domainevent;
 
-import static io.vertx.core.Future.all;
+import static io.vertx.core.Future.failedFuture;
 import static io.vertx.core.Future.succeededFuture;
 import static org.apache.logging.log4j.LogManager.getLogger;
 import static org.folio.InventoryKafkaTopic.REINDEX_RECORDS;
@@ -15,12 +15,16 @@ import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.streams.ReadStream;
 import io.vertx.kafka.client.producer.KafkaProducer;
+import io.vertx.kafka.client.producer.KafkaProducerRecord;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.function.LongFunction;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
 import org.apache.logging.log4j.Logger;
@@ -31,15 +35,22 @@ import org.folio.kafka.services.KafkaEnvironmentProperties;
 import org.folio.kafka.services.KafkaProducerRecordBuilder;
 import org.folio.rest.jaxrs.model.ReindexRecordsRequest;
 import org.folio.rest.tools.utils.TenantTool;
+import org.folio.services.TenantComponents;
+import org.folio.utils.Environment;
 
 public class CommonDomainEventPublisher<T> {
   public static final String NULL_ID = "00000000-0000-0000-0000-000000000000";
   private static final Logger log = getLogger(CommonDomainEventPublisher.class);
+  private static final String BATCH_SIZE_PARAM = "domain-events.batch.size";
+  private static final String TOPIC_BATCH_SIZE_PARAM = "domain-events.%s.batch.size";
+  private static final int DEFAULT_BATCH_SIZE = 500;
+  private static final String INVENTORY_TOPIC_PREFIX = ".inventory.";
 
   private final Map<String, String> okapiHeaders;
   private final KafkaProducerManager producerManager;
   private final FailureHandler failureHandler;
   private final String kafkaTopic;
+  private final int batchSize;
 
   CommonDomainEventPublisher(Map<String, String> okapiHeaders, String kafkaTopic,
                              KafkaProducerManager kafkaProducerManager, FailureHandler failureHandler) {
@@ -48,6 +59,7 @@ public class CommonDomainEventPublisher<T> {
     this.kafkaTopic = kafkaTopic;
     this.producerManager = kafkaProducerManager;
     this.failureHandler = failureHandler;
+    this.batchSize = getBatchSize(kafkaTopic);
   }
 
   public CommonDomainEventPublisher(Context vertxContext, Map<String, String> okapiHeaders,
@@ -58,8 +70,13 @@ public class CommonDomainEventPublisher<T> {
   public CommonDomainEventPublisher(Context vertxContext, Map<String, String> okapiHeaders,
                                     String kafkaTopic, int maxRequestSize) {
 
-    this(okapiHeaders, kafkaTopic, createProducerManager(vertxContext, maxRequestSize),
-      new LogToDbFailureHandler(vertxContext, okapiHeaders));
+    this(okapiHeaders, kafkaTopic, getProducerManager(vertxContext, maxRequestSize),
+      TenantComponents.get(vertxContext, okapiHeaders, LogToDbFailureHandler.class, LogToDbFailureHandler::new));
+  }
+
+  private static KafkaProducerManager getProducerManager(Context vertxContext, int maxRequestSize) {
+    return TenantComponents.from(vertxContext).getShared("producer-manager-" + maxRequestSize,
+      KafkaProducerManager.class, () -> createProducerManager(vertxContext, maxRequestSize));
   }
 
   private static KafkaProducerManager createProducerManager(Context vertxContext, int maxRequestSize) {
@@ -76,8 +93,19 @@ public class CommonDomainEventPublisher<T> {
                                         Function<R, KafkaProducerRecordBuilder<String, Object>> mapper,
                                         LongFunction<Future<?>> progressHandler) {
 
+    return publishStream(readStream, mapper, progressHandler, "stream_");
+  }
+
+  /**
+   * Publishes the stream with the producer of the given name prefix, streams published with different
+   * prefixes do not share the producer and can be published in parallel.
+   */
+  public <R> Future<Long> publishStream(ReadStream<R> readStream,
+                                        Function<R, KafkaProducerRecordBuilder<String, Object>> mapper,
+                                        LongFunction<Future<?>> progressHandler, String producerPrefix) {
+
     var promise = Promise.<Long>promise();
-    var kafkaProducer = getOrCreateProducer(kafkaTopic, "stream_");
+    var kafkaProducer = getOrCreateProducer(kafkaTopic, producerPrefix);
     var recordsProcessed = new AtomicLong(0);
 
     readStream.exceptionHandler(error -> {
@@ -123,6 +151,20 @@ public class CommonDomainEventPublisher<T> {
     }
   }
 
+  /**
+   * Publishes a message for every given record in batches of configured size, the returned future
+   * fails if any message was not published.
+   */
+  public <R> Future<Void> publishRecords(List<R> records,
+                                         Function<R, KafkaProducerRecordBuilder<String, Object>> mapper) {
+    if (records.isEmpty()) {
+      return succeededFuture();
+    }
+
+    return publishInBatches(records, rec -> mapper.apply(rec)
+      .topic(kafkaTopic).propagateOkapiHeaders(okapiHeaders).build());
+  }
+
   Future<Void> publishRecordUpdated(String instanceId, T oldRecord, T newRecord) {
     final DomainEvent<T> domainEvent = updateEvent(oldRecord, newRecord, tenantId(okapiHeaders));
 
@@ -134,10 +176,9 @@ public class CommonDomainEventPublisher<T> {
       return succeededFuture();
     }
 
-    return all(updatedRecords.stream()
-      .map(triple -> publishRecordUpdated(triple.getLeft(), triple.getMiddle(), triple.getRight()))
-      .toList())
-      .map(notUsed -> null);
+    var tenantId = tenantId(okapiHeaders);
+    return publishInBatches(List.copyOf(updatedRecords), Triple::getLeft,
+      triple -> updateEvent(triple.getMiddle(), triple.getRight(), tenantId));
   }
 
   Future<Void> publishRecordCreated(String instanceId, T newRecord) {
@@ -151,10 +192,8 @@ public class CommonDomainEventPublisher<T> {
       return succeededFuture();
     }
 
-    return all(records.stream()
-      .map(pair -> publishRecordCreated(pair.getKey(), pair.getValue()))
-      .toList())
-      .map(notUsed -> null);
+    var tenantId = tenantId(okapiHeaders);
+    return publishInBatches(records, Pair::getKey, pair -> createEvent(pair.getValue(), tenantId));
   }
 
   public Future<Void> publishReindexRecords(String key,
@@ -170,6 +209,15 @@ public class CommonDomainEventPublisher<T> {
     return publish(instanceId, domainEvent);
   }
 
+  Future<Void> publishRecordsRemoved(List<Pair<String, T>> records) {
+    if (records.isEmpty()) {
+      return succeededFuture();
+    }
+
+    var tenantId = tenantId(okapiHeaders);
+    return publishInBatches(records, Pair::getKey, pair -> deleteEvent(pair.getValue(), tenantId));
+  }
+
   Future<Void> publishRecordRemoved(String instanceId, String oldEntity) {
     final DomainEventRaw domainEvent = DomainEventRaw.deleteEvent(oldEntity, tenantId(okapiHeaders));
 
@@ -187,13 +235,7 @@ public class CommonDomainEventPublisher<T> {
   private Future<Void> publish(String topic, String key, Object value) {
     log.debug("Sending domain event [{}], payload [{}]", key, value);
 
-    var producerRecord = new KafkaProducerRecordBuilder<String, Object>(TenantTool.tenantId(okapiHeaders))
-      .key(key)
-      .value(value)
-      .topic(topic)
-      .propagateOkapiHeaders(okapiHeaders)
-      .build();
-
+    var producerRecord = buildProducerRecord(topic, key, value);
     KafkaProducer<String, String> producer = getOrCreateProducer(topic);
 
     return producer.send(producerRecord)
@@ -208,6 +250,96 @@ public class CommonDomainEventPublisher<T> {
       });
   }
 
+  private <R> Future<Void> publishInBatches(List<R> records, Function<R, String> keyExtractor,
+                                            Function<R, Object> eventMapper) {
+    return publishInBatches(records,
+      rec -> buildProducerRecord(kafkaTopic, keyExtractor.apply(rec), eventMapper.apply(rec)));
+  }
+
+  /**
+   * Publishes events for the given records in batches of configured size using one shared producer.
+   * Events of the next batch are sent only when all events of the previous batch are acknowledged,
+   * so at most one batch is in flight, and events are sent in order of the records, which keeps
+   * the per-key ordering. All batches are published even if some events fail, failed events are passed
+   * to the {@link FailureHandler}, and the returned future fails if any event was not published.
+   */
+  private <R> Future<Void> publishInBatches(List<R> records,
+                                            Function<R, KafkaProducerRecord<String, String>> recordMapper) {
+    var producer = getOrCreateProducer(kafkaTopic);
+    var failedEvents = new AtomicInteger();
+    var batches = ListUtils.partition(records, batchSize);
+
+    Future<Void> future = succeededFuture();
+    for (List<R> batch : batches) {
+      future = future.compose(notUsed -> sendBatch(producer, batch, recordMapper, failedEvents));
+    }
+
+    return future
+      .eventually(() -> producer.close())
+      .compose(notUsed -> {
+        if (failedEvents.get() > 0) {
+          return failedFuture("Unable to send %d of %d domain events to topic %s"
+            .formatted(failedEvents.get(), records.size(), kafkaTopic));
+        }
+        log.debug("Sent {} domain events in {} batches to topic {}", records.size(), batches.size(), kafkaTopic);
+        return succeededFuture();
+      });
+  }
+
+  private <R> Future<Void> sendBatch(KafkaProducer<String, String> producer, List<R> batch,
+                                     Function<R, KafkaProducerRecord<String, String>> recordMapper,
+                                     AtomicInteger failedEvents) {
+    var sendFutures = new ArrayList<Future<Void>>(batch.size());
+    var batchFailedEvents = new AtomicInteger();
+    for (R rec : batch) {
+      var producerRecord = recordMapper.apply(rec);
+      sendFutures.add(producer.send(producerRecord)
+        .<Void>mapEmpty()
+        .onFailure(cause -> {
+          batchFailedEvents.incrementAndGet();
+          failureHandler.handleFailure(cause, producerRecord);
+        }));
+    }
+
+    return producer.flush()
+      .transform(notUsed -> Future.join(sendFutures))
+      .transform(ar -> {
+        if (ar.failed()) {
+          failedEvents.addAndGet(batchFailedEvents.get());
+          log.error("Unable to send {} of {} domain events of the batch to topic {}",
+            batchFailedEvents.get(), batch.size(), kafkaTopic, ar.cause());
+        }
+        return succeededFuture();
+      });
+  }
+
+  private KafkaProducerRecord<String, String> buildProducerRecord(String topic, String key, Object value) {
+    return new KafkaProducerRecordBuilder<String, Object>(TenantTool.tenantId(okapiHeaders))
+      .key(key)
+      .value(value)
+      .topic(topic)
+      .propagateOkapiHeaders(okapiHeaders)
+      .build();
+  }
+
+  String getKafkaTopic() {
+    return kafkaTopic;
+  }
+
+  int getBatchSize() {
+    return batchSize;
+  }
+
+  private static int getBatchSize(String kafkaTopic) {
+    var defaultBatchSize = Environment.getIntValue(BATCH_SIZE_PARAM, DEFAULT_BATCH_SIZE);
+    var topicNameIndex = kafkaTopic == null ? -1 : kafkaTopic.lastIndexOf(INVENTORY_TOPIC_PREFIX);
+    if (topicNameIndex < 0) {
+      return Math.max(1, defaultBatchSize);
+    }
+    var topicName = kafkaTopic.substring(topicNameIndex + INVENTORY_TOPIC_PREFIX.length());
+    return Math.max(1, Environment.getIntValue(TOPIC_BATCH_SIZE_PARAM.formatted(topicName), defaultBatchSize));
+  }
+
   private KafkaProducer<String, String> getOrCreateProducer(String topic) {
     return getOrCreateProducer(topic, "");
   }
@@ -0,0 +1,76 @@
+package org.folio.services.domainevent;
+
+import static io.vertx.core.Future.succeededFuture;
+import static org.apache.logging.log4j.LogManager.getLogger;
+import static org.folio.rest.persist.PgUtil.postgresClient;
+import static org.folio.rest.tools.utils.TenantTool.tenantId;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.logging.log4j.Logger;
+import org.folio.okapi.common.XOkapiHeaders;
+import org.folio.persist.DomainEventOutboxRepository;
+import org.folio.rest.persist.Conn;
+import org.folio.utils.Environment;
+
+/**
+ * Writes domain events to the outbox table in the transaction of the record change and notifies
+ * {@link DomainEventOutboxRelayVerticle} to relay them to Kafka once the transaction is committed.
+ */
+public class DomainEventOutbox {
+  public static final String RELAY_ADDRESS = "inventory-storage.domain-event-outbox.relay";
+  private static final Logger log = getLogger(DomainEventOutbox.class);
+  private static final String OUTBOX_ENABLED_PARAM = "domain-events.outbox.enabled";
+
+  private final Vertx vertx;
+  private final Map<String, String> okapiHeaders;
+  private final DomainEventOutboxRepository repository;
+
+  DomainEventOutbox(Vertx vertx, Map<String, String> okapiHeaders, DomainEventOutboxRepository repository) {
+    this.vertx = vertx;
+    this.okapiHeaders = okapiHeaders;
+    this.repository = repository;
+  }
+
+  public DomainEventOutbox(Context context, Map<String, String> okapiHeaders) {
+    this(context.owner(), okapiHeaders, new DomainEventOutboxRepository(postgresClient(context, okapiHeaders)));
+  }
+
+  public static boolean isEnabled() {
+    return Environment.getBoolValue(OUTBOX_ENABLED_PARAM, Boolean.FALSE);
+  }
+
+  Future<Void> saveCreatedOrUpdated(Conn conn, String sourceTable, String topic,
+                                    Map<String, JsonObject> oldRecords) {
+    if (oldRecords.isEmpty()) {
+      return succeededFuture();
+    }
+
+    return repository.saveCreatedOrUpdated(conn, sourceTable, topic, getHeadersToStore(), oldRecords)
+      .onSuccess(rows -> log.debug("saveCreatedOrUpdated:: {} events saved to outbox for topic {}",
+        rows.rowCount(), topic))
+      .mapEmpty();
+  }
+
+  void notifyRelay() {
+    vertx.eventBus().send(RELAY_ADDRESS, tenantId(okapiHeaders));
+  }
+
+  /**
+   * The token is not stored because it may expire before the event is relayed, and it is not needed
+   * by the consumers of domain events.
+   */
+  private Map<String, String> getHeadersToStore() {
+    var headers = new HashMap<String, String>();
+    okapiHeaders.forEach((name, value) -> {
+      if (!XOkapiHeaders.TOKEN.equalsIgnoreCase(name)) {
+        headers.put(name, value);
+      }
+    });
+    return headers;
+  }
+}
@@ -0,0 +1,172 @@
+package org.folio.services.domainevent;
+
+import static io.vertx.core.Future.succeededFuture;
+import static org.folio.persist.DomainEventOutboxRepository.OUTBOX_TABLE;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.ThreadingModel;
+import io.vertx.core.json.JsonObject;
+import io.vertx.kafka.client.producer.KafkaProducer;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.kafka.KafkaConfig;
+import org.folio.kafka.KafkaProducerManager;
+import org.folio.kafka.SimpleKafkaProducerManager;
+import org.folio.kafka.services.KafkaEnvironmentProperties;
+import org.folio.kafka.services.KafkaProducerRecordBuilder;
+import org.folio.persist.DomainEventOutboxRepository;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.utils.DatabaseUtils;
+import org.folio.utils.Environment;
+
+/**
+ * Relays domain events from the outbox table to Kafka. A tenant is relayed when a transaction that saved events
+ * to the outbox is committed, and all tenants having the outbox table are relayed periodically, to deliver the events
+ * left after a failure or a restart, or saved by another instance of the module.
+ * Events are deleted from the outbox only after Kafka acknowledged them, so the delivery is at-least-once.
+ */
+public class DomainEventOutboxRelayVerticle extends AbstractVerticle {
+  private static final Logger log = LogManager.getLogger(DomainEventOutboxRelayVerticle.class);
+  private static final String BATCH_SIZE_PARAM = "domain-events.outbox.relay.batch.size";
+  private static final int DEFAULT_BATCH_SIZE = 1000;
+  private static final String INTERVAL_PARAM = "domain-events.outbox.relay.interval.ms";
+  private static final int DEFAULT_INTERVAL_MS = 5000;
+
+  private final Set<String> relayingTenants = ConcurrentHashMap.newKeySet();
+  private final Set<String> pendingTenants = ConcurrentHashMap.newKeySet();
+  private final int batchSize = Math.max(1, Environment.getIntValue(BATCH_SIZE_PARAM, DEFAULT_BATCH_SIZE));
+  private KafkaProducerManager producerManager;
+  private long timerId;
+
+  @Override
+  public void start(Promise<Void> startPromise) {
+    var kafkaConfig = KafkaConfig.builder()
+      .kafkaHost(KafkaEnvironmentProperties.host())
+      .kafkaPort(KafkaEnvironmentProperties.port())
+      .build();
+    producerManager = new SimpleKafkaProducerManager(vertx, kafkaConfig);
+
+    var interval = Math.max(1, Environment.getIntValue(INTERVAL_PARAM, DEFAULT_INTERVAL_MS));
+    timerId = vertx.setPeriodic(interval, id -> relayAll());
+    vertx.eventBus().<String>consumer(DomainEventOutbox.RELAY_ADDRESS, message -> relay(message.body()))
+      .completion()
+      .onSuccess(v -> log.info("start:: Domain event outbox relay started, batchSize: {}, interval: {} ms",
+        batchSize, interval))
+      .onComplete(startPromise);
+  }
+
+  @Override
+  public void stop() {
+    vertx.cancelTimer(timerId);
+  }
+
+  public static DeploymentOptions getDeploymentOptions() {
+    return new DeploymentOptions()
+      .setThreadingModel(ThreadingModel.EVENT_LOOP)
+      .setInstances(1);
+  }
+
+  private void relayAll() {
+    DatabaseUtils.getTenantsWithTable(vertx, OUTBOX_TABLE)
+      .onSuccess(tenants -> tenants.forEach(this::relay))
+      .onFailure(e -> log.warn("relayAll:: Unable to get tenants", e));
+  }
+
+  void relay(String tenantId) {
+    if (!relayingTenants.add(tenantId)) {
+      // the outbox of the tenant is being relayed, relay it once more when done to pick up new events
+      pendingTenants.add(tenantId);
+      return;
+    }
+
+    var postgresClient = PostgresClient.getInstance(vertx, tenantId);
+    relayBatches(postgresClient, new DomainEventOutboxRepository(postgresClient), tenantId)
+      .onFailure(e -> log.warn("relay:: Unable to relay domain events from outbox, tenantId: {}", tenantId, e))
+      .onComplete(ar -> {
+        relayingTenants.remove(tenantId);
+        if (pendingTenants.remove(tenantId)) {
+          relay(tenantId);
+        }
+      });
+  }
+
+  private Future<Void> relayBatches(PostgresClient postgresClient, DomainEventOutboxRepository repository,
+                                    String tenantId) {
+    return relayBatch(postgresClient, repository, tenantId)
+      .compose(relayedCount -> relayedCount < batchSize
+                               ? succeededFuture()
+                               : relayBatches(postgresClient, repository, tenantId));
+  }
+
+  /**
+   * Sends one batch of events to Kafka and deletes the acknowledged ones in the transaction that locked them.
+   *
+   * @return number of relayed events, or zero if some of them were not acknowledged, to retry them on the next run
+   */
+  private Future<Integer> relayBatch(PostgresClient postgresClient, DomainEventOutboxRepository repository,
+                                     String tenantId) {
+    return postgresClient.withTrans(conn -> repository.fetchForUpdate(conn, batchSize)
+      .compose(rows -> send(rows, tenantId)
+        .compose(sentIds -> {
+          if (sentIds.isEmpty()) {
+            return succeededFuture(0);
+          }
+          log.debug("relayBatch:: {} of {} domain events relayed from outbox, tenantId: {}",
+            sentIds.size(), rows.size(), tenantId);
+          return repository.delete(conn, sentIds)
+            .map(notUsed -> sentIds.size() == rows.size() ? sentIds.size() : 0);
+        })));
+  }
+
+  private Future<List<Long>> send(RowSet<Row> rows, String tenantId) {
+    if (rows.size() == 0) {
+      return succeededFuture(List.of());
+    }
+
+    var producers = new LinkedHashMap<String, KafkaProducer<String, String>>();
+    var sentIds = new ArrayList<Long>(rows.size());
+    var sendFutures = new ArrayList<Future<Void>>(rows.size());
+    for (Row row : rows) {
+      var id = row.getLong("id");
+      var topic = row.getString("topic");
+      var producerRecord = new KafkaProducerRecordBuilder<String, Object>(tenantId)
+        .key(row.getString("event_key"))
+        .value(new JsonObject(row.getString("payload")))
+        .topic(topic)
+        .propagateOkapiHeaders(toHeaders(row.getJsonObject("okapi_headers")))
+        .build();
+
+      var producer = producers.computeIfAbsent(topic, producerManager::createShared);
+      sendFutures.add(producer.send(producerRecord)
+        .onSuccess(metadata -> sentIds.add(id))
+        .onFailure(e -> log.warn("send:: Unable to relay domain event [{}] to topic {}", id, topic, e))
+        .mapEmpty());
+    }
+
+    var flushFutures = producers.values().stream().map(KafkaProducer::flush).toList();
+    return Future.join(flushFutures)
+      .transform(notUsed -> Future.join(sendFutures))
+      .transform(notUsed -> Future.join(producers.values().stream().map(KafkaProducer::close).toList()))
+      .transform(notUsed -> succeededFuture(sentIds));
+  }
+
+  private static Map<String, String> toHeaders(JsonObject headers) {
+    var result = new HashMap<String, String>();
+    if (headers != null) {
+      headers.forEach(entry -> result.put(entry.getKey(), String.valueOf(entry.getValue())));
+    }
+    return result;
+  }
+}
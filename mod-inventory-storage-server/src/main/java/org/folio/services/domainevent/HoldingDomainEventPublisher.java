@@ -16,6 +16,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.folio.persist.HoldingsRepository;
 import org.folio.rest.jaxrs.model.HoldingsRecord;
+import org.folio.services.TenantComponents;
 
 public class HoldingDomainEventPublisher
   extends AbstractDomainEventPublisher<HoldingsRecord, HoldingsRecord> {
@@ -23,9 +24,10 @@ public class HoldingDomainEventPublisher
   private final CommonDomainEventPublisher<Map<String, Object>> holdingsReindexPublisher;
 
   public HoldingDomainEventPublisher(Context context, Map<String, String> okapiHeaders) {
-    super(new HoldingsRepository(context, okapiHeaders),
+    super(TenantComponents.get(context, okapiHeaders, HoldingsRepository.class, HoldingsRepository::new),
       new CommonDomainEventPublisher<>(context, okapiHeaders,
-        HOLDINGS_RECORD.fullTopicName(tenantId(okapiHeaders))));
+        HOLDINGS_RECORD.fullTopicName(tenantId(okapiHeaders))),
+      new DomainEventOutbox(context, okapiHeaders));
     holdingsReindexPublisher = new CommonDomainEventPublisher<>(context, okapiHeaders,
       REINDEX_RECORDS.fullTopicName(tenantId(okapiHeaders)), getKafkaProducerMaxRequestSize());
   }
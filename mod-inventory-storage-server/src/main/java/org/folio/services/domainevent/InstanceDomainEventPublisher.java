@@ -24,7 +24,8 @@ public class InstanceDomainEventPublisher extends AbstractDomainEventPublisher<I
   public InstanceDomainEventPublisher(Context context, Map<String, String> okapiHeaders) {
     super(new InstanceRepository(context, okapiHeaders),
       new CommonDomainEventPublisher<>(context, okapiHeaders,
-        INSTANCE.fullTopicName(tenantId(okapiHeaders))));
+        INSTANCE.fullTopicName(tenantId(okapiHeaders))),
+      new DomainEventOutbox(context, okapiHeaders));
     instanceReindexPublisher = new CommonDomainEventPublisher<>(context, okapiHeaders,
       REINDEX_RECORDS.fullTopicName(tenantId(okapiHeaders)), getKafkaProducerMaxRequestSize());
   }
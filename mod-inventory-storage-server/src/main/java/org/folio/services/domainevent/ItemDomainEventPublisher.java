@@ -17,6 +17,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import javax.ws.rs.core.Response;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
@@ -26,6 +27,7 @@ import org.folio.persist.ItemRepository;
 import org.folio.rest.jaxrs.model.HoldingsRecord;
 import org.folio.rest.jaxrs.model.Item;
 import org.folio.rest.support.CollectionUtil;
+import org.folio.services.TenantComponents;
 
 public class ItemDomainEventPublisher extends AbstractDomainEventPublisher<Item, ItemWithInstanceId> {
   private static final Logger log = getLogger(ItemDomainEventPublisher.class);
@@ -34,11 +36,12 @@ public class ItemDomainEventPublisher extends AbstractDomainEventPublisher<Item,
   private final CommonDomainEventPublisher<Map<String, Object>> itemReindexPublisher;
 
   public ItemDomainEventPublisher(Context context, Map<String, String> okapiHeaders) {
-    super(new ItemRepository(context, okapiHeaders),
+    super(TenantComponents.get(context, okapiHeaders, ItemRepository.class, ItemRepository::new),
       new CommonDomainEventPublisher<>(context, okapiHeaders,
         ITEM.fullTopicName(tenantId(okapiHeaders))));
 
-    holdingsRepository = new HoldingsRepository(context, okapiHeaders);
+    holdingsRepository = TenantComponents.get(context, okapiHeaders, HoldingsRepository.class,
+      HoldingsRepository::new);
     itemReindexPublisher = new CommonDomainEventPublisher<>(context, okapiHeaders,
       REINDEX_RECORDS.fullTopicName(tenantId(okapiHeaders)), getKafkaProducerMaxRequestSize());
   }
@@ -59,9 +62,22 @@ public class ItemDomainEventPublisher extends AbstractDomainEventPublisher<Item,
 
     log.info("[{}] items were updated, sending events for them", oldItems.size());
 
-    return repository.getByIds(oldItems, Item::getId)
-      .map(updatedItems -> mapOldItemsToNew(oldHoldings, newHoldings, oldItems, updatedItems.values()))
-      .compose(domainEventService::publishRecordsUpdated);
+    // the new state is re-read and published chunk by chunk, so that a holdings change
+    // that affects many items doesn't hold all of their new state in memory at once
+    Future<Void> future = succeededFuture();
+    for (var chunk : ListUtils.partition(oldItems, domainEventService.getBatchSize())) {
+      future = future.compose(notUsed -> repository.getByIds(chunk, Item::getId)
+        .map(updatedItems -> mapOldItemsToNew(oldHoldings, newHoldings, chunk, updatedItems.values()))
+        .compose(domainEventService::publishRecordsUpdated));
+    }
+    return future;
+  }
+
+  /**
+   * Returns the number of item events sent in one batch.
+   */
+  public int getBatchSize() {
+    return domainEventService.getBatchSize();
   }
 
   public Future<Void> publishReindexItems(String key, List<Map<String, Object>> items) {
@@ -9,6 +9,7 @@ import java.util.Map;
 import javax.ws.rs.core.Response;
 import org.folio.rest.jaxrs.model.HoldingsRecord;
 import org.folio.rest.jaxrs.model.Item;
+import org.folio.rest.persist.Conn;
 import org.folio.services.batch.BatchOperationContext;
 import org.folio.services.domainevent.HoldingDomainEventPublisher;
 import org.folio.services.domainevent.ItemDomainEventPublisher;
@@ -30,6 +31,15 @@ class HoldingsEventPublisher {
     publishHoldingsEvents(newHoldings, oldHoldings);
   }
 
+  Future<Void> saveHoldingsEvents(Conn conn, List<HoldingsRecord> newHoldings,
+                                  Map<String, HoldingsRecord> oldHoldings) {
+    return holdingEventPublisher.saveCreatedOrUpdated(conn, buildHoldingsBatchContext(newHoldings, oldHoldings));
+  }
+
+  int getItemBatchSize() {
+    return itemEventPublisher.getBatchSize();
+  }
+
   void publishUpdatedItems(HoldingsRecord oldHoldings, HoldingsRecord newHoldings,
                            List<Item> itemsBeforeUpdate) {
     itemEventPublisher.publishUpdated(oldHoldings, newHoldings, itemsBeforeUpdate);
@@ -78,13 +88,17 @@ class HoldingsEventPublisher {
   }
 
   private void publishHoldingsEvents(List<HoldingsRecord> newHoldings, Map<String, HoldingsRecord> oldHoldingsMap) {
+    holdingEventPublisher.publishCreatedOrUpdated(buildHoldingsBatchContext(newHoldings, oldHoldingsMap))
+      .handle(Response.status(201).build());
+  }
+
+  private BatchOperationContext<HoldingsRecord> buildHoldingsBatchContext(List<HoldingsRecord> newHoldings,
+                                                                          Map<String, HoldingsRecord> oldHoldingsMap) {
     var oldHoldings = new ArrayList<>(oldHoldingsMap.values());
     var createdHoldings = newHoldings.stream()
       .filter(entity -> !oldHoldingsMap.containsKey(entity.getId()))
       .toList();
 
-    var batchContext = new BatchOperationContext<>(createdHoldings, oldHoldings, true);
-    holdingEventPublisher.publishCreatedOrUpdated(batchContext)
-      .handle(Response.status(201).build());
+    return new BatchOperationContext<>(createdHoldings, oldHoldings, true);
   }
 }
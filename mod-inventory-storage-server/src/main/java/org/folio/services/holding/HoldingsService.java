@@ -14,9 +14,9 @@ import static org.folio.rest.persist.PgUtil.deleteById;
 import static org.folio.rest.persist.PgUtil.post;
 import static org.folio.rest.persist.PgUtil.postSync;
 import static org.folio.rest.persist.PgUtil.postgresClient;
-import static org.folio.rest.support.CollectionUtil.deepCopy;
 import static org.folio.services.batch.BatchOperationContextFactory.buildBatchOperationContext;
 import static org.folio.utils.ComparisonUtils.equalsIgnoringMetadata;
+import static org.folio.utils.ComparisonUtils.isUnchanged;
 import static org.folio.validator.CommonValidators.validateUuidFormat;
 import static org.folio.validator.CommonValidators.validateUuidFormatForList;
 import static org.folio.validator.HoldingsValidators.refuseNullValueInRequiredFields;
@@ -26,15 +26,21 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
+import io.vertx.core.Promise;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowStream;
+import io.vertx.sqlclient.Tuple;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -58,16 +64,20 @@ import org.folio.rest.tools.utils.MetadataUtil;
 import org.folio.rest.tools.utils.OptimisticLockingUtil;
 import org.folio.services.ItemEffectiveValuesService;
 import org.folio.services.ResponseHandlerUtil;
+import org.folio.services.TenantComponents;
 import org.folio.services.caches.ConsortiumData;
 import org.folio.services.caches.ConsortiumDataCache;
+import org.folio.services.caches.InstanceTreeCache;
 import org.folio.services.consortium.ConsortiumService;
 import org.folio.services.consortium.ConsortiumServiceImpl;
 import org.folio.services.consortium.entities.SharingInstance;
 import org.folio.services.item.ItemService;
+import org.folio.services.migration.BatchedReadStream;
 import org.folio.services.reindex.ReindexExportOrchestrator;
 import org.folio.services.sanitizer.Sanitizer;
 import org.folio.services.sanitizer.SanitizerFactory;
 import org.folio.services.setting.SettingsService;
+import org.folio.utils.DatabaseUtils;
 import org.folio.validator.CommonValidators;
 import org.folio.validator.NotesValidators;
 
@@ -97,6 +107,7 @@ public class HoldingsService {
   private final HoldingsUpsertSqlBuilder upsertSqlBuilder;
   private final HoldingsEventPublisher eventPublisher;
   private final Sanitizer<HoldingsRecord> sanitizer;
+  private final InstanceTreeCache instanceTreeCache;
 
   public HoldingsService(Context context, Map<String, String> okapiHeaders) {
     this.vertxContext = context;
@@ -104,16 +115,22 @@ public class HoldingsService {
 
     this.itemService = new ItemService(context, okapiHeaders);
     this.postgresClient = postgresClient(context, okapiHeaders);
-    this.hridManager = new HridManager(postgresClient);
-    this.holdingsRepository = new HoldingsRepository(context, okapiHeaders);
-    this.instanceRepository = new InstanceRepository(context, okapiHeaders);
+    this.hridManager = TenantComponents.get(context, okapiHeaders, HridManager.class,
+      (ctx, headers) -> new HridManager(postgresClient));
+    this.holdingsRepository = TenantComponents.get(context, okapiHeaders, HoldingsRepository.class,
+      HoldingsRepository::new);
+    this.instanceRepository = TenantComponents.get(context, okapiHeaders, InstanceRepository.class,
+      InstanceRepository::new);
     this.consortiumService = new ConsortiumServiceImpl(context.get(HttpClient.class.getName()),
       context.get(ConsortiumDataCache.class.getName()));
-    this.effectiveValuesService = new ItemEffectiveValuesService(context, okapiHeaders);
-    this.settingsService = new SettingsService(context, okapiHeaders);
-    this.upsertSqlBuilder = new HoldingsUpsertSqlBuilder(holdingsRepository, new ItemRepository(context, okapiHeaders));
+    this.effectiveValuesService = TenantComponents.get(context, okapiHeaders, ItemEffectiveValuesService.class,
+      ItemEffectiveValuesService::new);
+    this.settingsService = TenantComponents.get(context, okapiHeaders, SettingsService.class, SettingsService::new);
+    this.upsertSqlBuilder = new HoldingsUpsertSqlBuilder(holdingsRepository,
+      TenantComponents.get(context, okapiHeaders, ItemRepository.class, ItemRepository::new));
     this.eventPublisher = new HoldingsEventPublisher(context, okapiHeaders);
     this.sanitizer = SanitizerFactory.getSanitizer(HoldingsRecord.class);
+    this.instanceTreeCache = InstanceTreeCache.from(context);
   }
 
   /**
@@ -151,6 +168,7 @@ public class HoldingsService {
    */
   public Future<Response> deleteAllHoldings() {
     return holdingsRepository.deleteAll()
+      .onSuccess(notUsed -> instanceTreeCache.invalidateAll(okapiHeaders.get(TENANT)))
       .onSuccess(notUsed -> eventPublisher.publishAllRemoved())
       .map(Response.noContent().build());
   }
@@ -203,6 +221,7 @@ public class HoldingsService {
       .compose(NotesValidators::refuseLongNotes)
       .compose(hr -> post(HOLDINGS_RECORD_TABLE, hr, okapiHeaders, vertxContext,
         PostHoldingsStorageHoldingsResponse.class)
+        .onSuccess(response -> invalidateInstanceTrees(List.of(hr)))
         .onSuccess(eventPublisher.publishCreated()))
       .map(ResponseHandlerUtil::handleHridError);
   }
@@ -212,6 +231,7 @@ public class HoldingsService {
       .compose(CommonValidators::refuseIfNotFound)
       .compose(hr -> deleteById(HOLDINGS_RECORD_TABLE, hrId, okapiHeaders, vertxContext,
         DeleteHoldingsStorageHoldingsByHoldingsRecordIdResponse.class)
+        .onSuccess(response -> invalidateInstanceTrees(List.of(hr)))
         .onSuccess(eventPublisher.publishRemoved(hr)));
   }
 
@@ -227,6 +247,11 @@ public class HoldingsService {
     // do not add curly braces for readability, this is to comply with
     // https://sonarcloud.io/organizations/folio-org/rules?open=java%3AS1602&rule_key=java%3AS1602
     return holdingsRepository.delete(cql)
+      .onSuccess(rowSet -> {
+        var instanceIds = new ArrayList<String>(rowSet.size());
+        rowSet.forEach(row -> instanceIds.add(new JsonObject(row.getString(1)).getString("instanceId")));
+        instanceTreeCache.invalidateInstances(okapiHeaders.get(TENANT), instanceIds);
+      })
       .onSuccess(rowSet -> vertxContext.runOnContext(runLater ->
         rowSet.iterator().forEachRemaining(row -> {
             try {
@@ -265,6 +290,7 @@ public class HoldingsService {
         // For upsert operations, use the new transaction-based approach
         return performUpsertWithItemUpdates(validatedHoldings, optimisticLocking);
       })
+      .onSuccess(response -> invalidateInstanceTrees(holdings))
       .map(ResponseHandlerUtil::handleHridError);
   }
 
@@ -305,10 +331,20 @@ public class HoldingsService {
 
         return refuseWhenHridChanged(oldHoldings, newHoldings)
           .compose(notUsed -> NotesValidators.refuseLongNotes(newHoldings))
-          .compose(notUsed -> performHoldingsUpdate(oldHoldings, newHoldings));
+          .compose(notUsed -> performHoldingsUpdate(oldHoldings, newHoldings))
+          .onSuccess(response -> invalidateInstanceTrees(List.of(oldHoldings, newHoldings)));
       });
   }
 
+  /**
+   * Invalidates the cached trees of the instances the holdings records belong or belonged to.
+   */
+  private void invalidateInstanceTrees(Collection<HoldingsRecord> holdings) {
+    instanceTreeCache.invalidate(okapiHeaders.get(TENANT),
+      holdings.stream().map(HoldingsRecord::getInstanceId).filter(Objects::nonNull).toList(),
+      holdings.stream().map(HoldingsRecord::getId).filter(Objects::nonNull).toList());
+  }
+
   private Future<Response> performHoldingsUpdate(HoldingsRecord oldHoldings, HoldingsRecord newHoldings) {
     if (shouldUpdateItems(oldHoldings, newHoldings)) {
       return postgresClient
@@ -325,6 +361,7 @@ public class HoldingsService {
       .onSuccess(eventPublisher.publishUpdated(oldHoldings));
   }
 
+  // the fields must be in line with HoldingsUpsertSqlBuilder.ITEM_AFFECTING_FIELDS
   private boolean shouldUpdateItems(HoldingsRecord oldHoldings, HoldingsRecord newHoldings) {
     return oldHoldings == null
       || !Objects.equals(oldHoldings.getInstanceId(), newHoldings.getInstanceId())
@@ -351,12 +388,45 @@ public class HoldingsService {
 
     ensureHoldingsHaveIds(holdings);
 
+    return withoutUnchangedHoldings(holdings)
+      .compose(this::upsertHoldingsWithItemUpdates)
+      .map(v -> PostHoldingsStorageBatchSynchronousResponse.respond201());
+  }
+
+  private Future<Void> upsertHoldingsWithItemUpdates(List<HoldingsRecord> holdings) {
+    if (holdings.isEmpty()) {
+      return Future.succeededFuture();
+    }
+
     return postgresClient.withTrans(conn -> upsertHoldingsAndGetOldContent(conn, holdings)
         .compose(upsertResult -> updateItemsForHoldingsChange(conn, holdings, upsertResult)
-          .map(itemsBeforeUpdate -> Pair.of(upsertResult.getLeft(), itemsBeforeUpdate))))
+          .compose(itemsBeforeUpdate -> eventPublisher.saveHoldingsEvents(conn, holdings, upsertResult.getLeft())
+            .map(notUsed -> Pair.of(upsertResult.getLeft(), itemsBeforeUpdate)))))
       .onSuccess(oldData ->
         eventPublisher.publishHoldingsAndItemEvents(holdings, oldData.getLeft(), oldData.getRight()))
-      .map(v -> PostHoldingsStorageBatchSynchronousResponse.respond201());
+      .mapEmpty();
+  }
+
+  /**
+   * Leaves out the holdings records that are equal to the stored ones if optimize updates is enabled,
+   * neither they nor their items are written and no events are sent for them.
+   */
+  private Future<List<HoldingsRecord>> withoutUnchangedHoldings(List<HoldingsRecord> holdings) {
+    return settingsService.isOptimizeUpdatesEnabled(okapiHeaders.get(TENANT))
+      .compose(isOptimizeUpdatesEnabled -> {
+        if (!isOptimizeUpdatesEnabled.booleanValue()) {
+          return Future.succeededFuture(holdings);
+        }
+        return holdingsRepository.getByIds(holdings, HoldingsRecord::getId)
+          .map(existingHoldings -> {
+            var holdingsToSave = holdings.stream()
+              .filter(holding -> !isUnchanged(existingHoldings.get(holding.getId()), holding))
+              .toList();
+            log.info("withoutUnchangedHoldings:: unchanged holdings records skipped {}",
+              holdings.size() - holdingsToSave.size());
+            return holdingsToSave;
+          });
+      });
   }
 
   private Future<Response> handleOptimisticLocking(List<HoldingsRecord> holdings, boolean optimisticLocking) {
@@ -380,10 +450,10 @@ public class HoldingsService {
                                               : holding.getId()));
   }
 
-  private Future<Pair<Map<String, HoldingsRecord>, Map<String, List<Item>>>> upsertHoldingsAndGetOldContent(
+  private Future<Pair<Map<String, HoldingsRecord>, List<UUID>>> upsertHoldingsAndGetOldContent(
     Conn conn, List<HoldingsRecord> holdings) {
     if (holdings.isEmpty()) {
-      return Future.succeededFuture(Pair.of(Map.of(), Map.of()));
+      return Future.succeededFuture(Pair.of(Map.of(), List.of()));
     }
 
     var sqlAndParamsResult = upsertSqlBuilder.buildUpsertSqlWithParams(holdings);
@@ -396,58 +466,67 @@ public class HoldingsService {
       .map(HoldingsUpsertResultProcessor::processUpsertResultSet);
   }
 
+  /**
+   * Updates the items of the holdings records whose fields copied to the items are changed. The items are streamed
+   * on the transaction connection and updated chunk by chunk, a chunk has the size of a batch of item domain events.
+   *
+   * @return the items before the update by holdings record id, to publish the item update events after the commit
+   */
   private Future<Map<String, List<Item>>> updateItemsForHoldingsChange(
     Conn conn,
     List<HoldingsRecord> newHoldings,
-    Pair<Map<String, HoldingsRecord>, Map<String, List<Item>>> upsertResult) {
-
-    var oldHoldingsMap = upsertResult.getLeft();
-    var oldItemsMap = upsertResult.getRight();
-
-    var holdingsMap = newHoldings.stream()
-      .collect(toMap(HoldingsRecord::getId, h -> h));
+    Pair<Map<String, HoldingsRecord>, List<UUID>> upsertResult) {
 
+    var itemsAffectedHoldingsIds = upsertResult.getRight();
     var itemsBeforeUpdate = new HashMap<String, List<Item>>();
-    var allItemsToUpdate = new ArrayList<Item>();
-
-    try {
-      processItemsForHoldingsUpdate(oldItemsMap, holdingsMap, oldHoldingsMap,
-                                     itemsBeforeUpdate, allItemsToUpdate);
-    } catch (JsonProcessingException ex) {
-      return Future.failedFuture(ex);
-    }
-
-    if (allItemsToUpdate.isEmpty()) {
+    if (itemsAffectedHoldingsIds.isEmpty()) {
       return Future.succeededFuture(itemsBeforeUpdate);
     }
 
-    return itemService.updateBatch(conn, allItemsToUpdate)
+    var holdingsMap = newHoldings.stream()
+      .collect(toMap(HoldingsRecord::getId, h -> h, (h1, h2) -> h2));
+    var params = Tuple.of(itemsAffectedHoldingsIds.toArray(UUID[]::new));
+    return DatabaseUtils.selectStream(conn, upsertSqlBuilder.buildAffectedItemsSql(), params)
+      .compose(stream -> updateItemsInChunks(conn, stream, holdingsMap, itemsBeforeUpdate))
       .map(notUsed -> itemsBeforeUpdate);
   }
 
-  private void processItemsForHoldingsUpdate(Map<String, List<Item>> oldItemsMap,
-                                              Map<String, HoldingsRecord> holdingsMap,
-                                              Map<String, HoldingsRecord> oldHoldingsMap,
-                                              Map<String, List<Item>> itemsBeforeUpdate,
-                                              List<Item> allItemsToUpdate) throws JsonProcessingException {
-    for (var entry : oldItemsMap.entrySet()) {
-      var holdingsId = entry.getKey();
-      var items = entry.getValue();
-      var newHolding = holdingsMap.get(holdingsId);
-      var oldHolding = oldHoldingsMap.get(holdingsId);
-
-      if (newHolding != null) {
-        var holdingsChanged = oldHolding == null || !equalsIgnoringMetadata(oldHolding, newHolding);
-        if (holdingsChanged && shouldUpdateItems(oldHolding, newHolding)) {
-          var itemsCopy = (List<Item>) deepCopy(items, Item.class);
-          itemsBeforeUpdate.put(holdingsId, itemsCopy);
-          for (var item : items) {
-            itemService.populateItemFromHoldings(item, newHolding, effectiveValuesService);
-            allItemsToUpdate.add(item);
-          }
-        }
-      }
+  private Future<Void> updateItemsInChunks(Conn conn, RowStream<Row> stream,
+                                           Map<String, HoldingsRecord> holdingsMap,
+                                           Map<String, List<Item>> itemsBeforeUpdate) {
+    var chunks = new BatchedReadStream<>(stream, eventPublisher.getItemBatchSize());
+    var promise = Promise.<Void>promise();
+    var lastUpdate = new AtomicReference<Future<Void>>(Future.succeededFuture());
+
+    chunks
+      .exceptionHandler(promise::tryFail)
+      // the last chunk is handled right before the end, the end waits for its update
+      .endHandler(notUsed -> lastUpdate.get().onSuccess(v -> promise.tryComplete()))
+      .handler(rows -> {
+        // the chunks are updated one after another on the connection of the stream
+        chunks.pause();
+        lastUpdate.set(updateItemsChunk(conn, rows, holdingsMap, itemsBeforeUpdate)
+          .onSuccess(v -> chunks.resume())
+          .onFailure(promise::tryFail));
+      });
+
+    return promise.future().onComplete(notUsed -> stream.close());
+  }
+
+  private Future<Void> updateItemsChunk(Conn conn, List<Row> rows, Map<String, HoldingsRecord> holdingsMap,
+                                        Map<String, List<Item>> itemsBeforeUpdate) {
+    var items = new ArrayList<Item>(rows.size());
+    for (var row : rows) {
+      // the old state is parsed again instead of deep copying the item
+      var content = row.getString(0);
+      var item = ObjectMapperTool.readValue(content, Item.class);
+      itemsBeforeUpdate.computeIfAbsent(item.getHoldingsRecordId(), id -> new ArrayList<>())
+        .add(ObjectMapperTool.readValue(content, Item.class));
+      items.add(item);
     }
+    itemService.populateItemsFromHoldings(items, item -> holdingsMap.get(item.getHoldingsRecordId()),
+      effectiveValuesService);
+    return itemService.updateBatch(conn, items).mapEmpty();
   }
 
   private String calculateEffectiveLocation(HoldingsRecord holdingsRecord) {
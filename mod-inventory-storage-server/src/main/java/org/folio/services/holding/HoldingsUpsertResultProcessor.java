@@ -8,11 +8,11 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.Logger;
 import org.folio.dbschema.ObjectMapperTool;
 import org.folio.rest.jaxrs.model.HoldingsRecord;
-import org.folio.rest.jaxrs.model.Item;
 
 final class HoldingsUpsertResultProcessor {
   private static final Logger log = getLogger(HoldingsUpsertResultProcessor.class);
@@ -21,20 +21,25 @@ final class HoldingsUpsertResultProcessor {
     throw new UnsupportedOperationException("Do not instantiate utility class");
   }
 
-  static Pair<Map<String, HoldingsRecord>, Map<String, List<Item>>> processUpsertResultSet(RowSet<Row> rowSet) {
+  /**
+   * Returns the old holdings records by id, and the ids of the holdings records whose items are affected
+   * by the upsert.
+   */
+  static Pair<Map<String, HoldingsRecord>, List<UUID>> processUpsertResultSet(RowSet<Row> rowSet) {
     var oldHoldingsMap = new HashMap<String, HoldingsRecord>();
-    var oldItemsMap = new HashMap<String, List<Item>>();
+    var itemsAffectedHoldingsIds = new ArrayList<UUID>();
 
     for (var row : rowSet) {
-      var id = row.getUUID(0).toString();
+      var id = row.getUUID(0);
       var oldHoldingsContent = row.getString(1);
-      var oldItemContent = row.getString(2);
 
-      processOldHoldingsContent(id, oldHoldingsContent, oldHoldingsMap);
-      processOldItemContent(id, oldItemContent, oldItemsMap);
+      processOldHoldingsContent(id.toString(), oldHoldingsContent, oldHoldingsMap);
+      if (Boolean.TRUE.equals(row.getBoolean(2))) {
+        itemsAffectedHoldingsIds.add(id);
+      }
     }
 
-    return Pair.of(oldHoldingsMap, oldItemsMap);
+    return Pair.of(oldHoldingsMap, itemsAffectedHoldingsIds);
   }
 
   private static void processOldHoldingsContent(String id, String oldHoldingsContent,
@@ -48,16 +53,4 @@ final class HoldingsUpsertResultProcessor {
       }
     }
   }
-
-  private static void processOldItemContent(String id, String oldItemContent,
-                                            Map<String, List<Item>> oldItemsMap) {
-    if (oldItemContent != null) {
-      try {
-        var oldItem = ObjectMapperTool.readValue(oldItemContent, Item.class);
-        oldItemsMap.computeIfAbsent(id, k -> new ArrayList<>()).add(oldItem);
-      } catch (Exception e) {
-        log.warn("Failed to parse old item record content for holdings {}", id, e);
-      }
-    }
-  }
 }
@@ -1,15 +1,58 @@
 package org.folio.services.holding;
 
 import io.vertx.sqlclient.Tuple;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.tuple.Pair;
 import org.folio.persist.HoldingsRepository;
 import org.folio.persist.ItemRepository;
 import org.folio.rest.jaxrs.model.HoldingsRecord;
 import org.folio.rest.persist.PostgresClient;
 
+/**
+ * Builds the statement that upserts a batch of holdings records and returns the old holdings content.
+ *
+ * <p>The records are passed as two array parameters that are unnested into the staging rows, so the statement text
+ * and the number of parameters do not depend on the batch size and Postgres can reuse the prepared statement.
+ * The statement also returns whether the fields copied to the items are changed, only the items of these holdings
+ * are then streamed by the statement of {@link #buildAffectedItemsSql()}, so a batch that doesn't affect the items
+ * doesn't load them, and one that does doesn't load them all at once.
+ */
 class HoldingsUpsertSqlBuilder {
+  // holdings fields the items depend on, must be in line with HoldingsService.shouldUpdateItems
+  private static final List<String> ITEM_AFFECTING_FIELDS = List.of("instanceId", "permanentLocationId",
+    "temporaryLocationId", "callNumber", "callNumberPrefix", "callNumberSuffix", "callNumberTypeId");
+  private static final String ITEMS_AFFECTED_CONDITION = ITEM_AFFECTING_FIELDS.stream()
+    .map(field -> "holdings.jsonb->>'%1$s' IS DISTINCT FROM upsert_data.data->>'%1$s'".formatted(field))
+    .collect(Collectors.joining(" OR "));
+  private static final String UPSERT_SQL = """
+    WITH upsert_data AS (
+      SELECT u.id::uuid AS id, u.data::jsonb AS data
+      FROM unnest($1::text[], $2::text[]) AS u(id, data)
+    ), old_holdings_data AS (
+      SELECT holdings.id, holdings.jsonb::text AS old_content, (%2$s) AS items_affected
+      FROM %1$s holdings
+      JOIN upsert_data ON upsert_data.id = holdings.id
+    ), updated AS (
+      UPDATE %1$s SET jsonb = upsert_data.data
+      FROM upsert_data WHERE %1$s.id = upsert_data.id
+      RETURNING %1$s.id
+    ), inserted AS (
+      INSERT INTO %1$s (id, jsonb)
+      SELECT id, data FROM upsert_data
+      WHERE id NOT IN (SELECT id FROM updated)
+      RETURNING id
+    ), upserted AS (
+      SELECT id FROM updated UNION ALL SELECT id FROM inserted
+    )
+    SELECT u.id,
+      COALESCE(oh.old_content, 'null') AS old_holdings_content,
+      COALESCE(oh.items_affected, false) AS items_affected
+    FROM upserted u
+    LEFT JOIN old_holdings_data oh ON u.id = oh.id
+    """;
+  private static final String AFFECTED_ITEMS_SQL = "SELECT jsonb::text FROM %s WHERE holdingsrecordid = ANY($1)";
+
   private final HoldingsRepository holdingsRepository;
   private final ItemRepository itemRepository;
 
@@ -19,86 +62,26 @@ class HoldingsUpsertSqlBuilder {
   }
 
   Pair<Pair<String, Tuple>, Exception> buildUpsertSqlWithParams(List<HoldingsRecord> holdings) {
-    var sqlBuilder = new StringBuilder();
-    var params = new ArrayList<>();
-
-    sqlBuilder.append("WITH upsert_data AS (");
-    var buildError = buildUpsertDataClause(holdings, sqlBuilder, params);
-    if (buildError != null) {
-      return Pair.of(null, buildError);
-    }
-
-    var holdingsTableName = holdingsRepository.getFullTableName();
-    var itemsTableName = itemRepository.getFullTableName();
-
-    sqlBuilder.append("), ")
-      .append(buildOldDataQueries(holdingsTableName, itemsTableName))
-      .append(buildUpsertQuery(holdingsTableName))
-      .append(buildCombinedResultsQuery())
-      .append("SELECT id, old_holdings_content, old_item_content FROM combined_results");
-
-    var sqlAndParams = Pair.of(sqlBuilder.toString(), Tuple.from(params));
-    return Pair.of(sqlAndParams, null);
-  }
-
-  private Exception buildUpsertDataClause(List<HoldingsRecord> holdings, StringBuilder sqlBuilder,
-                                           List<Object> params) {
-    var paramIndex = 1;
+    var ids = new String[holdings.size()];
+    var data = new String[holdings.size()];
     for (int i = 0; i < holdings.size(); i++) {
-      if (i > 0) {
-        sqlBuilder.append(" UNION ALL ");
-      }
-      sqlBuilder.append("SELECT $").append(paramIndex++).append("::uuid as id, $")
-        .append(paramIndex++).append("::jsonb as data");
-
       var holding = holdings.get(i);
-      params.add(holding.getId());
+      ids[i] = holding.getId();
       try {
-        params.add(PostgresClient.pojo2JsonObject(holding));
+        data[i] = PostgresClient.pojo2JsonObject(holding).encode();
       } catch (Exception e) {
-        return e;
+        return Pair.of(null, e);
       }
     }
-    return null;
-  }
-
-  private String buildOldDataQueries(String holdingsTableName, String itemsTableName) {
-    return "old_holdings_data AS ("
-           + "  SELECT id, jsonb::text as old_content FROM " + holdingsTableName
-           + "  WHERE id = ANY(SELECT id FROM upsert_data)"
-           + "), "
-           + "old_items_data AS ("
-           + "  SELECT holdingsrecordid, jsonb::text as item_content FROM " + itemsTableName
-           + "  WHERE holdingsrecordid = ANY(SELECT id FROM upsert_data)"
-           + "), ";
-  }
 
-  private String buildUpsertQuery(String holdingsTableName) {
-    return "updated AS ("
-           + "  UPDATE " + holdingsTableName + " SET jsonb = upsert_data.data "
-           + "  FROM upsert_data WHERE " + holdingsTableName + ".id = upsert_data.id "
-           + "  RETURNING " + holdingsTableName + ".id"
-           + "), "
-           + "inserted AS ("
-           + "  INSERT INTO " + holdingsTableName + " (id, jsonb) "
-           + "  SELECT id, data FROM upsert_data "
-           + "  WHERE id NOT IN (SELECT id FROM updated) "
-           + "  RETURNING id"
-           + "), "
-           + "upserted AS ("
-           + "  SELECT id FROM updated UNION ALL SELECT id FROM inserted"
-           + "), ";
+    var sql = UPSERT_SQL.formatted(holdingsRepository.getFullTableName(), ITEMS_AFFECTED_CONDITION);
+    return Pair.of(Pair.of(sql, Tuple.of(ids, data)), null);
   }
 
-  private String buildCombinedResultsQuery() {
-    return "combined_results AS ("
-           + "  SELECT "
-           + "    u.id, "
-           + "    COALESCE(oh.old_content, 'null') as old_holdings_content, "
-           + "    oi.item_content as old_item_content"
-           + "  FROM upserted u "
-           + "  LEFT JOIN old_holdings_data oh ON u.id = oh.id"
-           + "  LEFT JOIN old_items_data oi ON u.id = oi.holdingsrecordid"
-           + ")";
+  /**
+   * Returns the statement that selects the items of the holdings records whose ids are passed as an array parameter.
+   */
+  String buildAffectedItemsSql() {
+    return AFFECTED_ITEMS_SQL.formatted(itemRepository.getFullTableName());
   }
 }
@@ -7,11 +7,15 @@ import static org.folio.rest.persist.PgUtil.put;
 
 import io.vertx.core.Context;
 import io.vertx.core.Future;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import javax.ws.rs.core.Response;
 import org.folio.persist.BoundWithRepository;
 import org.folio.rest.jaxrs.model.BoundWithPart;
 import org.folio.rest.jaxrs.resource.InventoryStorageBoundWithParts;
+import org.folio.rest.tools.utils.MetadataUtil;
 import org.folio.services.domainevent.BoundWithDomainEventPublisher;
 import org.folio.validator.CommonValidators;
 
@@ -48,4 +52,26 @@ public class BoundWithPartService {
         InventoryStorageBoundWithParts.DeleteInventoryStorageBoundWithPartsByIdResponse.class)
         .onSuccess(domainEventPublisher.publishRemoved(item)));
   }
+
+  /**
+   * Links the item to exactly the given holdings records, creating and removing parts in a single statement.
+   * The events of the created and removed parts are published together once the statement has succeeded.
+   */
+  public Future<Void> reconcile(String itemId, Collection<String> holdingsIds) {
+    List<BoundWithPart> parts = holdingsIds.stream()
+      .map(holdingsId -> new BoundWithPart()
+        .withId(UUID.randomUUID().toString())
+        .withItemId(itemId)
+        .withHoldingsRecordId(holdingsId))
+      .toList();
+    try {
+      MetadataUtil.populateMetadata(parts, okapiHeaders);
+    } catch (Exception e) {
+      return Future.failedFuture(e);
+    }
+
+    return boundWithRepository.reconcile(itemId, parts)
+      .onSuccess(result -> domainEventPublisher.publishReconciled(result.getLeft(), result.getRight()))
+      .mapEmpty();
+  }
 }
@@ -0,0 +1,65 @@
+package org.folio.services.instance;
+
+import static org.folio.persist.InstanceChangeLogRepository.CHANGE_LOG_TABLE;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Promise;
+import io.vertx.core.ThreadingModel;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.persist.InstanceChangeLogRepository;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.utils.DatabaseUtils;
+import org.folio.utils.Environment;
+
+/**
+ * Periodically deletes the {@code instance_change_log} entries older than
+ * {@code instance-change-log.retention.days} in all tenants. Updated instance ids requests for older periods
+ * fall back to scanning the instances.
+ */
+public class InstanceChangeLogRetentionVerticle extends AbstractVerticle {
+  private static final Logger log = LogManager.getLogger(InstanceChangeLogRetentionVerticle.class);
+  private static final String RETENTION_DAYS_PARAM = "instance-change-log.retention.days";
+  private static final String INTERVAL_SECONDS_PARAM = "instance-change-log.retention.interval.seconds";
+  private static final int DEFAULT_RETENTION_DAYS = 30;
+  private static final int DEFAULT_INTERVAL_SECONDS = 3600;
+
+  private final int retentionDays = Math.max(1, Environment.getIntValue(RETENTION_DAYS_PARAM, DEFAULT_RETENTION_DAYS));
+  private final int intervalSeconds =
+    Math.max(1, Environment.getIntValue(INTERVAL_SECONDS_PARAM, DEFAULT_INTERVAL_SECONDS));
+  private long timerId;
+
+  @Override
+  public void start(Promise<Void> startPromise) {
+    timerId = vertx.setPeriodic(0, intervalSeconds * 1000L, id -> purgeChangeLogs());
+    log.info("start:: Instance change log retention started, retentionDays: {}, intervalSeconds: {}",
+      retentionDays, intervalSeconds);
+    startPromise.complete();
+  }
+
+  @Override
+  public void stop() {
+    vertx.cancelTimer(timerId);
+  }
+
+  public static DeploymentOptions getDeploymentOptions() {
+    return new DeploymentOptions()
+      .setThreadingModel(ThreadingModel.EVENT_LOOP)
+      .setInstances(1);
+  }
+
+  private void purgeChangeLogs() {
+    DatabaseUtils.getTenantsWithTable(vertx, CHANGE_LOG_TABLE)
+      .onSuccess(tenants -> tenants.forEach(this::purgeChangeLog))
+      .onFailure(e -> log.warn("purgeChangeLogs:: Unable to get tenants", e));
+  }
+
+  private void purgeChangeLog(String tenantId) {
+    new InstanceChangeLogRepository(PostgresClient.getInstance(vertx, tenantId)).purgeOlderThan(retentionDays)
+      .onSuccess(count -> log.info("purgeChangeLog:: Deleted {} instance change log entries, tenantId: {}",
+        count, tenantId))
+      .onFailure(e -> log.warn("purgeChangeLog:: Unable to purge instance change log, tenantId: {}",
+        tenantId, e));
+  }
+}
@@ -15,6 +15,7 @@ import static org.folio.rest.jaxrs.resource.InstanceStorageBatchSynchronous.Post
 import static org.folio.rest.jaxrs.resource.InstanceStorageBatchSynchronous.PostInstanceStorageBatchSynchronousResponse.respond413WithTextPlain;
 import static org.folio.rest.persist.PgUtil.postgresClient;
 import static org.folio.rest.persist.PgUtil.put;
+import static org.folio.rest.support.ResponseUtil.isCreateSuccessResponse;
 import static org.folio.rest.support.StatusUpdatedDateGenerator.generateStatusUpdatedDate;
 import static org.folio.services.batch.BatchOperationContextFactory.buildBatchOperationContext;
 import static org.folio.utils.ComparisonUtils.equalsIgnoringMetadata;
@@ -30,9 +31,11 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.pgclient.PgException;
 import io.vertx.sqlclient.Tuple;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -40,9 +43,9 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.folio.okapi.common.XOkapiHeaders;
@@ -65,8 +68,11 @@ import org.folio.rest.support.HridManager;
 import org.folio.rest.tools.utils.MetadataUtil;
 import org.folio.rest.tools.utils.OptimisticLockingUtil;
 import org.folio.services.ResponseHandlerUtil;
+import org.folio.services.batch.BatchOperationContext;
 import org.folio.services.caches.ConsortiumData;
 import org.folio.services.caches.ConsortiumDataCache;
+import org.folio.services.caches.InstanceTreeCache;
+import org.folio.services.caches.InstanceTreeCache.InstanceTree;
 import org.folio.services.consortium.ConsortiumService;
 import org.folio.services.consortium.ConsortiumServiceImpl;
 import org.folio.services.domainevent.InstanceDomainEventPublisher;
@@ -98,6 +104,7 @@ public class InstanceService {
   private final ConsortiumService consortiumService;
   private final SettingsService settingsService;
   private final Sanitizer<Instance> sanitizer;
+  private final InstanceTreeCache instanceTreeCache;
 
   public InstanceService(Context vertxContext, Map<String, String> okapiHeaders) {
     this.vertxContext = vertxContext;
@@ -113,6 +120,7 @@ public class InstanceService {
       vertxContext.get(ConsortiumDataCache.class.getName()));
     this.settingsService = new SettingsService(vertxContext, okapiHeaders);
     this.sanitizer = SanitizerFactory.getSanitizer(Instance.class);
+    this.instanceTreeCache = InstanceTreeCache.from(vertxContext);
   }
 
   public Future<Response> getInstance(String id) {
@@ -149,13 +157,67 @@ public class InstanceService {
                                          boolean superInstanceRelationships, boolean subInstanceRelationships,
                                          int offset, int limit, String query) {
 
+    if (instanceTreeCache.isEnabled()
+        && !(precedingTitles || succeedingTitles || superInstanceRelationships || subInstanceRelationships)) {
+      return getInstanceTreeSet(instance, holdingsRecords, items, offset, limit, query);
+    }
     return instanceRepository.getInstanceSet(instance, holdingsRecords, items,
       precedingTitles, succeedingTitles, superInstanceRelationships, subInstanceRelationships,
       offset, limit, query);
   }
 
-  public Future<Response> getInventoryViewInstancesWithBoundedItems(int offset, int limit, String query) {
-    return instanceRepository.getInventoryViewInstancesWithBoundedItems(offset, limit, query);
+  /**
+   * Instance set of instance trees only, the trees are taken from the {@link InstanceTreeCache}
+   * and only the missing trees are assembled by the database.
+   */
+  private Future<Response> getInstanceTreeSet(boolean instance, boolean holdingsRecords, boolean items,
+                                              int offset, int limit, String query) {
+    var tenantId = okapiHeaders.get(TENANT);
+    return instanceRepository.getInstanceSetIds(offset, limit, query)
+      .compose(ids -> {
+        var generation = instanceTreeCache.getGeneration(tenantId);
+        var trees = new HashMap<>(instanceTreeCache.getAll(tenantId, ids));
+        var missingIds = ids.stream().filter(id -> !trees.containsKey(id)).toList();
+        if (missingIds.isEmpty()) {
+          return Future.succeededFuture(buildInstanceTreeSetResponse(ids, trees, instance, holdingsRecords, items));
+        }
+        return instanceRepository.getInstanceTrees(missingIds)
+          .map(loadedTrees -> {
+            instanceTreeCache.putAll(tenantId, generation, loadedTrees);
+            loadedTrees.forEach(tree -> trees.put(tree.id(), tree));
+            return buildInstanceTreeSetResponse(ids, trees, instance, holdingsRecords, items);
+          });
+      });
+  }
+
+  private static Response buildInstanceTreeSetResponse(List<String> ids, Map<String, InstanceTree> trees,
+                                                       boolean instance, boolean holdingsRecords, boolean items) {
+    var json = new StringBuilder("{\"instanceSets\":[\n");
+    var first = true;
+    for (var id : ids) {
+      var tree = trees.get(id);
+      if (tree == null) {
+        // deleted after the page has been selected
+        continue;
+      }
+      if (!first) {
+        json.append(",\n");
+      }
+      first = false;
+      json.append("{\"id\": \"").append(id).append('"');
+      appendTreePart(json, "instance", instance, tree.instance());
+      appendTreePart(json, "holdingsRecords", holdingsRecords, tree.holdingsRecords());
+      appendTreePart(json, "items", items, tree.items());
+      json.append('}');
+    }
+    json.append("\n]}");
+    return Response.ok(json.toString(), MediaType.APPLICATION_JSON_TYPE).build();
+  }
+
+  private static void appendTreePart(StringBuilder json, String name, boolean included, byte[] value) {
+    if (included) {
+      json.append(", \"").append(name).append("\": ").append(new String(value, StandardCharsets.UTF_8));
+    }
   }
 
   public Future<Response> createInstance(Instance entity) {
@@ -175,7 +237,7 @@ public class InstanceService {
       instanceRepository.createInstance(conn, instance)
         .compose(response -> {
           if (response.getEntity() instanceof Instance instanceResp) {
-            return batchLinkSubjects(conn, instanceResp.getId(), instance.getSubjects())
+            return instanceRepository.syncSubjectLinks(conn, List.of(instanceResp))
               .map(v -> response);
           } else {
             return Future.succeededFuture(respond400WithTextPlain(response.getEntity()));
@@ -219,17 +281,37 @@ public class InstanceService {
 
     return hridManager.populateHridForInstances(instances)
       .compose(NotesValidators::refuseInstanceLongNotes)
-      .compose(notUsed -> buildBatchOperationContext(upsert, instances,
-        instanceRepository, Instance::getId, publishEvents))
-      .compose(batchOperation ->
-        postgresClient.withTrans(conn ->
-            postSyncInstance(conn, instances, upsert, optimisticLocking)
-              .compose(response -> batchLinkSubjects(conn, batchOperation.recordsToBeCreated())
-                .compose(v -> additionalOperations.apply(conn)).map(response)))
-          .onSuccess(domainEventPublisher.publishCreatedOrUpdated(batchOperation)))
+      .compose(notUsed -> isSkipUnchanged(upsert, instances))
+      .compose(skipUnchanged -> buildBatchOperationContext(upsert, instances,
+        instanceRepository, Instance::getId, publishEvents, skipUnchanged))
+      .compose(batchOperation -> {
+        var instancesToSave = batchOperation.recordsToBeSaved(instances);
+        return postgresClient.withTrans(conn ->
+            postSyncInstance(conn, instancesToSave, upsert, optimisticLocking)
+              .compose(response -> {
+                // an error response like 413, 422 or an optimistic locking conflict saved nothing
+                if (!isCreateSuccessResponse(response)) {
+                  return Future.succeededFuture(response);
+                }
+                return syncSubjectLinks(conn, instancesToSave, batchOperation)
+                  .compose(v -> additionalOperations.apply(conn))
+                  .compose(v -> domainEventPublisher.saveCreatedOrUpdated(conn, batchOperation))
+                  .map(response);
+              }))
+          .onSuccess(response -> invalidateInstanceTrees(instancesToSave.stream().map(Instance::getId).toList()))
+          .onSuccess(domainEventPublisher.publishCreatedOrUpdated(batchOperation));
+      })
       .map(ResponseHandlerUtil::handleHridError);
   }
 
+  private Future<Boolean> isSkipUnchanged(boolean upsert, List<Instance> instances) {
+    // an oversized batch is refused by postSyncInstance, it must not get below the limit by skipping
+    if (!upsert || instances.size() > MAX_ENTITIES) {
+      return Future.succeededFuture(false);
+    }
+    return settingsService.isOptimizeUpdatesEnabled(okapiHeaders.get(TENANT));
+  }
+
   public Future<Response> updateInstance(String id, Instance newInstance) {
     sanitizer.sanitize(newInstance);
     return refuseLongNotes(newInstance)
@@ -295,7 +377,8 @@ public class InstanceService {
           } else {
             putResult.fail(transactionResult.cause());
           }
-        }).onSuccess(domainEventPublisher.publishUpdated(oldInstance));
+        }).onSuccess(response -> invalidateInstanceTrees(List.of(id)))
+          .onSuccess(domainEventPublisher.publishUpdated(oldInstance));
       });
   }
 
@@ -321,6 +404,10 @@ public class InstanceService {
   }
 
   private Future<Response> executeBatchOperation(Conn conn, List<Instance> instances, boolean upsert) {
+    if (instances.isEmpty()) {
+      return Future.succeededFuture(respond201());
+    }
+
     var result = upsert
       ? conn.upsertBatch(INSTANCE_TABLE, instances)
       : conn.saveBatch(INSTANCE_TABLE, instances);
@@ -386,96 +473,43 @@ public class InstanceService {
   }
 
   private Future<Void> linkOrUnlinkSubjects(Conn conn, Instance newInstance, Instance oldInstance) {
-    var instanceId = newInstance.getId();
-
-    if (newInstance.getSubjects() == null || newInstance.getSubjects().isEmpty()) {
-      return Future.all(
-        instanceRepository.unlinkInstanceFromSubjectSource(conn, instanceId),
-        instanceRepository.unlinkInstanceFromSubjectType(conn, instanceId)
-      ).mapEmpty();
-    }
-    // Identify the differences between old and new subjects
-    Set<Subject> newSubjects = newInstance.getSubjects();
-    Set<Subject> oldSubjects = oldInstance.getSubjects() != null ? oldInstance.getSubjects() : Collections.emptySet();
-
-    var subjectsToRemove = oldSubjects.stream()
-      .filter(subject -> !newSubjects.contains(subject))
-      .collect(Collectors.toSet());
-
-    var subjectsToAdd = newSubjects.stream()
-      .filter(subject -> !oldSubjects.contains(subject))
-      .collect(Collectors.toSet());
-
-    return batchUnlinkSubjects(conn, instanceId, subjectsToRemove)
-      .compose(v -> batchLinkSubjects(conn, instanceId, subjectsToAdd));
-  }
-
-  private Future<Void> batchUnlinkSubjects(Conn conn, String instanceId, Set<Subject> subjectsToRemove) {
-    if (subjectsToRemove.isEmpty()) {
+    if (!subjectLinksChanged(oldInstance, newInstance)) {
       return Future.succeededFuture();
     }
-
-    var sourceIds = subjectsToRemove.stream()
-      .map(Subject::getSourceId)
-      .filter(Objects::nonNull)
-      .toList();
-
-    var typeIds = subjectsToRemove.stream()
-      .map(Subject::getTypeId)
-      .filter(Objects::nonNull)
-      .toList();
-
-    return Future.all(
-      sourceIds.isEmpty() ? Future.succeededFuture() :
-        instanceRepository.batchUnlinkSubjectSource(conn, instanceId, sourceIds),
-      typeIds.isEmpty() ? Future.succeededFuture() :
-        instanceRepository.batchUnlinkSubjectType(conn, instanceId, typeIds)
-    ).mapEmpty();
+    return instanceRepository.syncSubjectLinks(conn, List.of(newInstance));
   }
 
-  private Future<Void> batchLinkSubjects(Conn conn, String instanceId, Set<Subject> subjectsToAdd) {
-    var sourcePairs = subjectsToAdd.stream()
-      .filter(subject -> subject.getSourceId() != null)
-      .map(subject -> Pair.of(instanceId, subject.getSourceId()))
-      .toList();
-
-    var typePairs = subjectsToAdd.stream()
-      .filter(subject -> subject.getTypeId() != null)
-      .map(subject -> Pair.of(instanceId, subject.getTypeId()))
-      .toList();
-
-    return batchLinkSubjects(conn, sourcePairs, typePairs);
+  /**
+   * Syncs the subject links of the created instances and of the updated instances whose subject sources or
+   * subject types have changed, all of them with one statement.
+   */
+  private Future<Void> syncSubjectLinks(Conn conn, List<Instance> instances,
+                                        BatchOperationContext<Instance> batchOperation) {
+    var oldInstances = batchOperation.existingRecords().stream()
+      .collect(Collectors.toMap(Instance::getId, Function.identity(), (first, second) -> first));
+    var changed = new ArrayList<>(batchOperation.recordsToBeCreated());
+    for (var instance : instances) {
+      var oldInstance = oldInstances.get(instance.getId());
+      if (oldInstance != null && subjectLinksChanged(oldInstance, instance)) {
+        changed.add(instance);
+      }
+    }
+    return instanceRepository.syncSubjectLinks(conn, changed);
   }
 
-  private Future<Void> batchLinkSubjects(Conn conn, Collection<Instance> batchInstances) {
-    var sourcePairs = batchInstances.stream()
-      .flatMap(instance -> instance.getSubjects().stream()
-        .filter(subject -> subject.getSourceId() != null)
-        .map(subject -> Pair.of(instance.getId(), subject.getSourceId())))
-      .toList();
-
-    var typePairs = batchInstances.stream()
-      .flatMap(instance -> instance.getSubjects().stream()
-        .filter(subject -> subject.getTypeId() != null)
-        .map(subject -> Pair.of(instance.getId(), subject.getTypeId())))
-      .toList();
-
-    return batchLinkSubjects(conn, sourcePairs, typePairs);
+  private static boolean subjectLinksChanged(Instance oldInstance, Instance newInstance) {
+    return !getSubjectIds(oldInstance, Subject::getSourceId).equals(getSubjectIds(newInstance, Subject::getSourceId))
+      || !getSubjectIds(oldInstance, Subject::getTypeId).equals(getSubjectIds(newInstance, Subject::getTypeId));
   }
 
-  private Future<Void> batchLinkSubjects(Conn conn, List<Pair<String, String>> sourcePairs,
-                                         List<Pair<String, String>> typePairs) {
-    if (sourcePairs.isEmpty() && typePairs.isEmpty()) {
-      return Future.succeededFuture();
+  private static Set<String> getSubjectIds(Instance instance, Function<Subject, String> idGetter) {
+    if (instance.getSubjects() == null) {
+      return Set.of();
     }
-
-    // Combine both operations into a single future
-    return Future.all(
-      sourcePairs.isEmpty() ? Future.succeededFuture() :
-        instanceRepository.batchLinkSubjectSource(conn, sourcePairs),
-      typePairs.isEmpty() ? Future.succeededFuture() :
-        instanceRepository.batchLinkSubjectType(conn, typePairs)
-    ).mapEmpty();
+    return instance.getSubjects().stream()
+      .map(idGetter)
+      .filter(Objects::nonNull)
+      .collect(Collectors.toSet());
   }
 
   /**
@@ -486,6 +520,7 @@ public class InstanceService {
     return marcRepository.deleteAll()
       .compose(notUsed -> relationshipRepository.deleteAll())
       .compose(notUsed -> instanceRepository.deleteAll())
+      .onSuccess(notUsed -> instanceTreeCache.invalidateAll(okapiHeaders.get(TENANT)))
       .onSuccess(notUsed -> domainEventPublisher.publishAllRemoved())
       .map(noContent().build());
   }
@@ -499,6 +534,7 @@ public class InstanceService {
         if (!rowSet.iterator().hasNext()) {
           return DeleteInstanceStorageInstancesByInstanceIdResponse.respond404WithTextPlain("Not found");
         }
+        invalidateInstanceTrees(List.of(id));
         // do not add curly braces for readability, this is to comply with
         // https://sonarcloud.io/organizations/folio-org/rules?open=java%3AS1602&rule_key=java%3AS1602
         rowSet.iterator().forEachRemaining(row ->
@@ -523,6 +559,11 @@ public class InstanceService {
     // do not add curly braces for readability, this is to comply with
     // https://sonarcloud.io/organizations/folio-org/rules?open=java%3AS1602&rule_key=java%3AS1602
     return instanceRepository.delete(cql)
+      .onSuccess(rowSet -> {
+        var ids = new ArrayList<String>(rowSet.size());
+        rowSet.forEach(row -> ids.add(row.getString(0)));
+        invalidateInstanceTrees(ids);
+      })
       .onSuccess(rowSet -> vertxContext.runOnContext(runLater ->
         rowSet.iterator().forEachRemaining(row ->
           domainEventPublisher.publishRemoved(row.getString(0), row.getString(1))
@@ -531,6 +572,10 @@ public class InstanceService {
       .map(noContent().build());
   }
 
+  private void invalidateInstanceTrees(Collection<String> instanceIds) {
+    instanceTreeCache.invalidateInstances(okapiHeaders.get(TENANT), instanceIds);
+  }
+
   public Future<Void> publishReindexInstanceRecords(String rangeId, String fromId, String toId) {
     return isCentralTenant()
       .compose(isCentralTenant -> {
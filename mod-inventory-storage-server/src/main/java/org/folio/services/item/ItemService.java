@@ -38,6 +38,7 @@ import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowSet;
 import io.vertx.sqlclient.Tuple;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
@@ -45,6 +46,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import javax.ws.rs.core.Response;
 import org.apache.commons.collections4.CollectionUtils;
@@ -71,6 +73,9 @@ import org.folio.rest.support.HridManager;
 import org.folio.rest.tools.client.exceptions.ResponseException;
 import org.folio.services.ItemEffectiveValuesService;
 import org.folio.services.ResponseHandlerUtil;
+import org.folio.services.TenantComponents;
+import org.folio.services.batch.BatchOperationContext;
+import org.folio.services.caches.InstanceTreeCache;
 import org.folio.services.domainevent.ItemDomainEventPublisher;
 import org.folio.services.reindex.ReindexExportOrchestrator;
 import org.folio.services.sanitizer.Sanitizer;
@@ -105,18 +110,24 @@ public class ItemService {
   private final PostgresClient postgresClient;
   private final HoldingsRepository holdingsRepository;
   private final Sanitizer<Item> sanitizer;
+  private final InstanceTreeCache instanceTreeCache;
 
   public ItemService(Context vertxContext, Map<String, String> okapiHeaders) {
     this.vertxContext = vertxContext;
     this.okapiHeaders = okapiHeaders;
     this.postgresClient = postgresClient(vertxContext, okapiHeaders);
-    this.hridManager = new HridManager(postgresClient);
-    this.effectiveValuesService = new ItemEffectiveValuesService(vertxContext, okapiHeaders);
+    this.hridManager = TenantComponents.get(vertxContext, okapiHeaders, HridManager.class,
+      (context, headers) -> new HridManager(postgresClient));
+    this.effectiveValuesService = TenantComponents.get(vertxContext, okapiHeaders, ItemEffectiveValuesService.class,
+      ItemEffectiveValuesService::new);
     this.domainEventService = new ItemDomainEventPublisher(vertxContext, okapiHeaders);
-    this.settingsService = new SettingsService(vertxContext, okapiHeaders);
-    this.itemRepository = new ItemRepository(vertxContext, okapiHeaders);
-    this.holdingsRepository = new HoldingsRepository(vertxContext, okapiHeaders);
+    this.settingsService = TenantComponents.get(vertxContext, okapiHeaders, SettingsService.class,
+      SettingsService::new);
+    this.itemRepository = TenantComponents.get(vertxContext, okapiHeaders, ItemRepository.class, ItemRepository::new);
+    this.holdingsRepository = TenantComponents.get(vertxContext, okapiHeaders, HoldingsRepository.class,
+      HoldingsRepository::new);
     this.sanitizer = SanitizerFactory.getSanitizer(Item.class);
+    this.instanceTreeCache = InstanceTreeCache.from(vertxContext);
   }
 
   public Future<Response> createItem(Item entity) {
@@ -129,6 +140,7 @@ public class ItemService {
       .compose(effectiveValuesService::populateEffectiveValues)
       .compose(this::populateCirculationNoteId)
       .compose(item -> post(ITEM_TABLE, item, okapiHeaders, vertxContext, PostItemStorageItemsResponse.class)
+        .onSuccess(response -> invalidateInstanceTrees(item.getHoldingsRecordId()))
         .onSuccess(domainEventService.publishCreated()))
       .map(ResponseHandlerUtil::handleHridError);
   }
@@ -148,13 +160,32 @@ public class ItemService {
       .compose(NotesValidators::refuseItemLongNotes)
       .compose(result -> effectiveValuesService.populateEffectiveValues(items))
       .compose(this::populateCirculationNoteId)
-      .compose(result -> buildBatchOperationContext(upsert, items, itemRepository, Item::getId, true))
-      .compose(batchOperation -> postSync(ITEM_TABLE, items, MAX_ENTITIES, upsert, optimisticLocking,
-        okapiHeaders, vertxContext, PostItemStorageBatchSynchronousResponse.class)
+      .compose(itemRepository::allocateOrders)
+      .compose(result -> isSkipUnchanged(upsert, items))
+      .compose(skipUnchanged -> buildBatchOperationContext(upsert, items, itemRepository, Item::getId, true,
+        skipUnchanged))
+      .compose(batchOperation -> saveItems(batchOperation.recordsToBeSaved(items), upsert, optimisticLocking)
+        .onSuccess(response -> invalidateInstanceTrees(batchOperation, items))
         .onSuccess(domainEventService.publishCreatedOrUpdated(batchOperation)))
       .map(ResponseHandlerUtil::handleHridError);
   }
 
+  private Future<Boolean> isSkipUnchanged(boolean upsert, List<Item> items) {
+    // an oversized batch is refused by postSync, it must not get below the limit by skipping
+    if (!upsert || items.size() > MAX_ENTITIES) {
+      return Future.succeededFuture(false);
+    }
+    return settingsService.isOptimizeUpdatesEnabled(okapiHeaders.get(TENANT));
+  }
+
+  private Future<Response> saveItems(List<Item> items, boolean upsert, boolean optimisticLocking) {
+    if (items.isEmpty()) {
+      return Future.succeededFuture(PostItemStorageBatchSynchronousResponse.respond201());
+    }
+    return postSync(ITEM_TABLE, items, MAX_ENTITIES, upsert, optimisticLocking,
+      okapiHeaders, vertxContext, PostItemStorageBatchSynchronousResponse.class);
+  }
+
   public Future<RowSet<Row>> updateBatch(Conn conn, List<Item> allItemsToUpdate) {
     allItemsToUpdate.forEach(sanitizer::sanitize);
     Future<RowSet<Row>> future = Future.succeededFuture();
@@ -204,6 +235,7 @@ public class ItemService {
       .compose(x -> refuseWhenHridChanged(putData.oldItem, newItem))
       .compose(x -> retrieveOldHoldingsIfNeeded(newItem, putData))
       .compose(oldHoldings -> performItemUpdate(newItem, putData, oldHoldings))
+      .onSuccess(x -> invalidateInstanceTrees(putData.oldItem.getHoldingsRecordId(), newItem.getHoldingsRecordId()))
       .map(x -> PutItemStorageItemsByItemIdResponse.respond204());
   }
 
@@ -212,6 +244,7 @@ public class ItemService {
       .compose(CommonValidators::refuseIfNotFound)
       .compose(item -> deleteById(ITEM_TABLE, itemId, okapiHeaders, vertxContext,
         DeleteItemStorageItemsByItemIdResponse.class)
+        .onSuccess(response -> invalidateInstanceTrees(item.getHoldingsRecordId()))
         .onSuccess(domainEventService.publishRemoved(item)));
   }
 
@@ -227,6 +260,11 @@ public class ItemService {
     // do not add curly braces for readability, this is to comply with
     // https://sonarcloud.io/organizations/folio-org/rules?open=java%3AS1602&rule_key=java%3AS1602
     return itemRepository.delete(cql)
+      .onSuccess(rowSet -> {
+        var instanceIds = new ArrayList<String>(rowSet.size());
+        rowSet.forEach(row -> instanceIds.add(row.getString(0)));
+        instanceTreeCache.invalidateInstances(okapiHeaders.get(TENANT), instanceIds);
+      })
       .onSuccess(rowSet -> vertxContext.runOnContext(runLater ->
         rowSet.iterator().forEachRemaining(this::processDeletedItemRow)))
       .map(Response.noContent().build());
@@ -238,6 +276,7 @@ public class ItemService {
    */
   public Future<Response> deleteAllItems() {
     return itemRepository.deleteAll()
+      .onSuccess(notUsed -> instanceTreeCache.invalidateAll(okapiHeaders.get(TENANT)))
       .onSuccess(notUsed -> domainEventService.publishAllRemoved())
       .map(Response.noContent().build());
   }
@@ -268,12 +307,16 @@ public class ItemService {
       .export(request, conn -> itemRepository.streamReindexItemRecords(conn, rangeFrom, rangeTo));
   }
 
-  public void populateItemFromHoldings(Item item, HoldingsRecord holdingsRecord,
-                                       org.folio.services.ItemEffectiveValuesService effectiveValuesService) {
-    effectiveValuesService.populateEffectiveValues(item, holdingsRecord);
-    if (isItemFieldsAffected(holdingsRecord, item)) {
-      populateMetadata(item, holdingsRecord.getMetadata());
+  public List<Item> populateItemsFromHoldings(List<Item> items, Function<Item, HoldingsRecord> holdingsRecords,
+                                              ItemEffectiveValuesService effectiveValuesService) {
+    effectiveValuesService.populateEffectiveValues(items, holdingsRecords);
+    for (var item : items) {
+      var holdingsRecord = holdingsRecords.apply(item);
+      if (isItemFieldsAffected(holdingsRecord, item)) {
+        populateMetadata(item, holdingsRecord.getMetadata());
+      }
     }
+    return items;
   }
 
   private Pair<List<PatchData>, List<Item>> convertItemPatchesToPatchData(List<ItemPatchRequest> items) {
@@ -305,6 +348,8 @@ public class ItemService {
     return postgresClient.withTransaction(conn ->
         itemRepository.updateItems(conn, items)
           .<Response>compose(updatedItems -> publishItemUpdateEvents(updatedItems, patchDataToUpdate)))
+      .onSuccess(response -> patchDataToUpdate.forEach(patchData -> invalidateInstanceTrees(
+        patchData.getOldItem().getHoldingsRecordId(), patchData.getNewItem().getHoldingsRecordId())))
       .recover(ItemUtils::handleUpdateItemsError);
   }
 
@@ -348,6 +393,21 @@ public class ItemService {
       });
   }
 
+  private void invalidateInstanceTrees(BatchOperationContext<Item> batchOperation, List<Item> items) {
+    // the stored items give the holdings records the updated items are moved from, the incoming ones the new ones
+    var holdingsIds = new ArrayList<String>();
+    items.forEach(item -> holdingsIds.add(item.getHoldingsRecordId()));
+    batchOperation.existingRecords().forEach(item -> holdingsIds.add(item.getHoldingsRecordId()));
+    instanceTreeCache.invalidateHoldings(okapiHeaders.get(TENANT), holdingsIds);
+  }
+
+  /**
+   * Invalidates the cached trees of the instances the holdings records of the items belong to.
+   */
+  private void invalidateInstanceTrees(String... holdingsIds) {
+    instanceTreeCache.invalidateHoldings(okapiHeaders.get(TENANT), Arrays.asList(holdingsIds));
+  }
+
   private void processDeletedItemRow(Row row) {
     try {
       var instanceIdAndItemRaw = INSTANCE_ID_WITH_ITEM_JSON.formatted(
@@ -398,12 +458,8 @@ public class ItemService {
 
   private Future<RowSet<Row>> updateEffectiveCallNumbersAndLocation(
     Conn connection, Collection<Item> items, HoldingsRecord holdingsRecord) {
-    var preparedItems = items.stream()
-      .map(item -> {
-        populateItemFromHoldings(item, holdingsRecord, effectiveValuesService);
-        return item;
-      })
-      .toList();
+    var preparedItems = populateItemsFromHoldings(new ArrayList<>(items), item -> holdingsRecord,
+      effectiveValuesService);
     if (preparedItems.isEmpty()) {
       return Future.succeededFuture();
     }
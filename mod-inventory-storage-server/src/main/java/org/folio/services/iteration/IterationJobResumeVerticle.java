@@ -0,0 +1,66 @@
+package org.folio.services.iteration;
+
+import static org.folio.okapi.common.XOkapiHeaders.TENANT;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Promise;
+import io.vertx.core.ThreadingModel;
+import java.util.Map;
+import org.apache.commons.collections4.map.CaseInsensitiveMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.persist.IterationJobRepository;
+import org.folio.utils.DatabaseUtils;
+import org.folio.utils.Environment;
+
+/**
+ * Resumes the instance iteration jobs interrupted by a failure or a restart of the module instance
+ * that ran them. The jobs are looked up in all tenants on start and then periodically, a job is resumed
+ * from the last checkpoint once it has not saved a checkpoint for {@code iteration.resume.stale.seconds}.
+ */
+public class IterationJobResumeVerticle extends AbstractVerticle {
+  private static final Logger log = LogManager.getLogger(IterationJobResumeVerticle.class);
+  private static final String STALE_SECONDS_PARAM = "iteration.resume.stale.seconds";
+  private static final int DEFAULT_STALE_SECONDS = 300;
+  private static final String ITERATION_JOB_TABLE = "iteration_job";
+
+  private final int staleSeconds = Math.max(1, Environment.getIntValue(STALE_SECONDS_PARAM, DEFAULT_STALE_SECONDS));
+  private long timerId;
+
+  @Override
+  public void start(Promise<Void> startPromise) {
+    timerId = vertx.setPeriodic(0, staleSeconds * 1000L, id -> resumeInterruptedJobs());
+    log.info("start:: Iteration job resume started, staleSeconds: {}", staleSeconds);
+    startPromise.complete();
+  }
+
+  @Override
+  public void stop() {
+    vertx.cancelTimer(timerId);
+  }
+
+  public static DeploymentOptions getDeploymentOptions() {
+    return new DeploymentOptions()
+      .setThreadingModel(ThreadingModel.EVENT_LOOP)
+      .setInstances(1);
+  }
+
+  private void resumeInterruptedJobs() {
+    DatabaseUtils.getTenantsWithTable(vertx, ITERATION_JOB_TABLE)
+      .onSuccess(tenants -> tenants.forEach(this::resumeInterruptedJobs))
+      .onFailure(e -> log.warn("resumeInterruptedJobs:: Unable to get tenants", e));
+  }
+
+  private void resumeInterruptedJobs(String tenantId) {
+    Map<String, String> okapiHeaders = new CaseInsensitiveMap<>(Map.of(TENANT.toLowerCase(), tenantId));
+    new IterationJobRepository(context, okapiHeaders).claimInterruptedJobs(staleSeconds)
+      .onSuccess(jobs -> jobs.forEach(job -> {
+        log.info("resumeInterruptedJobs:: Resuming iteration job, tenantId: {}, jobId: {}, lastId: {}",
+          tenantId, job.getId(), job.getLastId());
+        new IterationJobRunner(context, okapiHeaders).startIteration(job);
+      }))
+      .onFailure(e -> log.warn("resumeInterruptedJobs:: Unable to resume iteration jobs, tenantId: {}",
+        tenantId, e));
+  }
+}
@@ -10,9 +10,10 @@ import static org.folio.rest.tools.utils.TenantTool.tenantId;
 
 import io.vertx.core.Context;
 import io.vertx.core.Future;
+import io.vertx.core.Promise;
 import io.vertx.core.WorkerExecutor;
-import io.vertx.sqlclient.Row;
-import io.vertx.sqlclient.RowStream;
+import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -22,50 +23,51 @@ import org.folio.persist.InstanceRepository;
 import org.folio.persist.IterationJobRepository;
 import org.folio.rest.jaxrs.model.Instance;
 import org.folio.rest.jaxrs.model.IterationJob;
-import org.folio.rest.persist.Conn;
-import org.folio.rest.persist.PostgresClient;
-import org.folio.rest.support.PostgresClientFactory;
 import org.folio.rest.tools.utils.TenantTool;
 import org.folio.services.domainevent.CommonDomainEventPublisher;
 import org.folio.services.domainevent.DomainEvent;
 import org.folio.services.domainevent.DomainEventType;
+import org.folio.utils.Environment;
 
 public class IterationJobRunner {
 
   public static final String ITERATION_JOB_ID_HEADER = "iteration-job-id";
 
   private static final Logger log = LogManager.getLogger(IterationJobRunner.class);
+  private static final String CHUNK_SIZE_PARAM = "iteration.chunk.size";
+  private static final int DEFAULT_CHUNK_SIZE = 1000;
   private static final int POOL_SIZE = 2;
-  private static final int UPDATE_PUBLISHED_EVERY = 1000;
   private static volatile WorkerExecutor workerExecutor;
 
   private final Context vertxContext;
   private final Map<String, String> okapiHeaders;
-  private final PostgresClient postgresClient;
   private final IterationJobRepository jobRepository;
   private final InstanceRepository instanceRepository;
+  private final int chunkSize;
   private CommonDomainEventPublisher<Instance> eventPublisher;
 
   public IterationJobRunner(Context vertxContext, Map<String, String> okapiHeaders) {
-    this(PostgresClientFactory.getInstance(vertxContext, okapiHeaders),
-      new IterationJobRepository(vertxContext, okapiHeaders),
+    this(new IterationJobRepository(vertxContext, okapiHeaders),
       new InstanceRepository(vertxContext, okapiHeaders),
       vertxContext,
       okapiHeaders);
   }
 
-  public IterationJobRunner(PostgresClient postgresClient, IterationJobRepository repository,
+  public IterationJobRunner(IterationJobRepository repository,
                             InstanceRepository instanceRepository, Context vertxContext,
                             Map<String, String> okapiHeaders) {
     this.vertxContext = vertxContext;
     this.okapiHeaders = okapiHeaders;
-    this.postgresClient = postgresClient;
     this.jobRepository = repository;
     this.instanceRepository = instanceRepository;
+    this.chunkSize = Math.max(1, Environment.getIntValue(CHUNK_SIZE_PARAM, DEFAULT_CHUNK_SIZE));
 
     initWorker(vertxContext);
   }
 
+  /**
+   * Starts the iteration, or resumes it after the last instance id checkpointed in the job.
+   */
   public void startIteration(IterationJob job) {
     String fullTopicName = KafkaTopicNameHelper.formatTopicName(environment(),
       tenantId(okapiHeaders),
@@ -90,13 +92,13 @@ public class IterationJobRunner {
   }
 
   private Future<Long> streamInstanceIds(IterationContext context) {
-    return postgresClient.withTrans(conn -> selectInstanceIds(conn)
-      .map(context::withStream)
-      .compose(this::processStream)
-      .onComplete(recordsPublished -> {
-        context.stream.close()
-          .onFailure(error -> log.warn("Unable to commit transaction", error));
+    log.info("streamInstanceIds:: Iterating instances in chunks of {}, jobId: {}, lastId: {}",
+      chunkSize, context.getJobId(), context.lastId);
+    var promise = Promise.<Long>promise();
+    processNextChunk(context, promise);
 
+    return promise.future()
+      .onComplete(recordsPublished -> {
         if (recordsPublished.failed()) {
           log.warn("Unable to iterate instances", recordsPublished.cause());
 
@@ -107,32 +109,42 @@ public class IterationJobRunner {
 
           logIterationCompleted(published, context);
         }
-      }));
-  }
-
-  private Future<RowStream<Row>> selectInstanceIds(Conn connection) {
-    return instanceRepository.getAllIds(connection);
+      });
   }
 
-  private void logIterationCompleted(Long recordsPublished, IterationContext context) {
-    jobRepository.fetchAndUpdate(context.getJobId(),
-      job -> job.withMessagesPublished(recordsPublished.intValue())
-        .withJobStatus(COMPLETED));
-  }
+  /**
+   * Publishes messages for the next chunk of instance ids and saves the last id of the chunk as a checkpoint,
+   * every chunk is read in its own short query, so no transaction is kept open during the iteration.
+   */
+  private void processNextChunk(IterationContext context, Promise<Long> promise) {
+    instanceRepository.getIdsAfter(context.lastId, chunkSize)
+      .compose(ids -> {
+        if (ids.isEmpty()) {
+          return succeededFuture(true);
+        }
 
-  private Future<Long> processStream(IterationContext context) {
-    return eventPublisher.publishStream(context.stream,
-      row -> rowToProducerRecord(row, context),
-      recordsPublished -> logJobDetails(recordsPublished, context));
+        return eventPublisher.publishRecords(ids, id -> idToProducerRecord(id, context))
+          .compose(notUsed -> saveCheckpoint(context, ids))
+          .map(notUsed -> ids.size() < chunkSize);
+      })
+      .onSuccess(completed -> {
+        if (Boolean.TRUE.equals(completed)) {
+          promise.complete(context.published);
+        } else {
+          processNextChunk(context, promise);
+        }
+      })
+      .onFailure(promise::fail);
   }
 
-  private Future<IterationJob> logJobDetails(Long records, IterationContext context) {
-    if (!shouldLogJobDetails(records)) {
-      return succeededFuture(context.job);
-    }
+  private Future<IterationJob> saveCheckpoint(IterationContext context, List<String> publishedIds) {
+    context.lastId = publishedIds.getLast();
+    context.published += publishedIds.size();
 
     return jobRepository
-      .fetchAndUpdateIterationJob(context.getJobId(), job -> job.withMessagesPublished(records.intValue()))
+      .fetchAndUpdateIterationJob(context.getJobId(), job -> job.withMessagesPublished((int) context.published)
+        .withLastId(context.lastId)
+        .withCheckpointDate(new Date()))
       .map(job -> {
         if (job.getJobStatus() == CANCELLATION_PENDING) {
           throw new IllegalStateException("The job has been cancelled");
@@ -141,8 +153,10 @@ public class IterationJobRunner {
       });
   }
 
-  private boolean shouldLogJobDetails(long records) {
-    return records % UPDATE_PUBLISHED_EVERY == 0;
+  private void logIterationCompleted(Long recordsPublished, IterationContext context) {
+    jobRepository.fetchAndUpdate(context.getJobId(),
+      job -> job.withMessagesPublished(recordsPublished.intValue())
+        .withJobStatus(COMPLETED));
   }
 
   private void logFailedJob(IterationContext context) {
@@ -156,9 +170,9 @@ public class IterationJobRunner {
       });
   }
 
-  private KafkaProducerRecordBuilder<String, Object> rowToProducerRecord(Row row, IterationContext context) {
+  private KafkaProducerRecordBuilder<String, Object> idToProducerRecord(String id, IterationContext context) {
     return new KafkaProducerRecordBuilder<String, Object>(TenantTool.tenantId(okapiHeaders))
-      .key(row.getUUID("id").toString())
+      .key(id)
       .value(iterationEvent(context.getEventType()))
       .header(ITERATION_JOB_ID_HEADER, context.getJobId());
   }
@@ -170,15 +184,14 @@ public class IterationJobRunner {
   private static final class IterationContext {
 
     private final IterationJob job;
-    private RowStream<Row> stream;
+    private String lastId;
+    private long published;
 
     private IterationContext(IterationJob job) {
       this.job = job;
-    }
-
-    private IterationContext withStream(RowStream<Row> stream) {
-      this.stream = stream;
-      return this;
+      this.lastId = job.getLastId();
+      this.published = job.getLastId() == null || job.getMessagesPublished() == null
+                       ? 0 : job.getMessagesPublished();
     }
 
     private String getJobId() {
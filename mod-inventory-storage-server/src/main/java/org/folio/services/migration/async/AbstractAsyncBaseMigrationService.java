@@ -6,11 +6,13 @@ import io.vertx.core.Future;
 import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowStream;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.folio.persist.InstanceRepository;
 import org.folio.rest.jaxrs.model.Instance;
 import org.folio.rest.persist.Conn;
 import org.folio.rest.persist.PostgresClient;
+import org.folio.services.caches.InstanceTreeCache;
 import org.folio.utils.DatabaseUtils;
 
 public abstract class AbstractAsyncBaseMigrationService extends AsyncBaseMigrationService {
@@ -19,12 +21,24 @@ public abstract class AbstractAsyncBaseMigrationService extends AsyncBaseMigrati
 
   protected final PostgresClient postgresClient;
   protected final InstanceRepository instanceRepository;
+  protected final InstanceTreeCache instanceTreeCache;
 
   protected AbstractAsyncBaseMigrationService(String version, PostgresClient postgresClient,
-                                              InstanceRepository instanceRepository) {
+                                              InstanceRepository instanceRepository,
+                                              InstanceTreeCache instanceTreeCache) {
     super(version, postgresClient);
     this.postgresClient = postgresClient;
     this.instanceRepository = instanceRepository;
+    this.instanceTreeCache = instanceTreeCache;
+  }
+
+  /**
+   * Runs the migration of the instances, their trees are invalidated once the upserted batches are committed.
+   */
+  @Override
+  public Future<Void> runMigrationForIds(Set<String> ids) {
+    return super.runMigrationForIds(ids)
+      .onSuccess(v -> instanceTreeCache.invalidateInstances(postgresClient.getTenantId(), ids));
   }
 
   @Override
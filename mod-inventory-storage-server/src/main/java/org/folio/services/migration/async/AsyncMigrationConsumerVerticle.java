@@ -1,26 +1,67 @@
 package org.folio.services.migration.async;
 
 import static org.folio.InventoryKafkaTopic.ASYNC_MIGRATION;
-import static org.folio.services.migration.async.AsyncMigrationsConsumerUtils.pollAsyncMigrationsMessages;
+import static org.folio.services.migration.async.AsyncMigrationsConsumerUtils.failAsyncMigrationsJobs;
+import static org.folio.services.migration.async.AsyncMigrationsConsumerUtils.processAsyncMigrationsRecords;
 
 import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.json.JsonObject;
 import io.vertx.kafka.client.consumer.KafkaConsumer;
+import io.vertx.kafka.client.consumer.OffsetAndMetadata;
 import io.vertx.kafka.client.serialization.JsonObjectDeserializer;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.folio.kafka.KafkaConfig;
 import org.folio.kafka.services.KafkaEnvironmentProperties;
+import org.folio.services.caches.InstanceTreeCache;
+import org.folio.utils.Environment;
 
+/**
+ * Consumes the ids published by the async migration jobs. The consumer polls again as soon as the previous records
+ * are processed, the partitions of the polled records are processed in parallel, up to
+ * {@code async-migration.consumer.concurrency} at a time, and the offset of each partition is committed
+ * once its records are processed. The partition is rewound to the first failed record and paused for a delay that
+ * grows with each attempt, so that the records are retried by a later poll. The records that fail
+ * {@code async-migration.consumer.retry.attempts} times are skipped and their jobs are marked as failed.
+ */
 public class AsyncMigrationConsumerVerticle extends AbstractVerticle {
   private static final Logger log = LogManager.getLogger(AsyncMigrationConsumerVerticle.class);
   private static final String TENANT_FOR_MIGRATION = "\\w{1,}";
   private static final Long PERIOD = 1000L;
+  private static final String CONCURRENCY_PARAM = "async-migration.consumer.concurrency";
+  private static final int DEFAULT_CONCURRENCY = 4;
+  private static final String POLL_TIMEOUT_PARAM = "async-migration.consumer.poll.timeout.ms";
+  private static final int DEFAULT_POLL_TIMEOUT_MS = 1000;
+  private static final String RETRY_ATTEMPTS_PARAM = "async-migration.consumer.retry.attempts";
+  private static final int DEFAULT_RETRY_ATTEMPTS = 5;
+  private static final String RETRY_DELAY_PARAM = "async-migration.consumer.retry.delay.ms";
+  private static final int DEFAULT_RETRY_DELAY_MS = 1000;
+
+  private final int concurrency = Math.max(1, Environment.getIntValue(CONCURRENCY_PARAM, DEFAULT_CONCURRENCY));
+  private final int pollTimeoutMs = Math.max(1, Environment.getIntValue(POLL_TIMEOUT_PARAM, DEFAULT_POLL_TIMEOUT_MS));
+  private final int maxAttempts = Math.max(1, Environment.getIntValue(RETRY_ATTEMPTS_PARAM, DEFAULT_RETRY_ATTEMPTS));
+  private final long retryDelayMs = Math.max(1, Environment.getIntValue(RETRY_DELAY_PARAM, DEFAULT_RETRY_DELAY_MS));
+  private final Map<TopicPartition, FailedRecords> failedRecords = new HashMap<>();
+  private final InstanceTreeCache instanceTreeCache;
+  private KafkaConsumer<String, JsonObject> consumer;
+  private volatile boolean stopped;
+
+  public AsyncMigrationConsumerVerticle(InstanceTreeCache instanceTreeCache) {
+    this.instanceTreeCache = instanceTreeCache;
+  }
 
   public static Map<String, String> getKafkaConsumerProperties(String groupId) {
     var kafkaConfig = KafkaConfig.builder()
@@ -38,20 +79,106 @@ public class AsyncMigrationConsumerVerticle extends AbstractVerticle {
 
   @Override
   public void start(Promise<Void> startPromise) {
-    log.info("start:: Starting AsyncMigrationConsumerVerticle");
+    log.info("start:: Starting AsyncMigrationConsumerVerticle, concurrency: {}", concurrency);
     var topicName = ASYNC_MIGRATION.fullTopicName(TENANT_FOR_MIGRATION);
-    KafkaConsumer<String, JsonObject> consumer = KafkaConsumer
-      .create(vertx, getKafkaConsumerProperties(AsyncMigrationConsumerVerticle.class.getSimpleName() + "_group"));
+    consumer = createConsumer();
 
     consumer.subscribe(Pattern.compile(topicName))
       .onSuccess(event -> {
         log.info("Consumer created. SubscriptionPattern: {}", topicName);
         startPromise.complete();
+        poll();
       })
       .onFailure(startPromise::fail);
+  }
+
+  KafkaConsumer<String, JsonObject> createConsumer() {
+    return KafkaConsumer
+      .create(vertx, getKafkaConsumerProperties(AsyncMigrationConsumerVerticle.class.getSimpleName() + "_group"));
+  }
+
+  @Override
+  public void stop(Promise<Void> stopPromise) {
+    stopped = true;
+    consumer.close().onComplete(stopPromise);
+  }
 
-    vertx.setPeriodic(PERIOD, v ->
-      consumer.poll(Duration.ofMillis(100))
-        .onSuccess(pollAsyncMigrationsMessages(consumer, vertx.getOrCreateContext())));
+  private void poll() {
+    if (stopped) {
+      return;
+    }
+    consumer.poll(Duration.ofMillis(pollTimeoutMs))
+      .compose(records -> processPartitions(records.records()))
+      .onSuccess(v -> poll())
+      .onFailure(e -> {
+        log.error("poll:: Failed to poll async migration records", e);
+        vertx.setTimer(PERIOD, id -> poll());
+      });
   }
+
+  private Future<Void> processPartitions(ConsumerRecords<String, JsonObject> records) {
+    if (records.isEmpty()) {
+      return Future.succeededFuture();
+    }
+    var partitions = new ArrayList<>(records.partitions());
+    var next = new AtomicInteger();
+    var workers = new ArrayList<Future<Void>>();
+    for (int i = 0; i < Math.min(concurrency, partitions.size()); i++) {
+      workers.add(processNextPartition(partitions, records, next));
+    }
+    return Future.join(workers).mapEmpty();
+  }
+
+  private Future<Void> processNextPartition(List<TopicPartition> partitions,
+                                            ConsumerRecords<String, JsonObject> records, AtomicInteger next) {
+    var index = next.getAndIncrement();
+    if (index >= partitions.size()) {
+      return Future.succeededFuture();
+    }
+    var partition = partitions.get(index);
+    return processPartition(partition, records.records(partition))
+      .transform(ar -> processNextPartition(partitions, records, next));
+  }
+
+  private Future<Void> processPartition(TopicPartition partition, List<ConsumerRecord<String, JsonObject>> records) {
+    var vertxPartition = new io.vertx.kafka.client.common.TopicPartition(partition.topic(), partition.partition());
+    var firstOffset = records.getFirst().offset();
+    var lastOffset = records.getLast().offset();
+    return processAsyncMigrationsRecords(records, context, instanceTreeCache)
+      .recover(e -> {
+        var attempts = countFailedAttempt(partition, firstOffset);
+        if (attempts < maxAttempts) {
+          return Future.failedFuture(e);
+        }
+        log.error("processPartition:: Failed to process records {} times, skipping them, partition: {}, offsets: {}-{}",
+          attempts, partition, firstOffset, lastOffset, e);
+        failAsyncMigrationsJobs(records, context);
+        return Future.succeededFuture();
+      })
+      .compose(v -> consumer.commit(Map.of(vertxPartition, new OffsetAndMetadata(lastOffset + 1, null))))
+      .onSuccess(v -> failedRecords.remove(partition))
+      .<Void>mapEmpty()
+      .onFailure(e -> {
+        var failed = failedRecords.get(partition);
+        var delay = retryDelayMs * (failed == null ? 1 : failed.attempts());
+        log.warn("processPartition:: Failed to process records, partition: {}, offsets: {}-{}, retrying in {} ms",
+          partition, firstOffset, lastOffset, delay, e);
+        consumer.seek(vertxPartition, firstOffset);
+        consumer.pause(vertxPartition);
+        vertx.setTimer(delay, id -> consumer.resume(vertxPartition)
+          .onFailure(error -> log.debug("processPartition:: Unable to resume partition: {}", partition, error)));
+      });
+  }
+
+  /**
+   * Returns the number of failed attempts to process the records of the partition starting at the offset.
+   */
+  private int countFailedAttempt(TopicPartition partition, long firstOffset) {
+    var failed = failedRecords.get(partition);
+    var attempts = failed != null && failed.firstOffset() == firstOffset ? failed.attempts() + 1 : 1;
+    failedRecords.put(partition, new FailedRecords(firstOffset, attempts));
+    return attempts;
+  }
+
+  private record FailedRecords(long firstOffset, int attempts) { }
 }
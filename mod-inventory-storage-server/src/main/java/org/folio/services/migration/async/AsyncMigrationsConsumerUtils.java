@@ -5,15 +5,13 @@ import static org.folio.services.migration.async.AbstractAsyncMigrationJobRunner
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
-import io.vertx.core.Handler;
 import io.vertx.core.json.JsonObject;
-import io.vertx.kafka.client.consumer.KafkaConsumer;
-import io.vertx.kafka.client.consumer.KafkaConsumerRecords;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import org.apache.commons.collections4.map.CaseInsensitiveMap;
 import org.apache.commons.lang3.builder.EqualsBuilder;
@@ -22,6 +20,7 @@ import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.folio.rest.jaxrs.model.AsyncMigrationJob;
+import org.folio.services.caches.InstanceTreeCache;
 
 public final class AsyncMigrationsConsumerUtils {
 
@@ -31,33 +30,55 @@ public final class AsyncMigrationsConsumerUtils {
   private AsyncMigrationsConsumerUtils() {
   }
 
-  public static Handler<KafkaConsumerRecords<String, JsonObject>> pollAsyncMigrationsMessages(
-    KafkaConsumer<String, JsonObject> consumer,
-    Context vertxContext) {
-    return records -> {
-      var eventsByTenant = buildTenantRecords(records);
-      eventsByTenant.entrySet().parallelStream()
-        .forEach(v -> processTenantMigrations(v, vertxContext, consumer));
-    };
+  /**
+   * Runs the migrations of the records, which may belong to different tenants.
+   *
+   * @return future that is completed once the migrations of all records are finished
+   */
+  public static Future<Void> processAsyncMigrationsRecords(List<ConsumerRecord<String, JsonObject>> records,
+                                                           Context vertxContext, InstanceTreeCache instanceTreeCache) {
+    var eventsByTenant = buildTenantRecords(records);
+    var tenantMigrations = eventsByTenant.entrySet().stream()
+      .map(tenantEntry -> processTenantMigrations(tenantEntry, vertxContext, instanceTreeCache))
+      .toList();
+    return Future.all(tenantMigrations).mapEmpty();
   }
 
-  private static void processTenantMigrations(Map.Entry<String, Set<ConsumerRecord<String, JsonObject>>> tenantEntry,
-                                              Context vertxContext,
-                                              KafkaConsumer<String, JsonObject> consumer) {
+  /**
+   * Marks the migration jobs of the records as failed, the records are skipped after the last failed attempt.
+   */
+  public static void failAsyncMigrationsJobs(List<ConsumerRecord<String, JsonObject>> records,
+                                             Context vertxContext) {
+    buildTenantRecords(records).forEach((tenantId, tenantRecords) -> {
+      var headers = new CaseInsensitiveMap<String, String>();
+      headers.put(TENANT_HEADER, tenantId);
+      var jobService = new AsyncMigrationJobService(vertxContext, headers);
+      buildIdsForMigrations(tenantRecords).keySet().stream()
+        .map(MigrationContext::job)
+        .filter(Objects::nonNull)
+        .map(AsyncMigrationJob::getId)
+        .distinct()
+        .forEach(jobService::logJobFail);
+    });
+  }
+
+  private static Future<Void> processTenantMigrations(
+    Map.Entry<String, Set<ConsumerRecord<String, JsonObject>>> tenantEntry, Context vertxContext,
+    InstanceTreeCache instanceTreeCache) {
     var tenantId = tenantEntry.getKey();
     var headers = new CaseInsensitiveMap<String, String>();
     headers.put(TENANT_HEADER, tenantId);
 
     var availableMigrations = Set.<AsyncBaseMigrationService>of(
-      new ItemOrderMigrationService(vertxContext, headers));
+      new ItemOrderMigrationService(vertxContext, headers, instanceTreeCache));
     var jobService = new AsyncMigrationJobService(vertxContext, headers);
 
     var migrationEvents = buildIdsForMigrations(tenantEntry.getValue());
     var migrations = processMigrationEvents(migrationEvents, availableMigrations, jobService);
 
-    Future.all(new ArrayList<>(migrations))
-      .onSuccess(composite -> consumer.commit())
-      .onFailure(any -> log.error("Error persisting and committing messages", any));
+    return Future.all(new ArrayList<>(migrations))
+      .onFailure(any -> log.error("Error persisting messages, tenantId: {}", tenantId, any))
+      .mapEmpty();
   }
 
   private static List<CompositeFuture> processMigrationEvents(
@@ -119,23 +140,15 @@ public final class AsyncMigrationsConsumerUtils {
   }
 
   private static Map<String, Set<ConsumerRecord<String, JsonObject>>> buildTenantRecords(
-    KafkaConsumerRecords<String, JsonObject> records) {
+    List<ConsumerRecord<String, JsonObject>> records) {
     var result = new HashMap<String, Set<ConsumerRecord<String, JsonObject>>>();
-    records.records().iterator().forEachRemaining(consumerRecord -> {
+    records.forEach(consumerRecord -> {
       var iterator = consumerRecord
         .headers().headers(TENANT_HEADER)
         .iterator();
       if (iterator.hasNext()) {
         String tenantId = new String(iterator.next().value());
-        result.computeIfAbsent(tenantId, k -> {
-          var set = new HashSet<ConsumerRecord<String, JsonObject>>();
-          set.add(consumerRecord);
-          return set;
-        });
-        result.computeIfPresent(tenantId, (k, v) -> {
-          v.add(consumerRecord);
-          return v;
-        });
+        result.computeIfAbsent(tenantId, k -> new HashSet<>()).add(consumerRecord);
       }
     });
     return result;
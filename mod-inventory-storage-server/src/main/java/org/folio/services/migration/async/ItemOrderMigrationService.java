@@ -1,14 +1,11 @@
 package org.folio.services.migration.async;
 
 import static org.apache.logging.log4j.LogManager.getLogger;
-import static org.folio.rest.impl.ItemStorageApi.ITEM_TABLE;
 import static org.folio.services.migration.MigrationName.ITEM_ORDER_MIGRATION;
 
 import io.vertx.core.Context;
 import io.vertx.core.Future;
-import io.vertx.core.json.JsonArray;
 import io.vertx.sqlclient.Row;
-import io.vertx.sqlclient.RowSet;
 import io.vertx.sqlclient.RowStream;
 import io.vertx.sqlclient.Tuple;
 import java.util.List;
@@ -19,6 +16,7 @@ import org.folio.persist.ItemRepository;
 import org.folio.rest.persist.Conn;
 import org.folio.rest.persist.PgUtil;
 import org.folio.rest.persist.PostgresClient;
+import org.folio.services.caches.InstanceTreeCache;
 
 public class ItemOrderMigrationService extends AsyncBaseMigrationService {
 
@@ -26,35 +24,51 @@ public class ItemOrderMigrationService extends AsyncBaseMigrationService {
 
   private static final String FROM_VERSION = "29.1.0";
 
-  private static final String ITEM_QUERY = """
-    SELECT jsonb FROM %s
-    WHERE holdingsrecordid = $1
-    ORDER BY lower(jsonb ->> 'barcode'::text)
-    FOR UPDATE;
+  /**
+   * Numbers the items of each holdings record by barcode in one statement for the whole batch of holdings ids,
+   * the items whose order is already right are not written.
+   */
+  private static final String ITEM_ORDER_SQL = """
+    UPDATE %1$s item
+    SET jsonb = jsonb_set(item.jsonb, '{order}', to_jsonb(ordered.item_order))
+    FROM (
+      SELECT id, row_number() OVER (PARTITION BY holdingsrecordid ORDER BY lower(jsonb ->> 'barcode'), id) AS item_order
+      FROM %1$s
+      WHERE holdingsrecordid = ANY($1::text[]::uuid[])
+    ) ordered
+    WHERE item.id = ordered.id
+      AND item.jsonb -> 'order' IS DISTINCT FROM to_jsonb(ordered.item_order)
     """;
-  private static final String JSONB_COLUMN = "jsonb";
-
-  private static final String ORDER_FIELD = "order";
 
   protected final PostgresClient postgresClient;
   protected final ItemRepository itemRepository;
+  protected final InstanceTreeCache instanceTreeCache;
 
-  public ItemOrderMigrationService(PostgresClient postgresClient, ItemRepository itemRepository) {
+  public ItemOrderMigrationService(PostgresClient postgresClient, ItemRepository itemRepository,
+                                   InstanceTreeCache instanceTreeCache) {
     super(FROM_VERSION, postgresClient);
     this.postgresClient = postgresClient;
     this.itemRepository = itemRepository;
+    this.instanceTreeCache = instanceTreeCache;
   }
 
-  public ItemOrderMigrationService(Context context, Map<String, String> headers) {
-    this(PgUtil.postgresClient(context, headers), new ItemRepository(context, headers));
+  public ItemOrderMigrationService(Context context, Map<String, String> headers, InstanceTreeCache instanceTreeCache) {
+    this(PgUtil.postgresClient(context, headers), new ItemRepository(context, headers), instanceTreeCache);
   }
 
   @Override
   public Future<Void> runMigrationForIds(Set<String> ids) {
-    var futures = ids.stream()
-      .map(this::processItemsForHoldings)
-      .toList();
-    return Future.all(futures).mapEmpty();
+    if (ids.isEmpty()) {
+      return Future.succeededFuture();
+    }
+    var sql = ITEM_ORDER_SQL.formatted(itemRepository.getFullTableName());
+    return postgresClient.execute(sql, Tuple.of(ids.toArray(String[]::new)))
+      .onSuccess(rows -> {
+        instanceTreeCache.invalidateHoldings(postgresClient.getTenantId(), ids);
+        log.info("Migration: {} :: Updated order of {} items for {} holdings records",
+          getMigrationName(), rows.rowCount(), ids.size());
+      })
+      .mapEmpty();
   }
 
   @Override
@@ -72,25 +86,4 @@ public class ItemOrderMigrationService extends AsyncBaseMigrationService {
     throw new UnsupportedOperationException("This method is not supported in ItemOrderMigrationService");
   }
 
-  private Future<Void> processItemsForHoldings(String holdingsId) {
-    var sql = ITEM_QUERY.formatted(itemRepository.getFullTableName());
-    return postgresClient.withTrans(conn -> conn.execute(sql, Tuple.of(holdingsId))
-        .map(this::mapAndUpdateItems)
-        .compose(items -> {
-          log.info("Migration: {} :: Updating items for holdings ID: {}", getMigrationName(), holdingsId);
-          return conn.updateBatch(ITEM_TABLE, items);
-        }))
-      .mapEmpty();
-  }
-
-  private JsonArray mapAndUpdateItems(RowSet<Row> rows) {
-    JsonArray items = new JsonArray();
-    int order = 1;
-    for (Row row : rows) {
-      var item = row.getJsonObject(JSONB_COLUMN);
-      item.put(ORDER_FIELD, order++);
-      items.add(item);
-    }
-    return items;
-  }
 }
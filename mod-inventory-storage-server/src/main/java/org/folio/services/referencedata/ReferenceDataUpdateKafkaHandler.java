@@ -0,0 +1,43 @@
+package org.folio.services.referencedata;
+
+import static org.folio.okapi.common.XOkapiHeaders.TENANT;
+
+import io.vertx.core.Future;
+import io.vertx.kafka.client.consumer.KafkaConsumerRecord;
+import java.util.Arrays;
+import org.apache.commons.collections4.map.CaseInsensitiveMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.kafka.AsyncRecordHandler;
+import org.folio.kafka.KafkaHeaderUtils;
+import org.folio.services.caches.ReferenceDataCache;
+import org.folio.services.caches.ReferenceDataCache.ReferenceTable;
+
+/**
+ * Invalidates the cached reference data table of the tenant on any domain event of the table.
+ */
+public class ReferenceDataUpdateKafkaHandler implements AsyncRecordHandler<String, String> {
+
+  private static final Logger logger = LogManager.getLogger(ReferenceDataUpdateKafkaHandler.class);
+
+  private final ReferenceDataCache cache;
+
+  public ReferenceDataUpdateKafkaHandler(ReferenceDataCache cache) {
+    this.cache = cache;
+  }
+
+  @Override
+  public Future<String> handle(KafkaConsumerRecord<String, String> kafkaRecord) {
+    var topic = kafkaRecord.topic();
+    var headers = new CaseInsensitiveMap<>(KafkaHeaderUtils.kafkaHeadersToMap(kafkaRecord.headers()));
+    var tenant = headers.get(TENANT);
+    Arrays.stream(ReferenceTable.values())
+      .filter(table -> topic.endsWith("." + table.getTopic().moduleName() + "." + table.getTopic().topicName()))
+      .findFirst()
+      .ifPresentOrElse(table -> {
+        logger.debug("handle:: Invalidating reference data, tenantId={}, table={}", tenant, table.getTableName());
+        cache.invalidate(tenant, table);
+      }, () -> logger.warn("handle:: Unexpected topic={}", topic));
+    return Future.succeededFuture(kafkaRecord.key());
+  }
+}
@@ -0,0 +1,74 @@
+package org.folio.services.reindex;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.utils.Environment;
+
+/**
+ * Compression codec of the NDJSON files written by the reindex export.
+ *
+ * <p>The codec is configured via the {@code S3_REINDEX_COMPRESSION} environment variable
+ * ({@code none} or {@code gzip}, default {@code none}); the gzip level is configured via
+ * {@code S3_REINDEX_COMPRESSION_LEVEL} (1-9, default 1, the fastest). A compressed file is
+ * a single gzip stream that spans all multipart parts, so it can be read by any gzip reader.
+ */
+public enum ReindexExportCodec {
+
+  NONE("none", ".ndjson"),
+  GZIP("gzip", ".ndjson.gz");
+
+  static final String COMPRESSION_ENV = "S3_REINDEX_COMPRESSION";
+  static final String COMPRESSION_LEVEL_ENV = "S3_REINDEX_COMPRESSION_LEVEL";
+  static final int DEFAULT_COMPRESSION_LEVEL = Deflater.BEST_SPEED;
+
+  private static final Logger log = LogManager.getLogger(ReindexExportCodec.class);
+  private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+  private final String value;
+  private final String fileExtension;
+
+  ReindexExportCodec(String value, String fileExtension) {
+    this.value = value;
+    this.fileExtension = fileExtension;
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+  public String getFileExtension() {
+    return fileExtension;
+  }
+
+  /**
+   * Wraps the given stream into a compressing one, or returns {@code null} for {@link #NONE}.
+   */
+  OutputStream compressor(OutputStream out) throws IOException {
+    if (this == NONE) {
+      return null;
+    }
+    var level = Math.clamp(Environment.getIntValue(COMPRESSION_LEVEL_ENV, DEFAULT_COMPRESSION_LEVEL),
+      Deflater.BEST_SPEED, Deflater.BEST_COMPRESSION);
+    return new GZIPOutputStream(out, GZIP_BUFFER_SIZE) {
+      {
+        def.setLevel(level);
+      }
+    };
+  }
+
+  public static ReindexExportCodec fromEnvironment() {
+    var configured = Environment.getValue(COMPRESSION_ENV, NONE.value);
+    for (var codec : values()) {
+      if (codec.value.equalsIgnoreCase(configured.trim())) {
+        return codec;
+      }
+    }
+    log.warn("fromEnvironment:: unsupported {}={}, files are written without compression",
+      COMPRESSION_ENV, configured);
+    return NONE;
+  }
+}
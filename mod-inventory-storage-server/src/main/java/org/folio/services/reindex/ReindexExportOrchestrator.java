@@ -60,7 +60,8 @@ public class ReindexExportOrchestrator {
 
   /**
    * Orchestrates the export of a range of records to S3 and the publication of the corresponding "file ready" event.
-   * The exported file will be named according to the pattern: {tenantId}/{recordType}/{traceId}/{rangeId}.ndjson.
+   * The exported file will be named according to the pattern: {tenantId}/{recordType}/{traceId}/{rangeId}.ndjson,
+   * followed by {@code .gz} when the file is compressed with gzip.
    *
    * @param request        the range/job details from the HTTP request
    * @param streamProvider function that, given a DB {@link Conn}, returns the row stream to export
@@ -70,10 +71,11 @@ public class ReindexExportOrchestrator {
     var tenantId = okapiHeaders.get(TENANT);
     var traceId = StringUtils.isBlank(request.getTraceId()) ? UUID.randomUUID().toString() : request.getTraceId();
     var recordType = request.getRecordType().value();
-    var s3Key = tenantId + "/" + recordType + "/" + traceId + "/" + request.getId() + ".ndjson";
+    var exportService = new ReindexS3ExportService(vertxContext, s3Client);
+    var codec = exportService.getCodec();
+    var s3Key = tenantId + "/" + recordType + "/" + traceId + "/" + request.getId() + codec.getFileExtension();
     var rangeFrom = request.getRecordIdsRange().getFrom();
     var rangeTo = request.getRecordIdsRange().getTo();
-    var exportService = new ReindexS3ExportService(vertxContext, s3Client);
 
     return postgresClient.withTrans(conn -> streamProvider.apply(conn)
         .compose(rowStream -> exportService.exportToS3(rowStream, s3Key)))
@@ -86,6 +88,7 @@ public class ReindexExportOrchestrator {
           .traceId(traceId)
           .bucket(bucketName)
           .objectKey(s3Key)
+          .compression(codec.getValue())
           .build();
         return eventPublisher.publish(event);
       });
@@ -6,6 +6,7 @@ import java.time.Instant;
 /**
  * Payload for the {@code INVENTORY_REINDEX_FILE_READY} Kafka event.
  * Emitted after a single NDJSON range file has been successfully written to S3.
+ * The {@code compression} field tells consumers how the file is compressed: {@code none} or {@code gzip}.
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public final class ReindexFileReadyEvent {
@@ -17,6 +18,7 @@ public final class ReindexFileReadyEvent {
   private final String traceId;
   private final String bucket;
   private final String objectKey;
+  private final String compression;
   private final String createdDate;
 
   private ReindexFileReadyEvent(Builder builder) {
@@ -27,6 +29,7 @@ public final class ReindexFileReadyEvent {
     this.traceId = builder.traceId;
     this.bucket = builder.bucket;
     this.objectKey = builder.objectKey;
+    this.compression = builder.compression;
     this.createdDate = builder.createdDate;
   }
 
@@ -62,6 +65,10 @@ public final class ReindexFileReadyEvent {
     return objectKey;
   }
 
+  public String getCompression() {
+    return compression;
+  }
+
   public String getCreatedDate() {
     return createdDate;
   }
@@ -77,6 +84,7 @@ public final class ReindexFileReadyEvent {
     private String traceId;
     private String bucket;
     private String objectKey;
+    private String compression = ReindexExportCodec.NONE.getValue();
 
     private Builder() { }
 
@@ -115,6 +123,11 @@ public final class ReindexFileReadyEvent {
       return this;
     }
 
+    public Builder compression(String compression) {
+      this.compression = compression;
+      return this;
+    }
+
     public ReindexFileReadyEvent build() {
       return new ReindexFileReadyEvent(this);
     }
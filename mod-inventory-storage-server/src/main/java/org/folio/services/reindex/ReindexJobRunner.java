@@ -14,22 +14,38 @@ import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.WorkerExecutor;
 import io.vertx.sqlclient.Row;
-import io.vertx.sqlclient.RowStream;
+import io.vertx.sqlclient.Tuple;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.folio.kafka.services.KafkaProducerRecordBuilder;
 import org.folio.persist.ReindexJobRepository;
 import org.folio.rest.jaxrs.model.Instance;
 import org.folio.rest.jaxrs.model.ReindexJob;
+import org.folio.rest.jaxrs.model.ReindexJobRange;
 import org.folio.rest.persist.PostgresClient;
 import org.folio.rest.support.PostgresClientFactory;
 import org.folio.services.domainevent.CommonDomainEventPublisher;
 import org.folio.utils.DatabaseUtils;
+import org.folio.utils.Environment;
+import org.folio.utils.UuidRange;
 
 public class ReindexJobRunner {
   public static final String REINDEX_JOB_ID_HEADER = "reindex-job-id";
   private static final Logger log = LogManager.getLogger(ReindexJobRunner.class);
+  private static final String RANGES_PARAM = "reindex.ranges";
+  private static final int DEFAULT_RANGES = 1;
+  private static final String PARALLELISM_PARAM = "reindex.parallelism";
+  private static final int DEFAULT_PARALLELISM = 4;
   private static final int POOL_SIZE = 2;
   private static volatile WorkerExecutor workerExecutor;
 
@@ -37,6 +53,8 @@ public class ReindexJobRunner {
   private final ReindexJobRepository reindexJobRepository;
   private final CommonDomainEventPublisher<Instance> instanceEventPublisher;
   private final String tenantId;
+  private final int rangesCount;
+  private final int parallelism;
 
   public ReindexJobRunner(Context vertxContext, Map<String, String> okapiHeaders) {
     this(PostgresClientFactory.getInstance(vertxContext, okapiHeaders),
@@ -55,15 +73,36 @@ public class ReindexJobRunner {
     this.reindexJobRepository = repository;
     this.instanceEventPublisher = domainEventPublisher;
     this.tenantId = tenantId;
+    this.rangesCount = Math.max(1, Environment.getIntValue(RANGES_PARAM, DEFAULT_RANGES));
+    this.parallelism = Math.max(1, Environment.getIntValue(PARALLELISM_PARAM, DEFAULT_PARALLELISM));
 
     initWorker(vertxContext);
   }
 
   public void startReindex(ReindexJob reindexJob) {
+    runReindex(reindexJob, () -> reindexJobRepository.fetchAndUpdate(reindexJob.getId(),
+      job -> job.withRanges(buildRanges(rangesCount))));
+  }
+
+  /**
+   * Publishes again the ranges of the job that have not been published, the published ranges are not replayed.
+   */
+  public void resumeReindex(ReindexJob reindexJob) {
+    runReindex(reindexJob, () -> reindexJobRepository.fetchAndUpdate(reindexJob.getId(),
+      job -> {
+        job.getRanges().stream()
+          .filter(range -> range.getStatus() != ReindexJobRange.Status.IDS_PUBLISHED)
+          .forEach(range -> range.withPublished(0).withStatus(ReindexJobRange.Status.IN_PROGRESS));
+        return job.withPublished(sumPublished(job.getRanges()));
+      }));
+  }
+
+  private void runReindex(ReindexJob reindexJob, Supplier<Future<ReindexJob>> jobPreparer) {
     workerExecutor.executeBlocking(
         () -> {
           if (reindexJob.getResourceName() == ReindexJob.ResourceName.INSTANCE) {
-            return streamInstanceIds(new ReindexContext(reindexJob))
+            return jobPreparer.get()
+              .compose(job -> streamInstanceIds(new ReindexContext(job)))
               .map(notUsed -> null)
               .result();
           } else {
@@ -75,6 +114,19 @@ public class ReindexJobRunner {
       .map(notUsed -> null);
   }
 
+  /**
+   * Splits the whole UUID key space into {@code count} ranges of equal size, the last range has no upper bound.
+   */
+  static List<ReindexJobRange> buildRanges(int count) {
+    return UuidRange.split(count).stream()
+      .map(range -> new ReindexJobRange()
+        .withFrom(range.from().toString())
+        .withTo(range.to() != null ? range.to().toString() : null)
+        .withPublished(0)
+        .withStatus(ReindexJobRange.Status.IN_PROGRESS))
+      .collect(Collectors.toCollection(ArrayList::new));
+  }
+
   private static void initWorker(Context vertxContext) {
     if (workerExecutor == null) {
       synchronized (ReindexJobRunner.class) {
@@ -86,44 +138,118 @@ public class ReindexJobRunner {
     }
   }
 
-  private Future<Long> streamInstanceIds(ReindexContext context) {
-    var query = "SELECT id FROM " + postgresClient.getSchemaName() + '.' + INSTANCE_TABLE;
-    return postgresClient.withTrans(conn -> DatabaseUtils.selectStream(conn, query)
-      .map(context::withStream)
-      .compose(this::processStream)
-      .onComplete(recordsPublished -> {
-        context.stream.close()
-          .onFailure(error -> log.warn("Unable to commit transaction", error));
+  private Future<Void> streamInstanceIds(ReindexContext context) {
+    Queue<Integer> pendingRanges = new ConcurrentLinkedQueue<>(IntStream.range(0, context.getRanges().size())
+      .filter(index -> context.getRanges().get(index).getStatus() != ReindexJobRange.Status.IDS_PUBLISHED)
+      .boxed()
+      .toList());
+    log.info("streamInstanceIds:: Publishing instance ids of {} ranges with parallelism {}, jobId: {}",
+      pendingRanges.size(), parallelism, context.getJobId());
+
+    var workers = IntStream.range(0, Math.min(parallelism, pendingRanges.size()))
+      .mapToObj(notUsed -> streamNextRange(pendingRanges, context))
+      .toList();
 
-        if (recordsPublished.failed()) {
-          log.warn("Unable to reindex instances", recordsPublished.cause());
+    return Future.join(workers)
+      .onComplete(notUsed -> {
+        if (context.failed.get()) {
+          log.warn("Unable to reindex instances, jobId: {}", context.getJobId());
           logFailedJob(context);
         } else {
           log.info("Reindex completed");
-          logReindexCompleted(recordsPublished.result(), context);
+          logReindexCompleted(context);
         }
-      }));
+      })
+      .mapEmpty();
   }
 
-  private void logReindexCompleted(Long recordsPublished, ReindexContext context) {
-    reindexJobRepository.fetchAndUpdate(context.getJobId(),
-      job -> job.withPublished(recordsPublished.intValue())
-        .withJobStatus(IDS_PUBLISHED));
+  private Future<Void> streamNextRange(Queue<Integer> pendingRanges, ReindexContext context) {
+    var rangeIndex = pendingRanges.poll();
+    if (rangeIndex == null) {
+      return succeededFuture();
+    }
+
+    return isCancelled(context)
+      .compose(cancelled -> {
+        if (Boolean.TRUE.equals(cancelled)) {
+          log.info("streamNextRange:: Job has been cancelled, range {} is not started, jobId: {}",
+            rangeIndex, context.getJobId());
+          context.failed.set(true);
+          pendingRanges.clear();
+          return succeededFuture();
+        }
+        return streamRangeInstanceIds(context, rangeIndex)
+          .transform(recordsPublished -> {
+            if (recordsPublished.failed()) {
+              log.warn("Unable to reindex instances of range {}, jobId: {}", rangeIndex, context.getJobId(),
+                recordsPublished.cause());
+              context.failed.set(true);
+            }
+            return logRangeCompleted(context, rangeIndex, recordsPublished.succeeded()
+                                                          ? recordsPublished.result() : null);
+          })
+          .transform(notUsed -> streamNextRange(pendingRanges, context));
+      });
+  }
+
+  /**
+   * Returns true if the job has been cancelled or removed, the job is re-read before each range is started,
+   * so that the workers of a resumed job don't start the remaining ranges after a cancel.
+   */
+  private Future<Boolean> isCancelled(ReindexContext context) {
+    return reindexJobRepository.getById(context.getJobId())
+      .map(job -> job == null || job.getJobStatus() == PENDING_CANCEL)
+      .onFailure(error -> log.warn("isCancelled:: Unable to read job status, jobId: {}", context.getJobId(), error))
+      .otherwise(false);
+  }
+
+  private Future<Long> streamRangeInstanceIds(ReindexContext context, int rangeIndex) {
+    var range = context.getRanges().get(rangeIndex);
+    var query = "SELECT id FROM " + postgresClient.getSchemaName() + '.' + INSTANCE_TABLE + " WHERE id >= $1";
+    var params = Tuple.of(UUID.fromString(range.getFrom()));
+    if (range.getTo() != null) {
+      query += " AND id < $2";
+      params.addUUID(UUID.fromString(range.getTo()));
+    }
+
+    var rangeQuery = query;
+    return postgresClient.withTrans(conn -> DatabaseUtils.selectStream(conn, rangeQuery, params)
+      .compose(stream -> instanceEventPublisher.publishStream(stream,
+          row -> rowToInstanceProducerRecord(row, context),
+          recordsPublished -> logJobDetails(recordsPublished, context, rangeIndex),
+          "stream_range_" + rangeIndex + "_")
+        .onComplete(notUsed -> stream.close()
+          .onFailure(error -> log.warn("Unable to commit transaction", error)))));
+  }
+
+  private Future<ReindexJob> logRangeCompleted(ReindexContext context, int rangeIndex, Long recordsPublished) {
+    return reindexJobRepository.fetchAndUpdate(context.getJobId(), job -> {
+      var range = job.getRanges().get(rangeIndex);
+      if (recordsPublished == null) {
+        range.setStatus(ReindexJobRange.Status.ID_PUBLISHING_FAILED);
+      } else {
+        range.withPublished(recordsPublished.intValue()).setStatus(ReindexJobRange.Status.IDS_PUBLISHED);
+      }
+      return job.withPublished(sumPublished(job.getRanges()));
+    });
   }
 
-  private Future<Long> processStream(ReindexContext context) {
-    return instanceEventPublisher.publishStream(context.stream,
-      row -> rowToInstanceProducerRecord(row, context),
-      recordsPublished -> logJobDetails(recordsPublished, context));
+  private void logReindexCompleted(ReindexContext context) {
+    reindexJobRepository.fetchAndUpdate(context.getJobId(),
+      job -> job.withPublished(sumPublished(job.getRanges()))
+        .withJobStatus(IDS_PUBLISHED));
   }
 
-  private Future<ReindexJob> logJobDetails(Long records, ReindexContext context) {
+  private Future<ReindexJob> logJobDetails(Long records, ReindexContext context, int rangeIndex) {
     if (!shouldLogJobDetails(records)) {
       return succeededFuture(context.reindexJob);
     }
 
     return reindexJobRepository
-      .fetchAndUpdate(context.getJobId(), job -> job.withPublished(records.intValue()))
+      .fetchAndUpdate(context.getJobId(), job -> {
+        job.getRanges().get(rangeIndex).setPublished(records.intValue());
+        return job.withPublished(sumPublished(job.getRanges()));
+      })
       .map(job -> {
         if (job.getJobStatus() == PENDING_CANCEL) {
           throw new IllegalStateException("The job has been cancelled");
@@ -136,6 +262,10 @@ public class ReindexJobRunner {
     return records % 1000 == 0;
   }
 
+  private static int sumPublished(List<ReindexJobRange> ranges) {
+    return ranges.stream().mapToInt(ReindexJobRange::getPublished).sum();
+  }
+
   private void logFailedJob(ReindexContext context) {
     reindexJobRepository.fetchAndUpdate(context.getJobId(),
       resp -> {
@@ -155,19 +285,18 @@ public class ReindexJobRunner {
 
   private static final class ReindexContext {
     private final ReindexJob reindexJob;
-    private RowStream<Row> stream;
+    private final AtomicBoolean failed = new AtomicBoolean();
 
     private ReindexContext(ReindexJob reindexJob) {
       this.reindexJob = reindexJob;
     }
 
-    private ReindexContext withStream(RowStream<Row> stream) {
-      this.stream = stream;
-      return this;
-    }
-
     private String getJobId() {
       return reindexJob.getId();
     }
+
+    private List<ReindexJobRange> getRanges() {
+      return reindexJob.getRanges();
+    }
   }
 }
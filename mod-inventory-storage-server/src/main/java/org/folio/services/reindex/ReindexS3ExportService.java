@@ -1,24 +1,34 @@
 package org.folio.services.reindex;
 
+import static io.vertx.core.Future.succeededFuture;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.json.JsonObject;
 import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowStream;
-import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileAttribute;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.attribute.PosixFilePermissions;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.commons.lang3.SystemUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -30,11 +40,23 @@ import org.jspecify.annotations.Nullable;
  * Streams DB rows as NDJSON to S3 using multipart upload.
  *
  * <p>Rows are fetched via a {@link RowStream} (small DB cursor batches) and
- * written to a temp file. Once the file reaches the configured part-size
- * threshold a part is uploaded, the file is rotated, and streaming resumes.
+ * written as UTF-8 into an in-memory part buffer. Once the buffer reaches the
+ * configured part-size threshold the part is uploaded on a worker thread while
+ * the stream keeps filling the next part, so DB reads and S3 uploads overlap.
  * The final (possibly smaller) part is uploaded in the {@code endHandler},
  * then the multipart upload is completed. On any error the upload is aborted.
  *
+ * <p>Up to {@code S3_REINDEX_UPLOAD_CONCURRENCY} parts (default 2) of one export
+ * are uploaded concurrently, and the part buffers of one export never take more
+ * than {@code S3_REINDEX_BUFFER_MEMORY_MB} (default 64 MB) plus one part: the
+ * row stream is paused while no upload slot is free. Part buffers are direct
+ * memory and are reused across exports.
+ *
+ * <p>Rows are compressed with the {@link ReindexExportCodec} configured via
+ * {@code S3_REINDEX_COMPRESSION}. Compression is streamed into the part buffers,
+ * so the part-size threshold applies to compressed bytes and the multipart upload
+ * works the same way as for uncompressed files.
+ *
  * <p>The part-size threshold is configurable via the
  * {@code S3_REINDEX_PART_SIZE_MB} environment variable (default 16 MB).
  * S3 enforces a minimum of 5 MB per non-final part; values below that are
@@ -50,6 +72,10 @@ public class ReindexS3ExportService {
   static final int DEFAULT_RETRY_MAX_ATTEMPTS = 5;
   static final String RETRY_BASE_DELAY_MS_ENV = "S3_REINDEX_RETRY_BASE_DELAY_MS";
   static final int DEFAULT_RETRY_BASE_DELAY_MS = 200;
+  static final String UPLOAD_CONCURRENCY_ENV = "S3_REINDEX_UPLOAD_CONCURRENCY";
+  static final int DEFAULT_UPLOAD_CONCURRENCY = 2;
+  static final String BUFFER_MEMORY_MB_ENV = "S3_REINDEX_BUFFER_MEMORY_MB";
+  static final int DEFAULT_BUFFER_MEMORY_MB = 64;
 
   private static final long S3_MINIMUM_PART_SIZE = 5_242_880L; // 5 MB — S3 hard minimum
 
@@ -62,15 +88,26 @@ public class ReindexS3ExportService {
     Environment.getIntValue(RETRY_MAX_ATTEMPTS_ENV, DEFAULT_RETRY_MAX_ATTEMPTS);
   private static final long RETRY_BASE_DELAY_MS =
     Environment.getIntValue(RETRY_BASE_DELAY_MS_ENV, DEFAULT_RETRY_BASE_DELAY_MS);
+  private static final int MAX_IN_FLIGHT_PARTS = resolveMaxInFlightParts(MINIMAL_PART_SIZE);
+  private static final PartBufferPool PART_BUFFER_POOL = new PartBufferPool(MAX_IN_FLIGHT_PARTS + 1);
 
   private final Context vertxContext;
   private final FolioS3Client s3Client;
   private final long minimalPartSize;
   private final int retryMaxAttempts;
   private final long retryBaseDelayMs;
+  private final int maxInFlightParts;
+  private final ReindexExportCodec codec;
 
   public ReindexS3ExportService(Context vertxContext, FolioS3Client s3Client) {
-    this(vertxContext, s3Client, MINIMAL_PART_SIZE, RETRY_MAX_ATTEMPTS, RETRY_BASE_DELAY_MS);
+    this(vertxContext, s3Client, MINIMAL_PART_SIZE, RETRY_MAX_ATTEMPTS, RETRY_BASE_DELAY_MS, MAX_IN_FLIGHT_PARTS,
+      ReindexExportCodec.fromEnvironment());
+  }
+
+  ReindexS3ExportService(Context vertxContext, FolioS3Client s3Client, long minimalPartSize,
+                         int retryMaxAttempts, long retryBaseDelayMs) {
+    this(vertxContext, s3Client, minimalPartSize, retryMaxAttempts, retryBaseDelayMs, DEFAULT_UPLOAD_CONCURRENCY,
+      ReindexExportCodec.NONE);
   }
 
   /**
@@ -78,12 +115,19 @@ public class ReindexS3ExportService {
    * (so unit tests can use small values to avoid sleeping in CI).
    */
   ReindexS3ExportService(Context vertxContext, FolioS3Client s3Client, long minimalPartSize,
-                         int retryMaxAttempts, long retryBaseDelayMs) {
+                         int retryMaxAttempts, long retryBaseDelayMs, int maxInFlightParts,
+                         ReindexExportCodec codec) {
     this.vertxContext = vertxContext;
     this.s3Client = s3Client;
     this.minimalPartSize = minimalPartSize;
     this.retryMaxAttempts = retryMaxAttempts;
     this.retryBaseDelayMs = retryBaseDelayMs;
+    this.maxInFlightParts = Math.max(1, maxInFlightParts);
+    this.codec = codec;
+  }
+
+  public ReindexExportCodec getCodec() {
+    return codec;
   }
 
   private static long resolvePartSize() {
@@ -97,6 +141,17 @@ public class ReindexS3ExportService {
     return bytes;
   }
 
+  /**
+   * The number of parts uploaded concurrently is limited by the upload concurrency and by the memory cap,
+   * the cap includes the part being filled.
+   */
+  private static int resolveMaxInFlightParts(long partSize) {
+    int concurrency = Math.max(1, Environment.getIntValue(UPLOAD_CONCURRENCY_ENV, DEFAULT_UPLOAD_CONCURRENCY));
+    long memory = Math.max(1, Environment.getIntValue(BUFFER_MEMORY_MB_ENV, DEFAULT_BUFFER_MEMORY_MB)) * 1024L * 1024L;
+    int partsInMemory = (int) Math.min(Integer.MAX_VALUE, memory / partSize);
+    return Math.max(1, Math.min(concurrency, partsInMemory - 1));
+  }
+
   private <T> T retry(String op, java.util.concurrent.Callable<T> action) throws Exception {
     return S3RetryableCalls.withRetry(op, action, retryMaxAttempts, retryBaseDelayMs);
   }
@@ -126,119 +181,167 @@ public class ReindexS3ExportService {
     return doExport(rowStream, s3Key);
   }
 
-  @SuppressWarnings("checkstyle:MethodLength")
   private Future<Void> doExport(RowStream<Row> rowStream, String s3Key) {
     Promise<Void> promise = Promise.promise();
-
-    UploadContext ctx;
-    try {
-      ctx = new UploadContext(s3Key);
-    } catch (IOException e) {
-      log.error("doExport:: failed to create temp file for key={}", s3Key, e);
-      promise.fail(e);
-      return promise.future();
-    }
+    var ctx = new UploadContext(s3Key);
 
     rowStream
       .exceptionHandler(e -> abortAndFail(ctx, e, promise))
       .endHandler(v -> completeUpload(ctx, promise))
       .handler(row -> {
-        rowStream.pause();
+        if (ctx.failed) {
+          return;
+        }
         try {
           ctx.writeRow(row.getJsonObject(0));
         } catch (IOException e) {
           abortAndFail(ctx, e, promise);
           return;
         }
-        if (ctx.currentFileSize() >= minimalPartSize) {
-          vertxContext.executeBlocking(() -> {
-            ctx.ensureMultipartInitiated();
-            return ctx.uploadCurrentPart();
-          })
-            .onSuccess(v -> rowStream.resume())
-            .onFailure(e -> abortAndFail(ctx, e, promise));
-        } else {
-          rowStream.resume();
+        if (ctx.currentPartSize() >= minimalPartSize) {
+          ctx.uploadPart(ctx.sealCurrentPart())
+            .onFailure(e -> abortAndFail(ctx, e, promise))
+            .onSuccess(v -> {
+              if (ctx.paused && ctx.inFlightParts < maxInFlightParts) {
+                ctx.paused = false;
+                rowStream.resume();
+              }
+            });
+          if (ctx.inFlightParts >= maxInFlightParts) {
+            // the next part is not filled until an upload slot is free, this caps the memory used by the export
+            ctx.paused = true;
+            rowStream.pause();
+          }
         }
       });
 
     return promise.future();
   }
 
-  @SuppressWarnings("checkstyle:MethodLength")
   private void completeUpload(UploadContext ctx, Promise<Void> promise) {
-    if (promise.future().isComplete()) {
+    if (ctx.failed) {
       return;
     }
-    vertxContext.executeBlocking(
-        () -> {
-          ctx.flushAndClose();
-          if (ctx.uploadId == null) {
-            // Below the part-size threshold (or empty): write everything as a single PUT.
-            // No multipart was initiated, so nothing to abort or complete.
-            byte[] bytes = ctx.currentFileSize() == 0
-              ? new byte[0]
-              : Files.readAllBytes(ctx.tempFile);
-            retry("write(single)", () ->
-              s3Client.write(ctx.s3Key, new ByteArrayInputStream(bytes), bytes.length));
-          } else {
-            if (ctx.currentFileSize() > 0) {
-              int partNum = ctx.partNumber++;
-              var etag = retry("uploadMultipartPart#" + partNum,
-                () -> s3Client.uploadMultipartPart(ctx.s3Key, ctx.uploadId, partNum, ctx.tempFile.toString()));
-              ctx.partEtags.add(etag);
-            }
-            retry("completeMultipartUpload", () -> {
-              s3Client.completeMultipartUpload(ctx.s3Key, ctx.uploadId, ctx.partEtags);
-              return null;
-            });
-          }
-          ctx.cleanup();
-          return null;
-        })
+    try {
+      ctx.finishCompression();
+    } catch (IOException e) {
+      abortAndFail(ctx, e, promise);
+      return;
+    }
+    if (ctx.uploadIdFuture == null) {
+      // Below the part-size threshold (or empty): write everything as a single PUT.
+      // No multipart was initiated, so nothing to abort or complete.
+      var bytes = ctx.sealCurrentPart().toByteArray();
+      vertxContext.executeBlocking(() -> retry("write(single)", () ->
+          s3Client.write(ctx.s3Key, new ByteArrayInputStream(bytes), bytes.length)), false)
+        .onSuccess(v -> promise.complete())
+        .onFailure(e -> abortAndFail(ctx, e, promise));
+      return;
+    }
+
+    if (ctx.currentPartSize() > 0) {
+      ctx.uploadPart(ctx.sealCurrentPart());
+    }
+    Future.all(ctx.uploads)
+      .compose(v -> vertxContext.executeBlocking(() -> retry("completeMultipartUpload", () -> {
+        s3Client.completeMultipartUpload(ctx.s3Key, ctx.uploadId, new ArrayList<>(ctx.partEtags.values()));
+        return null;
+      }), false))
       .onSuccess(v -> promise.complete())
-      .onFailure(e -> {
+      .onFailure(e -> abortAndFail(ctx, e, promise));
+  }
+
+  /**
+   * Aborts the multipart upload once the parts that are being uploaded settle, so that no part is
+   * uploaded after the abort.
+   */
+  private void abortAndFail(UploadContext ctx, Throwable cause, Promise<Void> promise) {
+    if (ctx.failed || promise.future().isComplete()) {
+      return;
+    }
+    ctx.failed = true;
+    ctx.releaseCurrentPart();
+
+    Future.join(ctx.uploads)
+      .transform(notUsed -> vertxContext.executeBlocking(() -> {
         if (ctx.uploadId != null) {
           try {
             s3Client.abortMultipartUpload(ctx.s3Key, ctx.uploadId);
-          } catch (Exception ex) {
-            log.warn("completeUpload:: failed to abort multipart upload for key={}", ctx.s3Key, ex);
+          } catch (Exception e) {
+            log.warn("abortAndFail:: failed to abort multipart upload for key={} uploadId={}",
+              ctx.s3Key, ctx.uploadId, e);
           }
         }
-        ctx.cleanup();
+        return null;
+      }, false))
+      .onComplete(v -> {
         if (!promise.future().isComplete()) {
-          promise.fail(e);
+          promise.fail(cause);
         }
       });
   }
 
-  private void abortAndFail(UploadContext ctx, Throwable cause, Promise<Void> promise) {
-    if (promise.future().isComplete()) {
-      return;
-    }
-    vertxContext.executeBlocking(() -> {
-      if (ctx.uploadId != null) {
-        try {
-          s3Client.abortMultipartUpload(ctx.s3Key, ctx.uploadId);
-        } catch (Exception e) {
-          log.warn("abortAndFail:: failed to abort multipart upload for key={} uploadId={}",
-            ctx.s3Key, ctx.uploadId, e);
+  /**
+   * Writes the part to a short-lived file, because the S3 client uploads multipart parts from files only,
+   * the file is deleted as soon as the part is uploaded.
+   */
+  private String uploadPartFromBuffer(String s3Key, String uploadId, Part part) throws Exception {
+    var file = createSecureTempFile();
+    try {
+      try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+        var buffer = part.buffer;
+        var position = 0;
+        while (position < buffer.readableBytes()) {
+          position += buffer.getBytes(buffer.readerIndex() + position, channel, position,
+            buffer.readableBytes() - position);
         }
       }
-      ctx.cleanup();
-      return null;
-    }).onComplete(v -> {
-      if (!promise.future().isComplete()) {
-        promise.fail(cause);
+      return retry("uploadMultipartPart#" + part.number,
+        () -> s3Client.uploadMultipartPart(s3Key, uploadId, part.number, file.toString()));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  private static Path createSecureTempFile() throws IOException {
+    if (SystemUtils.IS_OS_UNIX) {
+      return Files.createTempFile("reindex-export-", ".ndjson", OWNER_ONLY_FILE_PERMISSIONS);
+    } else {
+      File file = File.createTempFile("reindex-export-", ".ndjson", new File("mySecureDirectory"));
+      if (!file.setReadable(true, true)) {
+        log.warn("createSecureTempFile:: failed to set readable permission for file {}", file.getAbsolutePath());
+      }
+      if (!file.setWritable(true, true)) {
+        log.warn("createSecureTempFile:: failed to set writable permission for file {}", file.getAbsolutePath());
       }
-    });
+      if (!file.setExecutable(true, true)) {
+        log.warn("createSecureTempFile:: failed to set executable permission for file {}", file.getAbsolutePath());
+      }
+      return file.toPath();
+    }
   }
 
   /**
-   * Holds mutable state for one in-progress multipart upload.
-   * All field mutations happen either on the event loop (writeRow, currentFileSize)
-   * or inside {@code executeBlocking} worker threads (uploadCurrentPart, cleanup),
-   * never concurrently — back-pressure via {@code rowStream.pause/resume} ensures this.
+   * A sealed part, its buffer is returned to the pool once the part is uploaded.
+   */
+  private record Part(int number, ByteBuf buffer) {
+
+    byte[] toByteArray() {
+      try {
+        return ByteBufUtil.getBytes(buffer);
+      } finally {
+        PART_BUFFER_POOL.release(buffer);
+      }
+    }
+  }
+
+  /**
+   * Holds mutable state for one in-progress export. Rows are written as UTF-8 straight into a pooled
+   * direct buffer; once the buffer reaches the part-size threshold it is sealed as a part and uploaded
+   * on a worker thread while the next part is being filled from the DB.
+   *
+   * <p>All field mutations happen on the event loop: the upload futures complete on the context
+   * that started the export, and worker threads only read sealed part buffers.
    *
    * <p>{@link #uploadId} is {@code null} until the multipart upload is actually
    * initiated; if no part is ever uploaded (export fits in one PUT) it stays
@@ -247,90 +350,154 @@ public class ReindexS3ExportService {
   private final class UploadContext {
 
     final String s3Key;
-    final List<String> partEtags = new ArrayList<>();
+    final Map<Integer, String> partEtags = new TreeMap<>();
+    final List<Future<Void>> uploads = new ArrayList<>();
 
+    @Nullable Future<String> uploadIdFuture;
     @Nullable String uploadId;
-    Path tempFile;
-    BufferedWriter writer;
-    long fileSize;
+    @Nullable ByteBuf currentPart;
+    @Nullable OutputStream compressor;
     int partNumber = 1;
+    int inFlightParts;
+    boolean paused;
+    boolean failed;
 
-    UploadContext(String s3Key) throws IOException {
+    UploadContext(String s3Key) {
       this.s3Key = s3Key;
-      rotateTempFile();
+    }
+
+    void writeRow(JsonObject json) throws IOException {
+      if (codec == ReindexExportCodec.NONE) {
+        ByteBufUtil.writeUtf8(currentPart(), json.encode());
+        currentPart().writeByte('\n');
+        return;
+      }
+      if (compressor == null) {
+        compressor = codec.compressor(new PartOutputStream());
+      }
+      compressor.write(json.toBuffer().getBytes());
+      compressor.write('\n');
     }
 
     /**
-     * Lazily issues {@code initiateMultipartUpload} on first invocation.
+     * Writes the rest of the compressed stream to the current part, a compressed empty export
+     * still produces a valid, empty file.
      */
-    void ensureMultipartInitiated() throws Exception {
-      if (uploadId == null) {
-        uploadId = retry("initiateMultipartUpload",
-          () -> s3Client.initiateMultipartUpload(s3Key));
+    void finishCompression() throws IOException {
+      if (codec == ReindexExportCodec.NONE) {
+        return;
+      }
+      if (compressor == null) {
+        compressor = codec.compressor(new PartOutputStream());
       }
+      compressor.close();
     }
 
-    void writeRow(JsonObject json) throws IOException {
-      var line = json.encode() + "\n";
-      writer.write(line);
-      fileSize += line.getBytes(StandardCharsets.UTF_8).length;
+    private ByteBuf currentPart() {
+      if (currentPart == null) {
+        currentPart = PART_BUFFER_POOL.acquire();
+      }
+      return currentPart;
     }
 
-    long currentFileSize() {
-      return fileSize;
+    long currentPartSize() {
+      return currentPart == null ? 0 : currentPart.readableBytes();
     }
 
-    Void uploadCurrentPart() throws Exception {
-      writer.flush();
-      writer.close();
-      int partNum = partNumber++;
-      var etag = retry("uploadMultipartPart#" + partNum,
-        () -> s3Client.uploadMultipartPart(s3Key, uploadId, partNum, tempFile.toString()));
-      partEtags.add(etag);
-      Files.deleteIfExists(tempFile);
-      rotateTempFile();
-      return null;
+    Part sealCurrentPart() {
+      var buffer = currentPart == null ? PART_BUFFER_POOL.acquire() : currentPart;
+      currentPart = null;
+      return new Part(partNumber++, buffer);
     }
 
-    void flushAndClose() throws IOException {
-      writer.flush();
-      writer.close();
+    void releaseCurrentPart() {
+      if (compressor != null) {
+        try {
+          compressor.close();
+        } catch (IOException e) {
+          log.warn("releaseCurrentPart:: failed to close compressor for key={}", s3Key, e);
+        }
+      }
+      if (currentPart != null) {
+        PART_BUFFER_POOL.release(currentPart);
+        currentPart = null;
+      }
     }
 
-    void cleanup() {
-      try {
-        if (writer != null) {
-          writer.close();
-        }
-        if (tempFile != null) {
-          Files.deleteIfExists(tempFile);
-        }
-      } catch (IOException e) {
-        log.warn("cleanup:: failed to delete temp file {}", tempFile, e);
+    /**
+     * Lazily issues {@code initiateMultipartUpload} when the first part is ready, the parts sealed
+     * meanwhile wait for the same upload id.
+     */
+    Future<String> ensureMultipartInitiated() {
+      if (uploadIdFuture == null) {
+        uploadIdFuture = vertxContext.executeBlocking(() -> retry("initiateMultipartUpload",
+            () -> s3Client.initiateMultipartUpload(s3Key)), false)
+          .onSuccess(id -> uploadId = id);
       }
+      return uploadIdFuture;
     }
 
-    private void rotateTempFile() throws IOException {
-      tempFile = createSecureTempFile();
-      writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8);
-      fileSize = 0;
+    /**
+     * Compressed bytes always go to the part being filled, including those the compressor emits
+     * after a part has been sealed.
+     */
+    private final class PartOutputStream extends OutputStream {
+
+      @Override
+      public void write(int b) {
+        currentPart().writeByte(b);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) {
+        currentPart().writeBytes(b, off, len);
+      }
+    }
+
+    Future<Void> uploadPart(Part part) {
+      inFlightParts++;
+      var upload = ensureMultipartInitiated()
+        .compose(id -> vertxContext.executeBlocking(() -> uploadPartFromBuffer(s3Key, id, part), false))
+        .onSuccess(etag -> partEtags.put(part.number, etag))
+        .eventually(() -> {
+          inFlightParts--;
+          PART_BUFFER_POOL.release(part.buffer);
+          return succeededFuture();
+        })
+        .<Void>mapEmpty();
+      uploads.add(upload);
+      return upload;
     }
+  }
 
-    private static Path createSecureTempFile() throws IOException {
-      if (SystemUtils.IS_OS_UNIX) {
-        return Files.createTempFile("reindex-export-", ".ndjson", OWNER_ONLY_FILE_PERMISSIONS);
+  /**
+   * Keeps a few part buffers for reuse, so that every part does not allocate a new buffer of the part size.
+   */
+  private static final class PartBufferPool {
+
+    private final ConcurrentLinkedQueue<ByteBuf> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final int maxPooled;
+
+    PartBufferPool(int maxPooled) {
+      this.maxPooled = maxPooled;
+    }
+
+    ByteBuf acquire() {
+      var buffer = buffers.poll();
+      if (buffer == null) {
+        return Unpooled.directBuffer((int) Math.min(MINIMAL_PART_SIZE, Integer.MAX_VALUE - 8));
+      }
+      pooled.decrementAndGet();
+      return buffer;
+    }
+
+    void release(ByteBuf buffer) {
+      if (pooled.incrementAndGet() <= maxPooled) {
+        buffers.offer(buffer.clear());
       } else {
-        File file = File.createTempFile("reindex-export-", ".ndjson", new File("mySecureDirectory"));
-        if (!file.setReadable(true, true)) {
-          log.warn("createSecureTempFile:: failed to set readable permission for file {}", file.getAbsolutePath());
-        }
-        if (!file.setWritable(true, true)) {
-          log.warn("createSecureTempFile:: failed to set writable permission for file {}", file.getAbsolutePath());
-        }
-        if (!file.setExecutable(true, true)) {
-          log.warn("createSecureTempFile:: failed to set executable permission for file {}", file.getAbsolutePath());
-        }
-        return file.toPath();
+        pooled.decrementAndGet();
+        buffer.release();
       }
     }
   }
@@ -2,6 +2,7 @@ package org.folio.services.reindex;
 
 import static java.util.UUID.randomUUID;
 import static org.folio.rest.jaxrs.model.ReindexJob.JobStatus.IDS_PUBLISHED;
+import static org.folio.rest.jaxrs.model.ReindexJob.JobStatus.ID_PUBLISHING_FAILED;
 import static org.folio.rest.jaxrs.model.ReindexJob.JobStatus.IN_PROGRESS;
 import static org.folio.rest.jaxrs.model.ReindexJob.JobStatus.PENDING_CANCEL;
 
@@ -11,6 +12,7 @@ import java.util.Date;
 import java.util.Map;
 import org.folio.persist.ReindexJobRepository;
 import org.folio.rest.exceptions.BadRequestException;
+import org.folio.rest.exceptions.NotFoundException;
 import org.folio.rest.jaxrs.model.ReindexJob;
 
 public final class ReindexService {
@@ -52,6 +54,23 @@ public final class ReindexService {
       });
   }
 
+  /**
+   * Resumes failed job, only the id ranges that have not been published are published again.
+   */
+  public Future<ReindexJob> resumeReindex(String jobId) {
+    return reindexJobRepository.fetchAndUpdate(jobId,
+        resp -> {
+          if (resp == null) {
+            throw new NotFoundException("Reindex job was not found: " + jobId);
+          }
+          if (resp.getJobStatus() != ID_PUBLISHING_FAILED || resp.getRanges().isEmpty()) {
+            throw new BadRequestException("Only failed job can be resumed");
+          }
+          return resp.withJobStatus(IN_PROGRESS);
+        })
+      .onSuccess(jobRunner::resumeReindex);
+  }
+
   private ReindexJob buildInitialJob(ReindexJob.ResourceName reindexResourceName) {
     return new ReindexJob()
       .withJobStatus(IN_PROGRESS)
@@ -0,0 +1,18 @@
+package org.folio.services.setting;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of propagating a centrally managed setting to the member tenants of a consortium.
+ *
+ * @param key             key of the setting
+ * @param updatedTenants  member tenants the setting has been updated in
+ * @param failedTenants   member tenants the update has failed for, with the failure message
+ */
+public record SettingPropagationReport(String key, List<String> updatedTenants, Map<String, String> failedTenants) {
+
+  public boolean hasFailures() {
+    return !failedTenants.isEmpty();
+  }
+}
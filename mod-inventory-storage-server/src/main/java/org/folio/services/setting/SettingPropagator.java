@@ -0,0 +1,148 @@
+package org.folio.services.setting;
+
+import static org.folio.okapi.common.XOkapiHeaders.TENANT;
+import static org.folio.rest.persist.PostgresClient.convertToPsqlStandard;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.persist.SettingsRepository;
+import org.folio.rest.jaxrs.model.Setting;
+import org.folio.services.domainevent.SettingEvent;
+import org.folio.services.domainevent.SettingEventPublisher;
+import org.folio.utils.Environment;
+
+/**
+ * Propagates a centrally managed setting to the member tenants of a consortium. Member tenants are grouped by
+ * schema, so that a schema is updated once, and up to {@code setting-propagation.concurrency} schemas are updated
+ * at a time. Failed tenants are retried in the background with the then current value of the central setting.
+ */
+class SettingPropagator {
+
+  private static final Logger logger = LogManager.getLogger(SettingPropagator.class);
+  private static final String CONCURRENCY_PARAM = "setting-propagation.concurrency";
+  private static final String RETRY_ATTEMPTS_PARAM = "setting-propagation.retry.attempts";
+  private static final String RETRY_DELAY_PARAM = "setting-propagation.retry.delay.ms";
+  private static final int DEFAULT_CONCURRENCY = 10;
+  private static final int DEFAULT_RETRY_ATTEMPTS = 3;
+  private static final int DEFAULT_RETRY_DELAY_MS = 5000;
+
+  private final Context context;
+  private final SettingEventPublisher publisher;
+  private final int concurrency;
+  private final int maxAttempts;
+  private final long retryDelayMs;
+
+  SettingPropagator(Context context, SettingEventPublisher publisher) {
+    this.context = context;
+    this.publisher = publisher;
+    this.concurrency = Math.max(1, Environment.getIntValue(CONCURRENCY_PARAM, DEFAULT_CONCURRENCY));
+    this.maxAttempts = Math.max(1, Environment.getIntValue(RETRY_ATTEMPTS_PARAM, DEFAULT_RETRY_ATTEMPTS));
+    this.retryDelayMs = Math.max(1, Environment.getIntValue(RETRY_DELAY_PARAM, DEFAULT_RETRY_DELAY_MS));
+  }
+
+  /**
+   * Updates the setting in the member tenants, the central tenant of {@code okapiHeaders} is skipped.
+   *
+   * @param setting        updated setting of the central tenant
+   * @param currentSetting loads the current setting of the central tenant for the background retries
+   * @return report of the first attempt, the retries are only logged
+   */
+  Future<SettingPropagationReport> propagate(Setting setting, Map<String, String> okapiHeaders,
+                                             Collection<String> memberTenants,
+                                             Supplier<Future<Setting>> currentSetting) {
+    var tenants = groupBySchema(memberTenants, okapiHeaders.get(TENANT));
+    return updateTenants(setting, okapiHeaders, tenants)
+      .onSuccess(report -> handleReport(report, 1, okapiHeaders, currentSetting));
+  }
+
+  private void handleReport(SettingPropagationReport report, int attempt, Map<String, String> okapiHeaders,
+                            Supplier<Future<Setting>> currentSetting) {
+    logger.info("handleReport:: Setting {} propagated, attempt: {}, updated tenants: {}, failed tenants: {}",
+      report.key(), attempt, report.updatedTenants().size(), report.failedTenants().size());
+    if (!report.hasFailures()) {
+      return;
+    }
+    if (attempt >= maxAttempts) {
+      logger.error("handleReport:: Setting {} not propagated after {} attempts, failed tenants: {}",
+        report.key(), attempt, report.failedTenants());
+      return;
+    }
+    var failedTenants = List.copyOf(report.failedTenants().keySet());
+    logger.warn("handleReport:: Retrying setting {} propagation, failed tenants: {}",
+      report.key(), report.failedTenants());
+    context.owner().setTimer(retryDelayMs * attempt, id -> currentSetting.get()
+      .compose(setting -> updateTenants(setting, okapiHeaders, failedTenants))
+      .onSuccess(retryReport -> handleReport(retryReport, attempt + 1, okapiHeaders, currentSetting))
+      .onFailure(e -> logger.error("handleReport:: Unable to retry setting {} propagation", report.key(), e)));
+  }
+
+  private Future<SettingPropagationReport> updateTenants(Setting setting, Map<String, String> okapiHeaders,
+                                                         List<String> tenants) {
+    var updatedTenants = new ArrayList<String>();
+    var failedTenants = new LinkedHashMap<String, String>();
+    var iterator = tenants.iterator();
+    var workers = new ArrayList<Future<Void>>();
+    for (int i = 0; i < Math.min(concurrency, tenants.size()); i++) {
+      workers.add(updateNext(iterator, setting, okapiHeaders, updatedTenants, failedTenants));
+    }
+    return Future.join(workers)
+      .transform(ar -> Future.succeededFuture(new SettingPropagationReport(setting.getKey(),
+        List.copyOf(updatedTenants), Map.copyOf(failedTenants))));
+  }
+
+  private Future<Void> updateNext(Iterator<String> tenants, Setting setting, Map<String, String> okapiHeaders,
+                                  List<String> updatedTenants, Map<String, String> failedTenants) {
+    if (!tenants.hasNext()) {
+      return Future.succeededFuture();
+    }
+    var tenantId = tenants.next();
+    Promise<Void> promise = Promise.promise();
+    updateTenant(tenantId, setting, okapiHeaders)
+      .onSuccess(v -> updatedTenants.add(tenantId))
+      .onFailure(e -> {
+        logger.warn("updateNext:: Error updating tenant {} setting key {}", tenantId, setting.getKey(), e);
+        failedTenants.put(tenantId, String.valueOf(e.getMessage()));
+      })
+      .onComplete(ar -> updateNext(tenants, setting, okapiHeaders, updatedTenants, failedTenants)
+        .onComplete(promise));
+    return promise.future();
+  }
+
+  private Future<Void> updateTenant(String tenantId, Setting setting, Map<String, String> okapiHeaders) {
+    var headers = new HashMap<>(okapiHeaders);
+    headers.put(TENANT, tenantId);
+    return new SettingsRepository(context, headers).update(setting)
+      .onSuccess(memberSetting -> {
+        logger.debug("updateTenant:: Setting {} updated for tenant {} with value {}. Publishing setting event...",
+          setting.getKey(), tenantId, setting.getValue());
+        var event = new SettingEvent(memberSetting.getId().toString(), memberSetting.getKey(),
+          memberSetting.getValue(), tenantId);
+        publisher.publish(event, memberSetting.getId().toString(), headers)
+          .onFailure(e -> logger.error("updateTenant:: Error publishing setting event for key {} and tenant {}",
+            memberSetting.getKey(), tenantId, e));
+      })
+      .mapEmpty();
+  }
+
+  private static List<String> groupBySchema(Collection<String> memberTenants, String centralTenantId) {
+    var tenantsBySchema = new LinkedHashMap<String, String>();
+    for (var tenantId : memberTenants) {
+      tenantsBySchema.putIfAbsent(convertToPsqlStandard(tenantId), tenantId);
+    }
+    if (centralTenantId != null) {
+      tenantsBySchema.remove(convertToPsqlStandard(centralTenantId));
+    }
+    return List.copyOf(tenantsBySchema.values());
+  }
+}
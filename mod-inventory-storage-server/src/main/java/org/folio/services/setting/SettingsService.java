@@ -5,9 +5,7 @@ import static org.folio.services.consortium.entities.Settings.INVENTORY_OPTIMIZE
 
 import io.vertx.core.Context;
 import io.vertx.core.Future;
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -36,6 +34,7 @@ public class SettingsService {
   private final SettingCache cache;
   private final SettingsValidator validator;
   private final SettingEventPublisher publisher;
+  private final SettingPropagator propagator;
 
   public SettingsService(Context context, Map<String, String> okapiHeaders) {
     this.context = context;
@@ -45,6 +44,7 @@ public class SettingsService {
     this.cache = context.get(SettingCache.class.getName());
     this.validator = new SettingsValidator();
     this.publisher = new SettingEventPublisher(context);
+    this.propagator = new SettingPropagator(context, publisher);
   }
 
   public Future<Setting> getSettingByKey(String key) {
@@ -95,38 +95,20 @@ public class SettingsService {
       .compose(updatedSetting -> {
         // publish event for central tenant
         publishSettingEvent(updatedSetting, okapiHeaders);
-        var updateFutures = new ArrayList<Future<Void>>();
-        buildMemberTenantUpdateFutures(okapiHeaders, updatedSetting, memberTenants, updateFutures);
-        return Future.all(updateFutures)
-          .onFailure(t -> logger.error("Error updating setting across consortium for key {}",
-            updatedSetting.getKey(), t))
+        return propagator.propagate(updatedSetting, okapiHeaders, memberTenants,
+            () -> getSettingByKey(updatedSetting.getKey()))
+          .onSuccess(report -> {
+            if (report.hasFailures()) {
+              logger.warn("updateSettingAcrossConsortium:: Setting {} not updated for tenants {}, "
+                + "the update is retried in background", report.key(), report.failedTenants().keySet());
+            }
+          })
           .mapEmpty();
       })
       .onFailure(t -> logger.error("Error updating setting across consortium for key {}",
         existingSetting.getKey(), t)).mapEmpty();
   }
 
-  private void buildMemberTenantUpdateFutures(Map<String, String> okapiHeaders, Setting updatedSetting,
-                                              List<String> memberTenants, List<Future<Void>> futures) {
-    var value = updatedSetting.getValue();
-    var key = updatedSetting.getKey();
-    for (String memberTenantId : memberTenants) {
-      var headers = new HashMap<>(okapiHeaders);
-      headers.put(TENANT, memberTenantId);
-      var repository = new SettingsRepository(context, headers);
-      futures.add(repository.update(updatedSetting)
-        .onSuccess(memberSetting -> {
-          logger.debug("Setting {} updated for tenant {} with value {}. Publishing setting event...",
-            key, memberTenantId, value);
-          // publish event for member tenant
-          publishSettingEvent(memberSetting, headers);
-        })
-        .onFailure(t -> logger.error("Error updating tenant {} setting key {}", memberTenantId, key, t))
-        .mapEmpty()
-      );
-    }
-  }
-
   private Future<Void> updateSettingAndPublishEvent(Object value, Map<String, String> okapiHeaders,
                                                     Setting existingSetting) {
     return updateSettingByKey(value, existingSetting, okapiHeaders)
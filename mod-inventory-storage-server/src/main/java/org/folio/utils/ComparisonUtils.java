@@ -3,42 +3,151 @@ package org.folio.utils;
 import static org.folio.rest.persist.PostgresClient.pojo2JsonObject;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import io.vertx.core.json.JsonObject;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.function.Consumer;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import org.folio.rest.jaxrs.model.HoldingsRecord;
+import org.folio.rest.jaxrs.model.Instance;
 import org.folio.rest.jaxrs.model.Item;
 
+/**
+ * Compares records structurally using the generated {@code equals} of the POJOs. The ignored fields are cleared
+ * for the comparison and restored afterward, so no JSON trees are built for the supported record types.
+ */
 public final class ComparisonUtils {
 
   private static final String METADATA_FIELD = "metadata";
+  private static final Integer SUPPRESSED_VERSION = -1;
 
-  private static final Map<Class<?>, List<Consumer<JsonObject>>> CLASS_SPECIFIC_ACTIONS;
+  private static final Map<Class<?>, List<IgnoredField>> IGNORED_FIELDS = Map.of(
+    Item.class, List.of(
+      IgnoredField.of(Item.class, Item::getMetadata, Item::setMetadata),
+      IgnoredField.of(Item.class, item -> item.getStatus() == null ? null : item.getStatus().getDate(),
+        (Item item, Date date) -> {
+          if (item.getStatus() != null) {
+            item.getStatus().setDate(date);
+          }
+        })),
+    Instance.class, List.of(IgnoredField.of(Instance.class, Instance::getMetadata, Instance::setMetadata)),
+    HoldingsRecord.class, List.of(
+      IgnoredField.of(HoldingsRecord.class, HoldingsRecord::getMetadata, HoldingsRecord::setMetadata)));
 
-  static {
-    CLASS_SPECIFIC_ACTIONS = Map.of(Item.class, List.of(
-      json -> json.getJsonObject("status").remove("date")
-    ));
-  }
+  // fields that are set on every batch write, they don't make a batch record differ from the stored one
+  private static final Map<Class<?>, List<IgnoredField>> BATCH_IGNORED_FIELDS = Map.of(
+    Instance.class, List.of(
+      IgnoredField.of(Instance.class, Instance::getStatusUpdatedDate, Instance::setStatusUpdatedDate)));
+
+  private static final Map<Class<?>, IgnoredField> VERSION_FIELDS = Map.of(
+    Item.class, IgnoredField.of(Item.class, Item::getVersion, Item::setVersion),
+    Instance.class, IgnoredField.of(Instance.class, Instance::getVersion, Instance::setVersion),
+    HoldingsRecord.class, IgnoredField.of(HoldingsRecord.class, HoldingsRecord::getVersion,
+      HoldingsRecord::setVersion));
 
   private ComparisonUtils() {
     throw new UnsupportedOperationException("Utility class");
   }
 
   public static boolean equalsIgnoringMetadata(Object o1, Object o2) throws JsonProcessingException {
+    if (o1 == o2) {
+      return true;
+    }
+    if (o1 == null || o2 == null || o1.getClass() != o2.getClass()) {
+      return false;
+    }
+    if (o1 instanceof Map<?, ?> map1 && o2 instanceof Map<?, ?> map2) {
+      return mapsEqualIgnoringMetadata(map1, map2);
+    }
+
+    var ignoredFields = IGNORED_FIELDS.get(o1.getClass());
+    if (ignoredFields == null) {
+      return jsonEqualsIgnoringMetadata(o1, o2);
+    }
+    return equalsIgnoring(o1, o2, ignoredFields);
+  }
+
+  /**
+   * Returns true if the record of a batch upsert doesn't change the stored record, so that writing it can be
+   * skipped. Besides the metadata, the fields set on every batch write are ignored, and so is the version if the
+   * incoming record doesn't ask for an optimistic locking check.
+   */
+  public static boolean isUnchanged(Object stored, Object incoming) {
+    if (stored == null || incoming == null || stored.getClass() != incoming.getClass()) {
+      return false;
+    }
+    var ignoredFields = IGNORED_FIELDS.get(incoming.getClass());
+    if (ignoredFields == null) {
+      return false;
+    }
+
+    var fields = new ArrayList<>(ignoredFields);
+    fields.addAll(BATCH_IGNORED_FIELDS.getOrDefault(incoming.getClass(), List.of()));
+    var versionField = VERSION_FIELDS.get(incoming.getClass());
+    var version = versionField.get(incoming);
+    if (version == null || SUPPRESSED_VERSION.equals(version)) {
+      fields.add(versionField);
+    }
+    return equalsIgnoring(stored, incoming, fields);
+  }
+
+  private static boolean equalsIgnoring(Object o1, Object o2, List<IgnoredField> fields) {
+    var values1 = new Object[fields.size()];
+    var values2 = new Object[fields.size()];
+    for (int i = 0; i < fields.size(); i++) {
+      values1[i] = fields.get(i).clear(o1);
+      values2[i] = fields.get(i).clear(o2);
+    }
+    try {
+      return o1.equals(o2);
+    } finally {
+      for (int i = 0; i < fields.size(); i++) {
+        fields.get(i).setter().accept(o1, values1[i]);
+        fields.get(i).setter().accept(o2, values2[i]);
+      }
+    }
+  }
+
+  private static boolean mapsEqualIgnoringMetadata(Map<?, ?> map1, Map<?, ?> map2) {
+    var size1 = map1.size() - (map1.containsKey(METADATA_FIELD) ? 1 : 0);
+    var size2 = map2.size() - (map2.containsKey(METADATA_FIELD) ? 1 : 0);
+    if (size1 != size2) {
+      return false;
+    }
+    for (var entry : map1.entrySet()) {
+      if (!METADATA_FIELD.equals(entry.getKey())
+          && (!map2.containsKey(entry.getKey()) || !Objects.equals(entry.getValue(), map2.get(entry.getKey())))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean jsonEqualsIgnoringMetadata(Object o1, Object o2) throws JsonProcessingException {
     var o1json = pojo2JsonObject(o1);
     var o2json = pojo2JsonObject(o2);
     o1json.remove(METADATA_FIELD);
     o2json.remove(METADATA_FIELD);
+    return Objects.equals(o1json, o2json);
+  }
 
-    CLASS_SPECIFIC_ACTIONS.forEach((clazz, actions) -> {
-      if (o1.getClass() == o2.getClass() && o1.getClass().equals(clazz)) {
-        actions.forEach(action -> action.accept(o1json));
-        actions.forEach(action -> action.accept(o2json));
-      }
-    });
+  private record IgnoredField(Function<Object, Object> getter, BiConsumer<Object, Object> setter) {
 
-    return Objects.equals(o1json, o2json);
+    @SuppressWarnings("unchecked")
+    static <T, V> IgnoredField of(Class<T> type, Function<T, V> getter, BiConsumer<T, V> setter) {
+      return new IgnoredField(o -> getter.apply(type.cast(o)), (o, value) -> setter.accept(type.cast(o), (V) value));
+    }
+
+    Object get(Object o) {
+      return getter.apply(o);
+    }
+
+    Object clear(Object o) {
+      var value = getter.apply(o);
+      setter.accept(o, null);
+      return value;
+    }
   }
 }
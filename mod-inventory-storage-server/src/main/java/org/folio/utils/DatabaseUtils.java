@@ -1,25 +1,55 @@
 package org.folio.utils;
 
 import static io.vertx.core.Promise.promise;
+import static org.folio.rest.tools.utils.ModuleName.getModuleName;
 
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowStream;
 import io.vertx.sqlclient.Tuple;
+import java.util.ArrayList;
+import java.util.List;
 import org.folio.rest.persist.Conn;
+import org.folio.rest.persist.PostgresClient;
 
 public final class DatabaseUtils {
+  private static final String TENANT_SCHEMAS_SQL = "SELECT schemaname FROM pg_tables WHERE tablename = $1";
 
   private DatabaseUtils() {
     throw new UnsupportedOperationException("Utility class");
   }
 
   public static Future<RowStream<Row>> selectStream(Conn con, String query) {
+    return selectStream(con, query, Tuple.tuple());
+  }
+
+  public static Future<RowStream<Row>> selectStream(Conn con, String query, Tuple params) {
     Promise<RowStream<Row>> result = promise();
 
-    con.selectStream(query, Tuple.tuple(), result::complete);
+    con.selectStream(query, params, result::complete);
 
     return result.future();
   }
+
+  /**
+   * Returns the tenants the module is enabled for, derived from the schemas that have the given table,
+   * a schema is named {@code <tenant>_<module>}.
+   */
+  public static Future<List<String>> getTenantsWithTable(Vertx vertx, String tableName) {
+    var schemaSuffix = "_" + getModuleName();
+    return PostgresClient.getInstance(vertx)
+      .execute(TENANT_SCHEMAS_SQL, Tuple.of(tableName))
+      .map(rows -> {
+        var tenants = new ArrayList<String>();
+        rows.forEach(row -> {
+          var schema = row.getString(0);
+          if (schema.endsWith(schemaSuffix)) {
+            tenants.add(schema.substring(0, schema.length() - schemaSuffix.length()));
+          }
+        });
+        return tenants;
+      });
+  }
 }
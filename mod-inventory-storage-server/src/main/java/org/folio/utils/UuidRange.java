@@ -0,0 +1,35 @@
+package org.folio.utils;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Range of the UUID key space, {@code from} is inclusive, {@code to} is exclusive.
+ *
+ * @param from lower bound of the range
+ * @param to upper bound of the range, {@code null} for the last range of the key space
+ */
+public record UuidRange(UUID from, UUID to) {
+
+  private static final BigInteger UUID_SPACE_SIZE = BigInteger.ONE.shiftLeft(128);
+
+  /**
+   * Splits the whole UUID key space into {@code count} adjacent ranges of equal size.
+   */
+  public static List<UuidRange> split(int count) {
+    var ranges = new ArrayList<UuidRange>(count);
+    for (int i = 0; i < count; i++) {
+      ranges.add(new UuidRange(boundary(i, count), i < count - 1 ? boundary(i + 1, count) : null));
+    }
+    return ranges;
+  }
+
+  private static UUID boundary(int index, int count) {
+    var boundary = UUID_SPACE_SIZE.multiply(BigInteger.valueOf(index)).divide(BigInteger.valueOf(count));
+    var hex = String.format("%032x", boundary);
+    return new UUID(Long.parseUnsignedLong(hex.substring(0, 16), 16),
+      Long.parseUnsignedLong(hex.substring(16), 16));
+  }
+}
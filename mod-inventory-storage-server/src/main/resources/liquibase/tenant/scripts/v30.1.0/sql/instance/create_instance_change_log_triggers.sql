@@ -0,0 +1,41 @@
+-- The complete updated date of an instance is set whenever the instance, its holdings records or its items
+-- are written, so the same trigger records the change in instance_change_log. NOW() is the transaction
+-- start time, repeated changes of an instance within a transaction produce a single entry.
+CREATE OR REPLACE FUNCTION completeupdateddate_for_instance()
+    RETURNS trigger
+    LANGUAGE 'plpgsql'
+    COST 100
+    VOLATILE NOT LEAKPROOF
+AS $BODY$
+BEGIN
+    NEW.complete_updated_date = NOW();
+    INSERT INTO instance_change_log (changed_at, instance_id, deleted)
+    VALUES (NEW.complete_updated_date, NEW.id, false)
+    ON CONFLICT DO NOTHING;
+    RETURN NEW;
+END;
+
+$BODY$;
+
+CREATE OR REPLACE FUNCTION instance_change_log_for_instance_delete()
+    RETURNS trigger
+    LANGUAGE 'plpgsql'
+    COST 100
+    VOLATILE NOT LEAKPROOF
+AS $BODY$
+BEGIN
+    INSERT INTO instance_change_log (changed_at, instance_id, deleted)
+    VALUES (NOW(), OLD.id, true)
+    ON CONFLICT DO NOTHING;
+    RETURN OLD;
+END;
+
+$BODY$;
+
+DROP TRIGGER IF EXISTS instanceChangeLog_instance_delete ON instance;
+
+CREATE TRIGGER instanceChangeLog_instance_delete
+    AFTER DELETE
+    ON instance
+    FOR EACH ROW
+    EXECUTE FUNCTION instance_change_log_for_instance_delete();
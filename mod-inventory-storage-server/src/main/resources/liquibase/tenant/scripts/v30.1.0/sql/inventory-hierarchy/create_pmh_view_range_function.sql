@@ -0,0 +1,134 @@
+CREATE OR REPLACE FUNCTION pmh_view_range_function(
+    startdate timestamp with time zone,
+    enddate timestamp with time zone,
+    deletedrecordsupport boolean,
+    skipsuppressedfromdiscoveryrecords boolean,
+    fromid uuid,
+    toid uuid)
+    RETURNS TABLE(instanceid uuid, updateddate timestamp with time zone, deleted boolean, itemsandholdingsfields jsonb)
+    LANGUAGE 'sql'
+    COST 100
+    VOLATILE PARALLEL UNSAFE
+    ROWS 1000
+
+AS $BODY$
+with instanceIdsInRange as ( select inst.id                                                      as instanceId,
+                                    (strToTimestamp(inst.jsonb -> 'metadata' ->> 'updatedDate')) as maxDate
+                             from instance inst
+                             where (strToTimestamp(inst.jsonb -> 'metadata' ->> 'updatedDate')) between dateOrMin($1) and dateOrMax($2)
+                               and inst.id >= coalesce($5, '00000000-0000-0000-0000-000000000000'::uuid) and ($6 is null or inst.id < $6)
+
+                             union all
+                             select instanceid,
+                                    greatest((strToTimestamp(item.jsonb -> 'metadata' ->> 'updatedDate')),
+                                             (strToTimestamp(hr.jsonb -> 'metadata' ->> 'updatedDate'))) as maxDate
+                             from holdings_record hr
+                                      join item item on item.holdingsrecordid = hr.id
+                             where ((strToTimestamp(hr.jsonb -> 'metadata' ->> 'updatedDate')) between dateOrMin($1) and dateOrMax($2) or
+                                    (strToTimestamp(item.jsonb -> 'metadata' ->> 'updatedDate')) between dateOrMin($1) and dateOrMax($2))
+                               and hr.instanceid >= coalesce($5, '00000000-0000-0000-0000-000000000000'::uuid) and ($6 is null or hr.instanceid < $6)
+
+                             union all
+                             select (audit_holdings_record.jsonb #>> '{record,instanceId}')::uuid,
+                                    greatest((strtotimestamp(audit_item.jsonb -> 'record' ->> 'updatedDate')),
+                                             (strtotimestamp(audit_holdings_record.jsonb -> 'record' ->> 'updatedDate'))) as maxDate
+                             from audit_holdings_record audit_holdings_record
+                                      join audit_item audit_item
+                                           on (audit_item.jsonb ->> '{record,holdingsRecordId}')::uuid =
+                                              audit_holdings_record.id
+                             where ((strToTimestamp(audit_holdings_record.jsonb -> 'record' ->> 'updatedDate')) between dateOrMin($1) and dateOrMax($2) or
+                                    (strToTimestamp(audit_item.jsonb #>> '{record,updatedDate}')) between dateOrMin($1) and dateOrMax($2))
+                               and ($5 is null or (audit_holdings_record.jsonb #>> '{record,instanceId}')::uuid >= $5)
+                               and ($6 is null or (audit_holdings_record.jsonb #>> '{record,instanceId}')::uuid < $6) ),
+     instanceIdsAndDatesInRange as ( select instanceId, max(instanceIdsInRange.maxDate) as maxDate,
+                                            (instance.jsonb ->> 'discoverySuppress')::bool as suppressFromDiscovery
+                                     from instanceIdsInRange,
+                                          instance
+                                     where instanceIdsInRange.maxDate between dateOrMin($1) and dateOrMax($2)
+                                       and instance.id = instanceIdsInRange.instanceId
+                                       and not ($4 and coalesce((instance.jsonb ->> 'discoverySuppress')::bool, false))
+                                     group by 1, 3)
+
+select instanceIdsAndDatesInRange.instanceId,
+       instanceIdsAndDatesInRange.maxDate,
+       false as deleted,
+       ( select to_jsonb(itemAndHoldingsAttrs) as instanceFields
+         from ( select hr.instanceid,
+                       instanceIdsAndDatesInRange.suppressFromDiscovery as suppressFromDiscovery,
+                       jsonb_agg(jsonb_build_object('id', item.id, 'callNumber',
+                                                    item.jsonb -> 'effectiveCallNumberComponents'
+                                                        || jsonb_build_object('typeName',cnt.jsonb ->> 'name'),
+                                                    'location',
+                                                    json_build_object('location', jsonb_build_object('institutionId',
+                                                                                                     itemLocInst.id,
+                                                                                                     'institutionName',
+                                                                                                     itemLocInst.jsonb ->> 'name',
+                                                                                                     'campusId',
+                                                                                                     itemLocCamp.id,
+                                                                                                     'campusName',
+                                                                                                     itemLocCamp.jsonb ->> 'name',
+                                                                                                     'libraryId',
+                                                                                                     itemLocLib.id,
+                                                                                                     'libraryName',
+                                                                                                     itemLocLib.jsonb ->> 'name'),
+                                                                      'name',
+                                                                      coalesce(loc.jsonb ->> 'discoveryDisplayName', loc.jsonb ->> 'name')),
+                                                    'volume',
+                                                    item.jsonb -> 'volume',
+                                                    'enumeration',
+                                                    item.jsonb -> 'enumeration',
+                                                    'materialType',
+                                                    mt.jsonb -> 'name',
+                                                    'electronicAccess',
+                                                    getElectronicAccessName(
+                                                            coalesce(item.jsonb #> '{electronicAccess}', '[]'::jsonb) ||
+                                                            coalesce(hr.jsonb #> '{electronicAccess}', '[]'::jsonb)),
+                                                    'suppressFromDiscovery',
+                                                    case
+                                                        when instanceIdsAndDatesInRange.suppressFromDiscovery
+                                                            then true
+                                                        else
+                                                            coalesce((hr.jsonb ->> 'discoverySuppress')::bool, false) or
+                                                            coalesce((item.jsonb ->> 'discoverySuppress')::bool, false)
+                                                        end,
+                                                    'notes',
+                                                    getItemNoteTypeName(item.jsonb-> 'notes'),
+                                                    'barcode',
+                                                    item.jsonb->>'barcode',
+                                                    'chronology',
+                                                    item.jsonb->>'chronology',
+                                                    'copyNumber',
+                                                    item.jsonb->>'copyNumber',
+                                                    'holdingsRecordId',
+                                                    hr.id
+                                 )) items
+                from holdings_record hr
+                         join item item on item.holdingsrecordid = hr.id
+                         join location loc
+                              on (item.jsonb ->> 'effectiveLocationId')::uuid = loc.id and
+                                 (loc.jsonb ->> 'isActive')::bool = true
+                         join locinstitution itemLocInst
+                              on (loc.jsonb ->> 'institutionId')::uuid = itemLocInst.id
+                         join loccampus itemLocCamp
+                              on (loc.jsonb ->> 'campusId')::uuid = itemLocCamp.id
+                         join loclibrary itemLocLib
+                              on (loc.jsonb ->> 'libraryId')::uuid = itemLocLib.id
+                         left join material_type mt on item.materialtypeid = mt.id
+                         left join call_number_type cnt on nullif(item.jsonb #>> '{effectiveCallNumberComponents, typeId}','')::uuid = cnt.id
+                where instanceId = instanceIdsAndDatesInRange.instanceId
+                  and not ($4 and coalesce((hr.jsonb ->> 'discoverySuppress')::bool, false))
+                  and not ($4 and coalesce((item.jsonb ->> 'discoverySuppress')::bool, false))
+                group by 1) itemAndHoldingsAttrs )
+from instanceIdsAndDatesInRange
+union all
+select (audit_instance.jsonb #>> '{record,id}')::uuid as instanceId,
+       strToTimestamp(jsonb ->> 'createdDate')         as maxDate,
+       true                                           as deleted,
+       null                                           as itemFields
+from audit_instance
+where $3
+  and strToTimestamp(jsonb ->> 'createdDate') between dateOrMin($1) and dateOrMax($2)
+  and ($5 is null or (audit_instance.jsonb #>> '{record,id}')::uuid >= $5)
+  and ($6 is null or (audit_instance.jsonb #>> '{record,id}')::uuid < $6)
+
+$BODY$;
\ No newline at end of file
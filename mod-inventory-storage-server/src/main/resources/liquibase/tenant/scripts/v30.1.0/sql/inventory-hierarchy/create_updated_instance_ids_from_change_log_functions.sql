@@ -0,0 +1,102 @@
+-- Same results as get_updated_instance_ids_view and pmh_get_updated_instances_ids, but the changed instances are
+-- looked up in instance_change_log instead of scanning the metadata dates of instances, holdings records, items and
+-- their audit tables. The change log is used only when it covers the whole requested period; older periods and
+-- requests for the instance update date only, which is indexed already, are delegated to the original functions.
+CREATE OR REPLACE FUNCTION instance_change_log_covers(startdate timestamp with time zone)
+    RETURNS boolean
+    LANGUAGE 'sql'
+    COST 100
+    STABLE PARALLEL SAFE
+AS $BODY$
+SELECT $1 IS NOT NULL
+       AND $1 >= COALESCE((SELECT MAX(covered_since) FROM instance_change_log_state), 'infinity'::timestamptz)
+$BODY$;
+
+CREATE OR REPLACE FUNCTION get_updated_instance_ids_from_change_log(
+    startdate timestamp with time zone,
+    enddate timestamp with time zone,
+    deletedrecordsupport boolean DEFAULT true,
+    skipsuppressedfromdiscoveryrecords boolean DEFAULT true,
+    onlyinstanceupdatedate boolean DEFAULT true,
+    source character varying DEFAULT NULL::character varying)
+    RETURNS TABLE("instanceId" uuid, source character varying, "updatedDate" timestamp with time zone, "suppressFromDiscovery" boolean, deleted boolean)
+    LANGUAGE 'plpgsql'
+    COST 100
+    VOLATILE PARALLEL UNSAFE
+    ROWS 1000
+AS $BODY$
+BEGIN
+    IF $5 OR NOT instance_change_log_covers($1) THEN
+        RETURN QUERY SELECT * FROM get_updated_instance_ids_view($1, $2, $3, $4, $5, $6);
+        RETURN;
+    END IF;
+
+    RETURN QUERY
+    SELECT change_log.instance_id,
+           (inst.jsonb ->> 'source')::varchar,
+           MAX(change_log.changed_at),
+           (inst.jsonb ->> 'discoverySuppress')::bool,
+           false
+    FROM instance_change_log change_log
+             JOIN instance inst ON inst.id = change_log.instance_id
+    WHERE change_log.changed_at BETWEEN $1 AND dateOrMax($2)
+      AND NOT change_log.deleted
+      AND NOT ($4 AND COALESCE((inst.jsonb ->> 'discoverySuppress')::bool, false))
+      AND ($6 IS NULL OR inst.jsonb ->> 'source' = $6)
+    GROUP BY 1, 2, 4
+
+    UNION ALL
+    -- the source of a deleted instance is only kept in the audit table
+    SELECT (audit_instance.jsonb #>> '{record,id}')::uuid,
+           (audit_instance.jsonb #>> '{record,source}')::varchar,
+           strToTimestamp(audit_instance.jsonb ->> 'createdDate'),
+           false,
+           true
+    FROM audit_instance
+    WHERE $3
+      AND strToTimestamp(audit_instance.jsonb ->> 'createdDate') BETWEEN $1 AND dateOrMax($2)
+      AND ($6 IS NULL OR audit_instance.jsonb #>> '{record,source}' = $6);
+END;
+$BODY$;
+
+CREATE OR REPLACE FUNCTION pmh_get_updated_instances_ids_from_change_log(
+    startdate timestamp with time zone,
+    enddate timestamp with time zone,
+    deletedrecordsupport boolean DEFAULT true,
+    skipsuppressedfromdiscoveryrecords boolean DEFAULT true)
+    RETURNS TABLE(instanceid uuid, updateddate timestamp with time zone, suppressfromdiscovery boolean, deleted boolean)
+    LANGUAGE 'plpgsql'
+    COST 100
+    VOLATILE PARALLEL UNSAFE
+    ROWS 1000
+AS $BODY$
+BEGIN
+    IF NOT instance_change_log_covers($1) THEN
+        RETURN QUERY SELECT * FROM pmh_get_updated_instances_ids($1, $2, $3, $4);
+        RETURN;
+    END IF;
+
+    RETURN QUERY
+    SELECT change_log.instance_id,
+           MAX(change_log.changed_at),
+           (inst.jsonb ->> 'discoverySuppress')::bool,
+           false
+    FROM instance_change_log change_log
+             JOIN instance inst ON inst.id = change_log.instance_id
+    WHERE change_log.changed_at BETWEEN $1 AND dateOrMax($2)
+      AND NOT change_log.deleted
+      AND NOT ($4 AND COALESCE((inst.jsonb ->> 'discoverySuppress')::bool, false))
+    GROUP BY 1, 3
+
+    UNION ALL
+    SELECT change_log.instance_id,
+           MAX(change_log.changed_at),
+           false,
+           true
+    FROM instance_change_log change_log
+    WHERE $3
+      AND change_log.deleted
+      AND change_log.changed_at BETWEEN $1 AND dateOrMax($2)
+    GROUP BY 1;
+END;
+$BODY$;
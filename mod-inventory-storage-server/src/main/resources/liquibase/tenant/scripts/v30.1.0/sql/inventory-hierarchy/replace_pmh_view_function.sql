@@ -0,0 +1,14 @@
+CREATE OR REPLACE FUNCTION pmh_view_function(
+    startdate timestamp with time zone,
+    enddate timestamp with time zone,
+    deletedrecordsupport boolean DEFAULT true,
+    skipsuppressedfromdiscoveryrecords boolean DEFAULT true)
+    RETURNS TABLE(instanceid uuid, updateddate timestamp with time zone, deleted boolean, itemsandholdingsfields jsonb)
+    LANGUAGE 'sql'
+    COST 100
+    VOLATILE PARALLEL UNSAFE
+    ROWS 1000
+
+AS $BODY$
+select * from pmh_view_range_function($1, $2, $3, $4, null, null)
+$BODY$;
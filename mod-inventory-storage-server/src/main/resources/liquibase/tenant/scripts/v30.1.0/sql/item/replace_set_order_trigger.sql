@@ -0,0 +1,108 @@
+CREATE OR REPLACE FUNCTION set_item_order()
+    RETURNS trigger
+    LANGUAGE 'plpgsql'
+    COST 100
+    VOLATILE NOT LEAKPROOF
+AS $BODY$
+DECLARE
+    income_order int;
+    holding_record_id UUID;
+    new_order INT;
+BEGIN
+    holding_record_id := (NEW.jsonb ->> 'holdingsRecordId')::uuid;
+    income_order := (NEW.jsonb ->> 'order')::int;
+
+    IF holding_record_id IS NULL THEN
+        RETURN NEW;
+    END IF;
+
+    IF income_order IS NOT NULL THEN
+        -- Orders allocated in bulk by the module are already tracked, check without locking the tracker row
+        PERFORM 1 FROM item_order_tracker
+        WHERE holdings_id = holding_record_id AND max_order >= income_order AND NOT restart_order;
+        IF NOT FOUND THEN
+            INSERT INTO item_order_tracker (holdings_id, max_order)
+            VALUES (holding_record_id, income_order)
+            ON CONFLICT (holdings_id) DO UPDATE
+                SET max_order = GREATEST(item_order_tracker.max_order, EXCLUDED.max_order),
+                    restart_order = false;
+        END IF;
+        RETURN NEW;
+    END IF;
+
+    -- Allocate the next order with a single upsert. The order restarts at 1 when the last item of the holdings
+    -- record has been deleted or moved, the restart is flagged by the item delete and update triggers below,
+    -- so the check doesn't depend on the visibility of the items of concurrent transactions
+    INSERT INTO item_order_tracker (holdings_id)
+    VALUES (holding_record_id)
+    ON CONFLICT (holdings_id) DO UPDATE
+        SET max_order = CASE WHEN item_order_tracker.restart_order THEN 1 ELSE item_order_tracker.max_order + 1 END,
+            restart_order = false
+    RETURNING max_order INTO new_order;
+
+    NEW.jsonb := jsonb_set(NEW.jsonb, '{order}', to_jsonb(new_order));
+
+    RETURN NEW;
+END;
+$BODY$;
+
+DROP TRIGGER IF EXISTS item_bi_bu_set_order_trg ON item CASCADE;
+
+CREATE OR REPLACE TRIGGER item_bi_set_order_trg
+    BEFORE INSERT
+    ON item
+    FOR EACH ROW
+EXECUTE FUNCTION set_item_order();
+
+CREATE OR REPLACE TRIGGER item_bu_set_order_trg
+    BEFORE UPDATE
+    ON item
+    FOR EACH ROW
+    WHEN (NEW.jsonb -> 'order' IS NULL
+        OR OLD.jsonb -> 'order' IS DISTINCT FROM NEW.jsonb -> 'order'
+        OR OLD.jsonb -> 'holdingsRecordId' IS DISTINCT FROM NEW.jsonb -> 'holdingsRecordId')
+EXECUTE FUNCTION set_item_order();
+
+-- Flag the order restart of the holdings records whose last item has been deleted or moved by the statement
+CREATE OR REPLACE FUNCTION flag_item_order_restart()
+    RETURNS trigger AS
+$$
+DECLARE
+    left_holdings_ids uuid[];
+BEGIN
+    IF (TG_OP = 'UPDATE') THEN
+        SELECT array_agg(DISTINCT old_rows.holdingsrecordid) INTO left_holdings_ids
+        FROM old_rows
+        JOIN new_rows ON new_rows.id = old_rows.id
+        WHERE new_rows.holdingsrecordid IS DISTINCT FROM old_rows.holdingsrecordid;
+    ELSE
+        SELECT array_agg(DISTINCT old_rows.holdingsrecordid) INTO left_holdings_ids
+        FROM old_rows;
+    END IF;
+
+    IF left_holdings_ids IS NOT NULL THEN
+        UPDATE item_order_tracker
+        SET restart_order = true
+        WHERE holdings_id = ANY (left_holdings_ids)
+          AND NOT restart_order
+          AND NOT EXISTS (SELECT 1 FROM item WHERE item.holdingsrecordid = item_order_tracker.holdings_id);
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS item_ad_flag_order_restart_trg ON item CASCADE;
+DROP TRIGGER IF EXISTS item_au_flag_order_restart_trg ON item CASCADE;
+CREATE TRIGGER item_ad_flag_order_restart_trg
+    AFTER DELETE
+    ON item
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION flag_item_order_restart();
+CREATE TRIGGER item_au_flag_order_restart_trg
+    AFTER UPDATE
+    ON item
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION flag_item_order_restart();
@@ -0,0 +1,170 @@
+-- Sync the statistical code links of the instance rows of the statement
+CREATE OR REPLACE FUNCTION update_instance_statistical_code()
+    RETURNS trigger AS
+$$
+BEGIN
+    IF (TG_OP = 'UPDATE') THEN
+        -- Only rows with changed statistical codes are touched, and of them only the links that are gone or missing
+        WITH changed AS (
+            SELECT new_rows.id, new_rows.jsonb -> 'statisticalCodeIds' AS codes
+            FROM new_rows
+            JOIN old_rows ON old_rows.id = new_rows.id
+            WHERE new_rows.jsonb -> 'statisticalCodeIds' IS DISTINCT FROM old_rows.jsonb -> 'statisticalCodeIds'
+        ), desired AS (
+            SELECT DISTINCT changed.id, code::uuid AS statistical_code_id
+            FROM changed, jsonb_array_elements_text(changed.codes) AS code
+        ), removed AS (
+            DELETE
+            FROM instance_statistical_code link USING changed
+            WHERE link.instance_id = changed.id
+              AND NOT EXISTS (SELECT 1
+                              FROM desired
+                              WHERE desired.id = link.instance_id
+                                AND desired.statistical_code_id = link.statistical_code_id)
+        )
+        INSERT INTO instance_statistical_code (instance_id, statistical_code_id)
+        SELECT desired.id, desired.statistical_code_id
+        FROM desired
+        WHERE NOT EXISTS (SELECT 1
+                          FROM instance_statistical_code link
+                          WHERE link.instance_id = desired.id
+                            AND link.statistical_code_id = desired.statistical_code_id);
+    ELSE
+        INSERT INTO instance_statistical_code (instance_id, statistical_code_id)
+        SELECT DISTINCT new_rows.id, code::uuid
+        FROM new_rows, jsonb_array_elements_text(new_rows.jsonb -> 'statisticalCodeIds') AS code;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Replace the row level trigger by statement level triggers, a batch is synced with one statement
+DROP TRIGGER IF EXISTS trg_update_instance_statistical_code ON instance CASCADE;
+DROP TRIGGER IF EXISTS trg_insert_instance_statistical_code ON instance CASCADE;
+CREATE TRIGGER trg_insert_instance_statistical_code
+    AFTER INSERT
+    ON instance
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION update_instance_statistical_code();
+CREATE TRIGGER trg_update_instance_statistical_code
+    AFTER UPDATE
+    ON instance
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION update_instance_statistical_code();
+
+-- Sync the statistical code links of the item rows of the statement
+CREATE OR REPLACE FUNCTION update_item_statistical_code()
+    RETURNS trigger AS
+$$
+BEGIN
+    IF (TG_OP = 'UPDATE') THEN
+        -- Only rows with changed statistical codes are touched, and of them only the links that are gone or missing
+        WITH changed AS (
+            SELECT new_rows.id, new_rows.jsonb -> 'statisticalCodeIds' AS codes
+            FROM new_rows
+            JOIN old_rows ON old_rows.id = new_rows.id
+            WHERE new_rows.jsonb -> 'statisticalCodeIds' IS DISTINCT FROM old_rows.jsonb -> 'statisticalCodeIds'
+        ), desired AS (
+            SELECT DISTINCT changed.id, code::uuid AS statistical_code_id
+            FROM changed, jsonb_array_elements_text(changed.codes) AS code
+        ), removed AS (
+            DELETE
+            FROM item_statistical_code link USING changed
+            WHERE link.item_id = changed.id
+              AND NOT EXISTS (SELECT 1
+                              FROM desired
+                              WHERE desired.id = link.item_id
+                                AND desired.statistical_code_id = link.statistical_code_id)
+        )
+        INSERT INTO item_statistical_code (item_id, statistical_code_id)
+        SELECT desired.id, desired.statistical_code_id
+        FROM desired
+        WHERE NOT EXISTS (SELECT 1
+                          FROM item_statistical_code link
+                          WHERE link.item_id = desired.id
+                            AND link.statistical_code_id = desired.statistical_code_id);
+    ELSE
+        INSERT INTO item_statistical_code (item_id, statistical_code_id)
+        SELECT DISTINCT new_rows.id, code::uuid
+        FROM new_rows, jsonb_array_elements_text(new_rows.jsonb -> 'statisticalCodeIds') AS code;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Replace the row level trigger by statement level triggers, a batch is synced with one statement
+DROP TRIGGER IF EXISTS trg_update_item_statistical_code ON item CASCADE;
+DROP TRIGGER IF EXISTS trg_insert_item_statistical_code ON item CASCADE;
+CREATE TRIGGER trg_insert_item_statistical_code
+    AFTER INSERT
+    ON item
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION update_item_statistical_code();
+CREATE TRIGGER trg_update_item_statistical_code
+    AFTER UPDATE
+    ON item
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION update_item_statistical_code();
+
+-- Sync the statistical code links of the holdings_record rows of the statement
+CREATE OR REPLACE FUNCTION update_holdings_record_statistical_code()
+    RETURNS trigger AS
+$$
+BEGIN
+    IF (TG_OP = 'UPDATE') THEN
+        -- Only rows with changed statistical codes are touched, and of them only the links that are gone or missing
+        WITH changed AS (
+            SELECT new_rows.id, new_rows.jsonb -> 'statisticalCodeIds' AS codes
+            FROM new_rows
+            JOIN old_rows ON old_rows.id = new_rows.id
+            WHERE new_rows.jsonb -> 'statisticalCodeIds' IS DISTINCT FROM old_rows.jsonb -> 'statisticalCodeIds'
+        ), desired AS (
+            SELECT DISTINCT changed.id, code::uuid AS statistical_code_id
+            FROM changed, jsonb_array_elements_text(changed.codes) AS code
+        ), removed AS (
+            DELETE
+            FROM holdings_record_statistical_code link USING changed
+            WHERE link.holdings_record_id = changed.id
+              AND NOT EXISTS (SELECT 1
+                              FROM desired
+                              WHERE desired.id = link.holdings_record_id
+                                AND desired.statistical_code_id = link.statistical_code_id)
+        )
+        INSERT INTO holdings_record_statistical_code (holdings_record_id, statistical_code_id)
+        SELECT desired.id, desired.statistical_code_id
+        FROM desired
+        WHERE NOT EXISTS (SELECT 1
+                          FROM holdings_record_statistical_code link
+                          WHERE link.holdings_record_id = desired.id
+                            AND link.statistical_code_id = desired.statistical_code_id);
+    ELSE
+        INSERT INTO holdings_record_statistical_code (holdings_record_id, statistical_code_id)
+        SELECT DISTINCT new_rows.id, code::uuid
+        FROM new_rows, jsonb_array_elements_text(new_rows.jsonb -> 'statisticalCodeIds') AS code;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Replace the row level trigger by statement level triggers, a batch is synced with one statement
+DROP TRIGGER IF EXISTS trg_update_holdings_record_statistical_code ON holdings_record CASCADE;
+DROP TRIGGER IF EXISTS trg_insert_holdings_record_statistical_code ON holdings_record CASCADE;
+CREATE TRIGGER trg_insert_holdings_record_statistical_code
+    AFTER INSERT
+    ON holdings_record
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION update_holdings_record_statistical_code();
+CREATE TRIGGER trg_update_holdings_record_statistical_code
+    AFTER UPDATE
+    ON holdings_record
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION update_holdings_record_statistical_code();
\ No newline at end of file
@@ -141,6 +141,32 @@ public class BoundWithStorageTest extends TestBaseWithInventoryUtil {
     performSecondUpdateAndVerify(item.getId(), holdingsRecord4.getId());
   }
 
+  @Test
+  public void canPublishEventsOfPartsCreatedAndDeletedBySetOfParts() {
+    IndividualResource instance1 = createInstance("Instance 1");
+    IndividualResource holdingsRecord1 = createHoldingsRecord(instance1.getId());
+    IndividualResource item = createItem(holdingsRecord1.getId());
+    IndividualResource instance2 = createInstance("Instance 2");
+    IndividualResource holdingsRecord2 = createHoldingsRecord(instance2.getId());
+    IndividualResource instance3 = createInstance("Instance 3");
+    IndividualResource holdingsRecord3 = createHoldingsRecord(instance3.getId());
+
+    createInitialBoundWithAndVerifyParts(item.getId(), holdingsRecord2.getId(), 2);
+    JsonObject mainPart = getPart(item.getId(), holdingsRecord1.getId());
+    JsonObject part2 = getPart(item.getId(), holdingsRecord2.getId());
+    boundWithEventMessageChecks.createdMessagePublished(mainPart, instance1.getId().toString());
+    boundWithEventMessageChecks.createdMessagePublished(part2, instance2.getId().toString());
+
+    Response response = putCompositeBoundWith(createBoundWithCompositeJson(item.getId(),
+      Collections.singletonList(holdingsRecord3.getId())));
+    assertThat(response.getStatusCode(), is(204));
+
+    assertThat(getPart(item.getId(), holdingsRecord1.getId()).getString("id"), is(mainPart.getString("id")));
+    boundWithEventMessageChecks.createdMessagePublished(getPart(item.getId(), holdingsRecord3.getId()),
+      instance3.getId().toString());
+    boundWithEventMessageChecks.deletedMessagePublished(part2, instance2.getId().toString());
+  }
+
   @Test
   public void canDeleteAllPartsOfBoundWithByEmptyContentsList() {
     IndividualResource instance1 = createInstance("Instance 1");
@@ -296,6 +322,14 @@ public class BoundWithStorageTest extends TestBaseWithInventoryUtil {
     return boundWithPartsClient.create(createBoundWithPartJson(holdingsRecordId, itemId));
   }
 
+  private JsonObject getPart(UUID itemId, UUID holdingsRecordId) {
+    List<JsonObject> parts = boundWithPartsClient.getByQuery("?query=itemId==" + itemId).stream()
+      .filter(part -> holdingsRecordId.toString().equals(part.getString("holdingsRecordId")))
+      .toList();
+    assertThat(parts.size(), is(1));
+    return parts.get(0);
+  }
+
   private void verifyInitialBoundWithParts(UUID itemId, UUID holdingsRecord2Id) {
     List<JsonObject> getAllPartsForBoundWithItem = boundWithPartsClient.getByQuery("?query=itemId==" + itemId);
     List<JsonObject> part2 = boundWithPartsClient.getByQuery("?query=holdingsRecordId==" + holdingsRecord2Id);
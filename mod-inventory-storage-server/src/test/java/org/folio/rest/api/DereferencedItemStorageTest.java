@@ -6,6 +6,7 @@ import static org.folio.rest.support.http.InterfaceUrls.dereferencedItemStorage;
 import static org.folio.rest.support.http.InterfaceUrls.holdingsStorageUrl;
 import static org.folio.rest.support.http.InterfaceUrls.instancesStorageUrl;
 import static org.folio.rest.support.http.InterfaceUrls.itemsStorageUrl;
+import static org.folio.rest.support.http.InterfaceUrls.materialTypesStorageUrl;
 import static org.folio.util.StringUtil.urlEncode;
 import static org.folio.utility.ModuleUtility.getClient;
 import static org.folio.utility.RestUtility.TENANT_ID;
@@ -22,6 +23,7 @@ import org.folio.rest.jaxrs.model.DereferencedItem;
 import org.folio.rest.jaxrs.model.DereferencedItems;
 import org.folio.rest.support.Response;
 import org.folio.rest.support.ResponseHandler;
+import org.folio.rest.support.client.MaterialTypesClient;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -162,6 +164,22 @@ public class DereferencedItemStorageTest extends TestBaseWithInventoryUtil {
     testUprooted(findById(UPROOTED_ID.toString()));
   }
 
+  @Test
+  public void canGetRecordWithMaterialTypeCreatedAfterReferenceDataIsCached() {
+    getAll();
+    var materialTypeId = new MaterialTypesClient(getClient(), materialTypesStorageUrl(""))
+      .create("dereferenced-dvd");
+    var itemId = UUID.randomUUID();
+    var holdingsRecordId = UUID.fromString(findById(SMALL_ANGRY_PLANET_ID.toString()).getHoldingsRecord().getId());
+    postItem(createItemRequest(itemId, holdingsRecordId, "778899001122", materialTypeId, false));
+
+    try {
+      assertThat(findById(itemId.toString()).getMaterialType().getName(), is("dereferenced-dvd"));
+    } finally {
+      itemsClient.delete(itemId);
+    }
+  }
+
   @Test
   public void returns404WhenNoItemFoundForId() {
     String id = UUID.randomUUID().toString();
@@ -1,28 +1,52 @@
 package org.folio.rest.api;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.folio.okapi.common.XOkapiHeaders.TENANT;
 import static org.folio.rest.support.ResponseHandler.json;
 import static org.folio.rest.support.ResponseHandler.text;
 import static org.folio.rest.support.http.InterfaceUrls.instanceSetUrl;
 import static org.folio.utility.ModuleUtility.getClient;
+import static org.folio.utility.ModuleUtility.getVertx;
+import static org.folio.utility.ModuleUtility.okapiUrl;
 import static org.folio.utility.RestUtility.TENANT_ID;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.mock;
 
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import java.net.URL;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import junitparams.JUnitParamsRunner;
 import lombok.SneakyThrows;
+import org.apache.commons.collections4.map.CaseInsensitiveMap;
+import org.folio.okapi.common.XOkapiHeaders;
+import org.folio.rest.jaxrs.model.HoldingsRecord;
+import org.folio.rest.jaxrs.model.Item;
 import org.folio.rest.support.Response;
 import org.folio.rest.support.builders.HoldingRequestBuilder;
 import org.folio.rest.support.builders.ItemRequestBuilder;
+import org.folio.services.caches.ConsortiumDataCache;
+import org.folio.services.caches.InstanceTreeCache;
+import org.folio.services.holding.HoldingsService;
+import org.folio.services.instance.InstanceService;
+import org.folio.services.item.ItemService;
 import org.folio.util.PercentCodec;
+import org.junit.After;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -43,6 +67,11 @@ public class InstanceSetTest extends TestBaseWithInventoryUtil {
   private static final UUID ITEM_ID_611 = UUID.fromString("61100000-0000-4000-8000-000000000000");
   private static final UUID ITEM_ID_612 = UUID.fromString("61200000-0000-4000-8000-000000000000");
   private static final UUID ITEM_ID_621 = UUID.fromString("62100000-0000-4000-8000-000000000000");
+  private static final String INSTANCE_TREE_CACHE_ENABLED_PARAM = "cache.instance-tree.enabled";
+  private static final String INSTANCE_TREES_QUERY = "id==" + INSTANCE_ID_1 + " OR id==" + INSTANCE_ID_6 + " sortBy id";
+
+  private Context cacheContext;
+  private InstanceTreeCache instanceTreeCache;
 
   @BeforeClass
   public static void beforeClass() {
@@ -219,6 +248,106 @@ public class InstanceSetTest extends TestBaseWithInventoryUtil {
     assertThat(ids, containsInAnyOrder(INSTANCE_ID_3, INSTANCE_ID_5));
   }
 
+  @After
+  public void removeInstanceTreeCache() {
+    if (cacheContext != null) {
+      cacheContext.remove(InstanceTreeCache.class.getName());
+    }
+  }
+
+  @Test
+  public void cachedInstanceTreesMatchInstanceSet() {
+    enableInstanceTreeCache();
+
+    var loaded = getCachedInstanceSets(INSTANCE_TREES_QUERY);
+    assertThat(instanceTreeCache.getAll(TENANT_ID, List.of(INSTANCE_ID_1.toString(), INSTANCE_ID_6.toString())),
+      aMapWithSize(2));
+    var cached = getCachedInstanceSets(INSTANCE_TREES_QUERY);
+
+    var expected = getInstanceSets(INSTANCE_TREES_QUERY, "&holdingsRecords=true&items=true", 10, 0);
+    assertInstanceSets(loaded, expected);
+    assertInstanceSets(cached, expected);
+  }
+
+  @Test
+  public void holdingsAndItemWritesDropCachedInstanceTree() {
+    enableInstanceTreeCache();
+
+    getCachedInstanceSets(INSTANCE_TREES_QUERY);
+    var holdings = holdingsClient.getById(HOLDING_ID_62).getJson().mapTo(HoldingsRecord.class);
+    onCacheContext(() -> new HoldingsService(cacheContext, okapiHeaders())
+      .updateHoldingRecord(HOLDING_ID_62.toString(), holdings.withCopyNumber("cached-holdings")));
+    assertInstanceTreeDropped();
+
+    getCachedInstanceSets(INSTANCE_TREES_QUERY);
+    var item = itemsClient.getById(ITEM_ID_612).getJson().mapTo(Item.class);
+    onCacheContext(() -> new ItemService(cacheContext, okapiHeaders())
+      .updateItem(ITEM_ID_612.toString(), item.withCopyNumber("cached-item")));
+    assertInstanceTreeDropped();
+
+    getCachedInstanceSets(INSTANCE_TREES_QUERY);
+    var upsertedItem = itemsClient.getById(ITEM_ID_621).getJson().mapTo(Item.class);
+    onCacheContext(() -> new ItemService(cacheContext, okapiHeaders())
+      .createItems(List.of(upsertedItem.withCopyNumber("upserted-item")), true, false));
+    assertInstanceTreeDropped();
+
+    var expected = getInstanceSets(INSTANCE_TREES_QUERY, "&holdingsRecords=true&items=true", 10, 0);
+    assertInstanceSets(getCachedInstanceSets(INSTANCE_TREES_QUERY), expected);
+  }
+
+  private void enableInstanceTreeCache() {
+    System.setProperty(INSTANCE_TREE_CACHE_ENABLED_PARAM, "true");
+    try {
+      instanceTreeCache = new InstanceTreeCache(mock(Vertx.class));
+    } finally {
+      System.clearProperty(INSTANCE_TREE_CACHE_ENABLED_PARAM);
+    }
+    cacheContext = getVertx().getOrCreateContext();
+    var httpClient = getVertx().createHttpClient();
+    cacheContext.put(HttpClient.class.getName(), httpClient);
+    cacheContext.put(ConsortiumDataCache.class.getName(), new ConsortiumDataCache(getVertx(), httpClient));
+    cacheContext.put(InstanceTreeCache.class.getName(), instanceTreeCache);
+  }
+
+  private void assertInstanceTreeDropped() {
+    var trees = instanceTreeCache.getAll(TENANT_ID, List.of(INSTANCE_ID_1.toString(), INSTANCE_ID_6.toString()));
+    assertThat(trees, not(hasKey(INSTANCE_ID_6.toString())));
+    assertThat(trees, hasKey(INSTANCE_ID_1.toString()));
+  }
+
+  private static void assertInstanceSets(JsonArray actual, JsonArray expected) {
+    assertThat(ids(actual), is(ids(expected)));
+    for (int i = 0; i < expected.size(); i++) {
+      var actualSet = actual.getJsonObject(i);
+      var expectedSet = expected.getJsonObject(i);
+      assertThat(actualSet.fieldNames(), containsInAnyOrder("id", "instance", "holdingsRecords", "items"));
+      assertThat(actualSet.getJsonObject("instance"), is(expectedSet.getJsonObject("instance")));
+      assertThat(actualSet.getJsonArray("holdingsRecords").getList(),
+        containsInAnyOrder(expectedSet.getJsonArray("holdingsRecords").getList().toArray()));
+      assertThat(actualSet.getJsonArray("items").getList(),
+        containsInAnyOrder(expectedSet.getJsonArray("items").getList().toArray()));
+    }
+  }
+
+  private JsonArray getCachedInstanceSets(String cql) {
+    var response = onCacheContext(() -> new InstanceService(cacheContext, okapiHeaders())
+      .getInstanceSet(true, true, true, false, false, false, false, 0, 10, cql));
+    assertThat(response.getStatus(), is(200));
+    return new JsonObject(response.getEntity().toString()).getJsonArray("instanceSets");
+  }
+
+  @SneakyThrows
+  private <T> T onCacheContext(Supplier<Future<T>> action) {
+    Promise<T> promise = Promise.promise();
+    cacheContext.runOnContext(v -> action.get().onComplete(promise));
+    return promise.future().toCompletionStage().toCompletableFuture().get(10, SECONDS);
+  }
+
+  private static Map<String, String> okapiHeaders() {
+    return new CaseInsensitiveMap<>(Map.of(TENANT.toLowerCase(), TENANT_ID, XOkapiHeaders.URL.toLowerCase(),
+      okapiUrl().toString()));
+  }
+
   private JsonArray getInstanceSets(String cql) {
     return getInstanceSets(cql, "", 10, 0);
   }
@@ -244,7 +373,7 @@ public class InstanceSetTest extends TestBaseWithInventoryUtil {
     return sets.getJsonObject(0);
   }
 
-  private List<UUID> ids(JsonArray sets) {
+  private static List<UUID> ids(JsonArray sets) {
     return sets
       .stream()
       .map(o -> ((JsonObject) o).getString("id"))
@@ -109,6 +109,7 @@ public class InstanceStorageInstancesBulkApiTest extends TestBaseWithInventoryUt
 
     // then
     assertThat(bulkResponse.getErrorsNumber(), is(1));
+    assertThat(bulkResponse.getRecordsNumber(), is(instancesIds.size()));
     assertThat(bulkResponse.getErrorRecordsFileName(), is(expectedErrorRecordsFileName));
     assertThat(bulkResponse.getErrorsFileName(), is(expectedErrorsFileName));
 
@@ -181,6 +182,8 @@ public class InstanceStorageInstancesBulkApiTest extends TestBaseWithInventoryUt
 
     // then
     assertThat(bulkResponse.getErrorsNumber(), is(0));
+    assertThat(bulkResponse.getRecordsNumber(), is(instancesIds.size()));
+    assertThat(bulkResponse.getChunksNumber(), is(1));
     assertThat(bulkResponse.getErrorRecordsFileName(), nullValue());
     assertThat(bulkResponse.getErrorsFileName(), nullValue());
 
@@ -910,6 +910,49 @@ public class InstanceStorageTest extends TestBaseWithInventoryUtil {
     assertThat(secondPage.getInteger(TOTAL_RECORDS_KEY), is(5));
   }
 
+  @Test
+  public void canPageAllInstancesByCursor() throws InterruptedException, ExecutionException, TimeoutException {
+    var ids = new ArrayList<String>();
+    for (var instance : List.of(smallAngryPlanet(UUID.randomUUID()), nod(UUID.randomUUID()),
+      uprooted(UUID.randomUUID()), temeraire(UUID.randomUUID()), interestingTimes(UUID.randomUUID()))) {
+      createInstance(instance);
+      ids.add(instance.getString("id"));
+    }
+    ids.sort(null);
+
+    var pagedIds = new ArrayList<String>();
+    var cursor = "*";
+    var pages = 0;
+    while (cursor != null) {
+      CompletableFuture<Response> pageCompleted = new CompletableFuture<>();
+      getClient().get(instancesStorageUrl("") + "?limit=2&cursor=" + cursor, TENANT_ID, json(pageCompleted));
+      Response pageResponse = pageCompleted.get(10, SECONDS);
+
+      assertThat(pageResponse.getStatusCode(), is(200));
+      JsonObject page = pageResponse.getJson();
+      assertThat(page.getInteger(TOTAL_RECORDS_KEY), nullValue());
+      page.getJsonArray(INSTANCES_KEY).stream()
+        .map(instance -> ((JsonObject) instance).getString("id"))
+        .forEach(pagedIds::add);
+      cursor = page.getString("nextCursor");
+      pages++;
+    }
+
+    assertThat(pagedIds, is(ids));
+    assertThat(pages, is(3));
+  }
+
+  @Test
+  public void cannotPageInstancesByCursorWithSortBy()
+    throws InterruptedException, ExecutionException, TimeoutException {
+
+    CompletableFuture<Response> pageCompleted = new CompletableFuture<>();
+    getClient().get(instancesStorageUrl("") + "?cursor=*&query=" + urlEncode("cql.allRecords=1 sortBy title"),
+      TENANT_ID, text(pageCompleted));
+
+    assertThat(pageCompleted.get(10, SECONDS).getStatusCode(), is(400));
+  }
+
   @Test
   public void canProvideLargePageOffsetAndLimit()
     throws InterruptedException, ExecutionException, TimeoutException {
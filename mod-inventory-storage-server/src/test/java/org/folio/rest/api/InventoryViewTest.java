@@ -2,20 +2,29 @@ package org.folio.rest.api;
 
 import static java.util.UUID.randomUUID;
 import static org.folio.rest.api.ItemStorageTest.nodWithNoBarcode;
+import static org.folio.rest.support.ResponseHandler.json;
+import static org.folio.rest.support.ResponseHandler.text;
+import static org.folio.rest.support.http.InterfaceUrls.inventoryViewInstances;
+import static org.folio.utility.ModuleUtility.getClient;
+import static org.folio.utility.RestUtility.TENANT_ID;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.assertTrue;
 
 import io.vertx.core.json.JsonObject;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import org.folio.rest.jaxrs.model.HoldingsRecord;
 import org.folio.rest.jaxrs.model.InstanceView;
 import org.folio.rest.jaxrs.model.Item;
 import org.folio.rest.support.IndividualResource;
+import org.folio.rest.support.Response;
 import org.folio.util.StringUtil;
 import org.hamcrest.Matcher;
 import org.hamcrest.Matchers;
@@ -258,6 +267,36 @@ public class InventoryViewTest extends TestBaseWithInventoryUtil {
     }
   }
 
+  @Test
+  public void shouldStreamTotalsAndOmitNullFields_whenWithBoundedItemsTrue() {
+    var instanceOne = instancesClient.create(instance(randomUUID()));
+    var instanceTwo = instancesClient.create(instance(randomUUID()));
+
+    var getCompleted = new CompletableFuture<Response>();
+    getClient().get(inventoryViewInstances(getQueryWithBoundedItems(instanceOne, instanceTwo, "id==(%s or %s)")),
+      TENANT_ID, json(getCompleted));
+    var response = get(getCompleted);
+
+    assertThat(response.getStatusCode(), is(200));
+    var body = response.getJson();
+    assertThat(body.getInteger("totalRecords"), is(2));
+    assertThat(body.getJsonObject("resultInfo").getInteger("totalRecords"), is(2));
+    for (var instance : body.getJsonArray("instances")) {
+      var fields = ((JsonObject) instance).getMap();
+      assertThat(fields.containsValue(null), is(false));
+      assertThat(fields, not(hasKey("items")));
+    }
+  }
+
+  @Test
+  public void shouldReturnBadRequestForInvalidQuery_whenWithBoundedItemsTrue() {
+    var getCompleted = new CompletableFuture<Response>();
+    getClient().get(inventoryViewInstances("?withBoundedItems=true&query=" + StringUtil.urlEncode("id==")),
+      TENANT_ID, text(getCompleted));
+
+    assertThat(get(getCompleted).getStatusCode(), is(400));
+  }
+
   private List<UUID> getHoldingIds(InstanceView instance) {
     return instance.getHoldingsRecords().stream()
       .map(HoldingsRecord::getId)
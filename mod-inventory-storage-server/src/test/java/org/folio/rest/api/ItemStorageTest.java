@@ -585,6 +585,31 @@ public class ItemStorageTest extends TestBaseWithInventoryUtil {
     itemMessageChecks.updatedMessagePublished(item, updatedItem);
   }
 
+  @Test
+  public void shouldSkipUnchangedItemsOfSynchronousBatchUpsert() {
+    var response = updateSettingByKey(INVENTORY_OPTIMIZE_UPDATES_ENABLED.getValue(), true);
+    assertThat(response.getStatusCode(), is(HttpURLConnection.HTTP_NO_CONTENT));
+    try {
+      var holdingId = createInstanceAndHolding(MAIN_LIBRARY_LOCATION_ID);
+      var unchangedItemId = randomUUID();
+      var changedItemId = randomUUID();
+      var unchangedItem = createItem(nod(unchangedItemId, holdingId));
+      var itemBeforeChange = createItem(nod(changedItemId, holdingId));
+      var changedItem = itemBeforeChange.copy().put("barcode", "changed-barcode");
+      itemMessageChecks.createdMessagePublished(changedItemId.toString());
+
+      var postResponse = postSynchronousBatch("?upsert=true", new JsonArray().add(unchangedItem).add(changedItem));
+
+      assertThat(postResponse, statusCodeIs(HTTP_CREATED));
+      assertThat(getById(unchangedItemId).getJson().getString("_version"), is("1"));
+      assertThat(getById(changedItemId).getJson().getString("_version"), is("2"));
+      itemMessageChecks.updatedMessagePublished(itemBeforeChange, getById(changedItemId).getJson());
+      assertThat(KAFKA_CONSUMER.getMessagesForItem(unchangedItemId.toString()).size(), is(1));
+    } finally {
+      updateSettingByKey(INVENTORY_OPTIMIZE_UPDATES_ENABLED.getValue(), false);
+    }
+  }
+
   @Test
   public void shouldCreateAnItemWithoutProvidingId() throws InterruptedException, ExecutionException, TimeoutException {
     UUID holdingsRecordId = createInstanceAndHolding(MAIN_LIBRARY_LOCATION_ID);
@@ -2793,6 +2818,48 @@ public class ItemStorageTest extends TestBaseWithInventoryUtil {
     }
   }
 
+  @Test
+  public void shouldAllocateOrdersForBatchCreatedItemsAfterExistingItems() {
+    var holdingsRecordId = createInstanceAndHolding(MAIN_LIBRARY_LOCATION_ID);
+    var existingId = randomUUID();
+    var ids = List.of(randomUUID(), randomUUID(), randomUUID());
+    saveItemAndExpectJson(minimalItem(existingId, holdingsRecordId));
+
+    var items = new JsonArray()
+      .add(minimalItem(ids.get(0), holdingsRecordId))
+      .add(minimalItem(ids.get(1), holdingsRecordId).put(ORDER_FIELD, 10))
+      .add(minimalItem(ids.get(2), holdingsRecordId));
+    var response = itemsStorageSyncClient.attemptToCreate(new JsonObject().put("items", items));
+
+    assertThat(response.getStatusCode(), is(HttpURLConnection.HTTP_CREATED));
+    assertEquals(1, getOrder(existingId));
+    assertEquals(2, getOrder(ids.get(0)));
+    assertEquals(10, getOrder(ids.get(1)));
+    assertEquals(3, getOrder(ids.get(2)));
+    assertEquals(10, getMaxOrder(holdingsRecordId));
+    assertThat(saveItemAndExpectJson(minimalItem(holdingsRecordId)).getJson().getInteger(ORDER_FIELD), is(11));
+  }
+
+  @Test
+  public void shouldRestartOrdersOfBatchCreatedItemsWhenAllItemsAreDeleted() {
+    var holdingsRecordId = createInstanceAndHolding(MAIN_LIBRARY_LOCATION_ID);
+    saveItemAndExpectJson(minimalItem(holdingsRecordId));
+    saveItemAndExpectJson(minimalItem(holdingsRecordId));
+    deleteAllItemsForHolding(holdingsRecordId);
+
+    var ids = List.of(randomUUID(), randomUUID());
+    var items = new JsonArray()
+      .add(minimalItem(ids.get(0), holdingsRecordId))
+      .add(minimalItem(ids.get(1), holdingsRecordId));
+    var response = itemsStorageSyncClient.attemptToCreate(new JsonObject().put("items", items));
+
+    assertThat(response.getStatusCode(), is(HttpURLConnection.HTTP_CREATED));
+    assertEquals(1, getOrder(ids.get(0)));
+    assertEquals(2, getOrder(ids.get(1)));
+    assertEquals(2, getMaxOrder(holdingsRecordId));
+    assertThat(saveItemAndExpectJson(minimalItem(holdingsRecordId)).getJson().getInteger(ORDER_FIELD), is(3));
+  }
+
   @Test
   public void cannotCreateItemWithNonExistentHoldingsRecordId() {
     final UUID nonExistentHoldingsRecordId = randomUUID();
@@ -2826,6 +2893,26 @@ public class ItemStorageTest extends TestBaseWithInventoryUtil {
       nonExistentHoldingsRecordId));
   }
 
+  @Test
+  public void shouldNotTrackOrderOfNonExistentHoldingsRecordWhenBatchCreateFails() {
+    var nonExistentHoldingsRecordId = randomUUID();
+    // the holdings record isn't read for the effective values if the item has them all
+    var item = minimalItem(nonExistentHoldingsRecordId)
+      .put("itemLevelCallNumber", "PR6056.I4588")
+      .put("itemLevelCallNumberPrefix", "prefix")
+      .put("itemLevelCallNumberSuffix", "suffix")
+      .put("itemLevelCallNumberTypeId", LC_CN_TYPE_ID)
+      .put("permanentLocationId", MAIN_LIBRARY_LOCATION_ID.toString());
+
+    var response = itemsStorageSyncClient.attemptToCreate(new JsonObject().put("items", new JsonArray().add(item)));
+
+    assertThat(response.getStatusCode(), not(is(HttpURLConnection.HTTP_CREATED)));
+    var trackers = runSql(String.format(
+      "SELECT max_order FROM %s_mod_inventory_storage.item_order_tracker WHERE holdings_id = '%s';",
+      TENANT_ID, nonExistentHoldingsRecordId));
+    assertEquals(0, trackers.rowCount());
+  }
+
   @Test
   public void shouldSearchByDiscoverySuppressProperty() {
     final UUID holdingsId = createInstanceAndHolding(MAIN_LIBRARY_LOCATION_ID);
@@ -8,7 +8,6 @@ import static org.folio.rest.api.TestBase.get;
 import static org.folio.rest.jaxrs.model.IterationJob.JobStatus.CANCELLED;
 import static org.folio.rest.jaxrs.model.IterationJob.JobStatus.COMPLETED;
 import static org.folio.rest.jaxrs.model.IterationJob.JobStatus.IN_PROGRESS;
-import static org.folio.rest.persist.PgUtil.postgresClient;
 import static org.folio.utility.ModuleUtility.getClient;
 import static org.folio.utility.ModuleUtility.getVertx;
 import static org.folio.utility.RestUtility.TENANT_ID;
@@ -17,11 +16,14 @@ import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import io.vertx.core.Context;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import lombok.SneakyThrows;
@@ -32,7 +34,6 @@ import org.folio.rest.jaxrs.model.IterationJob;
 import org.folio.rest.jaxrs.model.IterationJobParams;
 import org.folio.rest.support.fixtures.InstanceIterationFixture;
 import org.folio.rest.support.messages.InstanceEventMessageChecks;
-import org.folio.rest.support.sql.TestRowStream;
 import org.folio.services.iteration.IterationJobRunner;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -65,9 +66,7 @@ public class IterationJobRunnerTest {
     jobRepository = new IterationJobRepository(getContext(), okapiHeaders());
     instanceRepository = mock(InstanceRepository.class);
 
-    var postgresClient = postgresClient(getContext(), okapiHeaders());
-    jobRunner = new IterationJobRunner(postgresClient,
-      jobRepository, instanceRepository, getContext(), okapiHeaders());
+    jobRunner = new IterationJobRunner(jobRepository, instanceRepository, getContext(), okapiHeaders());
 
     KAFKA_CONSUMER.discardAllMessages();
   }
@@ -75,11 +74,9 @@ public class IterationJobRunnerTest {
   @Test
   public void canIterateInstances() {
     var numberOfRecords = 1100;
-    var rowStream = new TestRowStream(numberOfRecords);
     var iterationJob = iterationJob();
 
-    when(instanceRepository.getAllIds(any()))
-      .thenReturn(succeededFuture(rowStream));
+    mockInstanceIds(numberOfRecords);
 
     get(jobRepository.save(iterationJob.getId(), iterationJob));
 
@@ -101,11 +98,9 @@ public class IterationJobRunnerTest {
 
   @Test
   public void canCancelIteration() {
-    var rowStream = new TestRowStream(10_000_000);
     var iterationJob = iterationJob();
 
-    when(instanceRepository.getAllIds(any()))
-      .thenReturn(succeededFuture(rowStream));
+    mockInstanceIds(10_000_000);
 
     get(jobRepository.save(iterationJob.getId(), iterationJob));
 
@@ -125,6 +120,52 @@ public class IterationJobRunnerTest {
     assertThat(job.getMessagesPublished(), greaterThanOrEqualTo(1000));
   }
 
+  @Test
+  public void canResumeIterationFromCheckpoint() {
+    var numberOfRecords = 2500;
+    var iterationJob = iterationJob()
+      .withLastId(instanceId(1000).toString())
+      .withMessagesPublished(1000);
+
+    mockInstanceIds(numberOfRecords);
+
+    get(jobRepository.save(iterationJob.getId(), iterationJob));
+
+    jobRunner.startIteration(iterationJob);
+
+    await().until(() -> instanceIteration.getIterationJob(iterationJob.getId())
+                          .getJobStatus() == COMPLETED);
+
+    var job = instanceIteration.getIterationJob(iterationJob.getId());
+
+    assertThat(job.getMessagesPublished(), is(numberOfRecords));
+    assertThat(job.getLastId(), is(instanceId(numberOfRecords).toString()));
+    assertThat(job.getCheckpointDate(), notNullValue());
+  }
+
+  /**
+   * Mocks the instance table with ids from 1 to {@code numberOfRecords} in ascending order.
+   */
+  private void mockInstanceIds(int numberOfRecords) {
+    when(instanceRepository.getIdsAfter(any(), anyInt()))
+      .thenAnswer(invocation -> {
+        String lastId = invocation.getArgument(0);
+        int limit = invocation.getArgument(1);
+        var from = lastId == null ? 1 : UUID.fromString(lastId).getLeastSignificantBits() + 1;
+        var to = Math.min(from + limit - 1, numberOfRecords);
+
+        List<String> ids = new ArrayList<>();
+        for (var i = from; i <= to; i++) {
+          ids.add(instanceId(i).toString());
+        }
+        return succeededFuture(ids);
+      });
+  }
+
+  private static UUID instanceId(long number) {
+    return new UUID(0, number);
+  }
+
   private static IterationJob iterationJob() {
     return new IterationJob()
       .withId(UUID.randomUUID().toString())
@@ -17,14 +17,17 @@ import static org.junit.Assert.assertTrue;
 
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.sqlclient.Tuple;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import lombok.SneakyThrows;
+import org.folio.persist.InstanceChangeLogRepository;
 import org.folio.rest.persist.PostgresClient;
 import org.folio.rest.support.PostgresClientFactory;
 import org.folio.rest.support.builders.BoundWithPartBuilder;
@@ -227,6 +230,49 @@ public class OaiPmhTriggersTest extends TestBaseWithInventoryUtil {
     verifyCompleteUpdatedDate(dateBeforeDeletingItem);
   }
 
+  @SneakyThrows
+  @Test
+  public void changeLogTest() {
+    var holdingId = createInstanceAndHolding(MAIN_LIBRARY_LOCATION_ID);
+    createItem(journalMaterialTypeId, holdingId);
+    var instanceId = holdingsClient.getById(holdingId).getJson().getString("instanceId");
+    deleteAll(itemsStorageUrl(""));
+    deleteAll(holdingsStorageUrl(""));
+    deleteAll(instancesStorageUrl(""));
+
+    var rows = postgresClient.execute("SELECT deleted FROM " + TENANT_ID
+        + "_mod_inventory_storage.instance_change_log WHERE instance_id = $1", Tuple.of(UUID.fromString(instanceId)))
+      .toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    var deleted = new ArrayList<Boolean>();
+    rows.forEach(row -> deleted.add(row.getBoolean(0)));
+
+    assertTrue(deleted.contains(false));
+    assertTrue(deleted.contains(true));
+  }
+
+  @SneakyThrows
+  @Test
+  public void purgeChangeLogTest() {
+    var instanceId = UUID.randomUUID();
+    var schema = TENANT_ID + "_mod_inventory_storage";
+    postgresClient.execute("INSERT INTO " + schema + ".instance_change_log (changed_at, instance_id) "
+        + "VALUES (now() - interval '40 days', $1)", Tuple.of(instanceId))
+      .toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+    var purged = new InstanceChangeLogRepository(postgresClient).purgeOlderThan(30)
+      .toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+    var remaining = postgresClient.execute("SELECT count(*) FROM " + schema + ".instance_change_log "
+        + "WHERE instance_id = $1", Tuple.of(instanceId))
+      .toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    var covered = postgresClient.execute("SELECT bool_and(covered_since >= now() - interval '30 days') FROM "
+        + schema + ".instance_change_log_state")
+      .toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    assertTrue(purged >= 1);
+    assertEquals(0L, (long) remaining.iterator().next().getLong(0));
+    assertTrue(covered.iterator().next().getBoolean(0));
+  }
+
   private void updateTable(String table, CompletableFuture<Void> future) {
     postgresClient.execute("UPDATE " + TENANT_ID + "_mod_inventory_storage." + table + " SET created_by = 'some user'")
       .onComplete(handler -> future.complete(null));
@@ -21,9 +21,11 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.DecodeException;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.parsetools.JsonParser;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
 import io.vertx.sqlclient.Row;
 import java.time.LocalDateTime;
@@ -48,6 +50,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.folio.rest.jaxrs.model.OaiPmhInstanceIds;
 import org.folio.rest.persist.PostgresClient;
+import org.folio.rest.support.HarvestResumptionToken;
 import org.folio.rest.support.PostgresClientFactory;
 import org.folio.rest.support.Response;
 import org.folio.rest.support.ResponseHandler;
@@ -125,6 +128,51 @@ public class OaiPmhViewTest extends TestBaseWithInventoryUtil {
     assertThat(instancesData.size(), is(0));
   }
 
+  @Test
+  public void canHarvestOaiPmhViewInPartitions() throws InterruptedException, ExecutionException, TimeoutException {
+    createInstances(6);
+    var expectedIds = getInstanceIds(requestOaiPmhViewRecords(params, 200));
+    expectedIds.sort(null);
+
+    params.put("partitions", "4");
+    var records = requestOaiPmhViewRecords(params, 200);
+
+    assertThat(getInstanceIds(records), is(expectedIds));
+    assertThat(getResumptionTokens(records), is(List.of(
+      new HarvestResumptionToken(4, 1).encode(),
+      new HarvestResumptionToken(4, 2).encode(),
+      new HarvestResumptionToken(4, 3).encode())));
+  }
+
+  @Test
+  public void canResumePartitionedOaiPmhViewHarvest()
+    throws InterruptedException, ExecutionException, TimeoutException {
+    createInstances(6);
+    var secondHalf = "80000000-0000-0000-0000-000000000000";
+    var expectedIds = getInstanceIds(requestOaiPmhViewRecords(params, 200)).stream()
+      .filter(id -> id.compareTo(secondHalf) >= 0)
+      .sorted()
+      .toList();
+
+    params.put("resumptionToken", new HarvestResumptionToken(4, 2).encode());
+    var records = requestOaiPmhViewRecords(params, 200);
+
+    assertThat(getInstanceIds(records), is(expectedIds));
+    assertThat(getResumptionTokens(records), is(List.of(new HarvestResumptionToken(4, 3).encode())));
+  }
+
+  @Test
+  public void cannotHarvestOaiPmhViewWithInvalidPartition()
+    throws InterruptedException, ExecutionException, TimeoutException {
+    params.put("partitions", "2");
+    params.put("partition", "2");
+    requestOaiPmhViewRecords(params, 400);
+
+    params.clear();
+    params.put("resumptionToken", "invalid");
+    requestOaiPmhViewRecords(params, 400);
+  }
+
   @Test
   public void testDeletedRecordSupport() throws InterruptedException, TimeoutException, ExecutionException {
     // given
@@ -415,6 +463,50 @@ public class OaiPmhViewTest extends TestBaseWithInventoryUtil {
     return results;
   }
 
+  private List<JsonObject> requestOaiPmhViewRecords(Map<String, String> params, int expectedStatus)
+    throws InterruptedException, ExecutionException, TimeoutException {
+
+    final String queryParams = params.entrySet()
+      .stream()
+      .map(e -> e.getKey() + "=" + e.getValue())
+      .collect(Collectors.joining("&"));
+
+    CompletableFuture<Response> future = new CompletableFuture<>();
+    getClient().get(oaiPmhView("?" + queryParams), TENANT_ID, ResponseHandler.any(future));
+
+    final Response response = future.get(TIMEOUT, TimeUnit.SECONDS);
+    assertThat(response.getBody(), response.getStatusCode(), is(expectedStatus));
+
+    final List<JsonObject> records = new ArrayList<>();
+    if (expectedStatus == 200) {
+      var parser = JsonParser.newParser().objectValueMode()
+        .handler(event -> records.add(event.objectValue()));
+      parser.handle(Buffer.buffer(response.getBody()));
+      parser.end();
+    }
+    return records;
+  }
+
+  private static List<String> getInstanceIds(List<JsonObject> records) {
+    return records.stream()
+      .filter(json -> json.containsKey("instanceid"))
+      .map(json -> json.getString("instanceid"))
+      .collect(Collectors.toList());
+  }
+
+  private static List<String> getResumptionTokens(List<JsonObject> records) {
+    return records.stream()
+      .filter(json -> json.containsKey("resumptionToken"))
+      .map(json -> json.getString("resumptionToken"))
+      .toList();
+  }
+
+  private void createInstances(int count) {
+    for (int i = 0; i < count; i++) {
+      instancesClient.create(instance(UUID.randomUUID()));
+    }
+  }
+
   private List<JsonObject> requestOaiPmhViewEnrichedInstance(UUID[] instanceIds,
                                                              boolean skipSuppressedFromDiscoveryRecords,
                                                              Handler<Response> responseMatcher)
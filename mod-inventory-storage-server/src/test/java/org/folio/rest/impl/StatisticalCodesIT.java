@@ -2,6 +2,7 @@ package org.folio.rest.impl;
 
 import static org.folio.HttpStatus.HTTP_BAD_REQUEST;
 import static org.folio.HttpStatus.HTTP_CREATED;
+import static org.folio.HttpStatus.HTTP_NO_CONTENT;
 import static org.folio.HttpStatus.HTTP_UNPROCESSABLE_ENTITY;
 import static org.folio.persist.InstanceRepository.INSTANCE_TABLE;
 import static org.folio.rest.api.entities.Instance.STATISTICAL_CODE_IDS_KEY;
@@ -12,7 +13,9 @@ import static org.folio.utility.RestUtility.TENANT_ID;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
 import io.vertx.junit5.VertxTestContext;
 import java.util.List;
 import java.util.function.Function;
@@ -143,6 +146,36 @@ class StatisticalCodesIT extends BaseReferenceDataIntegrationTest<StatisticalCod
       );
   }
 
+  @Test
+  void delete_canDeleteRecordThatIsNoLongerAssociatedWithInstance(Vertx vertx, VertxTestContext ctx) {
+    var client = vertx.createHttpClient();
+    var postgresClient = PostgresClient.getInstance(vertx, TENANT_ID);
+
+    var removedCode = sampleRecord();
+    var keptCode = sampleRecord().withName("kept-type").withCode("kept-code");
+    var instanceType = new InstanceType().withName("code-type").withCode("it").withSource("sct");
+
+    Future.all(postgresClient.save(referenceTable(), removedCode), postgresClient.save(referenceTable(), keptCode),
+        postgresClient.save(INSTANCE_TYPE_TABLE, instanceType))
+      .compose(ids -> {
+        String removedCodeId = ids.resultAt(0);
+        String keptCodeId = ids.resultAt(1);
+        return doPost(client, "/instance-storage/instances",
+          new Instance("test-instance", "folio", ids.resultAt(2))
+            .put(STATISTICAL_CODE_IDS_KEY, List.of(removedCodeId, keptCodeId))
+            .getJson())
+          .compose(response -> {
+            var instance = response.jsonBody().put(STATISTICAL_CODE_IDS_KEY, new JsonArray().add(keptCodeId));
+            return doPut(client, "/instance-storage/instances/" + instance.getString("id"), instance);
+          })
+          .compose(response -> doDelete(client, resourceUrlById(removedCodeId)))
+          .onComplete(verifyStatus(ctx, HTTP_NO_CONTENT))
+          .compose(response -> doDelete(client, resourceUrlById(keptCodeId)))
+          .onComplete(verifyStatus(ctx, HTTP_BAD_REQUEST));
+      })
+      .onComplete(ctx.succeeding(response -> ctx.completeNow()));
+  }
+
   @Test
   void post_cannotCreateRecordWhenNameIsSameButInUpperCase(Vertx vertx, VertxTestContext ctx) {
     var client = vertx.createHttpClient();
@@ -0,0 +1,35 @@
+package org.folio.rest.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class HarvestResumptionTokenTest {
+
+  @Test
+  void encodeAndParse_keepsCompletedRanges() {
+    var token = HarvestResumptionToken.parse(new HarvestResumptionToken(8, 3).encode());
+
+    assertEquals(8, token.partitions());
+    assertEquals(3, token.completedRanges());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", "not-base64!", "e30",
+    "eyJwYXJ0aXRpb25zIjowLCJjb21wbGV0ZWRSYW5nZXMiOjB9",
+    "eyJwYXJ0aXRpb25zIjoyLCJjb21wbGV0ZWRSYW5nZXMiOjN9"})
+  void parse_rejectsInvalidToken(String token) {
+    assertThrows(IllegalArgumentException.class, () -> HarvestResumptionToken.parse(token));
+  }
+
+  @Test
+  void parse_rejectsTooManyPartitions() {
+    var token = new HarvestResumptionToken(HarvestResumptionToken.MAX_PARTITIONS + 1, 0).encode();
+
+    assertThrows(IllegalArgumentException.class, () -> HarvestResumptionToken.parse(token));
+    assertEquals(256, HarvestResumptionToken.parse(new HarvestResumptionToken(256, 0).encode()).partitions());
+  }
+}
@@ -0,0 +1,102 @@
+package org.folio.rest.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.vertx.core.Vertx;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class HridBlockCacheTest {
+
+  private static final String TENANT = "tenant";
+  private static final String SEQUENCE = "hrid_items_seq";
+  private static final String FORMATTER = "%s%011d";
+
+  @Test
+  void refill_returnsRequestedHridsAndCachesTheRest() {
+    var cache = new HridBlockCache(5, 60_000);
+
+    var hrids = cache.refill(TENANT, SEQUENCE, "it", FORMATTER, List.of(1L, 2L, 3L, 4L, 5L), 2);
+
+    assertEquals(List.of("it00000000001", "it00000000002"), hrids);
+    assertEquals(List.of("it00000000003", "it00000000004"), cache.take(TENANT, SEQUENCE, 2));
+    assertEquals(1, cache.getRefillsCount());
+    assertEquals(5, cache.getReservedValuesCount());
+    assertEquals(1, cache.getCacheHitsCount());
+  }
+
+  @Test
+  void logStatsPeriodically_startsOneTimerOnlyWhenBlocksAreUsed() {
+    var vertx = mock(Vertx.class);
+
+    new HridBlockCache(1, 60_000).logStatsPeriodically(vertx);
+    var cache = new HridBlockCache(5, 60_000);
+    cache.logStatsPeriodically(vertx);
+    cache.logStatsPeriodically(vertx);
+
+    verify(vertx, times(1)).setPeriodic(anyLong(), any());
+  }
+
+  @Test
+  void take_returnsEmptyListWhenBlockHasNotEnoughValues() {
+    var cache = new HridBlockCache(3, 60_000);
+    cache.refill(TENANT, SEQUENCE, "it", FORMATTER, List.of(1L, 2L, 3L), 1);
+
+    assertTrue(cache.take(TENANT, SEQUENCE, 3).isEmpty());
+    assertEquals(1, cache.getCacheMissesCount());
+  }
+
+  @Test
+  void refill_handsOutLeftoverValuesFirst() {
+    var cache = new HridBlockCache(3, 60_000);
+    cache.refill(TENANT, SEQUENCE, "it", FORMATTER, List.of(1L, 2L, 3L), 2);
+
+    var hrids = cache.refill(TENANT, SEQUENCE, "it", FORMATTER, List.of(4L, 5L, 6L), 2);
+
+    assertEquals(List.of("it00000000003", "it00000000004"), hrids);
+  }
+
+  @Test
+  void refill_dropsLeftoverValuesWhenPrefixChanged() {
+    var cache = new HridBlockCache(3, 60_000);
+    cache.refill(TENANT, SEQUENCE, "it", FORMATTER, List.of(1L, 2L, 3L), 1);
+
+    var hrids = cache.refill(TENANT, SEQUENCE, "item", "%s%d", List.of(10L, 11L, 12L), 1);
+
+    assertEquals(List.of("item10"), hrids);
+  }
+
+  @Test
+  void invalidate_dropsBlocksOfTenantOnly() {
+    var cache = new HridBlockCache(3, 60_000);
+    cache.refill(TENANT, SEQUENCE, "it", FORMATTER, List.of(1L, 2L, 3L), 1);
+    cache.refill("other", SEQUENCE, "it", FORMATTER, List.of(1L, 2L, 3L), 1);
+
+    cache.invalidate(TENANT);
+
+    assertTrue(cache.take(TENANT, SEQUENCE, 1).isEmpty());
+    assertEquals(List.of("it00000000002"), cache.take("other", SEQUENCE, 1));
+  }
+
+  @Test
+  void take_returnsEmptyListWhenBlockExpired() {
+    var cache = new HridBlockCache(3, -1);
+    cache.refill(TENANT, SEQUENCE, "it", FORMATTER, List.of(1L, 2L, 3L), 1);
+
+    assertTrue(cache.take(TENANT, SEQUENCE, 1).isEmpty());
+  }
+
+  @Test
+  void getReservationSize_isNotLessThanBlockSize() {
+    var cache = new HridBlockCache(100, 60_000);
+
+    assertEquals(100, cache.getReservationSize(1));
+    assertEquals(150, cache.getReservationSize(150));
+  }
+}
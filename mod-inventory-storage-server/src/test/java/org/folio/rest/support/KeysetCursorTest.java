@@ -0,0 +1,35 @@
+package org.folio.rest.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class KeysetCursorTest {
+
+  @Test
+  void parse_firstPage() {
+    assertTrue(KeysetCursor.parse(KeysetCursor.FIRST_PAGE).isFirstPage());
+  }
+
+  @Test
+  void encodeAndParse_keepsLastId() {
+    var id = UUID.randomUUID().toString();
+
+    var cursor = KeysetCursor.parse(new KeysetCursor(id).encode());
+
+    assertFalse(cursor.isFirstPage());
+    assertEquals(id, cursor.lastId());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", "not-base64!", "e30", "eyJpZCI6ImZvbyJ9"})
+  void parse_rejectsInvalidCursor(String token) {
+    assertThrows(IllegalArgumentException.class, () -> KeysetCursor.parse(token));
+  }
+}
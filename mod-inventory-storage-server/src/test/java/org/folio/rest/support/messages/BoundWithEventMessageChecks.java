@@ -37,6 +37,12 @@ public class BoundWithEventMessageChecks {
         addInstanceIdToBoundWith(boundWith, instanceId)));
   }
 
+  public void deletedMessagePublished(JsonObject boundWith, String instanceId) {
+    awaitAtMost().until(() -> kafkaConsumer.getMessagesForBoundWith(instanceId),
+      eventMessageMatchers.hasDeleteEventMessageFor(
+        addInstanceIdToBoundWith(boundWith, instanceId)));
+  }
+
   public void updatedMessagePublished(IndividualResource oldBoundWith,
                                       Response newBoundWith, UUID oldInstanceId, UUID newInstanceId) {
 
@@ -10,6 +10,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 import java.util.Random;
 import org.folio.rest.jaxrs.model.HoldingsRecord;
 import org.folio.rest.jaxrs.model.Item;
@@ -92,6 +94,21 @@ class CallNumberUtilsTest {
     assertThat(item.getEffectiveShelvingOrder(), is(desiredShelvingOrder));
   }
 
+  @Test
+  void shouldCalculateShelvingOrderOfItemList() {
+    var holdingsRecord = new HoldingsRecord().withCallNumber("PN2 .A6").withCallNumberTypeId(LC_CN_TYPE_ID);
+    var items = List.of(new Item().withVolume("v. 3"), new Item().withVolume("v. 3"), new Item(),
+      new Item().withItemLevelCallNumber("341.7/58 / 21").withItemLevelCallNumberTypeId(DEWEY_CN_TYPE_ID));
+    items.forEach(item -> EffectiveCallNumberComponentsUtil.setCallNumberComponents(item, holdingsRecord));
+
+    var result = EffectiveCallNumberComponentsUtil.calculateAndSetEffectiveShelvingOrder(items);
+
+    assertThat(result.stream().map(Item::getEffectiveShelvingOrder).toList(),
+      is(List.of("PN 12 A6 V 13", "PN 12 A6 V 13", "PN 12 A6", "3341.7 258 221")));
+    assertThat(CallNumberUtils.getShelfKeyFromCallNumber(LC_CN_TYPE_ID, "PN2 .A6 v. 3"),
+      is(Optional.of("PN 12 A6 V 13")));
+  }
+
   @Test
   void testSuDocSortingOrder() {
     var callNumbers = Arrays.asList(
@@ -0,0 +1,47 @@
+package org.folio.services;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+
+import org.folio.rest.persist.PostgresClient;
+import org.junit.jupiter.api.Test;
+
+class TenantComponentsTest {
+
+  private static final String TENANT_ID = "diku";
+
+  private final TenantComponents components = new TenantComponents();
+  private final PostgresClient postgresClient = mock(PostgresClient.class);
+
+  @Test
+  void shouldReuseComponentOfTenant() {
+    var first = components.get(TENANT_ID, postgresClient, StringBuilder.class, StringBuilder::new);
+    var second = components.get(TENANT_ID, postgresClient, StringBuilder.class, StringBuilder::new);
+
+    assertThat(second, is(sameInstance(first)));
+    assertThat(components.get("other", mock(PostgresClient.class), StringBuilder.class, StringBuilder::new),
+      is(not(sameInstance(first))));
+  }
+
+  @Test
+  void shouldRecreateComponentsWhenTenantClientIsReplaced() {
+    var first = components.get(TENANT_ID, postgresClient, StringBuilder.class, StringBuilder::new);
+
+    var second = components.get(TENANT_ID, mock(PostgresClient.class), StringBuilder.class, StringBuilder::new);
+
+    assertThat(second, is(not(sameInstance(first))));
+  }
+
+  @Test
+  void shouldCreateComponentThatDependsOnOtherComponent() {
+    var shared = components.getShared("builder", StringBuilder.class, StringBuilder::new);
+
+    var component = components.get(TENANT_ID, postgresClient, Object[].class, () -> new Object[] {
+      components.getShared("builder", StringBuilder.class, StringBuilder::new)});
+
+    assertThat(component[0], is(sameInstance(shared)));
+  }
+}
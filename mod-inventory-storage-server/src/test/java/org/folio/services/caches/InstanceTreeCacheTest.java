@@ -0,0 +1,80 @@
+package org.folio.services.caches;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import java.util.List;
+import org.folio.services.caches.InstanceTreeCache.InstanceTree;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class InstanceTreeCacheTest {
+
+  private static final String ENABLED_PARAM = "cache.instance-tree.enabled";
+  private static final String TENANT_ID = "diku";
+  private static final String INSTANCE_ID = "1b74ab75-9f41-4837-8662-a1d99118008d";
+  private static final String HOLDINGS_ID = "65cb2bf0-d4c2-4886-8ad0-b76f1ba75d61";
+
+  private InstanceTreeCache cache;
+
+  @BeforeEach
+  void setUp() {
+    System.setProperty(ENABLED_PARAM, "true");
+    cache = new InstanceTreeCache(mock(Vertx.class));
+  }
+
+  @AfterEach
+  void tearDown() {
+    System.clearProperty(ENABLED_PARAM);
+  }
+
+  @Test
+  void shouldReturnCachedTree() {
+    cache.putAll(TENANT_ID, cache.getGeneration(TENANT_ID), List.of(tree()));
+
+    var trees = cache.getAll(TENANT_ID, List.of(INSTANCE_ID));
+
+    assertThat(trees, aMapWithSize(1));
+    assertThat(new String(trees.get(INSTANCE_ID).holdingsRecords()), is("[{\"id\":\"" + HOLDINGS_ID + "\"}]"));
+    assertThat(cache.getAll("other", List.of(INSTANCE_ID)), aMapWithSize(0));
+  }
+
+  @Test
+  void shouldInvalidateTreeByHoldingsRecordId() {
+    cache.putAll(TENANT_ID, cache.getGeneration(TENANT_ID), List.of(tree()));
+
+    cache.invalidateHoldings(TENANT_ID, List.of(HOLDINGS_ID));
+
+    assertThat(cache.getAll(TENANT_ID, List.of(INSTANCE_ID)), aMapWithSize(0));
+  }
+
+  @Test
+  void shouldNotCacheTreeInvalidatedWhileLoaded() {
+    var generation = cache.getGeneration(TENANT_ID);
+    cache.invalidateInstances(TENANT_ID, List.of(INSTANCE_ID));
+
+    cache.putAll(TENANT_ID, generation, List.of(tree()));
+
+    assertThat(cache.getAll(TENANT_ID, List.of(INSTANCE_ID)), aMapWithSize(0));
+  }
+
+  @Test
+  void shouldBeDisabledWithoutContextCache() {
+    var disabled = InstanceTreeCache.from(mock(Context.class));
+
+    disabled.putAll(TENANT_ID, disabled.getGeneration(TENANT_ID), List.of(tree()));
+
+    assertThat(disabled.isEnabled(), is(false));
+    assertThat(disabled.getAll(TENANT_ID, List.of(INSTANCE_ID)), aMapWithSize(0));
+  }
+
+  private static InstanceTree tree() {
+    return new InstanceTree(INSTANCE_ID, "{\"id\":\"" + INSTANCE_ID + "\"}",
+      "[{\"id\":\"" + HOLDINGS_ID + "\"}]", "[]", List.of(HOLDINGS_ID));
+  }
+}
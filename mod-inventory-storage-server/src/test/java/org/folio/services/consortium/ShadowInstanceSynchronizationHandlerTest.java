@@ -38,6 +38,7 @@ import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
 import io.vertx.ext.web.client.HttpResponse;
 import io.vertx.kafka.client.consumer.impl.KafkaConsumerRecordImpl;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -52,6 +53,7 @@ import org.folio.rest.jaxrs.model.InstanceType;
 import org.folio.rest.support.Response;
 import org.folio.services.caches.ConsortiumData;
 import org.folio.services.caches.ConsortiumDataCache;
+import org.folio.services.caches.InstanceTreeCache;
 import org.folio.services.domainevent.DomainEvent;
 import org.folio.services.domainevent.DomainEventType;
 import org.folio.utility.ModuleUtility;
@@ -91,6 +93,8 @@ public class ShadowInstanceSynchronizationHandlerTest extends TestBase {
 
   @Mock
   private ConsortiumDataCache consortiaDataCache;
+  @Mock
+  private InstanceTreeCache instanceTreeCache;
   private ShadowInstanceSynchronizationHandler synchronizationHandler;
 
   @BeforeClass
@@ -105,7 +109,8 @@ public class ShadowInstanceSynchronizationHandlerTest extends TestBase {
     MockitoAnnotations.openMocks(this);
     clearData(instancesStorageUrl(""), TENANT_ID);
     synchronizationHandler =
-      new ShadowInstanceSynchronizationHandler(consortiaDataCache, vertx.createHttpClient(), vertx);
+      new ShadowInstanceSynchronizationHandler(consortiaDataCache, instanceTreeCache,
+        vertx.createHttpClient(), vertx);
 
     JsonObject sharingCollection = new JsonObject()
       .put(SHARING_INSTANCES_FIELD, JsonArray.of(new JsonObject()
@@ -147,6 +152,103 @@ public class ShadowInstanceSynchronizationHandlerTest extends TestBase {
         updatedShadowInstance -> context.assertEquals(sharedInstance.getTitle(), updatedShadowInstance.getTitle())));
   }
 
+  @Test
+  public void shouldInvalidateInstanceTreeOfUpdatedShadowInstance()
+    throws ExecutionException, InterruptedException, TimeoutException {
+    Instance shadowInstance = new Instance()
+      .withId(UUID.randomUUID().toString())
+      .withInstanceTypeId(INSTANCE_TYPE_ID)
+      .withTitle("test-title")
+      .withSource("CONSORTIUM-MARC");
+    Instance sharedInstance = new Instance()
+      .withId(shadowInstance.getId())
+      .withInstanceTypeId(INSTANCE_TYPE_ID)
+      .withTitle("test-title-updated")
+      .withSource("MARC");
+
+    createInstance(sharedInstance, CENTRAL_TENANT_ID);
+    createInstance(shadowInstance, TENANT_ID);
+
+    synchronizationHandler.handle(buildKafkaRecord(sharedInstance.getId(),
+        DomainEvent.updateEvent(sharedInstance, sharedInstance, CENTRAL_TENANT_ID)))
+      .toCompletionStage().toCompletableFuture().get(10, SECONDS);
+
+    Mockito.verify(instanceTreeCache).invalidateInstances(TENANT_ID, List.of(shadowInstance.getId()));
+  }
+
+  @Test
+  public void shouldCoalesceUpdatesOfSameInstanceAndCacheSharingLookup()
+    throws ExecutionException, InterruptedException, TimeoutException {
+    Instance shadowInstance = new Instance()
+      .withId(UUID.randomUUID().toString())
+      .withInstanceTypeId(INSTANCE_TYPE_ID)
+      .withTitle("test-title")
+      .withSource("CONSORTIUM-MARC");
+    Instance firstUpdate = new Instance()
+      .withId(shadowInstance.getId())
+      .withInstanceTypeId(INSTANCE_TYPE_ID)
+      .withTitle("test-title-first")
+      .withSource("MARC");
+    Instance secondUpdate = JsonObject.mapFrom(firstUpdate).mapTo(Instance.class).withTitle("test-title-second");
+
+    createInstance(firstUpdate, CENTRAL_TENANT_ID);
+    createInstance(shadowInstance, TENANT_ID);
+
+    var first = synchronizationHandler.handle(buildKafkaRecord(firstUpdate.getId(),
+      DomainEvent.updateEvent(firstUpdate, firstUpdate, CENTRAL_TENANT_ID)));
+    var second = synchronizationHandler.handle(buildKafkaRecord(secondUpdate.getId(),
+      DomainEvent.updateEvent(firstUpdate, secondUpdate, CENTRAL_TENANT_ID)));
+    Future.all(first, second).toCompletionStage().toCompletableFuture().get(10, SECONDS);
+
+    var updatedShadowInstance = getInstanceById(shadowInstance.getId(), TENANT_ID)
+      .toCompletionStage().toCompletableFuture().get(2, SECONDS);
+    assertThat(updatedShadowInstance.getTitle(), is(secondUpdate.getTitle()));
+
+    synchronizationHandler.handle(buildKafkaRecord(secondUpdate.getId(),
+        DomainEvent.updateEvent(secondUpdate, secondUpdate, CENTRAL_TENANT_ID)))
+      .toCompletionStage().toCompletableFuture().get(10, SECONDS);
+    verify(1, getRequestedFor(urlMatching(SHARING_JOBS_PATH + ".+" + shadowInstance.getId() + ".*")));
+  }
+
+  @Test
+  public void shouldLookUpSharingAgainWhenNoMemberTenantWasFound()
+    throws ExecutionException, InterruptedException, TimeoutException {
+    Instance shadowInstance = new Instance()
+      .withId(UUID.randomUUID().toString())
+      .withInstanceTypeId(INSTANCE_TYPE_ID)
+      .withTitle("test-title")
+      .withSource("CONSORTIUM-MARC");
+    Instance sharedInstance = new Instance()
+      .withId(shadowInstance.getId())
+      .withInstanceTypeId(INSTANCE_TYPE_ID)
+      .withTitle("test-title-updated")
+      .withSource("MARC");
+
+    createInstance(sharedInstance, CENTRAL_TENANT_ID);
+    createInstance(shadowInstance, TENANT_ID);
+    var sharingPath = new UrlPathPattern(new RegexPattern(SHARING_JOBS_PATH), true);
+    WireMock.stubFor(WireMock.get(sharingPath)
+      .willReturn(WireMock.ok().withBody(new JsonObject().put(SHARING_INSTANCES_FIELD, new JsonArray()).encode())));
+
+    var event = DomainEvent.updateEvent(sharedInstance, sharedInstance, CENTRAL_TENANT_ID);
+    synchronizationHandler.handle(buildKafkaRecord(sharedInstance.getId(), event))
+      .toCompletionStage().toCompletableFuture().get(10, SECONDS);
+
+    // the sharing is completed after the first lookup
+    WireMock.stubFor(WireMock.get(sharingPath)
+      .willReturn(WireMock.ok().withBody(new JsonObject().put(SHARING_INSTANCES_FIELD, JsonArray.of(new JsonObject()
+        .put(SOURCE_TENANT_ID_FIELD, CENTRAL_TENANT_ID)
+        .put(TARGET_TENANT_ID_FIELD, TENANT_ID)
+        .put(INSTANCE_IDENTIFIER_FIELD, sharedInstance.getId()))).encode())));
+    synchronizationHandler.handle(buildKafkaRecord(sharedInstance.getId(), event))
+      .toCompletionStage().toCompletableFuture().get(10, SECONDS);
+
+    var updatedShadowInstance = getInstanceById(shadowInstance.getId(), TENANT_ID)
+      .toCompletionStage().toCompletableFuture().get(2, SECONDS);
+    assertThat(updatedShadowInstance.getTitle(), is(sharedInstance.getTitle()));
+    verify(2, getRequestedFor(urlMatching(SHARING_JOBS_PATH + ".+" + shadowInstance.getId() + ".*")));
+  }
+
   @Test
   public void shouldNotUpdateShadowInstanceIfEventTypeIsNotUpdate(TestContext context) {
     Instance instance = new Instance()
@@ -0,0 +1,164 @@
+package org.folio.services.consortium;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class TenantWorkQueuesTest {
+
+  private final Vertx vertx = Vertx.vertx();
+
+  @AfterEach
+  void tearDown() {
+    vertx.close();
+  }
+
+  @Test
+  void slowTenantDoesNotBlockOtherTenants() {
+    var queues = new TenantWorkQueues(vertx, 10, 1, 1, 0);
+    Promise<Void> slowTask = Promise.promise();
+    var fastTaskRuns = new AtomicInteger();
+
+    queues.submit("slow", "1", "slow task", slowTask::future);
+    queues.submit("slow", "2", "queued task", Future::succeededFuture);
+    queues.submit("fast", "3", "fast task", () -> {
+      fastTaskRuns.incrementAndGet();
+      return Future.succeededFuture();
+    });
+
+    assertEquals(1, fastTaskRuns.get());
+    assertEquals(2, queues.size("slow"));
+    assertEquals(0, queues.size("fast"));
+
+    slowTask.complete();
+    assertEquals(0, queues.size("slow"));
+  }
+
+  @Test
+  void futureIsCompletedWithTaskOutcome() {
+    var queues = new TenantWorkQueues(vertx, 10, 1, 1, 0);
+    Promise<Void> runningTask = Promise.promise();
+
+    var running = queues.submit("tenant", "1", "running", runningTask::future).completed();
+    var queued = queues.submit("tenant", "2", "queued", Future::succeededFuture).completed();
+
+    assertFalse(running.isComplete());
+    assertFalse(queued.isComplete());
+
+    runningTask.complete();
+    assertTrue(running.succeeded());
+    assertTrue(queued.succeeded());
+  }
+
+  @Test
+  void failedTaskIsRetried() throws Exception {
+    var queues = new TenantWorkQueues(vertx, 10, 1, 3, 1);
+    var attempts = new AtomicInteger();
+    Promise<Void> done = Promise.promise();
+
+    queues.submit("tenant", "1", "flaky", () -> {
+      if (attempts.incrementAndGet() < 3) {
+        return Future.failedFuture("failure");
+      }
+      done.complete();
+      return Future.succeededFuture();
+    });
+
+    done.future().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    assertEquals(3, attempts.get());
+  }
+
+  @Test
+  void futureFailsAfterLastAttempt() throws Exception {
+    var queues = new TenantWorkQueues(vertx, 10, 1, 2, 1);
+    var attempts = new AtomicInteger();
+
+    var result = queues.submit("tenant", "1", "failing", () -> {
+      attempts.incrementAndGet();
+      return Future.failedFuture("failure");
+    }).completed();
+
+    var completed = result.transform(ar -> Future.succeededFuture(ar.failed()));
+    assertTrue(completed.toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS));
+    assertEquals(2, attempts.get());
+    assertEquals(0, queues.size("tenant"));
+  }
+
+  @Test
+  void tasksAreLimitedAcrossTenants() {
+    var queues = new TenantWorkQueues(vertx, 1, 1, 1, 0);
+    Promise<Void> firstTask = Promise.promise();
+    var secondTaskRuns = new AtomicInteger();
+
+    queues.submit("first", "1", "first task", firstTask::future);
+    var second = queues.submit("second", "2", "second task", () -> {
+      secondTaskRuns.incrementAndGet();
+      return Future.succeededFuture();
+    });
+
+    assertEquals(0, secondTaskRuns.get());
+    assertTrue(second.accepted().succeeded());
+
+    firstTask.complete();
+    assertEquals(1, secondTaskRuns.get());
+    assertTrue(second.completed().succeeded());
+  }
+
+  @Test
+  void tasksWithSameKeyRunOneAfterAnother() {
+    var queues = new TenantWorkQueues(vertx, 10, 10, 1, 0);
+    Promise<Void> olderTask = Promise.promise();
+    var newerTaskRuns = new AtomicInteger();
+
+    var older = queues.submit("tenant", "instance", "older", olderTask::future);
+    queues.submit("tenant", "instance", "newer", () -> {
+      newerTaskRuns.incrementAndGet();
+      return Future.succeededFuture();
+    });
+
+    assertFalse(older.accepted().isComplete());
+    assertEquals(0, newerTaskRuns.get());
+
+    olderTask.complete();
+    assertTrue(older.completed().succeeded());
+    assertEquals(1, newerTaskRuns.get());
+  }
+
+  @Test
+  void failedTaskIsNotRetriedAfterNewerTaskWithSameKey() throws Exception {
+    var queues = new TenantWorkQueues(vertx, 10, 10, 3, 1);
+    var applied = new ArrayList<String>();
+    var olderAttempts = new AtomicInteger();
+
+    // the older update fails once, its retry must not overwrite the newer update
+    var older = queues.submit("tenant", "instance", "older", () -> {
+      if (olderAttempts.incrementAndGet() == 1) {
+        return Future.failedFuture("failure");
+      }
+      applied.add("older");
+      return Future.succeededFuture();
+    });
+    assertTrue(older.accepted().succeeded());
+
+    var newer = queues.submit("tenant", "instance", "newer", () -> {
+      applied.add("newer");
+      return Future.succeededFuture();
+    });
+
+    newer.completed().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    older.completed().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    assertEquals(1, olderAttempts.get());
+    assertEquals(List.of("newer"), applied);
+    assertEquals(0, queues.size("tenant"));
+  }
+}
@@ -11,6 +11,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -18,12 +19,16 @@ import static org.mockito.Mockito.when;
 
 import io.vertx.core.Handler;
 import io.vertx.kafka.client.producer.KafkaProducer;
+import java.util.List;
 import java.util.Map;
 import org.apache.commons.collections4.map.CaseInsensitiveMap;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 import org.folio.kafka.KafkaProducerManager;
 import org.folio.kafka.services.KafkaProducerRecordBuilder;
 import org.folio.rest.api.entities.Instance;
 import org.folio.rest.support.sql.TestRowStream;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -34,6 +39,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 @RunWith(MockitoJUnitRunner.class)
 public class CommonDomainEventPublisherTest {
   private static final String TENANT_ID = "foo";
+  private static final String INSTANCE_BATCH_SIZE_PARAM = "domain-events.instance.batch.size";
 
   @Mock
   private KafkaProducer<String, String> producer;
@@ -50,6 +56,65 @@ public class CommonDomainEventPublisherTest {
       producerManager, failureHandler);
   }
 
+  @After
+  public void tearDown() {
+    System.clearProperty(INSTANCE_BATCH_SIZE_PARAM);
+  }
+
+  @Test
+  public void shouldPublishRecordsCreatedInBatchesWithSingleProducer() {
+    System.setProperty(INSTANCE_BATCH_SIZE_PARAM, "2");
+    var batchPublisher = new CommonDomainEventPublisher<Instance>(
+      new CaseInsensitiveMap<>(Map.of()), INSTANCE.fullTopicName(TENANT_ID),
+      producerManager, failureHandler);
+
+    when(producerManager.<String, String>createShared(any())).thenReturn(producer);
+    when(producer.send(any())).thenReturn(succeededFuture());
+    when(producer.flush()).thenReturn(succeededFuture());
+    when(producer.close()).thenReturn(succeededFuture());
+
+    get(batchPublisher.publishRecordsCreated(List.of(
+      Pair.of("1", new Instance()), Pair.of("2", new Instance()), Pair.of("3", new Instance()),
+      Pair.of("4", new Instance()), Pair.of("5", new Instance()))));
+
+    var order = inOrder(producer);
+    order.verify(producer, times(2)).send(any());
+    order.verify(producer).flush();
+    order.verify(producer, times(2)).send(any());
+    order.verify(producer).flush();
+    order.verify(producer).send(any());
+    order.verify(producer).flush();
+    order.verify(producer).close();
+    verify(producerManager, times(1)).createShared(any());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldPublishAllBatchesAndFailWhenSomeRecordsUpdatedEventsFailed() {
+    System.setProperty(INSTANCE_BATCH_SIZE_PARAM, "2");
+    var batchPublisher = new CommonDomainEventPublisher<Instance>(
+      new CaseInsensitiveMap<>(Map.of()), INSTANCE.fullTopicName(TENANT_ID),
+      producerManager, failureHandler);
+    var causeError = new IllegalArgumentException("error");
+
+    when(producerManager.<String, String>createShared(any())).thenReturn(producer);
+    when(producer.send(any()))
+      .thenReturn(failedFuture(causeError), succeededFuture(), succeededFuture(), failedFuture(causeError));
+    when(producer.flush()).thenReturn(succeededFuture());
+    when(producer.close()).thenReturn(succeededFuture());
+
+    var future = batchPublisher.publishRecordsUpdated(List.of(
+      Triple.of("1", new Instance(), new Instance()), Triple.of("2", new Instance(), new Instance()),
+      Triple.of("3", new Instance(), new Instance()), Triple.of("4", new Instance(), new Instance())));
+    await().until(future::isComplete);
+
+    assertThat(future.failed(), is(true));
+    verify(producer, times(4)).send(any());
+    verify(producer, times(2)).flush();
+    verify(producer, times(1)).close();
+    verify(failureHandler, times(2)).handleFailure(eq(causeError), any());
+  }
+
   @Test
   public void shouldPauseStreamWhenProducerIsFull() {
     var stream = spy(new TestRowStream(6));
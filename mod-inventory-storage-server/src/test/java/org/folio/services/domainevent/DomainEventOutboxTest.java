@@ -0,0 +1,89 @@
+package org.folio.services.domainevent;
+
+import static io.vertx.core.Future.succeededFuture;
+import static org.folio.rest.api.TestBase.get;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.RowSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.commons.collections4.map.CaseInsensitiveMap;
+import org.folio.persist.DomainEventOutboxRepository;
+import org.folio.rest.persist.Conn;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DomainEventOutboxTest {
+  private static final String TENANT_ID = "foo";
+  private static final String TOPIC = "folio.foo.inventory.instance";
+
+  @Mock
+  private Vertx vertx;
+  @Mock
+  private EventBus eventBus;
+  @Mock
+  private DomainEventOutboxRepository repository;
+  @Mock
+  private Conn conn;
+  private DomainEventOutbox outbox;
+
+  @Before
+  public void setUpOutbox() {
+    var okapiHeaders = new CaseInsensitiveMap<>(Map.of(
+      "x-okapi-tenant", TENANT_ID,
+      "x-okapi-url", "http://okapi:9130",
+      "x-okapi-token", "token"));
+    outbox = new DomainEventOutbox(vertx, okapiHeaders, repository);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldSaveEventsWithoutToken() {
+    var oldRecords = new LinkedHashMap<String, JsonObject>();
+    oldRecords.put("1", null);
+    oldRecords.put("2", new JsonObject().put("id", "2"));
+    when(repository.saveCreatedOrUpdated(any(), any(), any(), any(), any()))
+      .thenReturn(succeededFuture(mock(RowSet.class)));
+
+    get(outbox.saveCreatedOrUpdated(conn, "instance", TOPIC, oldRecords));
+
+    ArgumentCaptor<Map<String, String>> headersCaptor = ArgumentCaptor.forClass(Map.class);
+    verify(repository).saveCreatedOrUpdated(eq(conn), eq("instance"), eq(TOPIC), headersCaptor.capture(),
+      eq(oldRecords));
+    assertThat(headersCaptor.getValue(), hasEntry("x-okapi-tenant", TENANT_ID));
+    assertThat(headersCaptor.getValue(), hasEntry("x-okapi-url", "http://okapi:9130"));
+    assertThat(headersCaptor.getValue(), not(hasEntry("x-okapi-token", "token")));
+  }
+
+  @Test
+  public void shouldNotSaveAnythingWhenNoRecords() {
+    get(outbox.saveCreatedOrUpdated(conn, "instance", TOPIC, Map.<String, JsonObject>of()));
+
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  public void shouldNotifyRelayWithTenant() {
+    when(vertx.eventBus()).thenReturn(eventBus);
+
+    outbox.notifyRelay();
+
+    verify(eventBus).send(DomainEventOutbox.RELAY_ADDRESS, TENANT_ID);
+  }
+}
@@ -0,0 +1,74 @@
+package org.folio.services.holding;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.vertx.core.json.JsonObject;
+import java.util.List;
+import java.util.UUID;
+import org.folio.persist.HoldingsRepository;
+import org.folio.persist.ItemRepository;
+import org.folio.rest.jaxrs.model.HoldingsRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HoldingsUpsertSqlBuilderTest {
+
+  private HoldingsUpsertSqlBuilder builder;
+
+  @BeforeEach
+  void setUp() {
+    var holdingsRepository = mock(HoldingsRepository.class);
+    var itemRepository = mock(ItemRepository.class);
+    when(holdingsRepository.getFullTableName()).thenReturn("diku_mod_inventory_storage.holdings_record");
+    when(itemRepository.getFullTableName()).thenReturn("diku_mod_inventory_storage.item");
+    builder = new HoldingsUpsertSqlBuilder(holdingsRepository, itemRepository);
+  }
+
+  @Test
+  void buildUpsertSqlWithParams_passesRecordsAsTwoArrays() {
+    var holdings = List.of(holding(), holding(), holding());
+
+    var result = builder.buildUpsertSqlWithParams(holdings);
+
+    assertNull(result.getRight());
+    var params = result.getLeft().getRight();
+    assertEquals(2, params.size());
+    assertArrayEquals(holdings.stream().map(HoldingsRecord::getId).toArray(), (String[]) params.getValue(0));
+    var data = (String[]) params.getValue(1);
+    assertEquals(holdings.get(2).getHrid(), new JsonObject(data[2]).getString("hrid"));
+  }
+
+  @Test
+  void buildUpsertSqlWithParams_sameStatementForAnyBatchSize() {
+    var single = builder.buildUpsertSqlWithParams(List.of(holding()));
+    var batch = builder.buildUpsertSqlWithParams(List.of(holding(), holding(), holding(), holding()));
+
+    assertEquals(single.getLeft().getLeft(), batch.getLeft().getLeft());
+  }
+
+  @Test
+  void buildUpsertSqlWithParams_loadsItemsOnlyWhenItemFieldsChange() {
+    var sql = builder.buildUpsertSqlWithParams(List.of(holding())).getLeft().getLeft();
+
+    assertTrue(sql.contains("holdings.jsonb->>'callNumber' IS DISTINCT FROM upsert_data.data->>'callNumber'"));
+    assertTrue(sql.contains("holdings.jsonb->>'permanentLocationId' IS DISTINCT FROM "
+      + "upsert_data.data->>'permanentLocationId'"));
+  }
+
+  @Test
+  void buildAffectedItemsSql_selectsItemsOfGivenHoldings() {
+    var sql = builder.buildAffectedItemsSql();
+
+    assertEquals("SELECT jsonb::text FROM diku_mod_inventory_storage.item WHERE holdingsrecordid = ANY($1)", sql);
+  }
+
+  private static HoldingsRecord holding() {
+    var id = UUID.randomUUID().toString();
+    return new HoldingsRecord().withId(id).withHrid("ho" + id);
+  }
+}
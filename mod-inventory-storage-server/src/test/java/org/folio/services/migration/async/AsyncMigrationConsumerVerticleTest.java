@@ -0,0 +1,205 @@
+package org.folio.services.migration.async;
+
+import static org.folio.services.migration.async.AsyncMigrationsConsumerUtils.failAsyncMigrationsJobs;
+import static org.folio.services.migration.async.AsyncMigrationsConsumerUtils.processAsyncMigrationsRecords;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.kafka.client.consumer.KafkaConsumer;
+import io.vertx.kafka.client.consumer.KafkaConsumerRecords;
+import io.vertx.kafka.client.consumer.OffsetAndMetadata;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.folio.kafka.services.KafkaEnvironmentProperties;
+import org.folio.services.caches.InstanceTreeCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+
+class AsyncMigrationConsumerVerticleTest {
+
+  private static final String RETRY_ATTEMPTS_PARAM = "async-migration.consumer.retry.attempts";
+  private static final String RETRY_DELAY_PARAM = "async-migration.consumer.retry.delay.ms";
+  private static final String TOPIC = "test-env.diku.inventory.async-migration";
+  private static final TopicPartition PARTITION_0 = new TopicPartition(TOPIC, 0);
+  private static final TopicPartition PARTITION_1 = new TopicPartition(TOPIC, 1);
+  private static final long VERIFY_TIMEOUT_MS = 2000;
+
+  private Vertx vertx;
+  private KafkaConsumer<String, JsonObject> consumer;
+  private MockedStatic<AsyncMigrationsConsumerUtils> mockedUtils;
+  private MockedStatic<KafkaEnvironmentProperties> mockedKafkaEnvProperties;
+  private AsyncMigrationConsumerVerticle verticle;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    System.setProperty(RETRY_ATTEMPTS_PARAM, "2");
+    System.setProperty(RETRY_DELAY_PARAM, "1");
+    vertx = Vertx.vertx();
+    consumer = mock(KafkaConsumer.class);
+    when(consumer.subscribe(any(Pattern.class))).thenReturn(Future.succeededFuture());
+    when(consumer.commit(anyMap())).thenReturn(Future.succeededFuture());
+    when(consumer.seek(any(io.vertx.kafka.client.common.TopicPartition.class), anyLong()))
+      .thenReturn(Future.succeededFuture());
+    when(consumer.pause(any(io.vertx.kafka.client.common.TopicPartition.class)))
+      .thenReturn(Future.succeededFuture());
+    when(consumer.resume(any(io.vertx.kafka.client.common.TopicPartition.class)))
+      .thenReturn(Future.succeededFuture());
+    when(consumer.close()).thenReturn(Future.succeededFuture());
+
+    mockedUtils = mockStatic(AsyncMigrationsConsumerUtils.class);
+    mockedKafkaEnvProperties = mockStatic(KafkaEnvironmentProperties.class);
+    mockedKafkaEnvProperties.when(KafkaEnvironmentProperties::environment).thenReturn("test-env");
+
+    verticle = new AsyncMigrationConsumerVerticle(mock(InstanceTreeCache.class)) {
+      @Override
+      KafkaConsumer<String, JsonObject> createConsumer() {
+        return consumer;
+      }
+    };
+  }
+
+  @AfterEach
+  void tearDown() {
+    verticle.stop(Promise.promise());
+    mockedUtils.close();
+    mockedKafkaEnvProperties.close();
+    vertx.close();
+    System.clearProperty(RETRY_ATTEMPTS_PARAM);
+    System.clearProperty(RETRY_DELAY_PARAM);
+  }
+
+  @Test
+  void shouldRetryFailedRecordsAndCommitThemOnceProcessed() {
+    var records = List.of(consumerRecord(PARTITION_0, 5), consumerRecord(PARTITION_0, 6));
+    mockedUtils.when(() -> processAsyncMigrationsRecords(anyList(), any(), any()))
+      .thenReturn(Future.failedFuture("migration failed"), Future.succeededFuture());
+    mockPolls(Map.of(PARTITION_0, records), Map.of(PARTITION_0, records));
+
+    start();
+
+    var committed = captureCommit();
+    verify(consumer).seek(vertxPartition(PARTITION_0), 5);
+    verify(consumer).pause(vertxPartition(PARTITION_0));
+    verify(consumer, timeout(VERIFY_TIMEOUT_MS)).resume(vertxPartition(PARTITION_0));
+    assertThat(committed.getFirst().get(vertxPartition(PARTITION_0)).getOffset(), is(7L));
+    mockedUtils.verify(() -> processAsyncMigrationsRecords(eq(records), any(), any()), times(2));
+    mockedUtils.verify(() -> failAsyncMigrationsJobs(anyList(), any()), never());
+  }
+
+  @Test
+  void shouldFailJobsAndCommitRecordsAfterMaxAttempts() {
+    var records = List.of(consumerRecord(PARTITION_0, 5), consumerRecord(PARTITION_0, 6));
+    mockedUtils.when(() -> processAsyncMigrationsRecords(anyList(), any(), any()))
+      .thenReturn(Future.failedFuture("migration failed"));
+    mockPolls(Map.of(PARTITION_0, records), Map.of(PARTITION_0, records));
+
+    start();
+
+    var committed = captureCommit();
+    assertThat(committed.getFirst().get(vertxPartition(PARTITION_0)).getOffset(), is(7L));
+    verify(consumer, times(1)).seek(vertxPartition(PARTITION_0), 5);
+    mockedUtils.verify(() -> processAsyncMigrationsRecords(eq(records), any(), any()), times(2));
+    mockedUtils.verify(() -> failAsyncMigrationsJobs(eq(records), any()));
+  }
+
+  @Test
+  void shouldCommitOtherPartitionsWhenRecordsOfOnePartitionFail() {
+    var failingRecords = List.of(consumerRecord(PARTITION_0, 5));
+    var records = List.of(consumerRecord(PARTITION_1, 8), consumerRecord(PARTITION_1, 9));
+    mockedUtils.when(() -> processAsyncMigrationsRecords(eq(failingRecords), any(), any()))
+      .thenReturn(Future.failedFuture("migration failed"));
+    mockedUtils.when(() -> processAsyncMigrationsRecords(eq(records), any(), any()))
+      .thenReturn(Future.succeededFuture());
+    var polled = new LinkedHashMap<TopicPartition, List<ConsumerRecord<String, JsonObject>>>();
+    polled.put(PARTITION_0, failingRecords);
+    polled.put(PARTITION_1, records);
+    mockPolls(polled);
+
+    start();
+
+    var committed = captureCommit();
+    assertThat(committed.getFirst().keySet(), is(Set.of(vertxPartition(PARTITION_1))));
+    assertThat(committed.getFirst().get(vertxPartition(PARTITION_1)).getOffset(), is(10L));
+    verify(consumer).seek(vertxPartition(PARTITION_0), 5);
+    verify(consumer, never()).seek(eq(vertxPartition(PARTITION_1)), anyLong());
+    mockedUtils.verify(() -> failAsyncMigrationsJobs(anyList(), any()), never());
+  }
+
+  private void start() {
+    verticle.init(vertx, vertx.getOrCreateContext());
+    var started = Promise.<Void>promise();
+    verticle.start(started);
+    assertThat(started.future().succeeded(), is(true));
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Map<io.vertx.kafka.client.common.TopicPartition, OffsetAndMetadata>> captureCommit() {
+    ArgumentCaptor<Map<io.vertx.kafka.client.common.TopicPartition, OffsetAndMetadata>> captor =
+      ArgumentCaptor.forClass(Map.class);
+    verify(consumer, timeout(VERIFY_TIMEOUT_MS)).commit(captor.capture());
+    return captor.getAllValues();
+  }
+
+  /**
+   * Returns the records in the given order, a later poll doesn't complete.
+   */
+  @SafeVarargs
+  private void mockPolls(Map<TopicPartition, List<ConsumerRecord<String, JsonObject>>>... polls) {
+    var stub = when(consumer.poll(any(Duration.class)));
+    for (var poll : polls) {
+      stub = stub.thenReturn(Future.succeededFuture(polled(poll)));
+    }
+    stub.thenReturn(Promise.<KafkaConsumerRecords<String, JsonObject>>promise().future());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static KafkaConsumerRecords<String, JsonObject> polled(
+    Map<TopicPartition, List<ConsumerRecord<String, JsonObject>>> recordsByPartition) {
+    ConsumerRecords<String, JsonObject> records = mock(ConsumerRecords.class);
+    when(records.isEmpty()).thenReturn(recordsByPartition.isEmpty());
+    when(records.partitions()).thenReturn(new LinkedHashSet<>(recordsByPartition.keySet()));
+    recordsByPartition.forEach((partition, partitionRecords) ->
+      when(records.records(partition)).thenReturn(partitionRecords));
+    KafkaConsumerRecords<String, JsonObject> polled = mock(KafkaConsumerRecords.class);
+    when(polled.records()).thenReturn(records);
+    return polled;
+  }
+
+  private static ConsumerRecord<String, JsonObject> consumerRecord(TopicPartition partition, long offset) {
+    return new ConsumerRecord<>(partition.topic(), partition.partition(), offset, UUID.randomUUID().toString(),
+      new JsonObject());
+  }
+
+  private static io.vertx.kafka.client.common.TopicPartition vertxPartition(TopicPartition partition) {
+    return new io.vertx.kafka.client.common.TopicPartition(partition.topic(), partition.partition());
+  }
+}
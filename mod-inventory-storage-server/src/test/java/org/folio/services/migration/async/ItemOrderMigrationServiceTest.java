@@ -2,8 +2,10 @@ package org.folio.services.migration.async;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -11,46 +13,53 @@ import static org.mockito.Mockito.when;
 import io.vertx.core.Future;
 import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
 import java.util.Set;
 import org.folio.persist.ItemRepository;
 import org.folio.rest.persist.PostgresClient;
+import org.folio.services.caches.InstanceTreeCache;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 public class ItemOrderMigrationServiceTest {
 
   private PostgresClient postgresClient;
   private ItemRepository itemRepository;
+  private InstanceTreeCache instanceTreeCache;
   private ItemOrderMigrationService migrationService;
 
   @Before
   public void setUp() {
     postgresClient = mock(PostgresClient.class);
     itemRepository = mock(ItemRepository.class);
-    migrationService = new ItemOrderMigrationService(postgresClient, itemRepository);
+    instanceTreeCache = mock(InstanceTreeCache.class);
+    migrationService = new ItemOrderMigrationService(postgresClient, itemRepository, instanceTreeCache);
   }
 
   @Test
   public void testRunMigrationForIds() {
     Set<String> ids = Set.of("holdingsId1", "holdingsId2");
-    when(postgresClient.withTrans(any())).thenReturn(Future.succeededFuture());
+    RowSet<Row> mockRowSet = mock(RowSet.class);
+    when(itemRepository.getFullTableName()).thenReturn("diku_mod_inventory_storage.item");
+    when(postgresClient.getTenantId()).thenReturn("diku");
+    when(postgresClient.execute(anyString(), any(Tuple.class))).thenReturn(Future.succeededFuture(mockRowSet));
 
     Future<Void> result = migrationService.runMigrationForIds(ids);
 
     assertTrue(result.succeeded());
-    verify(postgresClient, times(ids.size())).withTrans(any());
+    var params = ArgumentCaptor.forClass(Tuple.class);
+    verify(postgresClient, times(1)).execute(anyString(), params.capture());
+    assertEquals(ids, Set.of((String[]) params.getValue().getValue(0)));
+    verify(instanceTreeCache).invalidateHoldings("diku", ids);
   }
 
   @Test
-  public void testProcessItemsForHoldings() {
-    String holdingsId = "holdingsId1";
-    RowSet<Row> mockRowSet = mock(RowSet.class);
-    when(postgresClient.withTrans(any())).thenReturn(Future.succeededFuture(mockRowSet));
-
-    Future<Void> result = migrationService.runMigrationForIds(Set.of(holdingsId));
+  public void testRunMigrationForNoIds() {
+    Future<Void> result = migrationService.runMigrationForIds(Set.of());
 
     assertTrue(result.succeeded());
-    verify(postgresClient).withTrans(any());
+    verify(postgresClient, never()).execute(anyString(), any(Tuple.class));
   }
 
   @Test
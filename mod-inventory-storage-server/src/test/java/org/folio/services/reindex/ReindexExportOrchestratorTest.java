@@ -6,6 +6,7 @@ import static org.folio.okapi.common.XOkapiHeaders.TENANT;
 import static org.folio.rest.api.TestBase.get;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
@@ -59,7 +60,7 @@ public class ReindexExportOrchestratorTest {
     orchestrator = new ReindexExportOrchestrator(vertxContext,
       new CaseInsensitiveMap<>(Map.of(TENANT, TENANT_ID)),
       postgresClient, s3Client, BUCKET, eventPublisher);
-    when(vertxContext.<Object>executeBlocking(any())).thenAnswer(inv -> {
+    when(vertxContext.<Object>executeBlocking(any(), anyBoolean())).thenAnswer(inv -> {
       try {
         return succeededFuture(inv.<java.util.concurrent.Callable<Object>>getArgument(0).call());
       } catch (Exception e) {
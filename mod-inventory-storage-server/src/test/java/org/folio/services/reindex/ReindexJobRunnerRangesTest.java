@@ -0,0 +1,33 @@
+package org.folio.services.reindex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class ReindexJobRunnerRangesTest {
+
+  @Test
+  void buildRanges_singleRangeCoversWholeKeySpace() {
+    var ranges = ReindexJobRunner.buildRanges(1);
+
+    assertEquals(1, ranges.size());
+    assertEquals("00000000-0000-0000-0000-000000000000", ranges.getFirst().getFrom());
+    assertNull(ranges.getFirst().getTo());
+  }
+
+  @Test
+  void buildRanges_rangesAreAdjacentAndOfEqualSize() {
+    var ranges = ReindexJobRunner.buildRanges(4);
+
+    assertEquals(4, ranges.size());
+    assertEquals("00000000-0000-0000-0000-000000000000", ranges.get(0).getFrom());
+    assertEquals("40000000-0000-0000-0000-000000000000", ranges.get(0).getTo());
+    assertEquals("40000000-0000-0000-0000-000000000000", ranges.get(1).getFrom());
+    assertEquals("80000000-0000-0000-0000-000000000000", ranges.get(1).getTo());
+    assertEquals("80000000-0000-0000-0000-000000000000", ranges.get(2).getFrom());
+    assertEquals("c0000000-0000-0000-0000-000000000000", ranges.get(2).getTo());
+    assertEquals("c0000000-0000-0000-0000-000000000000", ranges.get(3).getFrom());
+    assertNull(ranges.get(3).getTo());
+  }
+}
@@ -6,7 +6,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.folio.rest.api.TestBase.get;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -15,7 +17,15 @@ import static org.mockito.Mockito.when;
 
 import io.vertx.core.Context;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import lombok.SneakyThrows;
 import org.folio.rest.support.sql.TestRowStream;
 import org.folio.s3.client.FolioS3Client;
 import org.folio.s3.exception.S3ClientException;
@@ -45,7 +55,7 @@ public class ReindexS3ExportServiceTest {
     // 1-byte threshold forces a part upload after every row.
     // 5 retry attempts with 1ms base delay so transient-failure tests are fast.
     exportService = new ReindexS3ExportService(vertxContext, s3Client, 1L, 5, 1L);
-    when(vertxContext.<Object>executeBlocking(any())).thenAnswer(inv -> {
+    when(vertxContext.<Object>executeBlocking(any(), anyBoolean())).thenAnswer(inv -> {
       try {
         return succeededFuture(inv.<java.util.concurrent.Callable<Object>>getArgument(0).call());
       } catch (Exception e) {
@@ -112,6 +122,54 @@ public class ReindexS3ExportServiceTest {
     verify(s3Client, never()).abortMultipartUpload(any(), any());
   }
 
+  @Test
+  public void exportToS3_multipleRows_partsAreNumberedAndCompletedInOrder() {
+    var uploadedParts = new ArrayList<String>();
+    when(s3Client.initiateMultipartUpload(S3_KEY)).thenReturn(UPLOAD_ID);
+    when(s3Client.uploadMultipartPart(eq(S3_KEY), eq(UPLOAD_ID), anyInt(), any())).thenAnswer(inv -> {
+      int partNumber = inv.getArgument(2);
+      uploadedParts.add(Files.readString(Path.of(inv.<String>getArgument(3))));
+      return "etag-" + partNumber;
+    });
+
+    get(exportService.exportToS3(new TestRowStream(3), S3_KEY));
+
+    verify(s3Client).completeMultipartUpload(S3_KEY, UPLOAD_ID, List.of("etag-1", "etag-2", "etag-3"));
+    assertThat(uploadedParts).hasSize(3)
+      .allSatisfy(part -> assertThat(part).startsWith("{\"id\":\"").endsWith("\"}\n"));
+  }
+
+  @Test
+  public void exportToS3_gzip_partsFormSingleGzipStream() {
+    var gzipExportService = new ReindexS3ExportService(vertxContext, s3Client, 1L, 5, 1L, 2,
+      ReindexExportCodec.GZIP);
+    var uploadedBytes = new ByteArrayOutputStream();
+    when(s3Client.initiateMultipartUpload(S3_KEY)).thenReturn(UPLOAD_ID);
+    when(s3Client.uploadMultipartPart(eq(S3_KEY), eq(UPLOAD_ID), anyInt(), any())).thenAnswer(inv -> {
+      uploadedBytes.write(Files.readAllBytes(Path.of(inv.<String>getArgument(3))));
+      return ETAG;
+    });
+
+    get(gzipExportService.exportToS3(new TestRowStream(3), S3_KEY));
+
+    verify(s3Client).completeMultipartUpload(eq(S3_KEY), eq(UPLOAD_ID), any());
+    assertThat(gunzip(uploadedBytes.toByteArray()).split("\n")).hasSize(3)
+      .allSatisfy(line -> assertThat(line).startsWith("{\"id\":\""));
+  }
+
+  @Test
+  public void exportToS3_gzipNoRows_writesEmptyGzipFileViaSinglePut() {
+    var gzipExportService = new ReindexS3ExportService(vertxContext, s3Client, 1024L, 5, 1L, 2,
+      ReindexExportCodec.GZIP);
+    var streamCaptor = ArgumentCaptor.forClass(InputStream.class);
+
+    get(gzipExportService.exportToS3(new TestRowStream(0), S3_KEY));
+
+    verify(s3Client).write(eq(S3_KEY), streamCaptor.capture(), anyLong());
+    verify(s3Client, never()).initiateMultipartUpload(any());
+    assertThat(gunzip(readAll(streamCaptor.getValue()))).isEmpty();
+  }
+
   @Test
   public void exportToS3_initiateMultipartFails_futureFailsWithoutAbort() {
     var cause = new RuntimeException("S3 unavailable");
@@ -177,4 +235,16 @@ public class ReindexS3ExportServiceTest {
 
     verify(s3Client, times(1)).initiateMultipartUpload(S3_KEY);
   }
+
+  @SneakyThrows
+  private static byte[] readAll(InputStream inputStream) {
+    return inputStream.readAllBytes();
+  }
+
+  @SneakyThrows
+  private static String gunzip(byte[] bytes) {
+    try (var inputStream = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+      return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
 }
@@ -2,22 +2,28 @@ package org.folio.services.reindex;
 
 import static org.folio.rest.api.TestBase.get;
 import static org.folio.rest.jaxrs.model.ReindexJob.JobStatus.IDS_PUBLISHED;
+import static org.folio.rest.jaxrs.model.ReindexJob.JobStatus.ID_PUBLISHING_FAILED;
 import static org.folio.rest.jaxrs.model.ReindexJob.JobStatus.IN_PROGRESS;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.vertx.core.Future;
+import java.util.List;
 import java.util.UUID;
 import java.util.function.Function;
 import org.folio.persist.ReindexJobRepository;
+import org.folio.rest.exceptions.NotFoundException;
 import org.folio.rest.jaxrs.model.ReindexJob;
+import org.folio.rest.jaxrs.model.ReindexJobRange;
 import org.folio.rest.persist.Conn;
 import org.folio.rest.persist.PostgresClient;
 import org.junit.Test;
@@ -61,4 +67,62 @@ public class ReindexServiceTest {
 
     get(reindexService.cancelReindex(reindexJob.getId()));
   }
+
+  @Test
+  public void canResumeFailedJob() {
+    var reindexJob = new ReindexJob()
+      .withId(UUID.randomUUID().toString())
+      .withJobStatus(ID_PUBLISHING_FAILED)
+      .withRanges(List.of(new ReindexJobRange().withStatus(ReindexJobRange.Status.ID_PUBLISHING_FAILED)));
+    mockJobUpdate(reindexJob);
+
+    var resumedJob = get(reindexService.resumeReindex(reindexJob.getId()));
+
+    assertThat(resumedJob.getJobStatus(), is(IN_PROGRESS));
+    verify(runner, times(1)).resumeReindex(resumedJob);
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void cannotResumeFinishedJob() {
+    var reindexJob = new ReindexJob()
+      .withId(UUID.randomUUID().toString())
+      .withJobStatus(IDS_PUBLISHED)
+      .withRanges(List.of(new ReindexJobRange().withStatus(ReindexJobRange.Status.IDS_PUBLISHED)));
+    mockJobUpdate(reindexJob);
+
+    try {
+      get(reindexService.resumeReindex(reindexJob.getId()));
+    } finally {
+      verify(runner, never()).resumeReindex(any());
+    }
+  }
+
+  @Test
+  public void cannotResumeUnknownJob() {
+    var jobId = UUID.randomUUID().toString();
+    when(postgresClient.withTrans(any()))
+      .thenAnswer(invocationOnMock -> {
+        var function = invocationOnMock.<Function<Conn, Future<ReindexJob>>>getArgument(0);
+        return function.apply(connection);
+      });
+    when(connection.getByIdForUpdate(any(), eq(jobId), eq(ReindexJob.class)))
+      .thenReturn(Future.succeededFuture(null));
+
+    var result = reindexService.resumeReindex(jobId);
+
+    assertThat(result.cause(), instanceOf(NotFoundException.class));
+    verify(runner, never()).resumeReindex(any());
+  }
+
+  private void mockJobUpdate(ReindexJob reindexJob) {
+    when(postgresClient.withTrans(any()))
+      .thenAnswer(invocationOnMock -> {
+        var function = invocationOnMock.<Function<Conn, Future<ReindexJob>>>getArgument(0);
+        return function.apply(connection);
+      });
+    when(connection.getByIdForUpdate(any(), eq(reindexJob.getId()), eq(ReindexJob.class)))
+      .thenReturn(Future.succeededFuture(reindexJob));
+    when(connection.update(any(), any(), eq(reindexJob.getId())))
+      .thenReturn(Future.succeededFuture());
+  }
 }
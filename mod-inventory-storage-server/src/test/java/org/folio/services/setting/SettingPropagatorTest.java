@@ -0,0 +1,133 @@
+package org.folio.services.setting;
+
+import static org.folio.okapi.common.XOkapiHeaders.TENANT;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowIterator;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.folio.rest.jaxrs.model.Setting;
+import org.folio.rest.persist.PgUtil;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.services.domainevent.SettingEventPublisher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+class SettingPropagatorTest {
+
+  private static final String CENTRAL_TENANT_ID = "central";
+  private static final String MEMBER_TENANT_ID = "member";
+  private static final String FAILING_TENANT_ID = "failing";
+  private static final String FAILURE_MESSAGE = "tenant is not available";
+
+  private final Map<String, PostgresClient> postgresClients = new HashMap<>();
+  private MockedStatic<PgUtil> mockedPgUtil;
+  private Vertx vertx;
+  private SettingPropagator propagator;
+
+  @BeforeEach
+  void setUp() {
+    vertx = mock(Vertx.class);
+    var context = mock(Context.class);
+    when(context.owner()).thenReturn(vertx);
+    var publisher = mock(SettingEventPublisher.class);
+    when(publisher.publish(any(), anyString(), anyMap())).thenReturn(Future.succeededFuture());
+
+    mockedPgUtil = mockStatic(PgUtil.class);
+    mockedPgUtil.when(() -> PgUtil.postgresClient(any(Context.class), anyMap()))
+      .thenAnswer(invocation -> {
+        Map<String, String> headers = invocation.getArgument(1);
+        return postgresClients.get(headers.get(TENANT));
+      });
+    propagator = new SettingPropagator(context, publisher);
+  }
+
+  @AfterEach
+  void tearDown() {
+    mockedPgUtil.close();
+  }
+
+  @Test
+  void propagateShouldReportOutcomePerTenant() {
+    var setting = createSetting();
+    mockTenant(MEMBER_TENANT_ID, Future.succeededFuture(buildRowSet(setting)));
+    mockTenant(FAILING_TENANT_ID, Future.failedFuture(new IllegalStateException(FAILURE_MESSAGE)));
+
+    var result = propagator.propagate(setting, Map.of(TENANT, CENTRAL_TENANT_ID),
+      List.of(CENTRAL_TENANT_ID, MEMBER_TENANT_ID, FAILING_TENANT_ID), () -> Future.succeededFuture(setting));
+
+    assertThat(result.succeeded(), is(true));
+    var report = result.result();
+    assertThat(report.key(), is(setting.getKey()));
+    assertThat(report.hasFailures(), is(true));
+    assertThat(report.updatedTenants(), contains(MEMBER_TENANT_ID));
+    assertThat(report.failedTenants(), is(Map.of(FAILING_TENANT_ID, FAILURE_MESSAGE)));
+    verify(vertx).setTimer(anyLong(), any());
+  }
+
+  @Test
+  void propagateShouldReportNoFailuresWhenAllTenantsUpdated() {
+    var setting = createSetting();
+    mockTenant(MEMBER_TENANT_ID, Future.succeededFuture(buildRowSet(setting)));
+
+    var result = propagator.propagate(setting, Map.of(TENANT, CENTRAL_TENANT_ID),
+      List.of(MEMBER_TENANT_ID), () -> Future.succeededFuture(setting));
+
+    assertThat(result.succeeded(), is(true));
+    assertThat(result.result().hasFailures(), is(false));
+    assertThat(result.result().updatedTenants(), contains(MEMBER_TENANT_ID));
+    verify(vertx, never()).setTimer(anyLong(), any());
+  }
+
+  private void mockTenant(String tenantId, Future<RowSet<Row>> updateResult) {
+    var postgresClient = mock(PostgresClient.class);
+    when(postgresClient.getTenantId()).thenReturn(tenantId);
+    when(postgresClient.execute(anyString(), any(Tuple.class))).thenReturn(updateResult);
+    postgresClients.put(tenantId, postgresClient);
+  }
+
+  @SuppressWarnings("unchecked")
+  private RowSet<Row> buildRowSet(Setting setting) {
+    RowSet<Row> rowSet = mock(RowSet.class);
+    RowIterator<Row> iterator = mock(RowIterator.class);
+    var row = mock(Row.class);
+    when(rowSet.iterator()).thenReturn(iterator);
+    when(iterator.next()).thenReturn(row);
+    when(row.getUUID("id")).thenReturn(setting.getId());
+    when(row.getString("key")).thenReturn(setting.getKey());
+    when(row.getString("value")).thenReturn(setting.getValue());
+    when(row.getString("type")).thenReturn(setting.getType().name());
+    when(row.getBoolean("central_managed")).thenReturn(true);
+    return rowSet;
+  }
+
+  private Setting createSetting() {
+    return new Setting()
+      .withId(UUID.randomUUID())
+      .withKey("inventory.optimize-updates.enabled")
+      .withValue("true")
+      .withType(Setting.Type.BOOLEAN)
+      .withCentralManaged(true);
+  }
+}
@@ -6,11 +6,15 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockConstruction;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.vertx.core.Context;
@@ -27,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.folio.rest.exceptions.BadRequestException;
 import org.folio.rest.exceptions.NotFoundException;
 import org.folio.rest.exceptions.SettingsValidationException;
@@ -58,6 +63,7 @@ class SettingsServiceTest {
   private MockedStatic<PgUtil> mockedPgUtil;
   private MockedConstruction<SettingEventPublisher> mockedPublisherConstruction;
   private ConsortiumDataCache consortiumDataCache;
+  private Vertx vertx;
 
   @BeforeEach
   void setUp() {
@@ -66,7 +72,7 @@ class SettingsServiceTest {
     var context = mock(Context.class);
     var httpClient = mock(HttpClientAgent.class);
     consortiumDataCache = mock(ConsortiumDataCache.class);
-    var vertx = mock(Vertx.class);
+    vertx = mock(Vertx.class);
     when(context.owner()).thenReturn(vertx);
     when(vertx.createHttpClient()).thenReturn(httpClient);
     when(context.get(ConsortiumDataCache.class.getName())).thenReturn(consortiumDataCache);
@@ -171,6 +177,51 @@ class SettingsServiceTest {
     assertThat(result.succeeded(), is(true));
   }
 
+  @Test
+  void updateSettingShouldUpdateEachMemberSchemaOnce() {
+    var key = INVENTORY_OPTIMIZE_UPDATES_ENABLED.getValue();
+    var setting = createTestSetting(key, "false", Setting.Type.BOOLEAN);
+    setting.setCentralManaged(true);
+    okapiHeaders.put("X-Okapi-Tenant", CENTRAL_TENANT_ID);
+    setupQueryMock(setting);
+    when(consortiumDataCache.getConsortiumData(anyString(), anyMap()))
+      .thenReturn(Future.succeededFuture(Optional.of(new ConsortiumData(CENTRAL_TENANT_ID, CONSORTIUM_ID,
+        List.of(CENTRAL_TENANT_ID, MEMBER_TENANT_ID, MEMBER_TENANT_ID.toUpperCase())))));
+
+    var result = settingsService.updateSetting(key, true, okapiHeaders);
+
+    assertThat(result.succeeded(), is(true));
+    // select and update of the central tenant, update of the member tenant
+    verify(postgresClient, times(3)).execute(anyString(), any(Tuple.class));
+    verify(vertx, never()).setTimer(anyLong(), any());
+  }
+
+  @Test
+  void updateSettingShouldRetryFailedMemberTenantInBackground() {
+    var key = INVENTORY_OPTIMIZE_UPDATES_ENABLED.getValue();
+    var setting = createTestSetting(key, "false", Setting.Type.BOOLEAN);
+    setting.setCentralManaged(true);
+    okapiHeaders.put("X-Okapi-Tenant", CENTRAL_TENANT_ID);
+    var rowSet = buildRowSet(setting);
+    var updates = new AtomicInteger();
+    when(postgresClient.execute(anyString(), any(Tuple.class))).thenAnswer(invocation -> {
+      String sql = invocation.getArgument(0);
+      if (sql.trim().toUpperCase().startsWith("UPDATE") && updates.incrementAndGet() > 1) {
+        return Future.failedFuture(new IllegalStateException("member tenant is not available"));
+      }
+      return Future.succeededFuture(rowSet);
+    });
+    when(consortiumDataCache.getConsortiumData(anyString(), anyMap()))
+      .thenReturn(Future.succeededFuture(
+        Optional.of(new ConsortiumData(CENTRAL_TENANT_ID, CONSORTIUM_ID, List.of(MEMBER_TENANT_ID)))
+      ));
+
+    var result = settingsService.updateSetting(key, true, okapiHeaders);
+
+    assertThat(result.succeeded(), is(true));
+    verify(vertx).setTimer(anyLong(), any());
+  }
+
   @Test
   void updateSettingShouldFailForMemberTenant() {
     var key = INVENTORY_OPTIMIZE_UPDATES_ENABLED.getValue();
@@ -1,12 +1,18 @@
 package org.folio.utils;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Date;
 import java.util.Map;
+import org.folio.rest.jaxrs.model.Instance;
+import org.folio.rest.jaxrs.model.Item;
+import org.folio.rest.jaxrs.model.ItemStatus;
+import org.folio.rest.jaxrs.model.Metadata;
 import org.junit.jupiter.api.Test;
 
 class ComparisonUtilsTest {
@@ -34,6 +40,53 @@ class ComparisonUtilsTest {
     assertFalse(ComparisonUtils.equalsIgnoringMetadata(obj1, obj2));
   }
 
+  @Test
+  void testEqualsIgnoringMetadata_itemIgnoresStatusDateAndKeepsIt() throws JsonProcessingException {
+    var date1 = new Date(1);
+    var date2 = new Date(2);
+    var item1 = testItem("barcode").withMetadata(new Metadata().withCreatedByUserId("user1"));
+    var item2 = testItem("barcode");
+    item1.getStatus().setDate(date1);
+    item2.getStatus().setDate(date2);
+
+    assertTrue(ComparisonUtils.equalsIgnoringMetadata(item1, item2));
+    assertEquals(date1, item1.getStatus().getDate());
+    assertEquals(date2, item2.getStatus().getDate());
+    assertEquals("user1", item1.getMetadata().getCreatedByUserId());
+  }
+
+  @Test
+  void testEqualsIgnoringMetadata_itemWithChangedField() throws JsonProcessingException {
+    assertFalse(ComparisonUtils.equalsIgnoringMetadata(testItem("barcode1"), testItem("barcode2")));
+  }
+
+  @Test
+  void testIsUnchanged_ignoresVersionOnlyIfNotRequested() {
+    var stored = testItem("barcode").withVersion(3);
+
+    assertTrue(ComparisonUtils.isUnchanged(stored, testItem("barcode")));
+    assertTrue(ComparisonUtils.isUnchanged(stored, testItem("barcode").withVersion(-1)));
+    assertTrue(ComparisonUtils.isUnchanged(stored, testItem("barcode").withVersion(3)));
+    assertFalse(ComparisonUtils.isUnchanged(stored, testItem("barcode").withVersion(2)));
+    assertFalse(ComparisonUtils.isUnchanged(stored, testItem("other")));
+    assertEquals(3, stored.getVersion());
+  }
+
+  @Test
+  void testIsUnchanged_instanceIgnoresStatusUpdatedDate() {
+    var stored = new Instance().withId("id").withTitle("title").withStatusUpdatedDate("2020-01-01");
+    var incoming = new Instance().withId("id").withTitle("title").withStatusUpdatedDate("2026-01-01");
+
+    assertTrue(ComparisonUtils.isUnchanged(stored, incoming));
+    assertFalse(ComparisonUtils.isUnchanged(null, incoming));
+    assertEquals("2026-01-01", incoming.getStatusUpdatedDate());
+  }
+
+  private Item testItem(String barcode) {
+    return new Item().withId("id").withBarcode(barcode)
+      .withStatus(new ItemStatus().withName(ItemStatus.Name.AVAILABLE));
+  }
+
   private Map<String, Object> testMap(int fieldValue, int metadataValue) {
     return Map.of("field1", "value1",
     "field2", fieldValue,